@@ -1,11 +1,15 @@
 package towersim.aircraft;
 
+import towersim.jfr.EmergencyEvent;
 import towersim.tasks.Task;
 import towersim.tasks.TaskList;
 import towersim.tasks.TaskType;
+import towersim.util.EmergencyListener;
 import towersim.util.EmergencyState;
 import towersim.util.OccupancyLevel;
 import towersim.util.Tickable;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  *An abstract class for aircraft whose movement is managed by the system.
@@ -15,15 +19,30 @@ public abstract class Aircraft implements OccupancyLevel, Tickable, EmergencySta
     /** Weight of a litre of aviation fuel, in kilograms */
     public static final double LITRE_OF_FUEL_WEIGHT = 0.8;
 
+    /** Change flag set when the amount of fuel on board has changed */
+    public static final int FUEL_CHANGED = 1;
+
+    /** Change flag set when the passengers or freight on board have changed */
+    public static final int LOAD_CHANGED = 2;
+
+    /** Change flag set when the aircraft has moved to its next task */
+    public static final int TASK_CHANGED = 4;
+
+    /** Change flag set when an emergency has been declared or cleared */
+    public static final int EMERGENCY_CHANGED = 8;
+
     /** The task list to be used by aircraft */
     private TaskList tasks;
 
-    /** The unique callsign of the airplane */
-    private String callsign;
+    /** Id of the aircraft's unique callsign in the CallsignTable */
+    private final int callsignId;
 
-    /** Characteristics that describe aircraft, such as type, empty weight,
-     * fuel/passenger/weight capacity */
-    private AircraftCharacteristics characteristics;
+    /** Holder keeping the callsign's id in use, shared with every copy of the aircraft */
+    private final CallsignTable.Holder callsignHolder;
+
+    /** Id of the aircraft's model in the AircraftCatalog, which describes its type, empty
+     * weight, fuel/passenger/weight capacity */
+    private final int modelId;
 
     /** Current fuel amount in Litres */
     private double fuelAmount;
@@ -31,6 +50,27 @@ public abstract class Aircraft implements OccupancyLevel, Tickable, EmergencySta
     /** Whether the airplane is in emergency state. True if in emergency; otherwise false */
     private boolean inEmergencyState;
 
+    /** Change flags of the state changed since the flags were last cleared */
+    private int changes;
+
+    /** Listeners told whenever an emergency is declared or cleared; null until one is added */
+    private List<EmergencyListener> emergencyListeners;
+
+    /** Guard told before the aircraft changes; null if none */
+    private ChangeGuard changeGuard;
+
+    /** Percentage of fuel remaining, as last computed */
+    private int fuelPercent;
+
+    /** Total weight in kilograms, as last computed */
+    private double totalWeight;
+
+    /** Occupancy level as a percentage, as last computed */
+    private int occupancyLevel;
+
+    /** Whether fuel, load or task have changed since the derived values were last computed */
+    private boolean derivedStale;
+
     /**
      * Constructs a new aircraft
      * @param callsign unique callsign
@@ -43,22 +83,78 @@ public abstract class Aircraft implements OccupancyLevel, Tickable, EmergencySta
                        AircraftCharacteristics characteristics,
                        TaskList tasks,
                        double fuelAmount) {
+        this(callsign, characteristics.getModelId(), tasks, fuelAmount);
+    }
+
+    /**
+     * Constructs a new aircraft of a model in the AircraftCatalog
+     * @param callsign unique callsign
+     * @param modelId catalog id of the aircraft's model
+     * @param tasks task list to be used
+     * @param fuelAmount the current amount of fuel onboard
+     * @throws IllegalArgumentException if fuelAmount is negative or exceeds the fuel capacity
+     * @throws ArrayIndexOutOfBoundsException if there is no model with that id
+     */
+    protected Aircraft(String callsign,
+                       int modelId,
+                       TaskList tasks,
+                       double fuelAmount) {
+        if ((fuelAmount < 0) | (fuelAmount > AircraftCatalog.getFuelCapacity(modelId))) {
+            throw new IllegalArgumentException();
+        }
         inEmergencyState = false;
-        this.callsign = callsign;
-        this.characteristics = characteristics;
+        this.callsignHolder = CallsignTable.acquire(callsign);
+        this.callsignId = callsignHolder.id;
+        this.modelId = modelId;
         this.tasks = tasks;
         this.fuelAmount = fuelAmount;
-        if ((fuelAmount < 0) | (fuelAmount > characteristics.fuelCapacity)) {
-            throw new IllegalArgumentException();
+        this.changes = 0;
+        this.derivedStale = true;
+        if (tasks != null) {
+            tasks.addListener((previousTask, currentTask) -> markChanged(TASK_CHANGED));
         }
     }
 
+    /**
+     * Constructs a copy of the given aircraft with the same callsign, fuel and emergency
+     * state, using the given task list. Change flags are not copied.
+     * @param original aircraft to be copied
+     * @param tasks task list to be used by the copy
+     */
+    protected Aircraft(Aircraft original, TaskList tasks) {
+        this.inEmergencyState = original.inEmergencyState;
+        this.callsignHolder = original.callsignHolder;
+        this.callsignId = original.callsignId;
+        this.modelId = original.modelId;
+        this.tasks = tasks;
+        this.fuelAmount = original.fuelAmount;
+        this.changes = 0;
+        this.derivedStale = true;
+        tasks.addListener((previousTask, currentTask) -> markChanged(TASK_CHANGED));
+    }
+
+    /**
+     * Creates an independent copy of the aircraft in its current state, using the given task
+     * list, such as for simulating the aircraft without changing it.
+     * @param tasks task list to be used by the copy
+     * @return copy of the aircraft
+     */
+    public abstract Aircraft copy(TaskList tasks);
+
     /**
      * Get the callsign of the aircraft.
      * @return the airplane's callsign
      */
     public String getCallsign() {
-        return this.callsign;
+        return CallsignTable.getCallsign(callsignId);
+    }
+
+    /**
+     * Get the id of the aircraft's callsign in the CallsignTable.
+     * @return callsign id
+     */
+    public int getCallsignId() {
+        return callsignId;
     }
 
     /**
@@ -71,10 +167,27 @@ public abstract class Aircraft implements OccupancyLevel, Tickable, EmergencySta
 
     /**
      * Get the aircraft's characteristics (i.e. AIRBUS_A320)
-     * @return aircraft's characteristics
+     * @return aircraft's characteristics; null if its model was loaded into the catalog
+     * rather than predefined
      */
     public AircraftCharacteristics getCharacteristics() {
-        return this.characteristics;
+        return AircraftCatalog.getPredefined(modelId);
+    }
+
+    /**
+     * Get the id of the aircraft's model in the AircraftCatalog.
+     * @return catalog model id
+     */
+    public int getModelId() {
+        return modelId;
+    }
+
+    /**
+     * Get the type of the aircraft's model.
+     * @return type of aircraft
+     */
+    public AircraftType getAircraftType() {
+        return AircraftCatalog.getType(modelId);
     }
 
     /**
@@ -82,9 +195,10 @@ public abstract class Aircraft implements OccupancyLevel, Tickable, EmergencySta
      * @return the percentage of fuel remaining
      */
     public int getFuelPercentRemaining() {
-        double percentRemaining = (getFuelAmount() / characteristics.fuelCapacity)
-                * 100; //with decimals
-        return (int) Math.round(percentRemaining);
+        if (derivedStale) {
+            computeDerivedValues();
+        }
+        return fuelPercent;
     }
 
     /**
@@ -92,7 +206,48 @@ public abstract class Aircraft implements OccupancyLevel, Tickable, EmergencySta
      * @return the total weight of aircraft in kilograms
      */
     public double getTotalWeight() {
-        return this.characteristics.emptyWeight + getFuelAmount() * LITRE_OF_FUEL_WEIGHT;
+        if (derivedStale) {
+            computeDerivedValues();
+        }
+        return totalWeight;
+    }
+
+    /**
+     * Get the ratio of cargo on board to the aircraft's maximum cargo capacity as a
+     * percentage, rounded to the nearest percentage point.
+     * @return occupancy level as a percentage
+     */
+    public int calculateOccupancyLevel() {
+        if (derivedStale) {
+            computeDerivedValues();
+        }
+        return occupancyLevel;
+    }
+
+    /**
+     * Computes the total weight of the aircraft in its current state. Called only when fuel,
+     * load or task have changed since the weight was last computed.
+     * @return the total weight of aircraft in kilograms
+     */
+    protected double computeTotalWeight() {
+        return AircraftCatalog.getEmptyWeight(modelId) + getFuelAmount() * LITRE_OF_FUEL_WEIGHT;
+    }
+
+    /**
+     * Computes the occupancy level of the aircraft in its current state. Called only when
+     * fuel, load or task have changed since the level was last computed.
+     * @return occupancy level as a percentage
+     */
+    protected abstract int computeOccupancyLevel();
+
+    /** Recomputes the cached fuel percentage, total weight and occupancy level */
+    private void computeDerivedValues() {
+        double percentRemaining = (getFuelAmount() / AircraftCatalog.getFuelCapacity(modelId))
+                * 100; //with decimals
+        fuelPercent = (int) Math.round(percentRemaining);
+        totalWeight = computeTotalWeight();
+        occupancyLevel = computeOccupancyLevel();
+        derivedStale = false;
     }
 
     /**
@@ -104,34 +259,73 @@ public abstract class Aircraft implements OccupancyLevel, Tickable, EmergencySta
     }
 
     /**
-     * An abstract method to get the number ticks required to load the aircraft at gate.
+     * Get the number ticks required to load the aircraft at gate for its current task.
      * @return the number of ticks required to load the aircraft
      */
-    public abstract int getLoadingTime();
+    public int getLoadingTime() {
+        return getLoadingTime(tasks.getCurrentTask().getLoadPercent());
+    }
+
+    /**
+     * An abstract method to get the number of ticks required to load the aircraft at gate
+     * to the given percentage of its capacity.
+     * @param loadPercent percentage of maximum capacity to load
+     * @return the number of ticks required to load the aircraft
+     */
+    public abstract int getLoadingTime(int loadPercent);
 
     /**
      * Updates aircraft's state on each tick of simulation
      */
     public void tick() {
+        guardChange();
         // The for step in tick, the answer is rounded to the nearest integer
+        double fuelBefore = fuelAmount;
+        double fuelCapacity = AircraftCatalog.getFuelCapacity(modelId);
         Task currentTask = tasks.getCurrentTask();
         if (currentTask.getType().equals(TaskType.AWAY)) {
-            double fuelReduced = (double) characteristics.fuelCapacity * 0.1;
+            double fuelReduced = fuelCapacity * 0.1;
             fuelAmount -= Math.round(fuelReduced);
             if (fuelAmount < 0) {
                 fuelAmount = 0;
             }
         } else if (currentTask.getType().equals(TaskType.LOAD)) {
             int loadingTime = this.getLoadingTime();
-            double fuelLoaded = (double) characteristics.fuelCapacity / loadingTime;
+            double fuelLoaded = fuelCapacity / loadingTime;
             fuelAmount += Math.round(fuelLoaded);
         }
         // in case if refuelling results fuel onboard exceeding max fuel capacity
-        if (fuelAmount > characteristics.fuelCapacity) {
-            fuelAmount = characteristics.fuelCapacity;
+        if (fuelAmount > fuelCapacity) {
+            fuelAmount = fuelCapacity;
+        }
+        if (fuelAmount != fuelBefore) {
+            markChanged(FUEL_CHANGED);
         }
     }
 
+    /**
+     * Get the state that has changed since the change flags were last cleared.
+     * @return combination of FUEL_CHANGED, LOAD_CHANGED, TASK_CHANGED and EMERGENCY_CHANGED
+     */
+    public int getChanges() {
+        return changes;
+    }
+
+    /** Clears all change flags, such as after the changes have been published */
+    public void clearChanges() {
+        changes = 0;
+    }
+
+    /**
+     * Records that some of the aircraft's state has changed, so the cached fuel percentage,
+     * total weight and occupancy level are recomputed when next asked for.
+     * @param flags change flags to be set
+     */
+    protected void markChanged(int flags) {
+        changes |= flags;
+        derivedStale = true;
+    }
+
     /**
      * Return a human-readable string representation of the aircraft.
      * @return string representation of the aircraft object
@@ -139,23 +333,82 @@ public abstract class Aircraft implements OccupancyLevel, Tickable, EmergencySta
     @Override
     public String toString() {
         if (inEmergencyState == true) {
-            return characteristics.type + " " + callsign + " " + characteristics + " "
-                    + tasks.getCurrentTask() + " (EMERGENCY)";
+            return getAircraftType() + " " + getCallsign() + " " + AircraftCatalog.getName(modelId)
+                    + " " + tasks.getCurrentTask() + " (EMERGENCY)";
         }
-        return characteristics.type + " " + callsign + " " + characteristics + " "
-                + tasks.getCurrentTask();
+        return getAircraftType() + " " + getCallsign() + " " + AircraftCatalog.getName(modelId)
+                + " " + tasks.getCurrentTask();
     }
 
     /** Clears any active emergency
      */
     public void clearEmergency() {
+        if (inEmergencyState) {
+            guardChange();
+        }
+        boolean cleared = inEmergencyState;
         this.inEmergencyState = false;
+        if (cleared) {
+            changes |= EMERGENCY_CHANGED;
+            EmergencyEvent.record(this, false);
+            notifyEmergencyListeners();
+        }
     }
 
     /** Declares a state of emergency
      */
     public void declareEmergency() {
+        if (!inEmergencyState) {
+            guardChange();
+        }
+        boolean declared = !inEmergencyState;
         this.inEmergencyState = true;
+        if (declared) {
+            changes |= EMERGENCY_CHANGED;
+            EmergencyEvent.record(this, true);
+            notifyEmergencyListeners();
+        }
+    }
+
+    /**
+     * Adds a listener to be told whenever an emergency is declared or cleared on the aircraft.
+     * Listeners are not copied to copies of the aircraft.
+     * @param listener listener to be added
+     */
+    public void addEmergencyListener(EmergencyListener listener) {
+        if (emergencyListeners == null) {
+            emergencyListeners = new ArrayList<>(1);
+        }
+        emergencyListeners.add(listener);
+    }
+
+    /**
+     * Sets the guard to be told just before the aircraft's fuel, load, task or emergency
+     * changes, replacing any guard set before. The guard is not copied to copies of the
+     * aircraft.
+     * @param changeGuard guard to be told, or null for none
+     */
+    public void setChangeGuard(ChangeGuard changeGuard) {
+        if (this.changeGuard == null && changeGuard != null && tasks != null) {
+            tasks.addBeforeMoveListener((currentTask, nextTask) -> guardChange());
+        }
+        this.changeGuard = changeGuard;
+    }
+
+    /** Tells the guard, if any, that the aircraft is about to change */
+    protected void guardChange() {
+        if (changeGuard != null) {
+            changeGuard.beforeChange(this);
+        }
+    }
+
+    /** Tells every emergency listener that an emergency has been declared or cleared */
+    private void notifyEmergencyListeners() {
+        if (emergencyListeners != null) {
+            for (int i = 0; i < emergencyListeners.size(); i++) {
+                emergencyListeners.get(i).emergencyChanged(this);
+            }
+        }
     }
 
     /** Tell whether or not there is an active state of emergency
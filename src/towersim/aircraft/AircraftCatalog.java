@@ -0,0 +1,313 @@
+package towersim.aircraft;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog of every aircraft model known to the simulation, stored in packed primitive tables
+ * indexed by a dense integer model id. The models of AircraftCharacteristics are predefined,
+ * with their ordinals as ids; further models can be loaded from a file, usually at startup,
+ * without any code change.
+ * <p>
+ * A catalog file has one model per line, as comma-separated name, aircraft type, empty
+ * weight, fuel capacity, passenger capacity and freight capacity, for example
+ * {@code AIRBUS_A321,AIRPLANE,48500,32940,190,0}. Blank lines and lines starting with # are
+ * ignored.
+ * <p>
+ * Lookups read the tables without locking. Models are only ever added, each time by
+ * publishing a new set of tables, so ids stay valid and readers always see complete tables.
+ */
+public final class AircraftCatalog {
+    /** Aircraft types, indexed by ordinal */
+    private static final AircraftType[] TYPES = AircraftType.values();
+
+    /** Predefined models, indexed by model id */
+    private static final AircraftCharacteristics[] PREDEFINED = AircraftCharacteristics.values();
+
+    /** Current tables, replaced whenever models are added */
+    private static volatile Tables tables = predefinedTables();
+
+    private AircraftCatalog() {
+    }
+
+    /**
+     * Get the number of models in the catalog; model ids run from 0 to one less.
+     * @return number of models
+     */
+    public static int size() {
+        return tables.size;
+    }
+
+    /**
+     * Get the id of the model with the given name.
+     * @param name name of the model
+     * @return model id; -1 if there is no model of that name
+     */
+    public static int idOf(String name) {
+        Integer id = tables.ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Get the name of the given model.
+     * @param modelId model id
+     * @return name of the model
+     * @throws ArrayIndexOutOfBoundsException if there is no model with that id
+     */
+    public static String getName(int modelId) {
+        return tables.names[modelId];
+    }
+
+    /**
+     * Get the type of the given model.
+     * @param modelId model id
+     * @return type of aircraft
+     * @throws ArrayIndexOutOfBoundsException if there is no model with that id
+     */
+    public static AircraftType getType(int modelId) {
+        return TYPES[tables.types[modelId]];
+    }
+
+    /**
+     * Get the weight of the given model with no load or fuel.
+     * @param modelId model id
+     * @return empty weight in kilograms
+     * @throws ArrayIndexOutOfBoundsException if there is no model with that id
+     */
+    public static int getEmptyWeight(int modelId) {
+        return tables.emptyWeights[modelId];
+    }
+
+    /**
+     * Get the maximum amount of fuel the given model can carry.
+     * @param modelId model id
+     * @return fuel capacity in litres
+     * @throws ArrayIndexOutOfBoundsException if there is no model with that id
+     */
+    public static double getFuelCapacity(int modelId) {
+        return tables.fuelCapacities[modelId];
+    }
+
+    /**
+     * Get the maximum number of passengers the given model can carry.
+     * @param modelId model id
+     * @return passenger capacity
+     * @throws ArrayIndexOutOfBoundsException if there is no model with that id
+     */
+    public static int getPassengerCapacity(int modelId) {
+        return tables.passengerCapacities[modelId];
+    }
+
+    /**
+     * Get the maximum amount of freight the given model can carry.
+     * @param modelId model id
+     * @return freight capacity in kilograms
+     * @throws ArrayIndexOutOfBoundsException if there is no model with that id
+     */
+    public static int getFreightCapacity(int modelId) {
+        return tables.freightCapacities[modelId];
+    }
+
+    /**
+     * Get the predefined model with the given id.
+     * @param modelId model id
+     * @return predefined model; null if the model was added to the catalog
+     */
+    public static AircraftCharacteristics getPredefined(int modelId) {
+        return modelId >= 0 && modelId < PREDEFINED.length ? PREDEFINED[modelId] : null;
+    }
+
+    /**
+     * Adds a model to the catalog.
+     * @param name unique name of the model
+     * @param type type of aircraft
+     * @param emptyWeight weight with no load or fuel, in kilograms
+     * @param fuelCapacity maximum amount of fuel, in litres
+     * @param passengerCapacity maximum number of passengers
+     * @param freightCapacity maximum amount of freight, in kilograms
+     * @return id of the new model
+     * @throws IllegalArgumentException if a model of that name exists, fuelCapacity is not
+     * positive, or any other quantity is negative
+     */
+    public static synchronized int register(String name, AircraftType type, int emptyWeight,
+                                            double fuelCapacity, int passengerCapacity,
+                                            int freightCapacity) {
+        Tables next = tables.copy(tables.size + 1);
+        int id = next.add(name, type, emptyWeight, fuelCapacity, passengerCapacity,
+                freightCapacity);
+        tables = next;
+        return id;
+    }
+
+    /**
+     * Adds every model in the given catalog file. Models of the same name and values as a
+     * model already in the catalog, such as a predefined model, are skipped. Either every new
+     * model is added or, if the file cannot be read or is malformed, none is.
+     * @param file catalog file to be loaded
+     * @return number of models added
+     * @throws IOException if the file cannot be read, is malformed, or redefines a model
+     */
+    public static int load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Adds every model read from the given reader, as for load(Path).
+     * @param reader reader of a catalog file
+     * @return number of models added
+     * @throws IOException if the catalog cannot be read, is malformed, or redefines a model
+     */
+    public static synchronized int load(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        List<String[]> models = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length != 6) {
+                throw new IOException("line " + lineNumber + ": expected 6 fields");
+            }
+            models.add(fields);
+        }
+        Tables next = tables.copy(tables.size + models.size());
+        int added = 0;
+        for (int i = 0; i < models.size(); i++) {
+            String[] fields = models.get(i);
+            try {
+                String name = fields[0].trim();
+                AircraftType type = AircraftType.valueOf(fields[1].trim());
+                int emptyWeight = Integer.parseInt(fields[2].trim());
+                double fuelCapacity = Double.parseDouble(fields[3].trim());
+                int passengerCapacity = Integer.parseInt(fields[4].trim());
+                int freightCapacity = Integer.parseInt(fields[5].trim());
+                Integer existing = next.ids.get(name);
+                if (existing != null && next.matches(existing, type, emptyWeight, fuelCapacity,
+                        passengerCapacity, freightCapacity)) {
+                    continue;
+                }
+                next.add(name, type, emptyWeight, fuelCapacity, passengerCapacity,
+                        freightCapacity);
+                added++;
+            } catch (IllegalArgumentException e) {
+                throw new IOException("model " + (i + 1) + " (" + fields[0].trim() + "): "
+                        + e.getMessage(), e);
+            }
+        }
+        // trim, so that every table is exactly as long as the number of models
+        tables = next.copy(next.size);
+        return added;
+    }
+
+    /** Builds the tables holding only the predefined models */
+    private static Tables predefinedTables() {
+        Tables predefined = new Tables(PREDEFINED.length);
+        for (AircraftCharacteristics model : PREDEFINED) {
+            predefined.add(model.name(), model.type, model.emptyWeight, model.fuelCapacity,
+                    model.passengerCapacity, model.freightCapacity);
+        }
+        return predefined;
+    }
+
+    /**
+     * Packed columns of every model, never changed once published. Published tables are
+     * exactly as long as the number of models, so an unknown id fails the array bounds check.
+     */
+    private static class Tables {
+        /** Number of models stored */
+        private int size;
+
+        /** Name of every model */
+        private String[] names;
+
+        /** Ordinal of the AircraftType of every model */
+        private byte[] types;
+
+        /** Empty weight of every model, in kilograms */
+        private int[] emptyWeights;
+
+        /** Fuel capacity of every model, in litres */
+        private double[] fuelCapacities;
+
+        /** Passenger capacity of every model */
+        private int[] passengerCapacities;
+
+        /** Freight capacity of every model, in kilograms */
+        private int[] freightCapacities;
+
+        /** Id of every model, keyed by name */
+        private Map<String, Integer> ids;
+
+        private Tables(int capacity) {
+            size = 0;
+            names = new String[capacity];
+            types = new byte[capacity];
+            emptyWeights = new int[capacity];
+            fuelCapacities = new double[capacity];
+            passengerCapacities = new int[capacity];
+            freightCapacities = new int[capacity];
+            ids = new HashMap<>();
+        }
+
+        /** Get a copy of the tables with room for the given number of models */
+        private Tables copy(int capacity) {
+            Tables copy = new Tables(0);
+            copy.size = size;
+            copy.names = Arrays.copyOf(names, capacity);
+            copy.types = Arrays.copyOf(types, capacity);
+            copy.emptyWeights = Arrays.copyOf(emptyWeights, capacity);
+            copy.fuelCapacities = Arrays.copyOf(fuelCapacities, capacity);
+            copy.passengerCapacities = Arrays.copyOf(passengerCapacities, capacity);
+            copy.freightCapacities = Arrays.copyOf(freightCapacities, capacity);
+            copy.ids = new HashMap<>(ids);
+            return copy;
+        }
+
+        /** Checks whether the given model has the given values */
+        private boolean matches(int id, AircraftType type, int emptyWeight,
+                                double fuelCapacity, int passengerCapacity,
+                                int freightCapacity) {
+            return types[id] == type.ordinal() && emptyWeights[id] == emptyWeight
+                    && fuelCapacities[id] == fuelCapacity
+                    && passengerCapacities[id] == passengerCapacity
+                    && freightCapacities[id] == freightCapacity;
+        }
+
+        /** Appends a model, which the tables must have room for, and returns its id */
+        private int add(String name, AircraftType type, int emptyWeight, double fuelCapacity,
+                        int passengerCapacity, int freightCapacity) {
+            if (name.isEmpty() || ids.containsKey(name)) {
+                throw new IllegalArgumentException("duplicate or empty name");
+            }
+            if (!(fuelCapacity > 0) || emptyWeight < 0 || passengerCapacity < 0
+                    || freightCapacity < 0) {
+                throw new IllegalArgumentException("invalid capacity");
+            }
+            int id = size;
+            names[id] = name;
+            types[id] = (byte) type.ordinal();
+            emptyWeights[id] = emptyWeight;
+            fuelCapacities[id] = fuelCapacity;
+            passengerCapacities[id] = passengerCapacity;
+            freightCapacities[id] = freightCapacity;
+            ids.put(name, id);
+            size++;
+            return id;
+        }
+    }
+}
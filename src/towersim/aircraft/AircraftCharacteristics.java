@@ -45,6 +45,15 @@ public enum AircraftCharacteristics {
         this.freightCapacity = freightCapacity;
 
     }
+
+    /**
+     * Get the id of the model in the AircraftCatalog, where every predefined model is entered
+     * with its ordinal as its id.
+     * @return catalog model id
+     */
+    public int getModelId() {
+        return ordinal();
+    }
 }
 
 
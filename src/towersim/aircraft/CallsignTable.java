@@ -0,0 +1,191 @@
+package towersim.aircraft;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Symbol table of every callsign known to the simulation, mapping each distinct callsign to a
+ * dense integer id in the order callsigns are first seen. Aircraft hold their callsign's id
+ * rather than their own string, so all aircraft with the same callsign, such as copies of one
+ * aircraft in forked towers, share a single string, and indexes can refer to aircraft by id in
+ * plain int arrays.
+ * <p>
+ * Lookups read the table without locking: ids are kept in a concurrent map, and the array of
+ * callsigns is only replaced when it grows, after its new entry is written. Only adding and
+ * releasing callsigns lock the table.
+ * <p>
+ * A callsign interned for aircraft is released once every aircraft holding it, including
+ * copies, has been garbage collected, so a long simulation creating aircraft with ever new
+ * callsigns does not keep them all. All aircraft with a callsign share one Holder, which is
+ * the only object registered to be cleaned, so tracking costs one reference per aircraft and
+ * one registration per live callsign. Released ids are handed out again before new ones, so
+ * the table, and any array indexed by id, only grows to the most callsigns live at once. An
+ * id is therefore only meaningful while an aircraft holding it is reachable. Callsigns
+ * interned directly with intern() are kept for good.
+ */
+public final class CallsignTable {
+    /** Id standing for no callsign, such as in an index entry for an empty gate */
+    public static final int NONE = -1;
+
+    /** Initial number of callsigns the table has room for */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** Releases the id of each holder once it has been garbage collected */
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /** Id of every callsign currently interned */
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    /** Holders of callsigns interned directly, which are never released */
+    private static final List<Holder> PINNED = new ArrayList<>();
+
+    /** Callsign of every id, with released ids and unused entries at the end null */
+    private static volatile String[] callsigns = new String[INITIAL_CAPACITY];
+
+    /** Weak reference to the holder of each id in use; guarded by the class lock */
+    private static WeakReference<?>[] holders = new WeakReference<?>[INITIAL_CAPACITY];
+
+    /** Released ids waiting to be handed out again; guarded by the class lock */
+    private static int[] freeIds = new int[INITIAL_CAPACITY];
+
+    /** Number of released ids waiting to be handed out again */
+    private static int numFree;
+
+    /** Number of ids handed out at least once */
+    private static volatile int size;
+
+    private CallsignTable() {
+    }
+
+    /**
+     * Get the id of the given callsign, assigning it an id if it is not currently interned.
+     * The callsign is kept for as long as the program runs.
+     * @param callsign callsign to be interned
+     * @return id of the callsign
+     */
+    public static synchronized int intern(String callsign) {
+        Holder holder = holderLocked(callsign);
+        if (!holder.pinned) {
+            // never released, as the caller's use of the id is not tracked
+            holder.pinned = true;
+            PINNED.add(holder);
+        }
+        return holder.id;
+    }
+
+    /**
+     * Get the holder of the given callsign for a new aircraft, assigning the callsign an id if
+     * it is not currently interned. The callsign is kept until the holder, and so every
+     * aircraft sharing it, has been garbage collected.
+     * @param callsign callsign of the aircraft
+     * @return holder of the callsign's id
+     */
+    static synchronized Holder acquire(String callsign) {
+        return holderLocked(callsign);
+    }
+
+    /** Get the live holder of the given callsign, assigning it an id if it is not interned */
+    private static Holder holderLocked(String callsign) {
+        Integer existing = IDS.get(callsign);
+        if (existing != null) {
+            Holder holder = (Holder) holders[existing].get();
+            if (holder != null) {
+                return holder;
+            }
+            // collected but not cleaned yet: the stale release is ignored
+            return newHolder(existing);
+        }
+        String[] table = callsigns;
+        int id;
+        if (numFree > 0) {
+            id = freeIds[--numFree];
+        } else {
+            id = size;
+            if (id == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+                holders = Arrays.copyOf(holders, table.length);
+            }
+        }
+        table[id] = callsign;
+        // publish the entry before its id can be handed out
+        callsigns = table;
+        if (id == size) {
+            size = id + 1;
+        }
+        IDS.put(callsign, id);
+        return newHolder(id);
+    }
+
+    /** Creates the holder of the given id and registers it to release the id when collected */
+    private static Holder newHolder(int id) {
+        Holder holder = new Holder(id);
+        WeakReference<Holder> reference = new WeakReference<>(holder);
+        holders[id] = reference;
+        CLEANER.register(holder, () -> release(id, reference));
+        return holder;
+    }
+
+    /** Releases the given id, unless it has been given a new holder since */
+    private static synchronized void release(int id, WeakReference<Holder> reference) {
+        if (holders[id] != reference) {
+            return;
+        }
+        holders[id] = null;
+        IDS.remove(callsigns[id], id);
+        callsigns[id] = null;
+        if (numFree == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[numFree++] = id;
+    }
+
+    /**
+     * Get the id of the given callsign without interning it.
+     * @param callsign callsign to look up
+     * @return id of the callsign; NONE if it is not currently interned
+     */
+    public static int idOf(String callsign) {
+        Integer id = IDS.get(callsign);
+        return id == null ? NONE : id;
+    }
+
+    /**
+     * Get the callsign with the given id.
+     * @param id id returned by intern()
+     * @return callsign with that id; null if it has been released
+     * @throws ArrayIndexOutOfBoundsException if the id is negative or beyond the table
+     */
+    public static String getCallsign(int id) {
+        return callsigns[id];
+    }
+
+    /**
+     * Get the number of ids handed out at least once, including released ones; ids run from
+     * zero to one less than this.
+     * @return number of ids
+     */
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * Shared by every aircraft with the same callsign, keeping the callsign's id from being
+     * released for as long as any of them is reachable.
+     */
+    static final class Holder {
+        /** Id of the callsign held */
+        final int id;
+
+        /** Whether the callsign was interned directly and is never released */
+        private boolean pinned;
+
+        private Holder(int id) {
+            this.id = id;
+        }
+    }
+}
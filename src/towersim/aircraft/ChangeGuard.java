@@ -0,0 +1,13 @@
+package towersim.aircraft;
+
+/**
+ * Denotes a class that is told just before an aircraft's fuel, load, task or emergency
+ * changes, such as to keep a copy of the state the aircraft had until then.
+ */
+public interface ChangeGuard {
+    /**
+     * Method called before the given aircraft is changed, while it still has its old state.
+     * @param aircraft aircraft about to change
+     */
+    void beforeChange(Aircraft aircraft);
+}
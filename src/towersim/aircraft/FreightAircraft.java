@@ -27,29 +27,75 @@ public class FreightAircraft extends Aircraft {
                            TaskList tasks,
                            double fuelAmount,
                            int freightAmount) {
-        super(callsign, characteristics, tasks, fuelAmount);
+        this(callsign, characteristics.getModelId(), tasks, fuelAmount, freightAmount);
+    }
+
+    /**
+     * Constructs a new freight aircraft of a model in the AircraftCatalog
+     * @param callsign unique callsign
+     * @param modelId catalog id of the aircraft's model
+     * @param tasks task list to be used
+     * @param fuelAmount the current amount of fuel onboard
+     * @param freightAmount the current amount of freight onboard in kilograms
+     * @throws IllegalArgumentException if freight amount is less than zero or exceeds
+     * freight capacity
+     * @throws ArrayIndexOutOfBoundsException if there is no model with that id
+     */
+    public FreightAircraft(String callsign,
+                           int modelId,
+                           TaskList tasks,
+                           double fuelAmount,
+                           int freightAmount) {
+        super(callsign, modelId, tasks, fuelAmount);
         this.freightAmount = freightAmount;
-        if ((freightAmount < 0) | (freightAmount > characteristics.freightCapacity)) {
+        if ((freightAmount < 0)
+                | (freightAmount > AircraftCatalog.getFreightCapacity(modelId))) {
             throw new IllegalArgumentException();
         }
     }
 
     /**
-     * Get the total weight of the aircraft (empty weight plus fuel weight plus freight weight).
+     * Constructs a copy of the given freight aircraft using the given task list
+     * @param original aircraft to be copied
+     * @param tasks task list to be used by the copy
+     */
+    private FreightAircraft(FreightAircraft original, TaskList tasks) {
+        super(original, tasks);
+        this.freightAmount = original.freightAmount;
+    }
+
+    @Override
+    public Aircraft copy(TaskList tasks) {
+        return new FreightAircraft(this, tasks);
+    }
+
+    /**
+     * Get the amount of freight on board.
+     * @return amount of freight in kilograms
+     */
+    public double getFreightAmount() {
+        return freightAmount;
+    }
+
+    /**
+     * Computes the total weight of the aircraft (empty weight plus fuel weight plus freight
+     * weight).
      * @return the total weight of aircraft in kilograms
      */
-    public double getTotalWeight() {
-        return getCharacteristics().emptyWeight + getFuelAmount() * LITRE_OF_FUEL_WEIGHT
-                + this.freightAmount;
+    @Override
+    protected double computeTotalWeight() {
+        return AircraftCatalog.getEmptyWeight(getModelId())
+                + getFuelAmount() * LITRE_OF_FUEL_WEIGHT + this.freightAmount;
     }
 
     /**
      * Get the number of ticks required to load aircraft at the gate.
+     * @param loadPercent percentage of maximum freight capacity to load
      * @return the number of ticks required to load the aircraft at the gate
      */
-    public int getLoadingTime() {
-        double freightToLoadDecimal = (double) getCharacteristics().freightCapacity
-                * (getTaskList().getCurrentTask().getLoadPercent());
+    public int getLoadingTime(int loadPercent) {
+        double freightToLoadDecimal =
+                (double) AircraftCatalog.getFreightCapacity(getModelId()) * loadPercent;
         freightToLoadDecimal = (double) freightToLoadDecimal / 100;
         int freightToLoad = (int) Math.round(freightToLoadDecimal);
         int ticks = 0;
@@ -64,17 +110,18 @@ public class FreightAircraft extends Aircraft {
     }
 
     /**
-     * Return the ratio of cargo onboard to maximum available freight capacity as percentage,
+     * Computes the ratio of cargo onboard to maximum available freight capacity as percentage,
      * rounded to the nearest percentage point.
      * @return occupancy level as percentage */
-    public int calculateOccupancyLevel() {
+    @Override
+    protected int computeOccupancyLevel() {
+        int freightCapacity = AircraftCatalog.getFreightCapacity(getModelId());
         //in case of when capacity == 0
-        if (getCharacteristics().freightCapacity == 0) {
+        if (freightCapacity == 0) {
             return 0;
         }
 
-        double occupancyLevelDecimal = (double) (freightAmount * 100)
-                / getCharacteristics().freightCapacity;
+        double occupancyLevelDecimal = (double) (freightAmount * 100) / freightCapacity;
 
         return (int) Math.round(occupancyLevelDecimal);
     }
@@ -87,11 +134,15 @@ public class FreightAircraft extends Aircraft {
         // call tick() method in super for refueling/burning fuel
         super.tick();
         Task currentTask = getTaskList().getCurrentTask();
-        double freightToLoadWithDecimal = getCharacteristics().freightCapacity
+        double freightToLoadWithDecimal = AircraftCatalog.getFreightCapacity(getModelId())
                 * (getTaskList().getCurrentTask().getLoadPercent());
         double freightToLoad = Math.round(freightToLoadWithDecimal) / 100;
         if (currentTask.getType().equals(TaskType.LOAD)) {
+            double freightBefore = freightAmount;
             this.freightAmount += freightToLoad / this.getLoadingTime();
+            if (freightAmount != freightBefore) {
+                markChanged(LOAD_CHANGED);
+            }
         }
     }
 
@@ -1,6 +1,5 @@
 package towersim.aircraft;
 
-import org.w3c.dom.ls.LSOutput;
 import towersim.tasks.Task;
 import towersim.tasks.TaskList;
 import towersim.tasks.TaskType;
@@ -32,35 +31,76 @@ public class PassengerAircraft extends Aircraft {
      */
     public PassengerAircraft(String callsign, AircraftCharacteristics characteristics,
                              TaskList tasks, double fuelAmount, int numPassengers) {
-        super(callsign, characteristics, tasks, fuelAmount);
+        this(callsign, characteristics.getModelId(), tasks, fuelAmount, numPassengers);
+    }
+
+    /**
+     * Constructs a new passenger aircraft of a model in the AircraftCatalog
+     * @param callsign represents unique callsign
+     * @param modelId catalog id of the aircraft's model
+     * @param tasks represent a task list to be used by the aircraft
+     * @param fuelAmount represents the current amount of fuel onboard
+     * @param numPassengers represents the current number of passengers onboard
+     * @throws IllegalArgumentException if number of passengers is negative or
+     * exceeds passenger capacity
+     * @throws ArrayIndexOutOfBoundsException if there is no model with that id
+     */
+    public PassengerAircraft(String callsign, int modelId, TaskList tasks, double fuelAmount,
+                             int numPassengers) {
+        super(callsign, modelId, tasks, fuelAmount);
         this.numPassengers = numPassengers;
-        if ((numPassengers < 0) | (numPassengers > characteristics.passengerCapacity)) {
+        if ((numPassengers < 0)
+                | (numPassengers > AircraftCatalog.getPassengerCapacity(modelId))) {
             throw new IllegalArgumentException();
         }
     }
 
     /**
-     * Get the ratio of passengers on board to maximum passenger capacity as percentage.
+     * Constructs a copy of the given passenger aircraft using the given task list
+     * @param original aircraft to be copied
+     * @param tasks task list to be used by the copy
+     */
+    private PassengerAircraft(PassengerAircraft original, TaskList tasks) {
+        super(original, tasks);
+        this.numPassengers = original.numPassengers;
+    }
+
+    @Override
+    public Aircraft copy(TaskList tasks) {
+        return new PassengerAircraft(this, tasks);
+    }
+
+    /**
+     * Get the number of passengers on board.
+     * @return number of passengers
+     */
+    public int getNumPassengers() {
+        return numPassengers;
+    }
+
+    /**
+     * Computes the ratio of passengers on board to maximum passenger capacity as percentage.
      * @return Occupancy level as a percentage
      */
-    public int calculateOccupancyLevel() {
+    @Override
+    protected int computeOccupancyLevel() {
+        int passengerCapacity = AircraftCatalog.getPassengerCapacity(getModelId());
         // in case of passengerCapacity == 0
-        if (getCharacteristics().passengerCapacity == 0) {
+        if (passengerCapacity == 0) {
             return 0;
         }
-        double occupancyLevelDecimal = (double) (numPassengers * 100)
-                / getCharacteristics().passengerCapacity;
+        double occupancyLevelDecimal = (double) (numPassengers * 100) / passengerCapacity;
         return (int) Math.round(occupancyLevelDecimal);
     }
 
     /**
      * Get the number of ticks required to load aircraft at the gate.
+     * @param loadPercent percentage of maximum passenger capacity to load
      * @return Number of ticks required to load aircraft at gate
      */
-    public int getLoadingTime() {
-        int loadPercent = this.getTaskList().getCurrentTask().getLoadPercent();
+    public int getLoadingTime(int loadPercent) {
         double numPassengersToLoad = (double) (loadPercent)
-                * getCharacteristics().passengerCapacity;
+                * AircraftCatalog.getPassengerCapacity(getModelId());
         double  loadingTimeDecimal = (double) Math.log10(numPassengersToLoad / 100);
         int loadingTime = (int) Math.round(loadingTimeDecimal);
         if (loadingTime == 0) {
@@ -70,14 +110,14 @@ public class PassengerAircraft extends Aircraft {
     }
 
     /**
-     * Get the total weight of aircraft in its current state (includes aircraft's empty weight,
-     * fuel weight, passenger weight)
+     * Computes the total weight of aircraft in its current state (includes aircraft's empty
+     * weight, fuel weight, passenger weight)
      * @return Total weight of aircraft in kilograms
      */
     @Override
-    public double getTotalWeight() {
-        return getCharacteristics().emptyWeight + getFuelAmount() * LITRE_OF_FUEL_WEIGHT
-                + numPassengers * AVG_PASSENGER_WEIGHT;
+    protected double computeTotalWeight() {
+        return AircraftCatalog.getEmptyWeight(getModelId())
+                + getFuelAmount() * LITRE_OF_FUEL_WEIGHT + numPassengers * AVG_PASSENGER_WEIGHT;
     }
 
     /**
@@ -91,13 +131,18 @@ public class PassengerAircraft extends Aircraft {
         int loadingTime = getLoadingTime();
         //calculate passenger to load for one tick
         if (currentTask.getType() == TaskType.LOAD) {
-            double passengerToLoad = getCharacteristics().passengerCapacity
+            int passengerCapacity = AircraftCatalog.getPassengerCapacity(getModelId());
+            double passengerToLoad = passengerCapacity
                     * (getTaskList().getCurrentTask().getLoadPercent());
             int passengerToLoadPerTick = (int) Math.round(passengerToLoad
                     / (this.getLoadingTime() * 100));
+            int passengersBefore = numPassengers;
             this.numPassengers += passengerToLoadPerTick;
-            if (numPassengers > getCharacteristics().passengerCapacity) {
-                numPassengers = getCharacteristics().passengerCapacity;
+            if (numPassengers > passengerCapacity) {
+                numPassengers = passengerCapacity;
+            }
+            if (numPassengers != passengersBefore) {
+                markChanged(LOAD_CHANGED);
             }
         }
     }
@@ -0,0 +1,60 @@
+package towersim.aircraft;
+
+/**
+ * Represents the wake turbulence categories used to separate aircraft on a runway.
+ * Categories follow ICAO maximum take-off weight limits.
+ */
+public enum WakeCategory {
+    /** Maximum take-off weight of 7,000 kilograms or less. */
+    LIGHT,
+
+    /** Maximum take-off weight between 7,000 and 136,000 kilograms. */
+    MEDIUM,
+
+    /** Maximum take-off weight of 136,000 kilograms or more. */
+    HEAVY;
+
+    /** Heaviest maximum take-off weight of a light aircraft, in kilograms */
+    public static final double LIGHT_MAX_WEIGHT = 7000;
+
+    /** Lightest maximum take-off weight of a heavy aircraft, in kilograms */
+    public static final double HEAVY_MIN_WEIGHT = 136000;
+
+    /**
+     * Get the wake category for the given maximum take-off weight.
+     * @param maxWeight maximum take-off weight in kilograms
+     * @return wake category
+     */
+    public static WakeCategory forMaxWeight(double maxWeight) {
+        if (maxWeight <= LIGHT_MAX_WEIGHT) {
+            return LIGHT;
+        } else if (maxWeight < HEAVY_MIN_WEIGHT) {
+            return MEDIUM;
+        }
+        return HEAVY;
+    }
+
+    /**
+     * Get the wake category of the given aircraft model, taking its maximum take-off weight to
+     * be its empty weight with full fuel, passenger and freight loads.
+     * @param characteristics aircraft model
+     * @return wake category of the model
+     */
+    public static WakeCategory of(AircraftCharacteristics characteristics) {
+        return ofModel(characteristics.getModelId());
+    }
+
+    /**
+     * Get the wake category of the given model in the AircraftCatalog, taking its maximum
+     * take-off weight to be its empty weight with full fuel, passenger and freight loads.
+     * @param modelId catalog model id
+     * @return wake category of the model
+     */
+    public static WakeCategory ofModel(int modelId) {
+        return forMaxWeight(AircraftCatalog.getEmptyWeight(modelId)
+                + AircraftCatalog.getFuelCapacity(modelId) * Aircraft.LITRE_OF_FUEL_WEIGHT
+                + AircraftCatalog.getPassengerCapacity(modelId)
+                * PassengerAircraft.AVG_PASSENGER_WEIGHT
+                + AircraftCatalog.getFreightCapacity(modelId));
+    }
+}
@@ -0,0 +1,74 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.tasks.TaskType;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups aircraft by the type of their current task. Each group keeps the order in which
+ * aircraft joined it, so processing a group is deterministic.
+ */
+public class AircraftPartition {
+    /** Aircraft grouped by the type of their current task */
+    private final Map<TaskType, Set<Aircraft>> aircraftByTask;
+
+    /** Read-only views of each group */
+    private final Map<TaskType, Set<Aircraft>> views;
+
+    /** Creates a new partition with no aircraft */
+    public AircraftPartition() {
+        aircraftByTask = new EnumMap<>(TaskType.class);
+        views = new EnumMap<>(TaskType.class);
+        for (TaskType type : TaskType.values()) {
+            Set<Aircraft> group = new LinkedHashSet<>();
+            aircraftByTask.put(type, group);
+            views.put(type, Collections.unmodifiableSet(group));
+        }
+    }
+
+    /**
+     * Adds the given aircraft to the group of its current task type.
+     * @param aircraft aircraft to be added
+     */
+    public void add(Aircraft aircraft) {
+        aircraftByTask.get(aircraft.getTaskList().getCurrentTask().getType()).add(aircraft);
+    }
+
+    /**
+     * Moves the given aircraft between groups after it has changed task.
+     * @param aircraft aircraft that has changed task
+     * @param previousType type of the task the aircraft was on
+     * @param currentType type of the task the aircraft is now on
+     */
+    public void move(Aircraft aircraft, TaskType previousType, TaskType currentType) {
+        if (previousType == currentType) {
+            return;
+        }
+        if (aircraftByTask.get(previousType).remove(aircraft)) {
+            aircraftByTask.get(currentType).add(aircraft);
+        }
+    }
+
+    /**
+     * Get the aircraft whose current task is of the given type. The returned set is a read-only
+     * view that reflects later changes to the partition, so no copy is made.
+     * @param type task type
+     * @return aircraft currently on a task of that type
+     */
+    public Set<Aircraft> getAircraft(TaskType type) {
+        return views.get(type);
+    }
+
+    /**
+     * Get the number of aircraft whose current task is of the given type.
+     * @param type task type
+     * @return number of aircraft
+     */
+    public int count(TaskType type) {
+        return aircraftByTask.get(type).size();
+    }
+}
@@ -0,0 +1,53 @@
+package towersim.control;
+
+import towersim.ground.Terminal;
+import towersim.ground.TerminalLayout;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable layout of an airport's terminals and gates, from which any number of fresh control
+ * towers can be created, such as one per run of a scenario sweep. Creating a tower takes time
+ * proportional to the number of terminals, not gates: every terminal starts out sharing its
+ * gate numbers and empty occupancy with the template, and only allocates its own gates and
+ * occupancy once they are used. Templates may be shared between threads.
+ */
+public final class AirportTemplate {
+    /** Layout of every terminal, in the order they were added to the tower */
+    private final List<TerminalLayout> terminals;
+
+    /**
+     * Creates a template copying the layout of the given terminals. Aircraft parked at the
+     * terminals and emergency states are not copied.
+     * @param terminals terminals to be copied, such as those of an existing control tower
+     */
+    public AirportTemplate(List<Terminal> terminals) {
+        List<TerminalLayout> layouts = new ArrayList<>(terminals.size());
+        for (Terminal terminal : terminals) {
+            layouts.add(new TerminalLayout(terminal));
+        }
+        this.terminals = Collections.unmodifiableList(layouts);
+    }
+
+    /**
+     * Get the layout of every terminal in the template.
+     * @return read-only list of terminal layouts
+     */
+    public List<TerminalLayout> getTerminals() {
+        return terminals;
+    }
+
+    /**
+     * Creates a new control tower with an empty terminal for every layout in the template and
+     * no aircraft.
+     * @return new control tower
+     */
+    public ControlTower newTower() {
+        ControlTower tower = new ControlTower();
+        for (TerminalLayout layout : terminals) {
+            tower.addTerminal(layout.newTerminal());
+        }
+        return tower;
+    }
+}
@@ -0,0 +1,84 @@
+package towersim.control;
+
+import java.util.List;
+
+/**
+ * Batch of controller commands submitted to a CommandProcessor, to be applied together at the
+ * end of the next tick. The results become visible to the submitting thread once the batch
+ * has been applied.
+ */
+public class CommandBatch {
+    /** Commands of the batch, in the order they were submitted */
+    private final List<ControllerCommand> commands;
+
+    /** Result of every command, by position in the batch; null until the batch is applied */
+    private volatile CommandResult[] results;
+
+    /**
+     * Creates a new batch that has not yet been applied.
+     * @param commands commands of the batch, copied
+     * @throws NullPointerException if any command is null
+     */
+    CommandBatch(List<ControllerCommand> commands) {
+        this.commands = List.copyOf(commands);
+    }
+
+    /**
+     * Get the commands of the batch.
+     * @return read-only list of commands, in the order they were submitted
+     */
+    public List<ControllerCommand> getCommands() {
+        return commands;
+    }
+
+    /**
+     * Checks whether the batch has been applied.
+     * @return true if every command has been applied or rejected; false otherwise
+     */
+    public boolean isApplied() {
+        return results != null;
+    }
+
+    /**
+     * Get the result of the command at the given position in the batch.
+     * @param index position of the command
+     * @return result of the command
+     * @throws IllegalStateException if the batch has not been applied yet
+     * @throws IndexOutOfBoundsException if there is no command at that position
+     */
+    public CommandResult getResult(int index) {
+        CommandResult[] applied = results;
+        if (applied == null) {
+            throw new IllegalStateException();
+        }
+        return applied[index];
+    }
+
+    /**
+     * Get the number of commands in the batch with the given result.
+     * @param result result to count
+     * @return number of commands with that result
+     * @throws IllegalStateException if the batch has not been applied yet
+     */
+    public int count(CommandResult result) {
+        CommandResult[] applied = results;
+        if (applied == null) {
+            throw new IllegalStateException();
+        }
+        int count = 0;
+        for (CommandResult each : applied) {
+            if (each == result) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Records the results of the batch once it has been applied.
+     * @param results result of every command, by position in the batch
+     */
+    void complete(CommandResult[] results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,262 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.util.NoSpaceException;
+import towersim.util.Tickable;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Applies batches of controller commands to a control tower in a single pass. Batches may be
+ * submitted from any thread and are applied at the end of the next tick, or applied at once
+ * from the thread ticking the tower between ticks.
+ * Within a batch, commands are ordered by CommandType, and commands of the same type keep
+ * the order they were given, so the same batch always has the same effect. Each command's
+ * aircraft is found through the tower's index by callsign id, its terminal through an index
+ * by terminal number, and its gate through an index of the terminal's gates by gate number,
+ * so applying a command does not scan the tower's aircraft or gates. Whether an aircraft is
+ * already parked is found through the tower's index of parked gates by callsign id. Commands
+ * that cannot be applied are skipped and reported, without affecting the rest of the batch.
+ * Aircraft are only parked where they respect the bookings of the tower's gate planner, if
+ * it has one.
+ */
+public class CommandProcessor implements Tickable {
+    /** Command types, indexed by ordinal */
+    private static final CommandType[] TYPES = CommandType.values();
+
+    /** Control tower commands are applied to */
+    private final ControlTower tower;
+
+    /** Batches submitted but not yet applied, in the order they were submitted */
+    private final Queue<CommandBatch> pending;
+
+    /** Controlled terminals keyed by terminal number */
+    private final Map<Integer, Terminal> terminalsByNumber;
+
+    /** Number of the tower's terminals in terminalsByNumber */
+    private int indexedTerminals;
+
+    /** Index of every terminal's gates by gate number, rebuilt when gates are added */
+    private final Map<Terminal, GateIndex> gateIndexes;
+
+    /** Number of commands applied so far, not counting those that were rejected */
+    private long commandsApplied;
+
+    /**
+     * Creates a new processor for the given tower and registers it to apply submitted batches
+     * at the end of every tick.
+     * @param tower control tower commands are applied to
+     */
+    public CommandProcessor(ControlTower tower) {
+        this.tower = tower;
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.terminalsByNumber = new HashMap<>();
+        this.indexedTerminals = 0;
+        this.gateIndexes = new IdentityHashMap<>();
+        this.commandsApplied = 0;
+        tower.addEndOfTickTask(this);
+    }
+
+    /**
+     * Submits the given commands to be applied together at the end of the next tick. Safe to
+     * call from any thread.
+     * @param commands commands to be applied
+     * @return batch holding the results once applied
+     * @throws NullPointerException if any command is null
+     */
+    public CommandBatch submit(List<ControllerCommand> commands) {
+        CommandBatch batch = new CommandBatch(commands);
+        pending.add(batch);
+        return batch;
+    }
+
+    /**
+     * Applies the given commands now. Must be called on the thread ticking the tower, between
+     * ticks.
+     * @param commands commands to be applied
+     * @return result of every command, by position in the given list
+     */
+    public CommandResult[] apply(List<ControllerCommand> commands) {
+        indexTerminals();
+        CommandResult[] results = new CommandResult[commands.size()];
+        for (int index : orderOf(commands)) {
+            CommandResult result = apply(commands.get(index));
+            if (result == CommandResult.APPLIED) {
+                commandsApplied++;
+            }
+            results[index] = result;
+        }
+        return results;
+    }
+
+    /**
+     * Get the number of commands applied so far, not counting those that were rejected.
+     * @return number of applied commands
+     */
+    public long getCommandsApplied() {
+        return commandsApplied;
+    }
+
+    /**
+     * Applies every batch submitted since the last tick, in the order they were submitted.
+     * Must be called on the thread ticking the tower.
+     */
+    @Override
+    public void tick() {
+        CommandBatch batch;
+        while ((batch = pending.poll()) != null) {
+            batch.complete(apply(batch.getCommands()));
+        }
+    }
+
+    /**
+     * Get the positions of the given commands in the order they are to be applied, sorting
+     * stably by command type with a counting sort.
+     */
+    private static int[] orderOf(List<ControllerCommand> commands) {
+        int[] starts = new int[TYPES.length + 1];
+        for (ControllerCommand command : commands) {
+            starts[command.getType().ordinal() + 1]++;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        int[] order = new int[commands.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[starts[commands.get(i).getType().ordinal()]++] = i;
+        }
+        return order;
+    }
+
+    /** Applies a single command */
+    private CommandResult apply(ControllerCommand command) {
+        CommandType type = command.getType();
+        if (type == CommandType.DECLARE_TERMINAL_EMERGENCY
+                || type == CommandType.CLEAR_TERMINAL_EMERGENCY) {
+            Terminal terminal = terminalsByNumber.get(command.getTerminalNumber());
+            if (terminal == null) {
+                return CommandResult.UNKNOWN_TERMINAL;
+            }
+            if (type == CommandType.DECLARE_TERMINAL_EMERGENCY) {
+                terminal.declareEmergency();
+            } else {
+                terminal.clearEmergency();
+            }
+            return CommandResult.APPLIED;
+        }
+        Aircraft aircraft = tower.findAircraft(command.getCallsign());
+        if (aircraft == null) {
+            return CommandResult.UNKNOWN_AIRCRAFT;
+        }
+        switch (type) {
+            case RELEASE_GATE:
+                Gate gate = tower.findGateOfAircraft(aircraft);
+                if (gate == null) {
+                    return CommandResult.NOT_PARKED;
+                }
+                gate.aircraftLeaves();
+                return CommandResult.APPLIED;
+            case MOVE_TO_NEXT_TASK:
+                // the tower hears of the task change, restarting the aircraft's countdown in
+                // its lifecycle engine, if it has one, as for any other task change
+                aircraft.getTaskList().moveToNextTask();
+                return CommandResult.APPLIED;
+            case PARK_AT_GATE:
+                return park(aircraft, command);
+            case DECLARE_EMERGENCY:
+                aircraft.declareEmergency();
+                return CommandResult.APPLIED;
+            default:
+                aircraft.clearEmergency();
+                return CommandResult.APPLIED;
+        }
+    }
+
+    /**
+     * Parks the given aircraft at the command's gate if it is free, compatible and not booked
+     * for another aircraft by the tower's gate planner
+     */
+    private CommandResult park(Aircraft aircraft, ControllerCommand command) {
+        Terminal terminal = terminalsByNumber.get(command.getTerminalNumber());
+        if (terminal == null) {
+            return CommandResult.UNKNOWN_TERMINAL;
+        }
+        int index = gateIndexOf(terminal).indexOf(command.getGateNumber());
+        if (index < 0) {
+            return CommandResult.UNKNOWN_GATE;
+        }
+        if (tower.findGateOfAircraft(aircraft) != null) {
+            return CommandResult.ALREADY_PARKED;
+        }
+        Gate gate = terminal.getGate(index);
+        if (terminal.getAircraftType() != aircraft.getAircraftType()
+                || !gate.accepts(aircraft)) {
+            return CommandResult.INCOMPATIBLE_GATE;
+        }
+        if (gate.isOccupied()) {
+            return CommandResult.GATE_OCCUPIED;
+        }
+        GatePlanner planner = tower.getGatePlanner();
+        if (planner != null && planner.isBookedForOther(gate, aircraft)) {
+            return CommandResult.GATE_BOOKED;
+        }
+        try {
+            gate.parkAircraft(aircraft);
+        } catch (NoSpaceException e) {
+            // the gate was checked to be unoccupied
+            throw new IllegalStateException(e);
+        }
+        return CommandResult.APPLIED;
+    }
+
+    /** Adds any terminals added to the tower since the last batch to the terminal index */
+    private void indexTerminals() {
+        List<Terminal> terminals = tower.getTerminals();
+        for (int i = indexedTerminals; i < terminals.size(); i++) {
+            terminalsByNumber.put(terminals.get(i).getTerminalNumber(), terminals.get(i));
+        }
+        indexedTerminals = terminals.size();
+    }
+
+    /** Get the index of the given terminal's gates, rebuilding it if gates have been added */
+    private GateIndex gateIndexOf(Terminal terminal) {
+        GateIndex index = gateIndexes.get(terminal);
+        if (index == null || index.numGates != terminal.getNumGates()) {
+            index = new GateIndex(terminal);
+            gateIndexes.put(terminal, index);
+        }
+        return index;
+    }
+
+    /**
+     * Positions of a terminal's gates keyed by gate number, read without creating the gates of
+     * a terminal made from a layout, so only a command's target gate is ever created
+     */
+    private static class GateIndex {
+        /** Number of gates in the terminal when the index was built */
+        private final int numGates;
+
+        /** Position of every gate in the terminal, keyed by gate number */
+        private final Map<Integer, Integer> positions;
+
+        private GateIndex(Terminal terminal) {
+            numGates = terminal.getNumGates();
+            positions = new HashMap<>();
+            for (int i = 0; i < numGates; i++) {
+                positions.putIfAbsent(terminal.getGateNumber(i), i);
+            }
+        }
+
+        /** Get the position of the gate with the given number; -1 if there is none */
+        private int indexOf(int gateNumber) {
+            Integer position = positions.get(gateNumber);
+            return position == null ? -1 : position;
+        }
+    }
+}
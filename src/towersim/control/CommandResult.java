@@ -0,0 +1,33 @@
+package towersim.control;
+
+/**
+ * Represents the outcome of applying a single ControllerCommand.
+ */
+public enum CommandResult {
+    /** Command was applied */
+    APPLIED,
+
+    /** No aircraft controlled by the tower has the command's callsign */
+    UNKNOWN_AIRCRAFT,
+
+    /** No terminal controlled by the tower has the command's terminal number */
+    UNKNOWN_TERMINAL,
+
+    /** The command's terminal has no gate with the command's gate number */
+    UNKNOWN_GATE,
+
+    /** Aircraft to be parked is already parked at a gate */
+    ALREADY_PARKED,
+
+    /** Aircraft to be released is not parked at any gate */
+    NOT_PARKED,
+
+    /** Gate to park at is already occupied */
+    GATE_OCCUPIED,
+
+    /** Gate to park at is in a terminal for another aircraft type, or lacks a capability */
+    INCOMPATIBLE_GATE,
+
+    /** Gate to park at is booked by the tower's gate planner for another aircraft */
+    GATE_BOOKED
+}
@@ -0,0 +1,31 @@
+package towersim.control;
+
+/**
+ * Represents the actions a controller can take with a ControllerCommand. Commands in a batch
+ * are applied in the order of their types as declared here, and commands of the same type in
+ * the order they were given: gates are released before aircraft move to their next task, and
+ * aircraft are parked after that, so a gate released in a batch can be used by another
+ * aircraft in the same batch.
+ */
+public enum CommandType {
+    /** Aircraft leaves the gate it is parked at */
+    RELEASE_GATE,
+
+    /** Aircraft moves on to its next task */
+    MOVE_TO_NEXT_TASK,
+
+    /** Aircraft is parked at a given gate of a given terminal */
+    PARK_AT_GATE,
+
+    /** Aircraft declares a state of emergency */
+    DECLARE_EMERGENCY,
+
+    /** Aircraft clears its state of emergency */
+    CLEAR_EMERGENCY,
+
+    /** Terminal declares a state of emergency */
+    DECLARE_TERMINAL_EMERGENCY,
+
+    /** Terminal clears its state of emergency */
+    CLEAR_TERMINAL_EMERGENCY
+}
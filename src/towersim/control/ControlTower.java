@@ -1,15 +1,25 @@
 package towersim.control;
 
 import towersim.aircraft.Aircraft;
-import towersim.aircraft.AircraftType;
+import towersim.aircraft.CallsignTable;
+import towersim.events.EventBus;
 import towersim.ground.Gate;
 import towersim.ground.Terminal;
+import towersim.jfr.AddAircraftEvent;
+import towersim.jfr.GateAllocationEvent;
+import towersim.jfr.TaskTransitionEvent;
+import towersim.jfr.TickEvent;
 import towersim.tasks.TaskType;
+import towersim.util.EmergencyState;
 import towersim.util.NoSpaceException;
 import towersim.util.NoSuitableGateException;
 import towersim.util.Tickable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /** Represents a control tower at an airport */
 public class ControlTower implements Tickable {
@@ -25,10 +35,311 @@ public class ControlTower implements Tickable {
     /** List of aircrafts controlled by the tower (copied/duplicate version */
     private List<Aircraft> copyOfControlledAircrafts;
 
+    /** Number of ticks the tower has advanced the simulation by */
+    private long ticksElapsed;
+
+    /** Planner used to book gates ahead of time; null if gates are only assigned on arrival */
+    private GatePlanner gatePlanner;
+
+    /** Running totals of weight, fuel and load over all controlled aircraft */
+    private final FleetAggregates aggregates;
+
+    /** Whether running totals are checked against a full recomputation after every tick */
+    private boolean verifyAggregates;
+
+    /** Controlled aircraft grouped by the type of their current task */
+    private final AircraftPartition partition;
+
+    /** Engine moving aircraft through their task lists; null if tasks are moved by hand */
+    private LifecycleEngine lifecycleEngine;
+
+    /** Away aircraft ordered by when they will run out of fuel */
+    private final FuelIndex fuelIndex;
+
+    /** Strategy choosing which unoccupied gate aircraft are parked at */
+    private GateAssignmentStrategy gateStrategy;
+
+    /** Tasks run once at the end of every tick, after all aircraft have been updated */
+    private final List<Tickable> endOfTickTasks;
+
+    /** Bus state changes are published on; null if changes are not published */
+    private EventBus eventBus;
+
+    /** Tracker of time spent on tasks and at gates; null if dwell times are not recorded */
+    private DwellTracker dwellTracker;
+
+    /** Calendar runway slots are allocated on for landing and departing aircraft; may be null */
+    private SlotCalendar slotCalendar;
+
+    /** Seconds of simulation time each tick stands for, when allocating runway slots */
+    private int secondsPerTick;
+
+    /** Runway slot allocated to each aircraft landing or taking off */
+    private final Map<Aircraft, RunwaySlot> runwaySlots;
+
+    /**
+     * Position plus one of the terminal each aircraft was last seen parking at, indexed by
+     * callsign id; 0 if not parked
+     */
+    private int[] parkedTerminals;
+
+    /**
+     * Position in its terminal of the gate each aircraft was last seen parking at, indexed by
+     * callsign id; only meaningful while the aircraft is parked
+     */
+    private int[] parkedGates;
+
+    /**
+     * Number of aircraft parked at controlled terminals, indexed by callsign id; more than one
+     * only while aircraft sharing a callsign are parked at the same time
+     */
+    private int[] parkedCounts;
+
+    /** Controlled aircraft indexed by callsign id, the latest added for a shared callsign */
+    private Aircraft[] aircraftByCallsign;
+
+    /** Sharing of the aircraft with forks of the tower; null until the tower is first forked */
+    private ForkSharing forkSharing;
+
     /** Creates a new control tower with empty lists of controlled terminals and aircrafts */
     public ControlTower() {
+        this(0);
+    }
+
+    /**
+     * Creates a new control tower with no terminals or aircraft whose clock starts at the
+     * given tick, such as a copy of another tower.
+     * @param ticksElapsed number of ticks the tower starts at
+     */
+    ControlTower(long ticksElapsed) {
         controlledTerminals = new ArrayList<>();
         controlledAircrafts = new ArrayList<>();
+        this.ticksElapsed = ticksElapsed;
+        gatePlanner = null;
+        aggregates = new FleetAggregates();
+        verifyAggregates = false;
+        partition = new AircraftPartition();
+        lifecycleEngine = null;
+        fuelIndex = new FuelIndex(FuelIndex.DEFAULT_ALERT_THRESHOLD);
+        gateStrategy = new FirstFitStrategy();
+        endOfTickTasks = new ArrayList<>();
+        eventBus = null;
+        dwellTracker = null;
+        slotCalendar = null;
+        runwaySlots = new IdentityHashMap<>();
+        parkedTerminals = new int[0];
+        parkedGates = new int[0];
+        parkedCounts = new int[0];
+        aircraftByCallsign = new Aircraft[0];
+        forkSharing = null;
+    }
+
+    /**
+     * Get the number of ticks the tower has advanced the simulation by.
+     * @return number of elapsed ticks
+     */
+    public long getTicksElapsed() {
+        return ticksElapsed;
+    }
+
+    /**
+     * Sets the planner used to book gates ahead of time for aircraft added to the tower.
+     * When a planner is set, landing aircraft are booked a gate for their predicted turnaround
+     * as soon as they are added or start landing again, and aircraft parked on arrival never
+     * take a gate that has already been booked for an inbound aircraft.
+     * The planner it replaces is detached, cancelling its bookings.
+     * @param gatePlanner planner to be used, or null to assign gates only on arrival
+     */
+    public void setGatePlanner(GatePlanner gatePlanner) {
+        if (gatePlanner == this.gatePlanner) {
+            return;
+        }
+        if (this.gatePlanner != null) {
+            this.gatePlanner.detach();
+        }
+        this.gatePlanner = gatePlanner;
+    }
+
+    /**
+     * Get the sharing of the tower's aircraft with its forks, creating it when the tower is
+     * first forked.
+     * @return fork sharing of the tower
+     */
+    ForkSharing getForkSharing() {
+        if (forkSharing == null) {
+            forkSharing = new ForkSharing(this);
+        }
+        return forkSharing;
+    }
+
+    /**
+     * Get the planner used to book gates ahead of time.
+     * @return gate planner; null if none has been set
+     */
+    public GatePlanner getGatePlanner() {
+        return gatePlanner;
+    }
+
+    /**
+     * Sets the strategy choosing which unoccupied gate aircraft are parked at. The strategy is
+     * given every terminal already added to the tower, and the strategy it replaces is
+     * detached from them. Towers use a FirstFitStrategy unless told otherwise.
+     * @param gateStrategy strategy to be used, not shared with any other tower
+     */
+    public void setGateAssignmentStrategy(GateAssignmentStrategy gateStrategy) {
+        if (gateStrategy == this.gateStrategy) {
+            return;
+        }
+        this.gateStrategy.detach();
+        for (Terminal terminal : controlledTerminals) {
+            gateStrategy.addTerminal(terminal);
+        }
+        this.gateStrategy = gateStrategy;
+    }
+
+    /**
+     * Sets the engine used to move aircraft through their task lists at the end of every tick.
+     * @param lifecycleEngine engine to be used, or null if tasks are moved by hand
+     */
+    public void setLifecycleEngine(LifecycleEngine lifecycleEngine) {
+        this.lifecycleEngine = lifecycleEngine;
+    }
+
+    /**
+     * Get the engine used to move aircraft through their task lists.
+     * @return lifecycle engine; null if tasks are moved by hand
+     */
+    public LifecycleEngine getLifecycleEngine() {
+        return lifecycleEngine;
+    }
+
+    /**
+     * Sets the calendar runway slots are allocated on. Every aircraft starting to land or take
+     * off is allocated the earliest slot from the start of the current tick, and its slot is
+     * cancelled once it moves on to its next task. Aircraft already landing or taking off are
+     * allocated slots straight away, in the order they started.
+     * @param slotCalendar calendar to be used, or null to stop allocating runway slots
+     * @param secondsPerTick seconds of simulation time each tick stands for
+     * @throws IllegalArgumentException if secondsPerTick is not positive
+     */
+    public void setSlotCalendar(SlotCalendar slotCalendar, int secondsPerTick) {
+        if (secondsPerTick <= 0) {
+            throw new IllegalArgumentException();
+        }
+        for (RunwaySlot slot : runwaySlots.values()) {
+            this.slotCalendar.cancel(slot);
+        }
+        runwaySlots.clear();
+        this.slotCalendar = slotCalendar;
+        this.secondsPerTick = secondsPerTick;
+        if (slotCalendar != null) {
+            for (Aircraft aircraft : partition.getAircraft(TaskType.LAND)) {
+                allocateRunwaySlot(aircraft, TaskType.LAND);
+            }
+            for (Aircraft aircraft : partition.getAircraft(TaskType.TAKEOFF)) {
+                allocateRunwaySlot(aircraft, TaskType.TAKEOFF);
+            }
+        }
+    }
+
+    /**
+     * Get the runway slot allocated to the given aircraft.
+     * @param aircraft controlled aircraft
+     * @return slot allocated to the aircraft; null if it is not landing or taking off, or no
+     * runway allows its movement
+     */
+    public RunwaySlot getRunwaySlot(Aircraft aircraft) {
+        return runwaySlots.get(aircraft);
+    }
+
+    /**
+     * Adds a task to be run once at the end of every tick, after all aircraft have been ticked
+     * and moved to their next tasks. Tasks are run in the order they were added.
+     * @param task task to be run at the end of every tick
+     */
+    public void addEndOfTickTask(Tickable task) {
+        endOfTickTasks.add(task);
+    }
+
+    /**
+     * Sets the bus on which gates being occupied or vacated, aircraft moving to their next
+     * task and emergencies being declared or cleared are published. Changes must then only be
+     * made from the thread ticking the tower, which is the bus's single writer.
+     * @param eventBus bus to publish on, or null to stop publishing changes
+     */
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Sets the tracker recording how long aircraft spend on each task and at each gate. Aircraft
+     * already controlled are tracked as if they had just started their current task and, if
+     * parked, just parked at their gate.
+     * @param dwellTracker tracker to be used, or null to stop recording dwell times
+     */
+    public void setDwellTracker(DwellTracker dwellTracker) {
+        this.dwellTracker = dwellTracker;
+        if (dwellTracker == null) {
+            return;
+        }
+        Map<Aircraft, Gate> parkedAt = new IdentityHashMap<>();
+        for (Terminal terminal : controlledTerminals) {
+            for (Gate gate : terminal.getGates()) {
+                if (gate.isOccupied()) {
+                    parkedAt.put(gate.getAircraftAtGate(), gate);
+                }
+            }
+        }
+        for (Aircraft aircraft : controlledAircrafts) {
+            dwellTracker.track(aircraft, parkedAt.get(aircraft), ticksElapsed);
+        }
+    }
+
+    /**
+     * Get the running totals of weight, fuel and load over all controlled aircraft.
+     * @return fleet aggregates maintained by the tower
+     */
+    public FleetAggregates getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Fills the given metrics with the fuel percentage, total weight and occupancy level of
+     * every controlled aircraft, without copying the tower's list of aircraft.
+     * @param metrics metrics to be filled, reused from earlier calls to avoid allocation
+     * @return the given metrics
+     */
+    public FleetMetrics getFleetMetrics(FleetMetrics metrics) {
+        metrics.fill(controlledAircrafts);
+        return metrics;
+    }
+
+    /**
+     * Get the index of away aircraft ordered by when they will run out of fuel. Low fuel
+     * listeners added to the index are alerted at the end of every tick.
+     * @return fuel index maintained by the tower
+     */
+    public FuelIndex getFuelIndex() {
+        return fuelIndex;
+    }
+
+    /**
+     * Get the away aircraft with fewer than the given number of ticks of fuel left, starting
+     * with the aircraft that runs out first.
+     * @param ticks number of ticks
+     * @return aircraft running out of fuel within that many ticks
+     */
+    public List<Aircraft> getAircraftLowOnFuel(int ticks) {
+        return fuelIndex.getAircraftBelow(ticks, ticksElapsed);
+    }
+
+    /**
+     * Sets whether the running totals are checked against a full recomputation after every
+     * tick. Verification costs a pass over every aircraft, so is meant for testing.
+     * @param verifyAggregates true to verify totals after every tick; false otherwise
+     */
+    public void setAggregateVerification(boolean verifyAggregates) {
+        this.verifyAggregates = verifyAggregates;
     }
 
     /**
@@ -36,7 +347,22 @@ public class ControlTower implements Tickable {
      * @param terminal to be added
      */
     public void addTerminal(Terminal terminal) {
+        int position = controlledTerminals.size();
         controlledTerminals.add(terminal);
+        gateStrategy.addTerminal(terminal);
+        terminal.addGateListener((changed, gate, aircraft, parked) ->
+                gateChanged(position, changed, gate, aircraft, parked));
+        terminal.addEmergencyListener(this::emergencyChanged);
+        if (terminal.getNumOccupiedGates() == 0) {
+            // nothing to index, so adding an empty terminal does not depend on its gates
+            return;
+        }
+        for (int i = 0; i < terminal.getNumGates(); i++) {
+            if (terminal.getOccupantId(i) != CallsignTable.NONE) {
+                setParkedGate(terminal.getOccupantId(i), position + 1, i);
+                parkedCounts[terminal.getOccupantId(i)]++;
+            }
+        }
     }
 
     /**
@@ -49,50 +375,42 @@ public class ControlTower implements Tickable {
     }
 
     /**
-     * Find an unoccupied gate in a compatible terminal for given aircraft
+     * Get the number of terminals managed by the control tower.
+     * @return number of terminals
+     */
+    public int getNumTerminals() {
+        return controlledTerminals.size();
+    }
+
+    /**
+     * Get the terminal at the given position, in the order terminals were added, without
+     * copying the list of terminals.
+     * @param index position of the terminal, from 0 to one less than the number of terminals
+     * @return terminal at that position
+     * @throws IndexOutOfBoundsException if there is no terminal at that position
+     */
+    public Terminal getTerminal(int index) {
+        return controlledTerminals.get(index);
+    }
+
+    /**
+     * Find an unoccupied gate in a compatible terminal for given aircraft, chosen by the
+     * tower's gate assignment strategy
      * @param aircraft for which to find gate
      * @return gate for given aircraft
      * @throws NoSuitableGateException if no suitable gate found if current task type is
      * WAIT or LOAD
      */
     public Gate findUnoccupiedGate(Aircraft aircraft) throws NoSuitableGateException {
-        /* This method first finds out the type of the aircraft passed in the argument,
-        * whether it is a helicopter or airplane.
-        * Then, it will loop through all the compatible terminals. For each terminal,
-        * it will loop through the gates in the terminal and find the first unoccupied one.
-        * If one terminal has no suitable gate, it will move to the next terminal.
-        * If there is no unoccupied gate found after looping through all the terminals, it will
-        * throw NoSuitableGateException */
-        AircraftType type = aircraft.getCharacteristics().type;
-        String terminalType;
-        // if type is airplane
-        if (type.equals(AircraftType.AIRPLANE)) {
-
-            for (int i = 0; i < getTerminals().size(); i++) {
-                terminalType = getTerminals().get(i).getClass().getSimpleName();
-                try {
-                    if (terminalType.equals("AirplaneTerminal")) {
-                        return getTerminals().get(i).findUnoccupiedGate();
-                    }
-                } catch (NoSuitableGateException e) {
-                    //pass to move onto new terminal
-                }
-            }
-        } else {
-            // if type is HELICOPTER
-            for (int j = 0; j < getTerminals().size(); j++) {
-                terminalType = getTerminals().get(j).getClass().getSimpleName();
-                try {
-                    if (terminalType.equals("HelicopterTerminal")) {
-                        return getTerminals().get(j).findUnoccupiedGate();
-                    }
-                } catch (NoSuitableGateException f) {
-                    //pass to move onto new terminal
-                }
-            }
+        GateAllocationEvent event = new GateAllocationEvent();
+        event.begin();
+        Gate gate = null;
+        try {
+            gate = gateStrategy.findGate(aircraft);
+            return gate;
+        } finally {
+            event.commit(aircraft, gate);
         }
-        /* If no suitable gate found */
-        throw new NoSuitableGateException();
     }
 
     /**
@@ -101,7 +419,31 @@ public class ControlTower implements Tickable {
      * @throws NoSuitableGateException if no suitable gate with current task type of WAIT or LOAD.
      */
     public void addAircraft(Aircraft aircraft) throws NoSuitableGateException {
-        controlledAircrafts.add(aircraft);
+        AddAircraftEvent event = new AddAircraftEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            registerAircraft(aircraft);
+            succeeded = true;
+        } finally {
+            event.commit(aircraft, succeeded);
+        }
+    }
+
+    /**
+     * Adds given aircraft to jurisdiction of control tower, parking it if needed.
+     * @param aircraft to be added.
+     * @throws NoSuitableGateException if no suitable gate with current task type of WAIT or LOAD.
+     */
+    private void registerAircraft(Aircraft aircraft) throws NoSuitableGateException {
+        restoreAircraft(aircraft);
+        if (lifecycleEngine != null) {
+            lifecycleEngine.track(aircraft);
+        }
+        if (gatePlanner != null) {
+            addAircraftWithPlanner(aircraft);
+            return;
+        }
         /* if TaskType == LOAD | WAIT, then park at suitable gate
         if no suitable gate, throw NoSuitableGateException */
 
@@ -120,6 +462,193 @@ public class ControlTower implements Tickable {
         }
     }
 
+    /**
+     * Adds the given aircraft to the tower's lists and indexes as it is, without tracking it
+     * in the lifecycle engine or finding it a gate, such as an aircraft copied from another
+     * tower already parked at the right gate.
+     * @param aircraft aircraft to be added
+     */
+    void restoreAircraft(Aircraft aircraft) {
+        controlledAircrafts.add(aircraft);
+        int id = aircraft.getCallsignId();
+        if (id >= aircraftByCallsign.length) {
+            aircraftByCallsign = Arrays.copyOf(aircraftByCallsign,
+                    Math.max(id + 1, 2 * aircraftByCallsign.length));
+        }
+        aircraftByCallsign[id] = aircraft;
+        aggregates.add(aircraft);
+        partition.add(aircraft);
+        fuelIndex.update(aircraft, ticksElapsed);
+        aircraft.getTaskList().addListener((previousTask, currentTask) ->
+                taskChanged(aircraft, previousTask.getType(), currentTask.getType()));
+        aircraft.addEmergencyListener(this::emergencyChanged);
+        if (dwellTracker != null) {
+            dwellTracker.track(aircraft, null, ticksElapsed);
+        }
+        if (slotCalendar != null) {
+            allocateRunwaySlot(aircraft, aircraft.getTaskList().getCurrentTask().getType());
+        }
+    }
+
+    /**
+     * Books a gate for the given aircraft using the gate planner. Landing aircraft are booked
+     * from the next tick; aircraft waiting or loading are parked only if a gate is free now.
+     * @param aircraft to be added
+     * @throws NoSuitableGateException if no suitable gate is free now for an aircraft with
+     * current task type of WAIT or LOAD
+     */
+    private void addAircraftWithPlanner(Aircraft aircraft) throws NoSuitableGateException {
+        TaskType type = aircraft.getTaskList().getCurrentTask().getType();
+        if (type.equals(TaskType.LAND)) {
+            bookLanding(aircraft);
+        } else if (type.equals(TaskType.LOAD) | type.equals(TaskType.WAIT)) {
+            try {
+                gatePlanner.bookNow(aircraft).parkAircraft(aircraft);
+            } catch (NoSuitableGateException | NoSpaceException e) {
+                gatePlanner.cancel(aircraft);
+                throw new NoSuitableGateException();
+            }
+        }
+    }
+
+    /**
+     * Allocates a runway slot from the start of the current tick to the given aircraft, if it
+     * is landing or taking off.
+     * @param aircraft aircraft to allocate a slot to
+     * @param type type of the aircraft's current task
+     */
+    private void allocateRunwaySlot(Aircraft aircraft, TaskType type) {
+        if (type != TaskType.LAND && type != TaskType.TAKEOFF) {
+            return;
+        }
+        try {
+            runwaySlots.put(aircraft,
+                    slotCalendar.allocate(aircraft, type, ticksElapsed * secondsPerTick));
+        } catch (NoSpaceException e) {
+            // no runway allows the movement, so the aircraft goes without a slot
+        }
+    }
+
+    /** Books a gate from the next tick for the given aircraft, which is about to land */
+    private void bookLanding(Aircraft aircraft) {
+        try {
+            gatePlanner.book(aircraft, ticksElapsed + 1);
+        } catch (NoSuitableGateException e) {
+            // aircraft will have to find a gate once it has landed
+        }
+    }
+
+    /**
+     * Updates the tower's indexes after the given aircraft has moved to its next task.
+     * @param aircraft aircraft whose task has changed
+     * @param previousType type of the task the aircraft was on
+     * @param currentType type of the task the aircraft is now on
+     */
+    private void taskChanged(Aircraft aircraft, TaskType previousType, TaskType currentType) {
+        TaskTransitionEvent.record(aircraft, previousType, currentType);
+        partition.move(aircraft, previousType, currentType);
+        aggregates.update(aircraft);
+        fuelIndex.update(aircraft, ticksElapsed);
+        if (gatePlanner != null && currentType == TaskType.LAND) {
+            bookLanding(aircraft);
+        }
+        if (slotCalendar != null) {
+            RunwaySlot slot = runwaySlots.remove(aircraft);
+            if (slot != null) {
+                slotCalendar.cancel(slot);
+            }
+            allocateRunwaySlot(aircraft, currentType);
+        }
+        if (lifecycleEngine != null) {
+            lifecycleEngine.taskChanged(aircraft);
+        }
+        if (dwellTracker != null) {
+            dwellTracker.taskChanged(aircraft, previousType, ticksElapsed);
+        }
+        if (eventBus != null) {
+            eventBus.publishTaskChange(ticksElapsed, aircraft, previousType, currentType);
+        }
+    }
+
+    /** Records and publishes an aircraft parking at or leaving a gate of a controlled terminal */
+    private void gateChanged(int position, Terminal terminal, Gate gate, Aircraft aircraft,
+                             boolean parked) {
+        int id = aircraft.getCallsignId();
+        if (parked) {
+            setParkedGate(id, position + 1, gate.getIndexInTerminal());
+            parkedCounts[id]++;
+        } else if (id < parkedCounts.length && parkedCounts[id] > 0) {
+            parkedCounts[id]--;
+            if (parkedCounts[id] == 0) {
+                parkedTerminals[id] = 0;
+            } else if (parkedTerminals[id] == position + 1
+                    && parkedGates[id] == gate.getIndexInTerminal()) {
+                findParkedGate(id, terminal, gate.getIndexInTerminal());
+            }
+        }
+        if (dwellTracker != null) {
+            dwellTracker.gateChanged(terminal, gate, aircraft, parked, ticksElapsed);
+        }
+        if (eventBus != null) {
+            eventBus.publishGateChange(ticksElapsed, terminal, gate, aircraft, parked);
+        }
+    }
+
+    /**
+     * Records the terminal position plus one and the gate position the aircraft with the given
+     * id is parked at
+     */
+    private void setParkedGate(int callsignId, int positionPlusOne, int gateIndex) {
+        if (callsignId >= parkedTerminals.length) {
+            int length = Math.max(callsignId + 1, 2 * parkedTerminals.length);
+            parkedTerminals = Arrays.copyOf(parkedTerminals, length);
+            parkedGates = Arrays.copyOf(parkedGates, length);
+            parkedCounts = Arrays.copyOf(parkedCounts, length);
+        }
+        parkedTerminals[callsignId] = positionPlusOne;
+        parkedGates[callsignId] = gateIndex;
+    }
+
+    /**
+     * Records the gate where another aircraft with the given callsign id is still parked,
+     * after one sharing the callsign left the given gate of the given terminal. Only needed
+     * while aircraft sharing a callsign are parked at the same time.
+     */
+    private void findParkedGate(int callsignId, Terminal left, int leftGate) {
+        for (int t = 0; t < controlledTerminals.size(); t++) {
+            Terminal terminal = controlledTerminals.get(t);
+            for (int i = 0; i < terminal.getNumGates(); i++) {
+                if (terminal.getOccupantId(i) == callsignId
+                        && (terminal != left || i != leftGate)) {
+                    setParkedGate(callsignId, t + 1, i);
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Publishes an emergency being declared or cleared on a controlled aircraft or terminal */
+    private void emergencyChanged(EmergencyState subject) {
+        if (eventBus == null) {
+            return;
+        }
+        if (subject instanceof Aircraft) {
+            eventBus.publishEmergency(ticksElapsed, (Aircraft) subject);
+        } else if (subject instanceof Terminal) {
+            eventBus.publishEmergency(ticksElapsed, (Terminal) subject);
+        }
+    }
+
+    /**
+     * Get the controlled aircraft whose current task is of the given type. The returned set is a
+     * read-only view kept up to date as aircraft change task, so no copy is made.
+     * @param type task type
+     * @return aircraft currently on a task of that type
+     */
+    public Set<Aircraft> getAircraft(TaskType type) {
+        return partition.getAircraft(type);
+    }
+
     /**
      * Get a list of all the aircrafts under the control tower's jurisdiction.
      * @return a list of all aircrafts managed by the tower
@@ -130,39 +659,116 @@ public class ControlTower implements Tickable {
     }
 
     /**
-     * Find the gate where the given aircraft is parked
+     * Get the number of aircraft under the control tower's jurisdiction.
+     * @return number of aircraft
+     */
+    public int getNumAircraft() {
+        return controlledAircrafts.size();
+    }
+
+    /**
+     * Get the aircraft at the given position, in the order aircraft were added, without
+     * copying the list of aircraft.
+     * @param index position of the aircraft, from 0 to one less than the number of aircraft
+     * @return aircraft at that position
+     * @throws IndexOutOfBoundsException if there is no aircraft at that position
+     */
+    public Aircraft getAircraft(int index) {
+        return controlledAircrafts.get(index);
+    }
+
+    /**
+     * Find the controlled aircraft with the given callsign, through an index by callsign id
+     * rather than a scan of every aircraft.
+     * @param callsign callsign to look up
+     * @return aircraft with that callsign, the latest added if several share it; null if the
+     * tower controls no such aircraft
+     */
+    public Aircraft findAircraft(String callsign) {
+        int id = CallsignTable.idOf(callsign);
+        if (id == CallsignTable.NONE || id >= aircraftByCallsign.length) {
+            return null;
+        }
+        return aircraftByCallsign[id];
+    }
+
+    /**
+     * Find the gate where the given aircraft is parked. The terminal and gate are looked up by
+     * the aircraft's callsign id in constant time; every terminal is scanned only while another
+     * aircraft sharing the callsign is also parked.
      * @param aircraft whose gate to find
      * @return gate occupied by aircraft; if not parked, return null
      */
     public Gate findGateOfAircraft(Aircraft aircraft) {
-        Gate gateofAircraft = null;
-        // loop through the terminals controlled by tower, if tower has no terminal, return null
-        for (int i = 0; i < getTerminals().size(); i++) {
-            if (getTerminals().size() == 0) {
-                return gateofAircraft;
-            } else {
-                /* loop through each gate in each terminal, until found the gate occupied by
-                said aircraft */
-                List<Gate> gateList = getTerminals().get(i).getGates();
-                for (int j = 0; j < gateList.size(); j++) {
-                    // if no gates in terminal, return none;
-                    if (gateList.size() == 0) {
-                        // move to the next terminal because this terminal has no gate
-                    } else {
-                        if (gateList.get(j).getAircraftAtGate() == aircraft) {
-                            gateofAircraft = gateList.get(j);
-                        }
-                    }
+        int id = aircraft.getCallsignId();
+        if (id >= parkedCounts.length || parkedCounts[id] == 0) {
+            return null;
+        }
+        Gate gate = controlledTerminals.get(parkedTerminals[id] - 1).getGate(parkedGates[id]);
+        if (gate.getAircraftAtGate() == aircraft) {
+            return gate;
+        }
+        if (parkedCounts[id] == 1) {
+            return null;
+        }
+        for (int i = 0; i < controlledTerminals.size(); i++) {
+            gate = findGateOfAircraft(controlledTerminals.get(i), aircraft);
+            if (gate != null) {
+                return gate;
+            }
+        }
+        return null;
+    }
+
+    /** Find the gate of the given terminal where the given aircraft is parked, if any */
+    private static Gate findGateOfAircraft(Terminal terminal, Aircraft aircraft) {
+        int id = aircraft.getCallsignId();
+        for (int i = 0; i < terminal.getNumGates(); i++) {
+            if (terminal.getOccupantId(i) == id) {
+                Gate gate = terminal.getGate(i);
+                if (gate.getAircraftAtGate() == aircraft) {
+                    return gate;
                 }
             }
         }
-        return gateofAircraft;
+        return null;
     }
 
-    /** Advanced the simulation by tick */
+    /**
+     * Advanced the simulation by tick. Only aircraft that are away or loading change state on a
+     * tick, so aircraft waiting, taking off or landing are skipped entirely.
+     */
     public void tick() {
-        for (int i = 0; i < getAircraft().size(); i++) {
-            getAircraft().get(i).tick();
+        TickEvent event = new TickEvent();
+        event.begin();
+        int ticked = partition.count(TaskType.AWAY) + partition.count(TaskType.LOAD);
+        tickAll(partition.getAircraft(TaskType.AWAY));
+        tickAll(partition.getAircraft(TaskType.LOAD));
+        if (verifyAggregates) {
+            aggregates.verify(controlledAircrafts);
+        }
+        ticksElapsed++;
+        if (gatePlanner != null) {
+            gatePlanner.releaseBefore(ticksElapsed);
+        }
+        if (lifecycleEngine != null) {
+            lifecycleEngine.advance();
+        }
+        fuelIndex.raiseAlerts(ticksElapsed);
+        for (int i = 0; i < endOfTickTasks.size(); i++) {
+            endOfTickTasks.get(i).tick();
+        }
+        event.commit(ticksElapsed, controlledAircrafts.size(), ticked);
+    }
+
+    /**
+     * Ticks every aircraft in the given group and updates the running totals.
+     * @param group aircraft sharing the same current task type
+     */
+    private void tickAll(Set<Aircraft> group) {
+        for (Aircraft aircraft : group) {
+            aircraft.tick();
+            aggregates.update(aircraft);
         }
     }
 }
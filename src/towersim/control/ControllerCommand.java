@@ -0,0 +1,147 @@
+package towersim.control;
+
+/**
+ * Immutable description of a single controller action on an aircraft or terminal, to be
+ * applied with others by a CommandProcessor. Aircraft are named by callsign and terminals and
+ * gates by number, and are only looked up when the command is applied.
+ */
+public final class ControllerCommand {
+    /** Action to be taken */
+    private final CommandType type;
+
+    /** Callsign of the aircraft acted on; null for terminal commands */
+    private final String callsign;
+
+    /** Number of the terminal acted on or parked at; 0 if not used */
+    private final int terminalNumber;
+
+    /** Number of the gate parked at; 0 if not used */
+    private final int gateNumber;
+
+    private ControllerCommand(CommandType type, String callsign, int terminalNumber,
+                              int gateNumber) {
+        this.type = type;
+        this.callsign = callsign;
+        this.terminalNumber = terminalNumber;
+        this.gateNumber = gateNumber;
+    }
+
+    /**
+     * Creates a command for the aircraft with the given callsign to leave its gate.
+     * @param callsign callsign of the aircraft
+     * @return new command
+     * @throws NullPointerException if callsign is null
+     */
+    public static ControllerCommand releaseGate(String callsign) {
+        return forAircraft(CommandType.RELEASE_GATE, callsign);
+    }
+
+    /**
+     * Creates a command for the aircraft with the given callsign to move to its next task.
+     * Its gate is left as it is, so an aircraft leaving the ground should also be released.
+     * The tower's lifecycle engine, if any, times the new task from the tick it is applied.
+     * @param callsign callsign of the aircraft
+     * @return new command
+     * @throws NullPointerException if callsign is null
+     */
+    public static ControllerCommand moveToNextTask(String callsign) {
+        return forAircraft(CommandType.MOVE_TO_NEXT_TASK, callsign);
+    }
+
+    /**
+     * Creates a command for the aircraft with the given callsign to park at a given gate.
+     * @param callsign callsign of the aircraft
+     * @param terminalNumber number of the terminal the gate belongs to
+     * @param gateNumber number of the gate
+     * @return new command
+     * @throws NullPointerException if callsign is null
+     */
+    public static ControllerCommand parkAtGate(String callsign, int terminalNumber,
+                                               int gateNumber) {
+        if (callsign == null) {
+            throw new NullPointerException();
+        }
+        return new ControllerCommand(CommandType.PARK_AT_GATE, callsign, terminalNumber,
+                gateNumber);
+    }
+
+    /**
+     * Creates a command for the aircraft with the given callsign to declare or clear an
+     * emergency.
+     * @param callsign callsign of the aircraft
+     * @param declare true to declare an emergency; false to clear it
+     * @return new command
+     * @throws NullPointerException if callsign is null
+     */
+    public static ControllerCommand emergency(String callsign, boolean declare) {
+        return forAircraft(declare ? CommandType.DECLARE_EMERGENCY
+                : CommandType.CLEAR_EMERGENCY, callsign);
+    }
+
+    /**
+     * Creates a command for the terminal with the given number to declare or clear an
+     * emergency.
+     * @param terminalNumber number of the terminal
+     * @param declare true to declare an emergency; false to clear it
+     * @return new command
+     */
+    public static ControllerCommand terminalEmergency(int terminalNumber, boolean declare) {
+        return new ControllerCommand(declare ? CommandType.DECLARE_TERMINAL_EMERGENCY
+                : CommandType.CLEAR_TERMINAL_EMERGENCY, null, terminalNumber, 0);
+    }
+
+    /** Creates a command of the given type acting on an aircraft alone */
+    private static ControllerCommand forAircraft(CommandType type, String callsign) {
+        if (callsign == null) {
+            throw new NullPointerException();
+        }
+        return new ControllerCommand(type, callsign, 0, 0);
+    }
+
+    /**
+     * Get the action to be taken.
+     * @return command type
+     */
+    public CommandType getType() {
+        return type;
+    }
+
+    /**
+     * Get the callsign of the aircraft acted on.
+     * @return callsign; null for terminal commands
+     */
+    public String getCallsign() {
+        return callsign;
+    }
+
+    /**
+     * Get the number of the terminal acted on or parked at.
+     * @return terminal number; 0 for commands not involving a terminal
+     */
+    public int getTerminalNumber() {
+        return terminalNumber;
+    }
+
+    /**
+     * Get the number of the gate parked at.
+     * @return gate number; 0 for commands other than PARK_AT_GATE
+     */
+    public int getGateNumber() {
+        return gateNumber;
+    }
+
+    /**
+     * Get the human-readable representation of the command.
+     * @return string representation of the command
+     */
+    @Override
+    public String toString() {
+        if (callsign == null) {
+            return type + " " + terminalNumber;
+        }
+        if (type == CommandType.PARK_AT_GATE) {
+            return type + " " + callsign + " " + terminalNumber + "/" + gateNumber;
+        }
+        return type + " " + callsign;
+    }
+}
@@ -0,0 +1,271 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.TaskType;
+import towersim.util.Histogram;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Records how many ticks aircraft spend on each task and parked at each gate. The tick each
+ * aircraft entered its current task and parked at its current gate is kept, and when it leaves
+ * the task or gate the number of ticks since is recorded in histograms of task dwell per task
+ * type and per aircraft model, and of gate turnaround per terminal and per aircraft model.
+ * Every histogram uses constant memory however long the simulation runs, and trackers of
+ * separate runs can be merged.
+ * Aircraft are taken to have started their current task when added to the tower, or when the
+ * tracker is set if they were added before.
+ */
+public class DwellTracker {
+    /** Task types, indexed by ordinal */
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+
+    /** Dwell of every tracked aircraft on its current task and gate */
+    private final Map<Aircraft, Dwell> dwells;
+
+    /** Ticks spent on each task type, indexed by ordinal */
+    private final Histogram[] taskDwell;
+
+    /** Ticks spent on each task type by each model, indexed by [model id][ordinal] */
+    private Histogram[][] taskDwellByModel;
+
+    /** Ticks spent parked at a gate by any aircraft */
+    private final Histogram turnaround;
+
+    /** Ticks spent parked at a gate of each terminal, keyed by terminal number */
+    private final Map<Integer, Histogram> turnaroundByTerminal;
+
+    /** Ticks spent parked at a gate by each model, indexed by model id */
+    private Histogram[] turnaroundByModel;
+
+    /** Creates a new tracker with nothing recorded */
+    public DwellTracker() {
+        dwells = new IdentityHashMap<>();
+        taskDwell = new Histogram[TASK_TYPES.length];
+        for (int i = 0; i < taskDwell.length; i++) {
+            taskDwell[i] = new Histogram();
+        }
+        taskDwellByModel = new Histogram[0][];
+        turnaround = new Histogram();
+        turnaroundByTerminal = new HashMap<>();
+        turnaroundByModel = new Histogram[0];
+    }
+
+    /**
+     * Get the tick the given aircraft started its current task.
+     * @param aircraft tracked aircraft
+     * @return tick the current task was entered; -1 if the aircraft is not tracked
+     */
+    public long getTaskEnteredTick(Aircraft aircraft) {
+        Dwell dwell = dwells.get(aircraft);
+        return dwell == null ? -1 : dwell.taskEnteredTick;
+    }
+
+    /**
+     * Get the tick the given aircraft parked at its current gate.
+     * @param aircraft tracked aircraft
+     * @return tick the aircraft parked; -1 if it is not tracked or not parked
+     */
+    public long getParkedTick(Aircraft aircraft) {
+        Dwell dwell = dwells.get(aircraft);
+        return dwell == null || dwell.gate == null ? -1 : dwell.parkedTick;
+    }
+
+    /**
+     * Get the gate the given aircraft is parked at, as last seen by the tracker.
+     * @param aircraft tracked aircraft
+     * @return gate; null if the aircraft is not tracked or not parked
+     */
+    public Gate getGate(Aircraft aircraft) {
+        Dwell dwell = dwells.get(aircraft);
+        return dwell == null ? null : dwell.gate;
+    }
+
+    /**
+     * Get the number of ticks aircraft spent on tasks of the given type.
+     * @param type task type
+     * @return histogram of completed task dwell times, in ticks
+     */
+    public Histogram getTaskDwell(TaskType type) {
+        return taskDwell[type.ordinal()];
+    }
+
+    /**
+     * Get the number of ticks aircraft of the given model spent on tasks of the given type.
+     * @param modelId catalog model id
+     * @param type task type
+     * @return histogram of completed task dwell times, in ticks; empty if none were recorded
+     */
+    public Histogram getTaskDwell(int modelId, TaskType type) {
+        if (modelId >= taskDwellByModel.length || taskDwellByModel[modelId] == null) {
+            return new Histogram();
+        }
+        return taskDwellByModel[modelId][type.ordinal()];
+    }
+
+    /**
+     * Get the number of ticks aircraft spent parked at a gate.
+     * @return histogram of completed turnaround times, in ticks
+     */
+    public Histogram getTurnaround() {
+        return turnaround;
+    }
+
+    /**
+     * Get the number of ticks aircraft spent parked at a gate of the given terminal.
+     * @param terminalNumber number of the terminal
+     * @return histogram of completed turnaround times, in ticks; empty if none were recorded
+     */
+    public Histogram getTurnaroundByTerminal(int terminalNumber) {
+        Histogram histogram = turnaroundByTerminal.get(terminalNumber);
+        return histogram == null ? new Histogram() : histogram;
+    }
+
+    /**
+     * Get the number of ticks aircraft of the given model spent parked at a gate.
+     * @param modelId catalog model id
+     * @return histogram of completed turnaround times, in ticks; empty if none were recorded
+     */
+    public Histogram getTurnaroundByModel(int modelId) {
+        if (modelId >= turnaroundByModel.length || turnaroundByModel[modelId] == null) {
+            return new Histogram();
+        }
+        return turnaroundByModel[modelId];
+    }
+
+    /**
+     * Adds every dwell time recorded by the given tracker to this tracker's histograms, such
+     * as to combine the runs of a sweep. Aircraft still on a task or at a gate are not merged.
+     * @param other tracker to be merged in
+     */
+    public void merge(DwellTracker other) {
+        for (int i = 0; i < taskDwell.length; i++) {
+            taskDwell[i].merge(other.taskDwell[i]);
+        }
+        for (int model = 0; model < other.taskDwellByModel.length; model++) {
+            if (other.taskDwellByModel[model] != null) {
+                Histogram[] byType = taskDwellByModel(model);
+                for (int i = 0; i < byType.length; i++) {
+                    byType[i].merge(other.taskDwellByModel[model][i]);
+                }
+            }
+        }
+        turnaround.merge(other.turnaround);
+        for (Map.Entry<Integer, Histogram> entry : other.turnaroundByTerminal.entrySet()) {
+            turnaroundByTerminal.computeIfAbsent(entry.getKey(), number -> new Histogram())
+                    .merge(entry.getValue());
+        }
+        for (int model = 0; model < other.turnaroundByModel.length; model++) {
+            if (other.turnaroundByModel[model] != null) {
+                turnaroundByModel(model).merge(other.turnaroundByModel[model]);
+            }
+        }
+    }
+
+    /**
+     * Starts tracking the given aircraft from the given tick, parked at the given gate if any.
+     * Called by the tower as the aircraft is added.
+     * @param aircraft aircraft to be tracked
+     * @param gate gate the aircraft is parked at; null if it is not parked
+     * @param tick current tick of the tower
+     */
+    void track(Aircraft aircraft, Gate gate, long tick) {
+        Dwell dwell = new Dwell();
+        dwell.taskEnteredTick = tick;
+        dwell.gate = gate;
+        dwell.parkedTick = tick;
+        dwells.put(aircraft, dwell);
+    }
+
+    /**
+     * Records the time the given aircraft spent on the task it has just finished. Called by
+     * the tower after the aircraft has moved to its next task.
+     * @param aircraft aircraft whose task has changed
+     * @param previousType type of the task the aircraft has finished
+     * @param tick current tick of the tower
+     */
+    void taskChanged(Aircraft aircraft, TaskType previousType, long tick) {
+        Dwell dwell = dwells.get(aircraft);
+        if (dwell == null) {
+            return;
+        }
+        long ticks = tick - dwell.taskEnteredTick;
+        taskDwell[previousType.ordinal()].record(ticks);
+        taskDwellByModel(aircraft.getModelId())[previousType.ordinal()].record(ticks);
+        dwell.taskEnteredTick = tick;
+    }
+
+    /**
+     * Records an aircraft parking at a gate, or the time it spent at the gate it has just left.
+     * Called by the tower after the occupancy of the gate has changed.
+     * @param terminal terminal the gate belongs to
+     * @param gate gate whose occupant has changed
+     * @param aircraft aircraft that parked or left
+     * @param parked true if the aircraft parked; false if it left
+     * @param tick current tick of the tower
+     */
+    void gateChanged(Terminal terminal, Gate gate, Aircraft aircraft, boolean parked, long tick) {
+        Dwell dwell = dwells.get(aircraft);
+        if (dwell == null) {
+            return;
+        }
+        if (parked) {
+            dwell.gate = gate;
+            dwell.parkedTick = tick;
+            return;
+        }
+        if (dwell.gate != gate) {
+            // the aircraft was not seen parking here, so its time at the gate is unknown
+            return;
+        }
+        long ticks = tick - dwell.parkedTick;
+        turnaround.record(ticks);
+        turnaroundByTerminal.computeIfAbsent(terminal.getTerminalNumber(),
+                number -> new Histogram()).record(ticks);
+        turnaroundByModel(aircraft.getModelId()).record(ticks);
+        dwell.gate = null;
+    }
+
+    /** Get the task dwell histograms of the given model, creating them if needed */
+    private Histogram[] taskDwellByModel(int modelId) {
+        if (modelId >= taskDwellByModel.length) {
+            taskDwellByModel = Arrays.copyOf(taskDwellByModel, modelId + 1);
+        }
+        Histogram[] byType = taskDwellByModel[modelId];
+        if (byType == null) {
+            byType = new Histogram[TASK_TYPES.length];
+            for (int i = 0; i < byType.length; i++) {
+                byType[i] = new Histogram();
+            }
+            taskDwellByModel[modelId] = byType;
+        }
+        return byType;
+    }
+
+    /** Get the turnaround histogram of the given model, creating it if needed */
+    private Histogram turnaroundByModel(int modelId) {
+        if (modelId >= turnaroundByModel.length) {
+            turnaroundByModel = Arrays.copyOf(turnaroundByModel, modelId + 1);
+        }
+        if (turnaroundByModel[modelId] == null) {
+            turnaroundByModel[modelId] = new Histogram();
+        }
+        return turnaroundByModel[modelId];
+    }
+
+    /** Dwell of a single aircraft on its current task and gate */
+    private static class Dwell {
+        /** Tick the aircraft started its current task */
+        private long taskEnteredTick;
+
+        /** Gate the aircraft is parked at; null if not parked */
+        private Gate gate;
+
+        /** Tick the aircraft parked at its gate */
+        private long parkedTick;
+    }
+}
@@ -0,0 +1,47 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftType;
+import towersim.ground.Gate;
+import towersim.ground.GateCapability;
+import towersim.ground.Terminal;
+import towersim.util.NoSuitableGateException;
+
+/**
+ * Parks aircraft at the first unoccupied gate of the first compatible terminal with room, in
+ * the order terminals were added, so each terminal fills up before the next is used.
+ */
+public class FirstFitStrategy implements GateAssignmentStrategy {
+    /** Terminals with an unoccupied gate */
+    private final FreeTerminalIndex index;
+
+    /** Creates a new first-fit strategy with no terminals */
+    public FirstFitStrategy() {
+        index = new FreeTerminalIndex();
+    }
+
+    @Override
+    public void addTerminal(Terminal terminal) {
+        index.add(terminal);
+    }
+
+    @Override
+    public Gate findGate(Aircraft aircraft) throws NoSuitableGateException {
+        AircraftType type = aircraft.getAircraftType();
+        int requirements = GateCapability.requiredBy(aircraft);
+        for (int position = index.nextWithFreeGate(type, 0); position >= 0;
+                position = index.nextWithFreeGate(type, position + 1)) {
+            Terminal terminal = index.get(type, position);
+            int gate = terminal.indexOfUnoccupiedGate(requirements);
+            if (gate >= 0) {
+                return terminal.getGate(gate);
+            }
+        }
+        throw new NoSuitableGateException();
+    }
+
+    @Override
+    public void detach() {
+        index.clear();
+    }
+}
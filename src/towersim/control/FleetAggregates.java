@@ -0,0 +1,213 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.tasks.TaskType;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running airport-wide totals of aircraft weight, fuel, passengers and freight, broken down by
+ * the aircraft's current task type. Totals are updated by the difference in each aircraft's
+ * contribution whenever it is ticked or changes task, so every query takes constant time.
+ * Weight, fuel and freight are summed as whole numbers of UNITS_PER_KILOGRAM (or litre), so
+ * adding and later removing a contribution cancels exactly and the running totals never drift
+ * from totals recomputed from scratch, however many updates they have been through.
+ */
+public class FleetAggregates {
+    /** Number of fixed-point units in a kilogram or litre */
+    private static final double UNITS_PER_KILOGRAM = 1e6;
+
+    /** Number of aircraft with each current task type */
+    private final int[] aircraftCount;
+
+    /** Total weight in units of aircraft with each current task type */
+    private final long[] totalWeight;
+
+    /** Total fuel in units of aircraft with each current task type */
+    private final long[] totalFuel;
+
+    /** Total passengers on board aircraft with each current task type */
+    private final long[] totalPassengers;
+
+    /** Total freight in units on board aircraft with each current task type */
+    private final long[] totalFreight;
+
+    /** Values each aircraft currently contributes to the totals */
+    private final Map<Aircraft, Contribution> contributions;
+
+    /** Creates new aggregates with no aircraft */
+    public FleetAggregates() {
+        int numTypes = TaskType.values().length;
+        aircraftCount = new int[numTypes];
+        totalWeight = new long[numTypes];
+        totalFuel = new long[numTypes];
+        totalPassengers = new long[numTypes];
+        totalFreight = new long[numTypes];
+        contributions = new IdentityHashMap<>();
+    }
+
+    /**
+     * Adds the given aircraft to the totals.
+     * @param aircraft aircraft to be added
+     */
+    public void add(Aircraft aircraft) {
+        Contribution contribution = new Contribution();
+        contributions.put(aircraft, contribution);
+        measure(aircraft, contribution);
+        apply(contribution, 1);
+    }
+
+    /**
+     * Updates the totals after the given aircraft's fuel or load may have changed.
+     * @param aircraft aircraft whose state may have changed
+     */
+    public void update(Aircraft aircraft) {
+        Contribution contribution = contributions.get(aircraft);
+        if (contribution == null) {
+            return;
+        }
+        apply(contribution, -1);
+        measure(aircraft, contribution);
+        apply(contribution, 1);
+    }
+
+    /**
+     * Get the number of aircraft with the given current task type.
+     * @param type task type
+     * @return number of aircraft
+     */
+    public int getAircraftCount(TaskType type) {
+        return aircraftCount[type.ordinal()];
+    }
+
+    /**
+     * Get the total weight of aircraft with the given current task type.
+     * @param type task type
+     * @return total weight in kilograms
+     */
+    public double getTotalWeight(TaskType type) {
+        return totalWeight[type.ordinal()] / UNITS_PER_KILOGRAM;
+    }
+
+    /**
+     * Get the total fuel on board aircraft with the given current task type.
+     * @param type task type
+     * @return total fuel in litres
+     */
+    public double getTotalFuel(TaskType type) {
+        return totalFuel[type.ordinal()] / UNITS_PER_KILOGRAM;
+    }
+
+    /**
+     * Get the total number of passengers on board aircraft with the given current task type.
+     * @param type task type
+     * @return total passengers
+     */
+    public long getTotalPassengers(TaskType type) {
+        return totalPassengers[type.ordinal()];
+    }
+
+    /**
+     * Get the total freight on board aircraft with the given current task type.
+     * @param type task type
+     * @return total freight in kilograms
+     */
+    public double getTotalFreight(TaskType type) {
+        return totalFreight[type.ordinal()] / UNITS_PER_KILOGRAM;
+    }
+
+    /**
+     * Get the total weight of all aircraft.
+     * @return total weight in kilograms
+     */
+    public double getTotalWeight() {
+        long total = 0;
+        for (long weight : totalWeight) {
+            total += weight;
+        }
+        return total / UNITS_PER_KILOGRAM;
+    }
+
+    /**
+     * Get the total fuel on board all aircraft.
+     * @return total fuel in litres
+     */
+    public double getTotalFuel() {
+        long total = 0;
+        for (long fuel : totalFuel) {
+            total += fuel;
+        }
+        return total / UNITS_PER_KILOGRAM;
+    }
+
+    /**
+     * Checks the running totals against totals recomputed from scratch over the given aircraft.
+     * @param aircraft every aircraft that has been added to the aggregates
+     * @throws IllegalStateException if any running total is not exactly the recomputed total
+     */
+    public void verify(List<Aircraft> aircraft) {
+        FleetAggregates expected = new FleetAggregates();
+        for (int i = 0; i < aircraft.size(); i++) {
+            expected.add(aircraft.get(i));
+        }
+        for (TaskType type : TaskType.values()) {
+            int i = type.ordinal();
+            if (aircraftCount[i] != expected.aircraftCount[i]
+                    || totalPassengers[i] != expected.totalPassengers[i]
+                    || totalWeight[i] != expected.totalWeight[i]
+                    || totalFuel[i] != expected.totalFuel[i]
+                    || totalFreight[i] != expected.totalFreight[i]) {
+                throw new IllegalStateException("Running totals for " + type
+                        + " differ from recomputed totals");
+            }
+        }
+    }
+
+    /** Records the given aircraft's current values in its contribution */
+    private static void measure(Aircraft aircraft, Contribution contribution) {
+        contribution.type = aircraft.getTaskList().getCurrentTask().getType();
+        contribution.weight = toUnits(aircraft.getTotalWeight());
+        contribution.fuel = toUnits(aircraft.getFuelAmount());
+        if (aircraft instanceof PassengerAircraft) {
+            contribution.passengers = ((PassengerAircraft) aircraft).getNumPassengers();
+        } else if (aircraft instanceof FreightAircraft) {
+            contribution.freight = toUnits(((FreightAircraft) aircraft).getFreightAmount());
+        }
+    }
+
+    /** Adds (sign 1) or removes (sign -1) a contribution to or from the totals */
+    private void apply(Contribution contribution, int sign) {
+        int i = contribution.type.ordinal();
+        aircraftCount[i] += sign;
+        totalWeight[i] += sign * contribution.weight;
+        totalFuel[i] += sign * contribution.fuel;
+        totalPassengers[i] += sign * contribution.passengers;
+        totalFreight[i] += sign * contribution.freight;
+    }
+
+    /** Converts kilograms or litres to the nearest whole number of units */
+    private static long toUnits(double amount) {
+        return Math.round(amount * UNITS_PER_KILOGRAM);
+    }
+
+    /** Values a single aircraft contributes to the totals */
+    private static class Contribution {
+        /** Task type the values are counted under */
+        private TaskType type;
+
+        /** Total weight of the aircraft in units */
+        private long weight;
+
+        /** Fuel on board in units */
+        private long fuel;
+
+        /** Passengers on board */
+        private int passengers;
+
+        /** Freight on board in units */
+        private long freight;
+    }
+}
@@ -0,0 +1,118 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fuel percentage, total weight and occupancy level of every aircraft in a fleet, stored in
+ * parallel arrays in the order the aircraft were added to the tower. Metrics are meant to be
+ * refilled every tick, such as for reporting: the arrays are reused and only grow, and each
+ * aircraft's values come from its cache, so refilling allocates nothing once the arrays are
+ * large enough and only recomputes the values of aircraft that have changed.
+ */
+public class FleetMetrics {
+    /** Aircraft whose metrics are stored */
+    private Aircraft[] aircraft;
+
+    /** Percentage of fuel remaining of each aircraft */
+    private int[] fuelPercent;
+
+    /** Total weight in kilograms of each aircraft */
+    private double[] totalWeight;
+
+    /** Occupancy level as a percentage of each aircraft */
+    private int[] occupancyLevel;
+
+    /** Number of aircraft whose metrics are stored */
+    private int size;
+
+    /** Creates new empty metrics */
+    public FleetMetrics() {
+        aircraft = new Aircraft[0];
+        fuelPercent = new int[0];
+        totalWeight = new double[0];
+        occupancyLevel = new int[0];
+        size = 0;
+    }
+
+    /**
+     * Replaces the stored metrics with those of the given aircraft in their current state.
+     * @param fleet aircraft to be measured
+     */
+    void fill(List<Aircraft> fleet) {
+        int count = fleet.size();
+        if (count > aircraft.length) {
+            int capacity = Math.max(count, 2 * aircraft.length);
+            aircraft = Arrays.copyOf(aircraft, capacity);
+            fuelPercent = Arrays.copyOf(fuelPercent, capacity);
+            totalWeight = Arrays.copyOf(totalWeight, capacity);
+            occupancyLevel = Arrays.copyOf(occupancyLevel, capacity);
+        }
+        for (int i = 0; i < count; i++) {
+            Aircraft next = fleet.get(i);
+            aircraft[i] = next;
+            fuelPercent[i] = next.getFuelPercentRemaining();
+            totalWeight[i] = next.getTotalWeight();
+            occupancyLevel[i] = next.calculateOccupancyLevel();
+        }
+        // drop references to aircraft no longer measured
+        Arrays.fill(aircraft, count, Math.max(count, size), null);
+        size = count;
+    }
+
+    /**
+     * Get the number of aircraft whose metrics are stored.
+     * @return number of aircraft
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the aircraft at the given position.
+     * @param index position of the aircraft, from 0 to one less than the size
+     * @return aircraft at that position
+     * @throws IndexOutOfBoundsException if there is no aircraft at that position
+     */
+    public Aircraft getAircraft(int index) {
+        return aircraft[checkIndex(index)];
+    }
+
+    /**
+     * Get the percentage of fuel remaining of the aircraft at the given position.
+     * @param index position of the aircraft, from 0 to one less than the size
+     * @return percentage of fuel remaining
+     * @throws IndexOutOfBoundsException if there is no aircraft at that position
+     */
+    public int getFuelPercentRemaining(int index) {
+        return fuelPercent[checkIndex(index)];
+    }
+
+    /**
+     * Get the total weight of the aircraft at the given position.
+     * @param index position of the aircraft, from 0 to one less than the size
+     * @return total weight in kilograms
+     * @throws IndexOutOfBoundsException if there is no aircraft at that position
+     */
+    public double getTotalWeight(int index) {
+        return totalWeight[checkIndex(index)];
+    }
+
+    /**
+     * Get the occupancy level of the aircraft at the given position.
+     * @param index position of the aircraft, from 0 to one less than the size
+     * @return occupancy level as a percentage
+     * @throws IndexOutOfBoundsException if there is no aircraft at that position
+     */
+    public int getOccupancyLevel(int index) {
+        return occupancyLevel[checkIndex(index)];
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,157 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.ChangeGuard;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lets forks of a tower share its aircraft instead of copying them when they are created.
+ * The first time after a fork was created that one of the tower's aircraft is about to change,
+ * a copy of the aircraft as it was is added to the overlay of every fork not yet built, and
+ * each fork copies the aircraft that are still unchanged when it is built. Every aircraft is
+ * therefore copied once per fork, and only the aircraft the tower changes in the meantime are
+ * copied on the tower's thread.
+ * <p>
+ * An epoch counts the forks created so far, and the epoch at which each aircraft was last
+ * copied is kept, so an aircraft changing again before another fork is created costs a single
+ * lookup. Overlays are held weakly, so forks that are never built do not keep being given
+ * copies.
+ */
+class ForkSharing implements ChangeGuard {
+    /** Tower whose aircraft are shared */
+    private final ControlTower tower;
+
+    /** Overlays of forks not yet built */
+    private final List<WeakReference<Overlay>> overlays;
+
+    /** Position of each guarded aircraft in the tower, in the order they were added */
+    private final Map<Aircraft, Integer> positions;
+
+    /** Epoch at which each guarded aircraft was last copied, indexed by position */
+    private int[] copiedEpochs;
+
+    /** Number of forks created so far */
+    private int epoch;
+
+    /**
+     * Creates sharing for the given tower. Aircraft are guarded as forks are created.
+     * @param tower tower whose aircraft are shared
+     */
+    ForkSharing(ControlTower tower) {
+        this.tower = tower;
+        this.overlays = new ArrayList<>();
+        this.positions = new IdentityHashMap<>();
+        this.copiedEpochs = new int[0];
+        this.epoch = 0;
+    }
+
+    /**
+     * Starts sharing the tower's current aircraft with a new fork. Must be called on the
+     * thread ticking the tower.
+     * @return overlay to be given the aircraft the tower changes before the fork is built
+     */
+    synchronized Overlay open() {
+        int numAircraft = tower.getNumAircraft();
+        if (copiedEpochs.length < numAircraft) {
+            copiedEpochs = Arrays.copyOf(copiedEpochs,
+                    Math.max(numAircraft, 2 * copiedEpochs.length));
+        }
+        for (int i = positions.size(); i < numAircraft; i++) {
+            Aircraft aircraft = tower.getAircraft(i);
+            positions.put(aircraft, i);
+            aircraft.setChangeGuard(this);
+        }
+        epoch++;
+        Overlay overlay = new Overlay(numAircraft);
+        overlays.add(new WeakReference<>(overlay));
+        return overlay;
+    }
+
+    /**
+     * Gives every fork not yet built a copy of the given aircraft as it is, unless it already
+     * has one.
+     * @param aircraft aircraft about to change
+     */
+    @Override
+    public synchronized void beforeChange(Aircraft aircraft) {
+        if (overlays.isEmpty()) {
+            return;
+        }
+        Integer position = positions.get(aircraft);
+        if (position == null || copiedEpochs[position] == epoch) {
+            return;
+        }
+        Iterator<WeakReference<Overlay>> iterator = overlays.iterator();
+        while (iterator.hasNext()) {
+            Overlay overlay = iterator.next().get();
+            if (overlay == null || !overlay.keep(position, aircraft)) {
+                iterator.remove();
+            }
+        }
+        copiedEpochs[position] = epoch;
+    }
+
+    /**
+     * Copies of a tower's aircraft as they were when a fork was created, for the aircraft the
+     * tower has changed since.
+     */
+    static final class Overlay {
+        /** Number of aircraft the tower had when the fork was created */
+        private final int numAircraft;
+
+        /** Copies of the aircraft changed since, keyed by position in the tower */
+        private final Map<Integer, Aircraft> copies;
+
+        /** Whether the fork has been built and takes no more copies */
+        private boolean closed;
+
+        private Overlay(int numAircraft) {
+            this.numAircraft = numAircraft;
+            this.copies = new HashMap<>();
+            this.closed = false;
+        }
+
+        /**
+         * Keeps a copy of the aircraft at the given position as it is, unless one is kept
+         * already or the aircraft was added after the fork was created.
+         * @return false if the fork has been built and needs no more copies
+         */
+        private synchronized boolean keep(int position, Aircraft aircraft) {
+            if (closed) {
+                return false;
+            }
+            if (position < numAircraft && !copies.containsKey(position)) {
+                copies.put(position, aircraft.copy(aircraft.getTaskList().copy()));
+            }
+            return true;
+        }
+
+        /**
+         * Get the fork's copy of every aircraft the tower had when the fork was created,
+         * copying those the tower has not changed since, and stops taking copies. Until this
+         * returns, the tower cannot change any aircraft not yet copied.
+         * @param shared aircraft of the tower when the fork was created, in order
+         * @return copies of the aircraft, in the same order
+         */
+        synchronized Aircraft[] close(Aircraft[] shared) {
+            Aircraft[] result = new Aircraft[shared.length];
+            for (int i = 0; i < shared.length; i++) {
+                Aircraft copy = copies.get(i);
+                if (copy == null) {
+                    copy = shared[i].copy(shared[i].getTaskList().copy());
+                }
+                result[i] = copy;
+            }
+            copies.clear();
+            closed = true;
+            return result;
+        }
+    }
+}
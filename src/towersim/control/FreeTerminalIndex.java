@@ -0,0 +1,95 @@
+package towersim.control;
+
+import towersim.aircraft.AircraftType;
+import towersim.ground.Terminal;
+import towersim.ground.TerminalOccupancyListener;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of which terminals of each aircraft type have at least one unoccupied gate, in
+ * the order the terminals were added, so strategies can find the next terminal with room by
+ * scanning a bitset rather than every terminal.
+ */
+class FreeTerminalIndex implements TerminalOccupancyListener {
+    /** Terminals accommodating each aircraft type, in the order they were added */
+    private final Map<AircraftType, List<Terminal>> terminals;
+
+    /** For each aircraft type, bit i is set when terminal i has an unoccupied gate */
+    private final Map<AircraftType, BitSet> withFreeGate;
+
+    /** Position of every terminal in the list of its aircraft type */
+    private final Map<Terminal, Integer> positions;
+
+    /** Creates a new index with no terminals */
+    FreeTerminalIndex() {
+        terminals = new EnumMap<>(AircraftType.class);
+        withFreeGate = new EnumMap<>(AircraftType.class);
+        for (AircraftType type : AircraftType.values()) {
+            terminals.put(type, new ArrayList<>());
+            withFreeGate.put(type, new BitSet());
+        }
+        positions = new IdentityHashMap<>();
+    }
+
+    /**
+     * Adds the given terminal and starts listening for changes to its occupancy.
+     * @param terminal terminal to be added
+     */
+    void add(Terminal terminal) {
+        List<Terminal> group = terminals.get(terminal.getAircraftType());
+        positions.put(terminal, group.size());
+        group.add(terminal);
+        terminal.addOccupancyListener(this);
+        occupancyChanged(terminal);
+    }
+
+    /**
+     * Stops listening for changes to the occupancy of every terminal and forgets them all.
+     */
+    void clear() {
+        for (Terminal terminal : positions.keySet()) {
+            terminal.removeOccupancyListener(this);
+        }
+        positions.clear();
+        for (AircraftType type : AircraftType.values()) {
+            terminals.get(type).clear();
+            withFreeGate.get(type).clear();
+        }
+    }
+
+    /**
+     * Get the position of the first terminal at or after the given position that has an
+     * unoccupied gate.
+     * @param type aircraft type the terminal must accommodate
+     * @param from position to start from
+     * @return position of the terminal; -1 if no such terminal has an unoccupied gate
+     */
+    int nextWithFreeGate(AircraftType type, int from) {
+        return withFreeGate.get(type).nextSetBit(from);
+    }
+
+    /**
+     * Get the terminal at the given position.
+     * @param type aircraft type the terminal accommodates
+     * @param position position of the terminal
+     * @return terminal at that position
+     */
+    Terminal get(AircraftType type, int position) {
+        return terminals.get(type).get(position);
+    }
+
+    /**
+     * Updates whether the given terminal has an unoccupied gate.
+     * @param terminal terminal whose occupancy has changed
+     */
+    @Override
+    public void occupancyChanged(Terminal terminal) {
+        withFreeGate.get(terminal.getAircraftType()).set(positions.get(terminal),
+                terminal.getNumOccupiedGates() < terminal.getNumGates());
+    }
+}
@@ -0,0 +1,227 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCatalog;
+import towersim.tasks.TaskType;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Orders aircraft that are burning fuel by the tick at which they are predicted to run out.
+ * Aircraft only burn fuel while AWAY, at a fixed amount per tick, so an away aircraft's empty
+ * tick never changes until it lands; the index is only updated when an aircraft starts or
+ * stops being away, never on an ordinary tick. Aircraft on any other task are not burning fuel
+ * and are not indexed.
+ * Listeners are alerted once per flight when an aircraft has fewer ticks of fuel left than the
+ * alert threshold.
+ */
+public class FuelIndex {
+    /** Number of ticks of fuel below which listeners are alerted by default */
+    public static final int DEFAULT_ALERT_THRESHOLD = 3;
+
+    /** Proportion of fuel capacity burnt on every tick spent away */
+    private static final double BURN_RATE = 0.1;
+
+    /** Away aircraft ordered by the tick they run out of fuel, then by the order added */
+    private final NavigableSet<Entry> entries;
+
+    /** Index entry of every indexed aircraft */
+    private final Map<Aircraft, Entry> entriesByAircraft;
+
+    /** Listeners alerted when aircraft run low on fuel */
+    private final List<LowFuelListener> listeners;
+
+    /** Number of ticks of fuel below which listeners are alerted */
+    private int alertThreshold;
+
+    /** Aircraft predicted to run out before this tick have already been alerted */
+    private long alertedBefore;
+
+    /** Number of entries created so far, used to order aircraft with the same empty tick */
+    private long sequence;
+
+    /**
+     * Creates a new empty index that alerts aircraft with fewer than the given number of ticks
+     * of fuel left.
+     * @param alertThreshold number of ticks of fuel below which listeners are alerted
+     */
+    public FuelIndex(int alertThreshold) {
+        this.entries = new TreeSet<>();
+        this.entriesByAircraft = new IdentityHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.alertThreshold = alertThreshold;
+        this.alertedBefore = Long.MIN_VALUE;
+        this.sequence = 0;
+    }
+
+    /**
+     * Get the number of ticks the given aircraft can stay away on its current fuel.
+     * @param aircraft aircraft to check
+     * @return number of ticks before its fuel runs out, at least zero; Long.MAX_VALUE if it
+     * burns no fuel
+     */
+    public static long predictTicksToEmpty(Aircraft aircraft) {
+        long burn = Math.round(AircraftCatalog.getFuelCapacity(aircraft.getModelId())
+                * BURN_RATE);
+        if (burn <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (long) Math.ceil(aircraft.getFuelAmount() / burn));
+    }
+
+    /**
+     * Adds a listener to be alerted when aircraft run low on fuel.
+     * @param listener listener to be added
+     */
+    public void addListener(LowFuelListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Get the number of ticks of fuel below which listeners are alerted.
+     * @return alert threshold in ticks
+     */
+    public int getAlertThreshold() {
+        return alertThreshold;
+    }
+
+    /**
+     * Sets the number of ticks of fuel below which listeners are alerted. Takes effect from the
+     * next alert check; aircraft already alerted are not alerted again.
+     * @param alertThreshold alert threshold in ticks
+     */
+    public void setAlertThreshold(int alertThreshold) {
+        this.alertThreshold = alertThreshold;
+    }
+
+    /**
+     * Starts or stops indexing the given aircraft according to whether it is now away.
+     * @param aircraft aircraft that has been added or has changed task
+     * @param now current tick of the tower
+     */
+    public void update(Aircraft aircraft, long now) {
+        boolean away = aircraft.getTaskList().getCurrentTask().getType() == TaskType.AWAY;
+        Entry entry = entriesByAircraft.get(aircraft);
+        if (entry != null) {
+            if (away) {
+                return;
+            }
+            entries.remove(entry);
+            entriesByAircraft.remove(aircraft);
+        } else if (away) {
+            long ticks = predictTicksToEmpty(aircraft);
+            if (ticks == Long.MAX_VALUE) {
+                return;
+            }
+            entry = new Entry(aircraft, now + ticks, sequence++);
+            entries.add(entry);
+            entriesByAircraft.put(aircraft, entry);
+            if (entry.emptyTick < Math.min(alertedBefore, now + alertThreshold)) {
+                // already below the threshold on take off
+                alert(entry, now);
+            }
+        }
+    }
+
+    /**
+     * Get the aircraft with fewer than the given number of ticks of fuel left, starting with
+     * the aircraft that runs out first. Takes time proportional to the number of aircraft found.
+     * @param ticks number of ticks
+     * @param now current tick of the tower
+     * @return aircraft running out within the given number of ticks
+     */
+    public List<Aircraft> getAircraftBelow(long ticks, long now) {
+        List<Aircraft> found = new ArrayList<>();
+        if (ticks <= 0) {
+            return found;
+        }
+        for (Entry entry : entries.headSet(Entry.bound(now + ticks), false)) {
+            found.add(entry.aircraft);
+        }
+        return found;
+    }
+
+    /**
+     * Get the number of ticks of fuel the given aircraft has left.
+     * @param aircraft aircraft to look up
+     * @param now current tick of the tower
+     * @return number of ticks before it runs out, at least zero; -1 if it is not indexed
+     */
+    public long getTicksRemaining(Aircraft aircraft, long now) {
+        Entry entry = entriesByAircraft.get(aircraft);
+        if (entry == null) {
+            return -1;
+        }
+        return Math.max(0, entry.emptyTick - now);
+    }
+
+    /**
+     * Get the number of aircraft indexed.
+     * @return number of away aircraft burning fuel
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Alerts listeners of every aircraft that has dropped below the alert threshold since the
+     * last check. Each aircraft is alerted at most once per flight.
+     * @param now current tick of the tower
+     */
+    public void raiseAlerts(long now) {
+        long bound = now + alertThreshold;
+        if (bound <= alertedBefore) {
+            // threshold was lowered, and everything below the old one has been alerted
+            return;
+        }
+        Entry from = Entry.bound(alertedBefore);
+        alertedBefore = bound;
+        // copy first, since listeners may change the index
+        List<Entry> crossing = new ArrayList<>(
+                entries.subSet(from, true, Entry.bound(bound), false));
+        for (Entry entry : crossing) {
+            alert(entry, now);
+        }
+    }
+
+    /** Alerts listeners of a single aircraft */
+    private void alert(Entry entry, long now) {
+        for (LowFuelListener listener : listeners) {
+            listener.lowFuel(entry.aircraft, Math.max(0, entry.emptyTick - now));
+        }
+    }
+
+    /** Position of a single away aircraft in the index */
+    private static class Entry implements Comparable<Entry> {
+        /** Aircraft burning fuel; null for a search bound */
+        private final Aircraft aircraft;
+
+        /** Tick at which the aircraft runs out of fuel */
+        private final long emptyTick;
+
+        /** Order in which the entry was created */
+        private final long sequence;
+
+        private Entry(Aircraft aircraft, long emptyTick, long sequence) {
+            this.aircraft = aircraft;
+            this.emptyTick = emptyTick;
+            this.sequence = sequence;
+        }
+
+        /** Creates a bound that sorts before every entry with the given empty tick */
+        private static Entry bound(long emptyTick) {
+            return new Entry(null, emptyTick, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int compare = Long.compare(emptyTick, other.emptyTick);
+            return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package towersim.control;
+
+import towersim.tasks.TaskType;
+
+/**
+ * Represents what happens to an aircraft's gate when it moves from one task to the next.
+ */
+public enum GateAction {
+    /** Aircraft is not at a gate before or after the move */
+    NONE,
+
+    /** Aircraft arrives on the ground and must be assigned a gate */
+    ASSIGN,
+
+    /** Aircraft stays at the gate it is already parked at */
+    KEEP,
+
+    /** Aircraft leaves the ground and its gate is released */
+    RELEASE;
+
+    /** Gate action for every pair of task types, indexed by [from.ordinal()][to.ordinal()] */
+    private static final GateAction[][] TRANSITIONS = buildTransitions();
+
+    /**
+     * Get the gate action for moving from one task type to another.
+     * @param from type of the task the aircraft is leaving
+     * @param to type of the task the aircraft is moving to
+     * @return action to apply to the aircraft's gate
+     */
+    public static GateAction forTransition(TaskType from, TaskType to) {
+        return TRANSITIONS[from.ordinal()][to.ordinal()];
+    }
+
+    /**
+     * Checks whether an aircraft on the given task type is parked at a gate.
+     * @param type task type
+     * @return true if aircraft on this task type are at a gate; false otherwise
+     */
+    public static boolean isAtGate(TaskType type) {
+        return type == TaskType.WAIT || type == TaskType.LOAD;
+    }
+
+    private static GateAction[][] buildTransitions() {
+        TaskType[] types = TaskType.values();
+        GateAction[][] transitions = new GateAction[types.length][types.length];
+        for (TaskType from : types) {
+            for (TaskType to : types) {
+                GateAction action;
+                if (isAtGate(from)) {
+                    action = isAtGate(to) ? KEEP : RELEASE;
+                } else {
+                    action = isAtGate(to) ? ASSIGN : NONE;
+                }
+                transitions[from.ordinal()][to.ordinal()] = action;
+            }
+        }
+        return transitions;
+    }
+}
@@ -0,0 +1,34 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.util.NoSuitableGateException;
+
+/**
+ * Denotes a policy for choosing which unoccupied gate an aircraft is parked at. A strategy is
+ * told about every terminal of its tower as it is added, and is meant to be used by a single
+ * tower.
+ */
+public interface GateAssignmentStrategy {
+    /**
+     * Starts considering the gates of the given terminal.
+     * @param terminal terminal added to the tower
+     */
+    void addTerminal(Terminal terminal);
+
+    /**
+     * Chooses an unoccupied gate in a terminal compatible with the given aircraft, with every
+     * GateCapability the aircraft requires.
+     * @param aircraft aircraft to be parked
+     * @return unoccupied gate for the aircraft
+     * @throws NoSuitableGateException if every compatible gate is occupied
+     */
+    Gate findGate(Aircraft aircraft) throws NoSuitableGateException;
+
+    /**
+     * Stops considering every terminal added so far and removes any listeners added to them,
+     * such as when the strategy is replaced. The strategy must not be used afterwards.
+     */
+    void detach();
+}
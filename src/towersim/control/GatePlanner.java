@@ -0,0 +1,461 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftType;
+import towersim.ground.Gate;
+import towersim.ground.GateCapability;
+import towersim.ground.GateListener;
+import towersim.ground.GateTimeline;
+import towersim.ground.Reservation;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Books gates ahead of time for aircraft using their predicted turnaround at the gate.
+ * For each aircraft type and set of required gate capabilities, the gates meeting them are
+ * kept ordered by the tick from which they are next free, so the earliest available gate can be
+ * found and booked in logarithmic time. Each such order is only built when an aircraft first
+ * needs it.
+ * Bookings follow what actually happens at the gates: an aircraft parking at a gate holds it
+ * from then on, a booking is extended tick by tick while its aircraft is still parked, and is
+ * released as soon as the aircraft leaves. Bookings of other aircraft that an overstay or an
+ * unplanned parking would overlap are moved to the gate that becomes free earliest.
+ * Cancelled bookings are left in the expiry order and skipped once they come up, so
+ * cancelling takes logarithmic time at most.
+ */
+public class GatePlanner {
+    /** Number of ticks an aircraft is expected to spend at the gate for a WAIT task */
+    public static final int WAIT_TICKS = 1;
+
+    /** Control tower whose gates are planned */
+    private final ControlTower tower;
+
+    /** Gates of each compatible aircraft type, in the order they were found in the tower */
+    private final Map<AircraftType, List<GatePlan>> gatesByType;
+
+    /**
+     * Gates of each compatible aircraft type meeting each requirement mask, ordered by the tick
+     * they are next free from
+     */
+    private final Map<AircraftType, Map<Integer, TreeSet<GatePlan>>> gatesByFreeTick;
+
+    /** Planning state of each gate known to the planner */
+    private final Map<Gate, GatePlan> plans;
+
+    /** Current booking of each aircraft */
+    private final Map<Aircraft, Reservation> bookings;
+
+    /**
+     * Bookings ordered by the tick they finish, used to discard expired bookings; may still
+     * hold cancelled bookings, which are no longer in bookings
+     */
+    private final PriorityQueue<Reservation> expiries;
+
+    /** Terminals the planner listens to */
+    private final List<Terminal> terminals;
+
+    /** Listener added to each of the terminals */
+    private final GateListener gateListener;
+
+    /**
+     * Creates a new planner over all the gates currently in the tower's terminals, and starts
+     * listening for aircraft parking at and leaving them. Gates that are already occupied are
+     * booked for the predicted turnaround of the parked aircraft, starting at the tower's
+     * current tick.
+     * @param tower control tower whose gates are to be planned
+     */
+    public GatePlanner(ControlTower tower) {
+        this.tower = tower;
+        gatesByType = new EnumMap<>(AircraftType.class);
+        gatesByFreeTick = new EnumMap<>(AircraftType.class);
+        plans = new IdentityHashMap<>();
+        bookings = new IdentityHashMap<>();
+        expiries = new PriorityQueue<>(Comparator.comparingLong(Reservation::getEndTick));
+        terminals = new ArrayList<>();
+        gateListener = this::gateChanged;
+        long now = tower.getTicksElapsed();
+        int order = 0;
+        for (Terminal terminal : tower.getTerminals()) {
+            List<GatePlan> gates = gatesByType.computeIfAbsent(terminal.getAircraftType(),
+                    type -> new ArrayList<>());
+            for (Gate gate : terminal.getGates()) {
+                GatePlan plan = new GatePlan(gate, order++,
+                        Math.max(now, gate.getTimeline().getLatestEndTick()));
+                plans.put(gate, plan);
+                gates.add(plan);
+                Aircraft parked = gate.getAircraftAtGate();
+                if (parked != null) {
+                    occupy(plan, parked, now);
+                }
+            }
+            terminal.addGateListener(gateListener);
+            terminals.add(terminal);
+        }
+    }
+
+    /**
+     * Stops listening to the tower's terminals and cancels every booking made by the planner,
+     * such as when the planner is replaced. The planner must not be used afterwards.
+     */
+    public void detach() {
+        for (Terminal terminal : terminals) {
+            terminal.removeGateListener(gateListener);
+        }
+        terminals.clear();
+        for (Reservation reservation : bookings.values()) {
+            reservation.getGate().getTimeline().cancel(reservation);
+        }
+        bookings.clear();
+        expiries.clear();
+    }
+
+    /**
+     * Predicts the number of ticks the given aircraft will spend at a gate, based on the ground
+     * tasks (WAIT and LOAD) at the front of its task list. If the aircraft is currently landing,
+     * the prediction starts from the task after landing.
+     * @param aircraft aircraft whose turnaround to predict
+     * @return predicted number of ticks at the gate, at least one
+     */
+    public static long predictTurnaround(Aircraft aircraft) {
+        TaskList tasks = aircraft.getTaskList();
+        int step = tasks.getCurrentTask().getType() == TaskType.LAND ? 1 : 0;
+        long ticks = 0;
+        for (; step < tasks.size(); step++) {
+            Task task = tasks.getTaskAhead(step);
+            if (task.getType() == TaskType.WAIT) {
+                ticks += WAIT_TICKS;
+            } else if (task.getType() == TaskType.LOAD) {
+                ticks += aircraft.getLoadingTime(task.getLoadPercent());
+            } else {
+                break;
+            }
+        }
+        return Math.max(1, ticks);
+    }
+
+    /**
+     * Finds the gate that becomes free earliest for the given aircraft, without booking it.
+     * @param aircraft aircraft for which to find a gate
+     * @param afterTick earliest tick the aircraft could arrive at the gate
+     * @return proposed reservation of the earliest free compatible gate
+     * @throws NoSuitableGateException if there are no gates compatible with the aircraft
+     */
+    public Reservation findEarliestGate(Aircraft aircraft, long afterTick)
+            throws NoSuitableGateException {
+        GatePlan plan = earliestFreeGate(aircraft);
+        long start = Math.max(afterTick, plan.freeFromTick);
+        return new Reservation(plan.gate, aircraft, start, start + predictTurnaround(aircraft));
+    }
+
+    /**
+     * Books the gate that becomes free earliest for the given aircraft. Any existing booking of
+     * the aircraft is cancelled first.
+     * @param aircraft aircraft for which to book a gate
+     * @param afterTick earliest tick the aircraft could arrive at the gate
+     * @return the booking made for the aircraft
+     * @throws NoSuitableGateException if there are no gates compatible with the aircraft
+     */
+    public Reservation book(Aircraft aircraft, long afterTick) throws NoSuitableGateException {
+        cancel(aircraft);
+        GatePlan plan = earliestFreeGate(aircraft);
+        long start = Math.max(afterTick, plan.freeFromTick);
+        Reservation reservation = new Reservation(plan.gate, aircraft, start,
+                start + predictTurnaround(aircraft));
+        reserve(plan, reservation);
+        return reservation;
+    }
+
+    /**
+     * Books a gate for the given aircraft to park at on the tower's current tick. A booking the
+     * aircraft already holds is kept if its gate is free from now until the booking starts,
+     * such as when the previous aircraft left early; otherwise the aircraft is moved to a
+     * compatible gate with nothing booked from now, if there is one.
+     * @param aircraft aircraft to be parked
+     * @return unoccupied gate booked for the aircraft from the current tick
+     * @throws NoSuitableGateException if no compatible gate is free now, in which case the
+     * aircraft keeps its booking, or is booked the gate that becomes free earliest
+     */
+    public Gate bookNow(Aircraft aircraft) throws NoSuitableGateException {
+        long now = tower.getTicksElapsed();
+        Reservation booking = bookings.get(aircraft);
+        if (booking != null && !booking.getGate().isOccupied()) {
+            Gate gate = booking.getGate();
+            if (booking.getStartTick() <= now) {
+                return gate;
+            }
+            if (gate.getTimeline().isFree(now, booking.getStartTick())) {
+                cancel(aircraft);
+                reserve(plans.get(gate), new Reservation(gate, aircraft, now,
+                        now + predictTurnaround(aircraft)));
+                return gate;
+            }
+        }
+        GatePlan plan = earliestFreeGate(aircraft);
+        if (plan.freeFromTick > now) {
+            if (booking == null) {
+                book(aircraft, now);
+            }
+            throw new NoSuitableGateException();
+        }
+        cancel(aircraft);
+        reserve(plan, new Reservation(plan.gate, aircraft, now,
+                now + predictTurnaround(aircraft)));
+        return plan.gate;
+    }
+
+    /**
+     * Checks whether another aircraft holds a booking on the given gate from the tower's
+     * current tick on, so the given aircraft parking there now would take the gate from it.
+     * Like bookNow(), this treats any later booking as taken, as an aircraft parked out of
+     * plan may stay longer than predicted.
+     * @param gate gate the aircraft would park at
+     * @param aircraft aircraft to be parked
+     * @return true if another aircraft has the gate booked from now on; false otherwise
+     */
+    public boolean isBookedForOther(Gate gate, Aircraft aircraft) {
+        long now = tower.getTicksElapsed();
+        for (Reservation reservation : gate.getTimeline().getReservations()) {
+            if (reservation.getEndTick() > now && reservation.getAircraft() != aircraft) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cancels the booking held by the given aircraft, if any.
+     * @param aircraft aircraft whose booking to cancel
+     */
+    public void cancel(Aircraft aircraft) {
+        Reservation reservation = bookings.remove(aircraft);
+        if (reservation == null) {
+            return;
+        }
+        reservation.getGate().getTimeline().cancel(reservation);
+        reorder(plans.get(reservation.getGate()));
+    }
+
+    /**
+     * Get the current booking of the given aircraft.
+     * @param aircraft aircraft whose booking to find
+     * @return booking of the aircraft; null if it has none
+     */
+    public Reservation getBooking(Aircraft aircraft) {
+        return bookings.get(aircraft);
+    }
+
+    /**
+     * Discards all bookings that finished at or before the given tick. A booking whose aircraft
+     * is still parked at the gate is extended by a tick instead, and an aircraft still waiting
+     * to land is booked again from the given tick.
+     * @param tick current tick of the simulation
+     */
+    public void releaseBefore(long tick) {
+        while (!expiries.isEmpty() && expiries.peek().getEndTick() <= tick) {
+            Reservation expired = expiries.poll();
+            Aircraft aircraft = expired.getAircraft();
+            if (!bookings.remove(aircraft, expired)) {
+                // cancelled or replaced since it was added
+                continue;
+            }
+            Gate gate = expired.getGate();
+            gate.getTimeline().cancel(expired);
+            GatePlan plan = plans.get(gate);
+            if (gate.getAircraftAtGate() == aircraft) {
+                hold(plan, new Reservation(gate, aircraft, expired.getStartTick(),
+                        tick + WAIT_TICKS));
+                continue;
+            }
+            reorder(plan);
+            if (aircraft.getTaskList().getCurrentTask().getType() == TaskType.LAND) {
+                try {
+                    book(aircraft, tick);
+                } catch (NoSuitableGateException e) {
+                    // aircraft will have to find a gate once it lands
+                }
+            }
+        }
+    }
+
+    /** Keeps bookings in step with aircraft parking at and leaving the planned gates */
+    private void gateChanged(Terminal terminal, Gate gate, Aircraft aircraft, boolean parked) {
+        GatePlan plan = plans.get(gate);
+        if (plan == null) {
+            // gate added after the planner was created
+            return;
+        }
+        if (parked) {
+            occupy(plan, aircraft, tower.getTicksElapsed());
+        } else {
+            Reservation booking = bookings.get(aircraft);
+            if (booking != null && booking.getGate() == gate) {
+                cancel(aircraft);
+            }
+        }
+    }
+
+    /**
+     * Holds the given gate for the aircraft that has parked at it, from the given tick for its
+     * predicted turnaround, unless the aircraft is parked as booked. Any booking the aircraft
+     * held on another gate is given up.
+     */
+    private void occupy(GatePlan plan, Aircraft aircraft, long now) {
+        Reservation booking = bookings.get(aircraft);
+        if (booking != null && booking.getGate() == plan.gate && booking.covers(now)) {
+            return;
+        }
+        cancel(aircraft);
+        hold(plan, new Reservation(plan.gate, aircraft, now, now + predictTurnaround(aircraft)));
+    }
+
+    /**
+     * Adds the given booking of the planned gate, first moving the bookings it overlaps to the
+     * gate that becomes free earliest after each of them was due to start.
+     */
+    private void hold(GatePlan plan, Reservation reservation) {
+        GateTimeline timeline = plan.gate.getTimeline();
+        List<Reservation> displaced = new ArrayList<>();
+        for (Reservation other : timeline.getReservations()) {
+            if (other.getStartTick() < reservation.getEndTick()
+                    && other.getEndTick() > reservation.getStartTick()) {
+                timeline.cancel(other);
+                if (bookings.remove(other.getAircraft(), other)) {
+                    displaced.add(other);
+                }
+            }
+        }
+        reserve(plan, reservation);
+        for (Reservation other : displaced) {
+            try {
+                book(other.getAircraft(),
+                        Math.max(other.getStartTick(), tower.getTicksElapsed()));
+            } catch (NoSuitableGateException e) {
+                // aircraft will have to find a gate once it lands
+            }
+        }
+    }
+
+    /** Adds the given booking, which must not overlap any other, to the planned gate */
+    private void reserve(GatePlan plan, Reservation reservation) {
+        try {
+            plan.gate.getTimeline().reserve(reservation);
+        } catch (NoSpaceException e) {
+            // bookings are only ever appended after the last one, or after clearing overlaps
+            throw new IllegalStateException(e);
+        }
+        bookings.put(reservation.getAircraft(), reservation);
+        expiries.add(reservation);
+        reorder(plan);
+    }
+
+    /**
+     * Get the gate that becomes free earliest of the gates with every capability the given
+     * aircraft requires. A gate found occupied with nothing booked is first held for the
+     * aircraft parked at it, so that gates that are actually occupied are never handed out.
+     */
+    private GatePlan earliestFreeGate(Aircraft aircraft) throws NoSuitableGateException {
+        long now = tower.getTicksElapsed();
+        GatePlan plan = earliestCompatibleGate(aircraft);
+        while (plan.gate.isOccupied() && plan.freeFromTick <= now) {
+            Aircraft occupant = plan.gate.getAircraftAtGate();
+            cancel(occupant);
+            hold(plan, new Reservation(plan.gate, occupant, now,
+                    now + predictTurnaround(occupant)));
+            plan = earliestCompatibleGate(aircraft);
+        }
+        return plan;
+    }
+
+    /**
+     * Get the gate that becomes free earliest of the gates with every capability the given
+     * aircraft requires.
+     */
+    private GatePlan earliestCompatibleGate(Aircraft aircraft) throws NoSuitableGateException {
+        TreeSet<GatePlan> gates = compatibleGates(aircraft.getAircraftType(),
+                GateCapability.requiredBy(aircraft));
+        if (gates.isEmpty()) {
+            throw new NoSuitableGateException();
+        }
+        return gates.first();
+    }
+
+    /**
+     * Get the gates of the given aircraft type meeting the given requirements, ordered by the
+     * tick they are next free from. The order is built from the planned gates the first time
+     * it is needed, and kept up to date from then on.
+     */
+    private TreeSet<GatePlan> compatibleGates(AircraftType type, int requirements) {
+        Map<Integer, TreeSet<GatePlan>> byRequirements = gatesByFreeTick.computeIfAbsent(type,
+                t -> new HashMap<>());
+        TreeSet<GatePlan> gates = byRequirements.get(requirements);
+        if (gates == null) {
+            gates = new TreeSet<>();
+            for (GatePlan plan : gatesByType.getOrDefault(type, List.of())) {
+                if (GateCapability.meets(plan.gate.getCapabilities(), requirements)) {
+                    gates.add(plan);
+                    plan.ordered.add(gates);
+                }
+            }
+            byRequirements.put(requirements, gates);
+        }
+        return gates;
+    }
+
+    /**
+     * Moves the given gate to its place in every free-tick order it belongs to after its
+     * bookings have changed.
+     */
+    private void reorder(GatePlan plan) {
+        for (TreeSet<GatePlan> gates : plan.ordered) {
+            gates.remove(plan);
+        }
+        plan.freeFromTick = Math.max(tower.getTicksElapsed(),
+                plan.gate.getTimeline().getLatestEndTick());
+        for (TreeSet<GatePlan> gates : plan.ordered) {
+            gates.add(plan);
+        }
+    }
+
+    /** Planning state of a single gate */
+    private static class GatePlan implements Comparable<GatePlan> {
+        /** Gate being planned */
+        private final Gate gate;
+
+        /** Free-tick orders of the requirement masks the gate meets, each including this one */
+        private final List<TreeSet<GatePlan>> ordered;
+
+        /** Position of the gate in the tower, used to break ties between gates */
+        private final int order;
+
+        /** Tick from which the gate has no further bookings */
+        private long freeFromTick;
+
+        private GatePlan(Gate gate, int order, long freeFromTick) {
+            this.gate = gate;
+            this.ordered = new ArrayList<>();
+            this.order = order;
+            this.freeFromTick = freeFromTick;
+        }
+
+        @Override
+        public int compareTo(GatePlan other) {
+            if (freeFromTick != other.freeFromTick) {
+                return Long.compare(freeFromTick, other.freeFromTick);
+            }
+            return Integer.compare(order, other.order);
+        }
+    }
+}
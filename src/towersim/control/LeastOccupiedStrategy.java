@@ -0,0 +1,125 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftType;
+import towersim.ground.Gate;
+import towersim.ground.GateCapability;
+import towersim.ground.Terminal;
+import towersim.ground.TerminalOccupancyListener;
+import towersim.util.NoSuitableGateException;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Parks aircraft at the compatible terminal with the smallest proportion of occupied gates,
+ * choosing the earliest added terminal on a tie. Terminals are kept ordered by occupancy and
+ * re-ordered whenever a gate is occupied or vacated, so choosing takes O(log terminals) time
+ * unless the least occupied terminals have no free gate with the capabilities required.
+ */
+public class LeastOccupiedStrategy implements GateAssignmentStrategy,
+        TerminalOccupancyListener {
+    /** Terminals accommodating each aircraft type, least occupied first */
+    private final Map<AircraftType, NavigableSet<Entry>> byOccupancy;
+
+    /** Current entry of every terminal */
+    private final Map<Terminal, Entry> entries;
+
+    /** Creates a new least-occupied strategy with no terminals */
+    public LeastOccupiedStrategy() {
+        byOccupancy = new EnumMap<>(AircraftType.class);
+        for (AircraftType type : AircraftType.values()) {
+            byOccupancy.put(type, new TreeSet<>());
+        }
+        entries = new IdentityHashMap<>();
+    }
+
+    @Override
+    public void addTerminal(Terminal terminal) {
+        Entry entry = new Entry(terminal, entries.size());
+        entries.put(terminal, entry);
+        byOccupancy.get(terminal.getAircraftType()).add(entry);
+        terminal.addOccupancyListener(this);
+    }
+
+    @Override
+    public Gate findGate(Aircraft aircraft) throws NoSuitableGateException {
+        int requirements = GateCapability.requiredBy(aircraft);
+        for (Entry entry : byOccupancy.get(aircraft.getAircraftType())) {
+            if (entry.isFull()) {
+                // terminals are ordered by occupancy, so every later terminal is full too
+                break;
+            }
+            int gate = entry.terminal.indexOfUnoccupiedGate(requirements);
+            if (gate >= 0) {
+                return entry.terminal.getGate(gate);
+            }
+        }
+        throw new NoSuitableGateException();
+    }
+
+    @Override
+    public void detach() {
+        for (Terminal terminal : entries.keySet()) {
+            terminal.removeOccupancyListener(this);
+        }
+        entries.clear();
+        for (NavigableSet<Entry> terminals : byOccupancy.values()) {
+            terminals.clear();
+        }
+    }
+
+    /**
+     * Moves the given terminal to its new place in the occupancy order.
+     * @param terminal terminal whose occupancy has changed
+     */
+    @Override
+    public void occupancyChanged(Terminal terminal) {
+        Entry old = entries.get(terminal);
+        NavigableSet<Entry> terminals = byOccupancy.get(terminal.getAircraftType());
+        terminals.remove(old);
+        Entry entry = new Entry(terminal, old.order);
+        entries.put(terminal, entry);
+        terminals.add(entry);
+    }
+
+    /** Occupancy of a terminal at the time it was last ordered */
+    private static class Entry implements Comparable<Entry> {
+        /** Terminal being ordered */
+        private final Terminal terminal;
+
+        /** Number of occupied gates */
+        private final int occupied;
+
+        /** Number of gates */
+        private final int gates;
+
+        /** Order in which the terminal was added */
+        private final int order;
+
+        private Entry(Terminal terminal, int order) {
+            this.terminal = terminal;
+            this.occupied = terminal.getNumOccupiedGates();
+            this.gates = terminal.getNumGates();
+            this.order = order;
+        }
+
+        /** Checks whether every gate of the terminal is occupied */
+        private boolean isFull() {
+            return occupied >= gates;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (isFull() != other.isFull()) {
+                return isFull() ? 1 : -1;
+            }
+            // compare occupied / gates without dividing
+            int compare = Long.compare((long) occupied * other.gates,
+                    (long) other.occupied * gates);
+            return compare != 0 ? compare : Integer.compare(order, other.order);
+        }
+    }
+}
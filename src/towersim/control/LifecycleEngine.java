@@ -0,0 +1,253 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the tower's aircraft through their task lists as time passes. Each aircraft is given a
+ * number of ticks to spend on its current task; when they run out, it moves to its next task and
+ * its gate is assigned, kept or released according to the GateAction transition table.
+ * All aircraft due on the same tick are moved in one batch: gates are released first, so that
+ * aircraft arriving on the same tick can be parked at them.
+ */
+public class LifecycleEngine {
+    /** Number of ticks spent on a LAND or TAKEOFF task */
+    public static final int RUNWAY_TICKS = 1;
+
+    /** Control tower whose aircraft are moved */
+    private final ControlTower tower;
+
+    /** Number of ticks aircraft spend away from the airport */
+    private final int awayTicks;
+
+    /** Progress of every tracked aircraft through its current task */
+    private final Map<Aircraft, Progress> progress;
+
+    /** Aircraft due to finish their current task, keyed by the tick they are due */
+    private final Map<Long, List<Aircraft>> dueAircraft;
+
+    /** Number of times an aircraft had to keep holding because no gate was free on landing */
+    private long landingHolds;
+
+    /**
+     * Creates a new lifecycle engine for the given tower and starts tracking all aircraft it
+     * currently controls, as if they had just started their current task.
+     * @param tower control tower whose aircraft are to be moved
+     * @param awayTicks number of ticks aircraft spend away from the airport
+     * @throws IllegalArgumentException if awayTicks is less than one
+     */
+    public LifecycleEngine(ControlTower tower, int awayTicks) {
+        if (awayTicks < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.tower = tower;
+        this.awayTicks = awayTicks;
+        this.progress = new IdentityHashMap<>();
+        this.dueAircraft = new HashMap<>();
+        this.landingHolds = 0;
+        Map<Aircraft, Gate> parkedAt = new IdentityHashMap<>();
+        for (Terminal terminal : tower.getTerminals()) {
+            for (Gate gate : terminal.getGates()) {
+                if (gate.isOccupied()) {
+                    parkedAt.put(gate.getAircraftAtGate(), gate);
+                }
+            }
+        }
+        for (Aircraft aircraft : tower.getAircraft()) {
+            track(aircraft, parkedAt.get(aircraft));
+        }
+    }
+
+    /**
+     * Get the number of ticks aircraft spend away from the airport.
+     * @return number of away ticks
+     */
+    public int getAwayTicks() {
+        return awayTicks;
+    }
+
+    /**
+     * Get the number of ticks the given aircraft spends on the given task.
+     * @param aircraft aircraft carrying out the task
+     * @param task task to be carried out
+     * @return number of ticks, at least one
+     */
+    public int getDuration(Aircraft aircraft, Task task) {
+        TaskType type = task.getType();
+        int ticks;
+        if (type == TaskType.AWAY) {
+            ticks = awayTicks;
+        } else if (type == TaskType.LOAD) {
+            ticks = aircraft.getLoadingTime(task.getLoadPercent());
+        } else if (type == TaskType.WAIT) {
+            ticks = GatePlanner.WAIT_TICKS;
+        } else {
+            ticks = RUNWAY_TICKS;
+        }
+        return Math.max(1, ticks);
+    }
+
+    /**
+     * Starts tracking the given aircraft from the start of its current task. Its gate, if any,
+     * is looked up when it is first needed.
+     * @param aircraft aircraft to be tracked
+     */
+    public void track(Aircraft aircraft) {
+        track(aircraft, null);
+    }
+
+    /**
+     * Get the number of ticks left before the given aircraft finishes its current task.
+     * @param aircraft tracked aircraft
+     * @return ticks remaining on the current task; -1 if the aircraft is not tracked
+     */
+    public long getRemainingTicks(Aircraft aircraft) {
+        Progress state = progress.get(aircraft);
+        if (state == null) {
+            return -1;
+        }
+        return state.dueTick - tower.getTicksElapsed();
+    }
+
+    /**
+     * Get the number of times an aircraft had to keep holding because no gate was free when
+     * it was due to land.
+     * @return number of landing holds
+     */
+    public long getLandingHolds() {
+        return landingHolds;
+    }
+
+    /**
+     * Sets the number of ticks left before the given tracked aircraft finishes its current
+     * task, such as when copying the progress of an aircraft from another tower.
+     * @param aircraft tracked aircraft
+     * @param remainingTicks ticks remaining on the current task, at least one
+     */
+    void setRemainingTicks(Aircraft aircraft, long remainingTicks) {
+        Progress state = progress.get(aircraft);
+        if (state != null) {
+            schedule(aircraft, state, tower.getTicksElapsed() + Math.max(1, remainingTicks));
+        }
+    }
+
+    /**
+     * Restarts the countdown of the given aircraft after it has moved to its next task.
+     * @param aircraft aircraft whose task has changed
+     */
+    void taskChanged(Aircraft aircraft) {
+        Progress state = progress.get(aircraft);
+        if (state != null) {
+            schedule(aircraft, state, tower.getTicksElapsed()
+                    + getDuration(aircraft, aircraft.getTaskList().getCurrentTask()));
+        }
+    }
+
+    /**
+     * Moves every aircraft whose current task is finished at the tower's current tick on to
+     * its next task, releasing gates before assigning them.
+     */
+    public void advance() {
+        long now = tower.getTicksElapsed();
+        List<Aircraft> due = dueAircraft.remove(now);
+        if (due == null) {
+            return;
+        }
+        List<Aircraft> releasing = new ArrayList<>();
+        List<Aircraft> moving = new ArrayList<>();
+        List<Aircraft> assigning = new ArrayList<>();
+        for (Aircraft aircraft : due) {
+            if (progress.get(aircraft).dueTick != now) {
+                // task was changed by someone else since this aircraft was scheduled
+                continue;
+            }
+            GateAction action = GateAction.forTransition(
+                    aircraft.getTaskList().getCurrentTask().getType(),
+                    aircraft.getTaskList().getNextTask().getType());
+            if (action == GateAction.RELEASE) {
+                releasing.add(aircraft);
+            } else if (action == GateAction.ASSIGN) {
+                assigning.add(aircraft);
+            } else {
+                moving.add(aircraft);
+            }
+        }
+        for (Aircraft aircraft : releasing) {
+            Progress state = progress.get(aircraft);
+            Gate gate = state.gate != null ? state.gate : tower.findGateOfAircraft(aircraft);
+            if (gate != null && gate.getAircraftAtGate() == aircraft) {
+                gate.aircraftLeaves();
+            }
+            state.gate = null;
+            aircraft.getTaskList().moveToNextTask();
+        }
+        for (Aircraft aircraft : moving) {
+            aircraft.getTaskList().moveToNextTask();
+        }
+        for (Aircraft aircraft : assigning) {
+            Progress state = progress.get(aircraft);
+            try {
+                Gate gate = findGate(aircraft);
+                gate.parkAircraft(aircraft);
+                state.gate = gate;
+                aircraft.getTaskList().moveToNextTask();
+            } catch (NoSuitableGateException | NoSpaceException e) {
+                // no gate is free, so keep holding and try again next tick
+                landingHolds++;
+                schedule(aircraft, state, now + 1);
+            }
+        }
+    }
+
+    /**
+     * Finds a free gate for the given aircraft. When the tower has a gate planner the gate is
+     * booked through it, preferring a gate booked for the aircraft in advance, so that a gate
+     * promised to another aircraft is never taken.
+     */
+    private Gate findGate(Aircraft aircraft) throws NoSuitableGateException {
+        GatePlanner planner = tower.getGatePlanner();
+        if (planner != null) {
+            return planner.bookNow(aircraft);
+        }
+        return tower.findUnoccupiedGate(aircraft);
+    }
+
+    /** Starts tracking the given aircraft, parked at the given gate if known */
+    private void track(Aircraft aircraft, Gate gate) {
+        Progress state = progress.computeIfAbsent(aircraft, tracked -> new Progress());
+        state.gate = gate;
+        schedule(aircraft, state, tower.getTicksElapsed()
+                + getDuration(aircraft, aircraft.getTaskList().getCurrentTask()));
+    }
+
+    /**
+     * Sets the tick the given aircraft is due to finish its current task. An aircraft already
+     * due on that tick is not listed for it again, so it is never moved twice in one batch.
+     */
+    private void schedule(Aircraft aircraft, Progress state, long dueTick) {
+        if (state.dueTick == dueTick) {
+            return;
+        }
+        state.dueTick = dueTick;
+        dueAircraft.computeIfAbsent(dueTick, tick -> new ArrayList<>()).add(aircraft);
+    }
+
+    /** Progress of a single aircraft through its current task */
+    private static class Progress {
+        /** Tick at which the aircraft finishes its current task */
+        private long dueTick = Long.MIN_VALUE;
+
+        /** Gate the aircraft is parked at; null if not parked or not yet known */
+        private Gate gate;
+    }
+}
@@ -0,0 +1,15 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+
+/**
+ * Denotes a class that is told when an aircraft is about to run out of fuel.
+ */
+public interface LowFuelListener {
+    /**
+     * Method called once when an away aircraft's predicted fuel drops below the alert threshold.
+     * @param aircraft aircraft running low on fuel
+     * @param ticksRemaining number of ticks before the aircraft runs out of fuel
+     */
+    void lowFuel(Aircraft aircraft, long ticksRemaining);
+}
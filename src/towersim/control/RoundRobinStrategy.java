@@ -0,0 +1,63 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftType;
+import towersim.ground.Gate;
+import towersim.ground.GateCapability;
+import towersim.ground.Terminal;
+import towersim.util.NoSuitableGateException;
+
+/**
+ * Parks each aircraft at the next compatible terminal with room after the terminal used for
+ * the previous aircraft of the same type, wrapping around, so arrivals are spread evenly over
+ * terminals regardless of how long aircraft stay.
+ */
+public class RoundRobinStrategy implements GateAssignmentStrategy {
+    /** Terminals with an unoccupied gate */
+    private final FreeTerminalIndex index;
+
+    /** Position to start searching from for each aircraft type, indexed by ordinal */
+    private final int[] nextPosition;
+
+    /** Creates a new round-robin strategy with no terminals */
+    public RoundRobinStrategy() {
+        index = new FreeTerminalIndex();
+        nextPosition = new int[AircraftType.values().length];
+    }
+
+    @Override
+    public void addTerminal(Terminal terminal) {
+        index.add(terminal);
+    }
+
+    @Override
+    public Gate findGate(Aircraft aircraft) throws NoSuitableGateException {
+        AircraftType type = aircraft.getAircraftType();
+        int requirements = GateCapability.requiredBy(aircraft);
+        int start = nextPosition[type.ordinal()];
+        int position = index.nextWithFreeGate(type, start);
+        boolean wrapped = false;
+        while (true) {
+            if (position < 0 && !wrapped) {
+                // wrap around to the first terminal
+                wrapped = true;
+                position = index.nextWithFreeGate(type, 0);
+            }
+            if (position < 0 || (wrapped && position >= start)) {
+                throw new NoSuitableGateException();
+            }
+            Terminal terminal = index.get(type, position);
+            int gate = terminal.indexOfUnoccupiedGate(requirements);
+            if (gate >= 0) {
+                nextPosition[type.ordinal()] = position + 1;
+                return terminal.getGate(gate);
+            }
+            position = index.nextWithFreeGate(type, position + 1);
+        }
+    }
+
+    @Override
+    public void detach() {
+        index.clear();
+    }
+}
@@ -0,0 +1,191 @@
+package towersim.control;
+
+import towersim.aircraft.WakeCategory;
+import towersim.tasks.TaskType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Represents a runway used by aircraft to land and take off, along with the slots already
+ * allocated on it. A runway's slots should all be allocated by the same SlotCalendar.
+ */
+public class Runway {
+    /** Designator of the runway, such as "09L" */
+    private final String designator;
+
+    /** Whether aircraft may land on the runway */
+    private final boolean arrivals;
+
+    /** Whether aircraft may take off from the runway */
+    private final boolean departures;
+
+    /** Slots allocated on the runway, keyed by their time in seconds */
+    private final TreeMap<Long, RunwaySlot> slots;
+
+    /**
+     * Gaps between consecutive slots wide enough to fit another movement, mapping the time of
+     * the slot before each gap to the time of the slot after it
+     */
+    private final TreeMap<Long, Long> gaps;
+
+    /**
+     * Creates a new runway with no allocated slots
+     * @param designator designator of the runway, such as "09L"
+     * @param arrivals whether aircraft may land on the runway
+     * @param departures whether aircraft may take off from the runway
+     */
+    public Runway(String designator, boolean arrivals, boolean departures) {
+        this.designator = designator;
+        this.arrivals = arrivals;
+        this.departures = departures;
+        this.slots = new TreeMap<>();
+        this.gaps = new TreeMap<>();
+    }
+
+    /**
+     * Get the designator of the runway.
+     * @return runway designator
+     */
+    public String getDesignator() {
+        return designator;
+    }
+
+    /**
+     * Checks whether the runway may be used for the given movement.
+     * @param operation LAND or TAKEOFF
+     * @return true if the movement is allowed on the runway; false otherwise
+     */
+    public boolean allows(TaskType operation) {
+        if (operation == TaskType.LAND) {
+            return arrivals;
+        }
+        return operation == TaskType.TAKEOFF && departures;
+    }
+
+    /**
+     * Get all slots allocated on the runway, ordered by time.
+     * @return list of slots
+     */
+    public List<RunwaySlot> getSlots() {
+        return new ArrayList<>(slots.values());
+    }
+
+    /**
+     * Get the number of movements allocated on the runway within the given period.
+     * @param fromTime start of the period in seconds (inclusive)
+     * @param toTime end of the period in seconds (exclusive)
+     * @return number of slots in the period
+     */
+    public int countMovements(long fromTime, long toTime) {
+        return slots.subMap(fromTime, toTime).size();
+    }
+
+    /**
+     * Removes all slots before the given time. Slots should only be removed once no more
+     * slots will be requested before the given time plus the largest separation minimum.
+     * @param time time in seconds
+     */
+    public void releaseBefore(long time) {
+        slots.headMap(time).clear();
+        gaps.headMap(time).clear();
+    }
+
+    /**
+     * Finds the earliest time at or after the given time at which an aircraft of the given
+     * wake category can use the runway while keeping the required separation from the
+     * movements before and after it.
+     * @param category wake category of the aircraft
+     * @param fromTime earliest acceptable time in seconds
+     * @param minima separation minima to keep
+     * @return earliest available time in seconds
+     */
+    long findEarliestTime(WakeCategory category, long fromTime, SeparationMinima minima) {
+        Map.Entry<Long, RunwaySlot> before = slots.floorEntry(fromTime);
+        Map.Entry<Long, RunwaySlot> after = slots.higherEntry(fromTime);
+        long time = fromTime;
+        if (before != null) {
+            time = Math.max(time, before.getKey()
+                    + minima.between(before.getValue().getWakeCategory(), category));
+        }
+        if (fits(category, time, after == null ? null : after.getValue(), minima)) {
+            return time;
+        }
+        // only gaps wide enough for some movement are indexed, so saturated stretches of the
+        // runway are skipped without looking at their slots
+        long gapFrom = before == null ? Long.MIN_VALUE : before.getKey();
+        for (Map.Entry<Long, Long> gap : gaps.tailMap(gapFrom, false).entrySet()) {
+            RunwaySlot leader = slots.get(gap.getKey());
+            time = leader.getTime() + minima.between(leader.getWakeCategory(), category);
+            if (fits(category, time, slots.get(gap.getValue()), minima)) {
+                return time;
+            }
+        }
+        RunwaySlot last = slots.lastEntry().getValue();
+        return last.getTime() + minima.between(last.getWakeCategory(), category);
+    }
+
+    /**
+     * Adds the given slot to the runway.
+     * @param slot slot to be added
+     * @param minima separation minima slots on the runway are kept apart by
+     */
+    void add(RunwaySlot slot, SeparationMinima minima) {
+        long time = slot.getTime();
+        Long before = slots.lowerKey(time);
+        Long after = slots.higherKey(time);
+        slots.put(time, slot);
+        if (before != null) {
+            gaps.remove(before);
+            indexGap(before, time, minima);
+        }
+        if (after != null) {
+            indexGap(time, after, minima);
+        }
+    }
+
+    /**
+     * Removes the given slot from the runway, if present.
+     * @param slot slot to be removed
+     * @param minima separation minima slots on the runway are kept apart by
+     * @return true if the slot was removed; false otherwise
+     */
+    boolean remove(RunwaySlot slot, SeparationMinima minima) {
+        if (!slots.remove(slot.getTime(), slot)) {
+            return false;
+        }
+        gaps.remove(slot.getTime());
+        Long before = slots.lowerKey(slot.getTime());
+        Long after = slots.higherKey(slot.getTime());
+        if (before != null && after != null) {
+            indexGap(before, after, minima);
+        } else if (before != null) {
+            gaps.remove(before);
+        }
+        return true;
+    }
+
+    /** Whether a movement at the given time keeps its separation from the following one */
+    private static boolean fits(WakeCategory category, long time, RunwaySlot next,
+                                SeparationMinima minima) {
+        return next == null
+                || time + minima.between(category, next.getWakeCategory()) <= next.getTime();
+    }
+
+    /** Indexes the gap between two consecutive slots if any movement could fit in it */
+    private void indexGap(long from, long to, SeparationMinima minima) {
+        if (to - from >= 2L * minima.smallest()) {
+            gaps.put(from, to);
+        }
+    }
+
+    /**
+     * Get the human-readable representation of the runway.
+     * @return string representation of the runway
+     */
+    @Override
+    public String toString() {
+        return "Runway " + designator + ", " + slots.size() + " slots";
+    }
+}
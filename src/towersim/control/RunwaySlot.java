@@ -0,0 +1,90 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.WakeCategory;
+import towersim.tasks.TaskType;
+
+/**
+ * Represents a time allocated to an aircraft to land on or take off from a runway.
+ */
+public class RunwaySlot {
+    /** Runway the slot is on */
+    private final Runway runway;
+
+    /** Aircraft the slot is allocated to */
+    private final Aircraft aircraft;
+
+    /** Movement carried out in the slot, either LAND or TAKEOFF */
+    private final TaskType operation;
+
+    /** Wake category of the aircraft */
+    private final WakeCategory wakeCategory;
+
+    /** Time of the movement, in seconds of simulation time */
+    private final long time;
+
+    /**
+     * Creates a new runway slot
+     * @param runway runway the slot is on
+     * @param aircraft aircraft the slot is allocated to
+     * @param operation LAND or TAKEOFF
+     * @param time time of the movement in seconds
+     */
+    RunwaySlot(Runway runway, Aircraft aircraft, TaskType operation, long time) {
+        this.runway = runway;
+        this.aircraft = aircraft;
+        this.operation = operation;
+        this.wakeCategory = WakeCategory.ofModel(aircraft.getModelId());
+        this.time = time;
+    }
+
+    /**
+     * Get the runway the slot is on.
+     * @return runway
+     */
+    public Runway getRunway() {
+        return runway;
+    }
+
+    /**
+     * Get the aircraft the slot is allocated to.
+     * @return aircraft
+     */
+    public Aircraft getAircraft() {
+        return aircraft;
+    }
+
+    /**
+     * Get the movement carried out in the slot.
+     * @return LAND or TAKEOFF
+     */
+    public TaskType getOperation() {
+        return operation;
+    }
+
+    /**
+     * Get the wake category of the aircraft in the slot.
+     * @return wake category
+     */
+    public WakeCategory getWakeCategory() {
+        return wakeCategory;
+    }
+
+    /**
+     * Get the time of the movement.
+     * @return time in seconds of simulation time
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Get the human-readable representation of the slot.
+     * @return string representation of the slot
+     */
+    @Override
+    public String toString() {
+        return "Runway " + runway.getDesignator() + " " + operation + " "
+                + aircraft.getCallsign() + " at " + time + "s";
+    }
+}
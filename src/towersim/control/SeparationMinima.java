@@ -0,0 +1,73 @@
+package towersim.control;
+
+import towersim.aircraft.WakeCategory;
+
+/**
+ * Minimum time between two consecutive movements on the same runway, depending on the wake
+ * categories of the leading and following aircraft.
+ */
+public class SeparationMinima {
+    /**
+     * Default separation in seconds, indexed by [leader][follower] wake category. Values are
+     * ICAO distance minima of 3, 4, 5 and 6 nautical miles flown at 150 knots.
+     */
+    public static final SeparationMinima DEFAULT = new SeparationMinima(new int[][] {
+        {72, 72, 72},
+        {120, 72, 72},
+        {144, 120, 96}
+    });
+
+    /** Separation in seconds, indexed by [leader][follower] wake category ordinal */
+    private final int[][] seconds;
+
+    /** Smallest separation in the table, at least one second */
+    private final int smallest;
+
+    /**
+     * Creates new separation minima
+     * @param seconds separation in seconds indexed by [leader][follower] wake category ordinal
+     * @throws IllegalArgumentException if the table is not square over all wake categories or
+     * contains a negative separation
+     */
+    public SeparationMinima(int[][] seconds) {
+        int numCategories = WakeCategory.values().length;
+        if (seconds.length != numCategories) {
+            throw new IllegalArgumentException();
+        }
+        this.seconds = new int[numCategories][];
+        int smallestSeparation = Integer.MAX_VALUE;
+        for (int i = 0; i < numCategories; i++) {
+            if (seconds[i].length != numCategories) {
+                throw new IllegalArgumentException();
+            }
+            for (int separation : seconds[i]) {
+                if (separation < 0) {
+                    throw new IllegalArgumentException();
+                }
+                smallestSeparation = Math.min(smallestSeparation, separation);
+            }
+            this.seconds[i] = seconds[i].clone();
+        }
+        this.smallest = Math.max(1, smallestSeparation);
+    }
+
+    /**
+     * Get the minimum time between a movement and the one following it on the same runway.
+     * Movements are always at least a second apart.
+     * @param leader wake category of the leading aircraft
+     * @param follower wake category of the following aircraft
+     * @return separation in seconds
+     */
+    public int between(WakeCategory leader, WakeCategory follower) {
+        return Math.max(1, seconds[leader.ordinal()][follower.ordinal()]);
+    }
+
+    /**
+     * Get the smallest separation between any two wake categories. No movement can be fitted
+     * between two others that are less than twice this apart.
+     * @return smallest separation in seconds, at least one
+     */
+    public int smallest() {
+        return smallest;
+    }
+}
@@ -0,0 +1,112 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.WakeCategory;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocates landing and take-off slots across several runways, keeping the required separation
+ * between consecutive movements on each runway. Each runway keeps its slots ordered by time, so
+ * an allocation only inspects the slots it has to be fitted around.
+ * A ControlTower given a calendar allocates slots to aircraft as they start landing or taking
+ * off.
+ */
+public class SlotCalendar {
+    /** Runways slots may be allocated on, in order of preference */
+    private final List<Runway> runways;
+
+    /** Separation minima kept between movements on the same runway */
+    private final SeparationMinima minima;
+
+    /**
+     * Creates a new calendar with no runways
+     * @param minima separation minima kept between movements on the same runway
+     */
+    public SlotCalendar(SeparationMinima minima) {
+        this.runways = new ArrayList<>();
+        this.minima = minima;
+    }
+
+    /**
+     * Adds the given runway to the calendar.
+     * @param runway runway to be added
+     */
+    public void addRunway(Runway runway) {
+        runways.add(runway);
+    }
+
+    /**
+     * Get all runways in the calendar.
+     * @return list of runways
+     */
+    public List<Runway> getRunways() {
+        return new ArrayList<>(runways);
+    }
+
+    /**
+     * Allocates the earliest slot at or after the given time for the given movement, across all
+     * runways that allow it. Ties are broken in favour of the runway added first.
+     * @param aircraft aircraft requesting the slot
+     * @param operation LAND or TAKEOFF
+     * @param fromTime earliest acceptable time in seconds
+     * @return slot allocated to the aircraft
+     * @throws NoSpaceException if no runway allows the movement
+     */
+    public RunwaySlot allocate(Aircraft aircraft, TaskType operation, long fromTime)
+            throws NoSpaceException {
+        WakeCategory category = WakeCategory.ofModel(aircraft.getModelId());
+        Runway bestRunway = null;
+        long bestTime = Long.MAX_VALUE;
+        for (int i = 0; i < runways.size(); i++) {
+            Runway runway = runways.get(i);
+            if (runway.allows(operation)) {
+                long time = runway.findEarliestTime(category, fromTime, minima);
+                if (time < bestTime) {
+                    bestTime = time;
+                    bestRunway = runway;
+                }
+            }
+        }
+        if (bestRunway == null) {
+            throw new NoSpaceException();
+        }
+        RunwaySlot slot = new RunwaySlot(bestRunway, aircraft, operation, bestTime);
+        bestRunway.add(slot, minima);
+        return slot;
+    }
+
+    /**
+     * Cancels the given slot, freeing its time on the runway.
+     * @param slot slot to be cancelled
+     */
+    public void cancel(RunwaySlot slot) {
+        slot.getRunway().remove(slot, minima);
+    }
+
+    /**
+     * Get the number of movements allocated on all runways within the given period.
+     * @param fromTime start of the period in seconds (inclusive)
+     * @param toTime end of the period in seconds (exclusive)
+     * @return number of slots in the period
+     */
+    public int countMovements(long fromTime, long toTime) {
+        int movements = 0;
+        for (Runway runway : runways) {
+            movements += runway.countMovements(fromTime, toTime);
+        }
+        return movements;
+    }
+
+    /**
+     * Removes all slots before the given time on every runway.
+     * @param time time in seconds
+     */
+    public void releaseBefore(long time) {
+        for (Runway runway : runways) {
+            runway.releaseBefore(time);
+        }
+    }
+}
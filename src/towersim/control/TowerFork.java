@@ -0,0 +1,288 @@
+package towersim.control;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.CallsignTable;
+import towersim.ground.Gate;
+import towersim.ground.GateCapability;
+import towersim.ground.Terminal;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Independent copy of a control tower's current state for simulating "what if" scenarios,
+ * such as closing a terminal or declaring an emergency, without disturbing the live tower.
+ * A fork copies each aircraft's fuel, load and position in its task list, but shares the
+ * immutable tasks themselves and the airport's terminal layout, and only creates the gates
+ * that are occupied or later used. Aircraft keep the progress they had through their current
+ * task in the live tower's lifecycle engine.
+ * <p>
+ * Forks must be created on the thread ticking the live tower, such as from an end-of-tick
+ * task. Creating a fork copies no aircraft: the fork shares the live tower's aircraft through
+ * ForkSharing until it is built, and the live tower hands the fork a copy of an aircraft the
+ * first time it changes it. The fork's own tower, terminals and indexes are built the first
+ * time the fork is used, on the thread using it, copying only the aircraft the live tower has
+ * not already handed over, the way terminals created from a layout only create their gates
+ * when first used. Once built, a fork shares nothing mutable with the live tower or other
+ * forks, so many forks can be run in parallel on their own threads.
+ * <p>
+ * If the live tower has a gate planner, the fork is given its own planner over the fork's
+ * gates, which holds the gates of parked aircraft but not the live planner's bookings for
+ * inbound aircraft. Gates are assigned to the first free gate of a terminal that has not been
+ * closed, whatever strategy the live tower uses. The live tower's slot calendar, dwell
+ * tracker, event bus and end-of-tick tasks are not carried into the fork, so forked aircraft
+ * are not allocated runway slots, and changes in the fork are neither recorded nor published.
+ */
+public class TowerFork {
+    /** Tower simulating the branch; null until the fork is first used */
+    private ControlTower tower;
+
+    /** Layout of the live tower's terminals */
+    private final AirportTemplate template;
+
+    /** Number of ticks the live tower had elapsed */
+    private final long ticksElapsed;
+
+    /** Live tower's aircraft, in the order they were added; null once the fork is built */
+    private Aircraft[] shared;
+
+    /** Copies of the aircraft the live tower changed before the fork was built */
+    private final ForkSharing.Overlay overlay;
+
+    /** Live aircraft parked at each terminal, indexed by [terminal][gate] */
+    private final Aircraft[][] parked;
+
+    /** Whether each of the live tower's terminals was in a state of emergency */
+    private final boolean[] emergencies;
+
+    /** Number of ticks the live tower's lifecycle engine kept aircraft away; 0 if none */
+    private final int awayTicks;
+
+    /** Ticks each copied aircraft had left on its task in the live engine; -1 if unknown */
+    private final long[] remainingTicks;
+
+    /** Whether the live tower books gates through a gate planner */
+    private final boolean planned;
+
+    /** Copied terminals keyed by terminal number; filled when the fork is first used */
+    private final Map<Integer, Terminal> terminalsByNumber;
+
+    /** Numbers of terminals closed to further aircraft */
+    private final Set<Integer> closedTerminals;
+
+    /**
+     * Forks the current state of the given tower, building the airport layout from its
+     * terminals.
+     * @param live tower to be forked
+     */
+    public TowerFork(ControlTower live) {
+        this(live, new AirportTemplate(live.getTerminals()));
+    }
+
+    /**
+     * Forks the current state of the given tower, creating its terminals from the given
+     * template, which can be shared by every fork of the same airport.
+     * @param live tower to be forked
+     * @param template layout of the live tower's terminals
+     * @throws IllegalArgumentException if the template does not match the tower's terminals
+     */
+    public TowerFork(ControlTower live, AirportTemplate template) {
+        this(live, template, new HashSet<>());
+    }
+
+    private TowerFork(ControlTower live, AirportTemplate template, Set<Integer> closed) {
+        int numTerminals = live.getNumTerminals();
+        if (template.getTerminals().size() != numTerminals) {
+            throw new IllegalArgumentException();
+        }
+        this.template = template;
+        this.ticksElapsed = live.getTicksElapsed();
+        this.terminalsByNumber = new HashMap<>();
+        this.closedTerminals = closed;
+
+        int numAircraft = live.getNumAircraft();
+        this.shared = live.getAircraft().toArray(new Aircraft[numAircraft]);
+        this.overlay = live.getForkSharing().open();
+        this.planned = live.getGatePlanner() != null;
+        this.parked = new Aircraft[numTerminals][];
+        this.emergencies = new boolean[numTerminals];
+        for (int t = 0; t < numTerminals; t++) {
+            Terminal original = live.getTerminal(t);
+            if (template.getTerminals().get(t).getNumGates() != original.getNumGates()) {
+                throw new IllegalArgumentException();
+            }
+            emergencies[t] = original.hasEmergency();
+            parked[t] = new Aircraft[original.getNumGates()];
+            for (int g = 0; g < original.getNumGates(); g++) {
+                // only occupied gates are looked at, so no unused gate of the live tower is
+                // created
+                if (original.getOccupantId(g) != CallsignTable.NONE) {
+                    parked[t][g] = original.getGate(g).getAircraftAtGate();
+                }
+            }
+        }
+
+        LifecycleEngine liveEngine = live.getLifecycleEngine();
+        this.awayTicks = liveEngine == null ? 0 : liveEngine.getAwayTicks();
+        this.remainingTicks = new long[liveEngine == null ? 0 : numAircraft];
+        for (int i = 0; i < remainingTicks.length; i++) {
+            remainingTicks[i] = liveEngine.getRemainingTicks(live.getAircraft(i));
+        }
+    }
+
+    /**
+     * Builds the fork's tower from the snapshot taken when the fork was created, unless it has
+     * already been built.
+     * @return forked control tower
+     */
+    private ControlTower build() {
+        if (tower != null) {
+            return tower;
+        }
+        Aircraft[] copies = overlay.close(shared);
+        Map<Aircraft, Aircraft> copied = new IdentityHashMap<>();
+        for (int i = 0; i < copies.length; i++) {
+            copied.put(shared[i], copies[i]);
+        }
+        shared = null;
+        tower = new ControlTower(ticksElapsed);
+        tower.setGateAssignmentStrategy(new OpenTerminalStrategy());
+        for (int t = 0; t < parked.length; t++) {
+            Terminal terminal = template.getTerminals().get(t).newTerminal();
+            if (emergencies[t]) {
+                terminal.declareEmergency();
+            }
+            for (int g = 0; g < parked[t].length; g++) {
+                if (parked[t][g] != null) {
+                    // aircraft not controlled by the tower are never changed, so can be shared
+                    park(terminal.getGate(g), copied.getOrDefault(parked[t][g], parked[t][g]));
+                }
+            }
+            tower.addTerminal(terminal);
+            terminalsByNumber.put(terminal.getTerminalNumber(), terminal);
+        }
+        for (Aircraft copy : copies) {
+            tower.restoreAircraft(copy);
+        }
+        if (awayTicks > 0) {
+            LifecycleEngine engine = new LifecycleEngine(tower, awayTicks);
+            for (int i = 0; i < remainingTicks.length; i++) {
+                if (remainingTicks[i] >= 0) {
+                    engine.setRemainingTicks(copies[i], remainingTicks[i]);
+                }
+            }
+            tower.setLifecycleEngine(engine);
+        }
+        if (planned) {
+            tower.setGatePlanner(new GatePlanner(tower));
+        }
+        return tower;
+    }
+
+    /**
+     * Creates a further fork of this fork's current state, with the same terminals closed.
+     * @return new fork
+     */
+    public TowerFork fork() {
+        build();
+        return new TowerFork(tower, template, new HashSet<>(closedTerminals));
+    }
+
+    /**
+     * Get the tower simulating this fork, for changing and inspecting its state.
+     * @return forked control tower
+     */
+    public ControlTower getTower() {
+        return build();
+    }
+
+    /**
+     * Get this fork's copy of the aircraft with the given callsign.
+     * @param callsign callsign of the aircraft
+     * @return copied aircraft; null if the live tower had no aircraft with that callsign
+     */
+    public Aircraft getAircraft(String callsign) {
+        return build().findAircraft(callsign);
+    }
+
+    /**
+     * Get this fork's copy of the terminal with the given number.
+     * @param terminalNumber number of the terminal
+     * @return copied terminal; null if the live tower had no terminal with that number
+     */
+    public Terminal getTerminal(int terminalNumber) {
+        build();
+        return terminalsByNumber.get(terminalNumber);
+    }
+
+    /**
+     * Closes the terminal with the given number to further aircraft. Aircraft already parked
+     * there stay until they leave.
+     * @param terminalNumber number of the terminal to be closed
+     */
+    public void closeTerminal(int terminalNumber) {
+        closedTerminals.add(terminalNumber);
+    }
+
+    /**
+     * Simulates the fork for the given number of ticks.
+     * @param ticks number of ticks to simulate
+     */
+    public void run(int ticks) {
+        build();
+        for (int i = 0; i < ticks; i++) {
+            tower.tick();
+        }
+    }
+
+    /** Parks an aircraft at a gate of a newly created terminal */
+    private static void park(Gate gate, Aircraft aircraft) {
+        try {
+            gate.parkAircraft(aircraft);
+        } catch (NoSpaceException e) {
+            // gates of a new terminal start empty
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parks aircraft at the first unoccupied gate of the first compatible terminal that has
+     * not been closed.
+     */
+    private class OpenTerminalStrategy implements GateAssignmentStrategy {
+        /** Terminals of the fork, in the order they were added */
+        private final List<Terminal> terminals = new ArrayList<>();
+
+        @Override
+        public void addTerminal(Terminal terminal) {
+            terminals.add(terminal);
+        }
+
+        @Override
+        public Gate findGate(Aircraft aircraft) throws NoSuitableGateException {
+            int requirements = GateCapability.requiredBy(aircraft);
+            for (Terminal terminal : terminals) {
+                if (terminal.getAircraftType() == aircraft.getAircraftType()
+                        && !closedTerminals.contains(terminal.getTerminalNumber())
+                        && terminal.getNumOccupiedGates() < terminal.getNumGates()) {
+                    int gate = terminal.indexOfUnoccupiedGate(requirements);
+                    if (gate >= 0) {
+                        return terminal.getGate(gate);
+                    }
+                }
+            }
+            throw new NoSuitableGateException();
+        }
+
+        @Override
+        public void detach() {
+            terminals.clear();
+        }
+    }
+}
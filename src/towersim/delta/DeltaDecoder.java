@@ -0,0 +1,130 @@
+package towersim.delta;
+
+import towersim.aircraft.Aircraft;
+import towersim.tasks.TaskType;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads frames written by a DeltaStream and passes their records to a DeltaHandler.
+ */
+public class DeltaDecoder {
+    /** Handler records are passed to */
+    private final DeltaHandler handler;
+
+    /** Buffer frames are read into, reused between frames */
+    private ByteBuffer buffer;
+
+    /**
+     * Creates a new decoder passing records to the given handler.
+     * @param handler handler records are passed to
+     */
+    public DeltaDecoder(DeltaHandler handler) {
+        this.handler = handler;
+        this.buffer = ByteBuffer.allocate(4096);
+    }
+
+    /**
+     * Reads the next frame from the given channel and passes its records to the handler.
+     * @param source channel written to by a DeltaStream
+     * @return true if a frame was read; false if the channel ended before the next frame
+     * @throws IOException if the channel cannot be read, ends part way through a frame, or
+     * the frame is malformed
+     */
+    public boolean readFrame(ReadableByteChannel source) throws IOException {
+        buffer.clear();
+        buffer.limit(4);
+        if (!fill(source, true)) {
+            return false;
+        }
+        int length = buffer.getInt(0);
+        if (length < 0) {
+            throw new IOException("malformed frame length " + length);
+        }
+        if (buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        buffer.limit(length);
+        fill(source, false);
+        buffer.flip();
+        decodeFrame(buffer);
+        return true;
+    }
+
+    /**
+     * Passes the records of a single frame payload, without its length, to the handler.
+     * @param payload buffer positioned at the start of the payload
+     * @throws IOException if the payload is malformed
+     */
+    public void decodeFrame(ByteBuffer payload) throws IOException {
+        try {
+            handler.tickStarted(DeltaFormat.getVarLong(payload));
+            int tag;
+            while ((tag = payload.get()) != DeltaFormat.END) {
+                decodeRecord(tag, payload);
+            }
+        } catch (RuntimeException e) {
+            // buffer underflow or an ordinal out of range
+            throw new IOException("malformed frame", e);
+        }
+    }
+
+    /** Passes a single record to the handler */
+    private void decodeRecord(int tag, ByteBuffer payload) throws IOException {
+        if (tag == DeltaFormat.DEFINE) {
+            int id = DeltaFormat.getVarInt(payload);
+            String callsign = DeltaFormat.getString(payload);
+            String model = DeltaFormat.getString(payload);
+            handler.aircraftDefined(id, callsign, model, payload.get() != 0);
+        } else if (tag == DeltaFormat.AIRCRAFT) {
+            decodeAircraft(payload);
+        } else if (tag == DeltaFormat.GATE) {
+            int terminalIndex = DeltaFormat.getVarInt(payload);
+            int gateIndex = DeltaFormat.getVarInt(payload);
+            handler.gateChanged(terminalIndex, gateIndex, DeltaFormat.getVarInt(payload) - 1);
+        } else if (tag == DeltaFormat.TERMINAL) {
+            int terminalIndex = DeltaFormat.getVarInt(payload);
+            handler.terminalEmergencyChanged(terminalIndex, payload.get() != 0);
+        } else {
+            throw new IOException("unknown record tag " + tag);
+        }
+    }
+
+    /** Passes the fields of an AIRCRAFT record to the handler */
+    private void decodeAircraft(ByteBuffer payload) {
+        int id = DeltaFormat.getVarInt(payload);
+        int changes = payload.get();
+        if ((changes & Aircraft.FUEL_CHANGED) != 0) {
+            handler.fuelChanged(id, DeltaFormat.getNumber(payload));
+        }
+        if ((changes & Aircraft.LOAD_CHANGED) != 0) {
+            handler.loadChanged(id, DeltaFormat.getNumber(payload));
+        }
+        if ((changes & Aircraft.TASK_CHANGED) != 0) {
+            TaskType type = TaskType.values()[payload.get()];
+            handler.taskChanged(id, type, DeltaFormat.getVarInt(payload));
+        }
+        if ((changes & Aircraft.EMERGENCY_CHANGED) != 0) {
+            handler.aircraftEmergencyChanged(id, payload.get() != 0);
+        }
+    }
+
+    /**
+     * Reads from the channel until the buffer is full.
+     * @return false if the channel ended before anything was read and that is allowed
+     */
+    private boolean fill(ReadableByteChannel source, boolean endAllowed) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer) < 0) {
+                if (endAllowed && buffer.position() == 0) {
+                    return false;
+                }
+                throw new EOFException();
+            }
+        }
+        return true;
+    }
+}
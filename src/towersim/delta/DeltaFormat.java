@@ -0,0 +1,135 @@
+package towersim.delta;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Record tags and primitive encodings of the delta stream format.
+ * <p>
+ * A stream is a sequence of frames, one per tick. Each frame is a 4-byte big-endian payload
+ * length followed by the payload: the tick number as a varint, any number of records, and an
+ * END tag. Each record starts with its tag:
+ * <ul>
+ *     <li>DEFINE: aircraft id, callsign, model name and freight flag, sent once before the
+ *     first record about an aircraft. Models are sent by name, as ids depend on the order
+ *     models were loaded into each process's AircraftCatalog</li>
+ *     <li>AIRCRAFT: aircraft id and a byte of change flags, followed by the fuel, load,
+ *     current task (type ordinal and load percent) and emergency flag, each present only if
+ *     its change flag is set</li>
+ *     <li>GATE: terminal index, gate index and parked aircraft id plus one, or zero if the gate
+ *     is empty</li>
+ *     <li>TERMINAL: terminal index and emergency flag</li>
+ * </ul>
+ * Integers are unsigned LEB128 varints. Fuel and load are written as a zigzag varint shifted
+ * left by one when they are whole numbers, as they almost always are, or as a marker of one
+ * followed by the 8-byte IEEE 754 value otherwise.
+ */
+final class DeltaFormat {
+    /** Tag ending a frame */
+    static final int END = 0;
+
+    /** Tag of a record introducing a new aircraft */
+    static final int DEFINE = 1;
+
+    /** Tag of a record carrying changes to an aircraft */
+    static final int AIRCRAFT = 2;
+
+    /** Tag of a record carrying a change of a gate's occupant */
+    static final int GATE = 3;
+
+    /** Tag of a record carrying a change of a terminal's emergency state */
+    static final int TERMINAL = 4;
+
+    /** Largest whole number written in varint form rather than as a raw double */
+    private static final double MAX_WHOLE = 1L << 53;
+
+    private DeltaFormat() {
+    }
+
+    /** Writes an unsigned varint, growing the buffer if needed, and returns the buffer */
+    static ByteBuffer putVarLong(ByteBuffer buffer, long value) {
+        ByteBuffer out = ensure(buffer, 10);
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+        return out;
+    }
+
+    /** Writes a single byte, growing the buffer if needed, and returns the buffer */
+    static ByteBuffer putByte(ByteBuffer buffer, int value) {
+        ByteBuffer out = ensure(buffer, 1);
+        out.put((byte) value);
+        return out;
+    }
+
+    /** Writes a fuel or load amount, growing the buffer if needed, and returns the buffer */
+    static ByteBuffer putNumber(ByteBuffer buffer, double value) {
+        if (value == Math.rint(value) && Math.abs(value) <= MAX_WHOLE) {
+            long whole = (long) value;
+            return putVarLong(buffer, ((whole << 1) ^ (whole >> 63)) << 1);
+        }
+        ByteBuffer out = putVarLong(buffer, 1);
+        out = ensure(out, 8);
+        out.putDouble(value);
+        return out;
+    }
+
+    /** Writes a length-prefixed UTF-8 string, growing the buffer if needed */
+    static ByteBuffer putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = putVarLong(buffer, bytes.length);
+        out = ensure(out, bytes.length);
+        out.put(bytes);
+        return out;
+    }
+
+    /** Reads an unsigned varint */
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new BufferUnderflowException();
+    }
+
+    /** Reads an unsigned varint that must fit in an int */
+    static int getVarInt(ByteBuffer buffer) {
+        return (int) getVarLong(buffer);
+    }
+
+    /** Reads a fuel or load amount */
+    static double getNumber(ByteBuffer buffer) {
+        long header = getVarLong(buffer);
+        if ((header & 1) != 0) {
+            return buffer.getDouble();
+        }
+        long zigzag = header >>> 1;
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /** Reads a length-prefixed UTF-8 string */
+    static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[getVarInt(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Get a buffer with at least the given space remaining, holding the same contents */
+    private static ByteBuffer ensure(ByteBuffer buffer, int space) {
+        if (buffer.remaining() >= space) {
+            return buffer;
+        }
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + space);
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
@@ -0,0 +1,68 @@
+package towersim.delta;
+
+import towersim.tasks.TaskType;
+
+/**
+ * Denotes a class that consumes the records of a delta stream as they are decoded.
+ * Aircraft are identified by the id given to them in their DEFINE record.
+ */
+public interface DeltaHandler {
+    /**
+     * Method called at the start of every frame.
+     * @param tick number of ticks the tower had elapsed when the frame was written
+     */
+    void tickStarted(long tick);
+
+    /**
+     * Method called the first time an aircraft appears in the stream.
+     * @param id id of the aircraft in the rest of the stream
+     * @param callsign callsign of the aircraft
+     * @param model name of the aircraft's model in the AircraftCatalog
+     * @param freight true for a freight aircraft; false for a passenger aircraft
+     */
+    void aircraftDefined(int id, String callsign, String model, boolean freight);
+
+    /**
+     * Method called when the fuel on board an aircraft has changed.
+     * @param id id of the aircraft
+     * @param fuelAmount fuel on board in litres
+     */
+    void fuelChanged(int id, double fuelAmount);
+
+    /**
+     * Method called when the load on board an aircraft has changed.
+     * @param id id of the aircraft
+     * @param loadAmount number of passengers, or kilograms of freight for a freight aircraft
+     */
+    void loadChanged(int id, double loadAmount);
+
+    /**
+     * Method called when an aircraft has moved to a new task.
+     * @param id id of the aircraft
+     * @param type type of the aircraft's current task
+     * @param loadPercent load percentage of the current task
+     */
+    void taskChanged(int id, TaskType type, int loadPercent);
+
+    /**
+     * Method called when an emergency has been declared or cleared on an aircraft.
+     * @param id id of the aircraft
+     * @param emergency true if the aircraft is now in emergency; false otherwise
+     */
+    void aircraftEmergencyChanged(int id, boolean emergency);
+
+    /**
+     * Method called when an aircraft has parked at or left a gate.
+     * @param terminalIndex position of the terminal in the tower's list of terminals
+     * @param gateIndex position of the gate within its terminal
+     * @param id id of the aircraft now parked at the gate; -1 if the gate is empty
+     */
+    void gateChanged(int terminalIndex, int gateIndex, int id);
+
+    /**
+     * Method called when an emergency has been declared or cleared on a terminal.
+     * @param terminalIndex position of the terminal in the tower's list of terminals
+     * @param emergency true if the terminal is now in emergency; false otherwise
+     */
+    void terminalEmergencyChanged(int terminalIndex, boolean emergency);
+}
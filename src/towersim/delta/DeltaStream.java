@@ -0,0 +1,318 @@
+package towersim.delta;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCatalog;
+import towersim.aircraft.CallsignTable;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.control.ControlTower;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskType;
+import towersim.util.Tickable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the changes made to a control tower's aircraft, gates and terminals on every tick to
+ * a file or socket, in the compact binary format described by DeltaFormat. The first frame
+ * carries the full state of the tower; every later frame carries only the fuel, load, task,
+ * gate and emergency state that has changed since the frame before.
+ * Changes are found through the change flags kept by Aircraft, Gate and Terminal, which the
+ * stream clears once the changes are written, so a tower should have at most one stream.
+ * Only aircraft that can have changed are looked at: those away or loading, whose fuel and load
+ * change as they tick, and those whose task or emergency listeners have fired. Likewise only
+ * gates whose gate listeners have fired are looked at, so gates of terminals created from a
+ * layout are never created just to be checked.
+ * If writing fails, the stream stops and the failure is kept for getError(), rather than
+ * interrupting the tower's tick.
+ */
+public class DeltaStream implements Tickable {
+    /** Size of the frame length written before every frame, in bytes */
+    private static final int LENGTH_BYTES = 4;
+
+    /** Control tower whose changes are written */
+    private final ControlTower tower;
+
+    /** Channel frames are written to */
+    private final WritableByteChannel sink;
+
+    /** Stream id of every aircraft defined so far, which is its position in the tower */
+    private final Map<Aircraft, Integer> ids;
+
+    /** Defined aircraft whose task or emergency state has changed since the last frame */
+    private final List<Aircraft> changedAircraft;
+
+    /** Number of the tower's terminals whose full state has been written */
+    private int knownTerminals;
+
+    /** Gates an aircraft has parked at or left since the last frame, with their terminals */
+    private final List<GateChange> changedGates;
+
+    /** Buffer frames are encoded into, reused between frames */
+    private ByteBuffer buffer;
+
+    /** Total number of bytes written so far */
+    private long bytesWritten;
+
+    /** Failure that stopped the stream; null if the stream is still running */
+    private IOException error;
+
+    /**
+     * Creates a new stream writing to the given channel and registers it to write a frame at
+     * the end of every tick.
+     * @param tower control tower whose changes are written
+     * @param sink channel frames are written to
+     */
+    public DeltaStream(ControlTower tower, WritableByteChannel sink) {
+        this.tower = tower;
+        this.sink = sink;
+        this.ids = new IdentityHashMap<>();
+        this.changedAircraft = new ArrayList<>();
+        this.knownTerminals = 0;
+        this.changedGates = new ArrayList<>();
+        this.buffer = ByteBuffer.allocate(4096);
+        this.bytesWritten = 0;
+        this.error = null;
+        tower.addEndOfTickTask(this);
+    }
+
+    /**
+     * Creates a new stream writing to the given file, replacing any existing contents.
+     * @param tower control tower whose changes are written
+     * @param file file frames are written to
+     * @return new delta stream
+     * @throws IOException if the file cannot be opened
+     */
+    public static DeltaStream toFile(ControlTower tower, Path file) throws IOException {
+        return new DeltaStream(tower, FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Creates a new stream writing to a socket connected to the given address.
+     * @param tower control tower whose changes are written
+     * @param address address of the consumer
+     * @return new delta stream
+     * @throws IOException if the connection cannot be made
+     */
+    public static DeltaStream toSocket(ControlTower tower, SocketAddress address)
+            throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        return new DeltaStream(tower, channel);
+    }
+
+    /**
+     * Get the total number of bytes written so far, including frame lengths.
+     * @return number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Get the failure that stopped the stream.
+     * @return failure while writing; null if the stream is still running
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * Closes the channel frames are written to. No more frames are written afterwards.
+     * @throws IOException if the channel cannot be closed
+     */
+    public void close() throws IOException {
+        if (error == null) {
+            error = new IOException("stream closed");
+        }
+        sink.close();
+    }
+
+    /**
+     * Writes a frame with the changes made since the last frame.
+     * Must be called on the thread ticking the tower.
+     */
+    @Override
+    public void tick() {
+        if (error != null) {
+            changedAircraft.clear();
+            changedGates.clear();
+            return;
+        }
+        buffer.clear();
+        buffer.position(LENGTH_BYTES);
+        buffer = DeltaFormat.putVarLong(buffer, tower.getTicksElapsed());
+        for (int i = ids.size(); i < tower.getNumAircraft(); i++) {
+            defineAircraft(tower.getAircraft(i));
+        }
+        encodeAll(tower.getAircraft(TaskType.AWAY));
+        encodeAll(tower.getAircraft(TaskType.LOAD));
+        for (int i = 0; i < changedAircraft.size(); i++) {
+            encodeAircraft(changedAircraft.get(i));
+        }
+        changedAircraft.clear();
+        for (int t = 0; t < knownTerminals; t++) {
+            Terminal terminal = tower.getTerminal(t);
+            if (terminal.hasChanged()) {
+                encodeTerminalEmergency(t, terminal);
+            }
+        }
+        for (int i = 0; i < changedGates.size(); i++) {
+            GateChange change = changedGates.get(i);
+            if (change.gate.hasChanged()) {
+                change.gate.clearChanged();
+                encodeGate(change.terminalIndex, change.gate.getIndexInTerminal(),
+                        change.gate.getAircraftAtGate());
+            }
+        }
+        changedGates.clear();
+        for (; knownTerminals < tower.getNumTerminals(); knownTerminals++) {
+            defineTerminal(knownTerminals, tower.getTerminal(knownTerminals));
+        }
+        buffer = DeltaFormat.putByte(buffer, DeltaFormat.END);
+        buffer.putInt(0, buffer.position() - LENGTH_BYTES);
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                bytesWritten += sink.write(buffer);
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    /**
+     * Defines an aircraft new to the stream and encodes its full state, then listens for its
+     * task and emergency changes.
+     */
+    private void defineAircraft(Aircraft aircraft) {
+        int id = ids.size();
+        ids.put(aircraft, id);
+        buffer = DeltaFormat.putByte(buffer, DeltaFormat.DEFINE);
+        buffer = DeltaFormat.putVarLong(buffer, id);
+        buffer = DeltaFormat.putString(buffer, aircraft.getCallsign());
+        buffer = DeltaFormat.putString(buffer, AircraftCatalog.getName(aircraft.getModelId()));
+        buffer = DeltaFormat.putByte(buffer, aircraft instanceof FreightAircraft ? 1 : 0);
+        encodeChanges(aircraft, id, Aircraft.FUEL_CHANGED | Aircraft.LOAD_CHANGED
+                | Aircraft.TASK_CHANGED | Aircraft.EMERGENCY_CHANGED);
+        aircraft.getTaskList().addListener((previousTask, currentTask) ->
+                changedAircraft.add(aircraft));
+        aircraft.addEmergencyListener(subject -> changedAircraft.add(aircraft));
+    }
+
+    /** Encodes the changes to every aircraft in the given task group */
+    private void encodeAll(Set<Aircraft> group) {
+        for (Aircraft aircraft : group) {
+            encodeAircraft(aircraft);
+        }
+    }
+
+    /** Encodes the changes to a defined aircraft, if it has changed since last encoded */
+    private void encodeAircraft(Aircraft aircraft) {
+        int changes = aircraft.getChanges();
+        if (changes != 0) {
+            encodeChanges(aircraft, ids.get(aircraft), changes);
+        }
+    }
+
+    /** Encodes the given changes to an aircraft and clears its change flags */
+    private void encodeChanges(Aircraft aircraft, int id, int changes) {
+        aircraft.clearChanges();
+        buffer = DeltaFormat.putByte(buffer, DeltaFormat.AIRCRAFT);
+        buffer = DeltaFormat.putVarLong(buffer, id);
+        buffer = DeltaFormat.putByte(buffer, changes);
+        if ((changes & Aircraft.FUEL_CHANGED) != 0) {
+            buffer = DeltaFormat.putNumber(buffer, aircraft.getFuelAmount());
+        }
+        if ((changes & Aircraft.LOAD_CHANGED) != 0) {
+            buffer = DeltaFormat.putNumber(buffer, loadOf(aircraft));
+        }
+        if ((changes & Aircraft.TASK_CHANGED) != 0) {
+            Task task = aircraft.getTaskList().getCurrentTask();
+            buffer = DeltaFormat.putByte(buffer, task.getType().ordinal());
+            buffer = DeltaFormat.putVarLong(buffer, task.getLoadPercent());
+        }
+        if ((changes & Aircraft.EMERGENCY_CHANGED) != 0) {
+            buffer = DeltaFormat.putByte(buffer, aircraft.hasEmergency() ? 1 : 0);
+        }
+    }
+
+    /**
+     * Encodes the full state of a terminal new to the stream, then listens for its gate
+     * changes. Gates are read through the terminal's occupant ids, so only occupied gates are
+     * looked at.
+     */
+    private void defineTerminal(int terminalIndex, Terminal terminal) {
+        encodeTerminalEmergency(terminalIndex, terminal);
+        for (int g = 0; g < terminal.getNumGates(); g++) {
+            if (terminal.getOccupantId(g) == CallsignTable.NONE) {
+                encodeGate(terminalIndex, g, null);
+            } else {
+                Gate gate = terminal.getGate(g);
+                gate.clearChanged();
+                encodeGate(terminalIndex, g, gate.getAircraftAtGate());
+            }
+        }
+        terminal.addGateListener((changed, gate, aircraft, parked) ->
+                changedGates.add(new GateChange(terminalIndex, gate)));
+    }
+
+    /** Encodes the emergency state of a terminal and clears its change flag */
+    private void encodeTerminalEmergency(int terminalIndex, Terminal terminal) {
+        terminal.clearChanged();
+        buffer = DeltaFormat.putByte(buffer, DeltaFormat.TERMINAL);
+        buffer = DeltaFormat.putVarLong(buffer, terminalIndex);
+        buffer = DeltaFormat.putByte(buffer, terminal.hasEmergency() ? 1 : 0);
+    }
+
+    /** Encodes the aircraft now parked at a gate, or that the gate is empty */
+    private void encodeGate(int terminalIndex, int gateIndex, Aircraft parked) {
+        Integer id = parked == null ? null : ids.get(parked);
+        if (parked != null && id == null) {
+            // parked aircraft not controlled by the tower, so unknown to consumers
+            return;
+        }
+        buffer = DeltaFormat.putByte(buffer, DeltaFormat.GATE);
+        buffer = DeltaFormat.putVarLong(buffer, terminalIndex);
+        buffer = DeltaFormat.putVarLong(buffer, gateIndex);
+        buffer = DeltaFormat.putVarLong(buffer, id == null ? 0 : id + 1);
+    }
+
+    /** Get the passengers or freight on board the given aircraft */
+    private static double loadOf(Aircraft aircraft) {
+        if (aircraft instanceof PassengerAircraft) {
+            return ((PassengerAircraft) aircraft).getNumPassengers();
+        } else if (aircraft instanceof FreightAircraft) {
+            return ((FreightAircraft) aircraft).getFreightAmount();
+        }
+        return 0;
+    }
+
+    /** Gate whose occupant has changed, along with the position of its terminal */
+    private static class GateChange {
+        /** Position of the gate's terminal in the tower */
+        private final int terminalIndex;
+
+        /** Gate whose occupant has changed */
+        private final Gate gate;
+
+        private GateChange(int terminalIndex, Gate gate) {
+            this.terminalIndex = terminalIndex;
+            this.gate = gate;
+        }
+    }
+}
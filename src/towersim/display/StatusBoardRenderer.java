@@ -0,0 +1,300 @@
+package towersim.display;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCatalog;
+import towersim.aircraft.AircraftType;
+import towersim.aircraft.CallsignTable;
+import towersim.control.ControlTower;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Writes status lines for aircraft, gates and terminals straight into a caller's Appendable
+ * or ByteBuffer, in exactly the same format as their toString methods, without creating any
+ * intermediate strings. Enum labels are looked up in tables built once, and numbers are
+ * written digit by digit, so rendering a line allocates nothing.
+ * A renderer keeps scratch state between calls, so must only be used by one thread at a time.
+ */
+public class StatusBoardRenderer {
+    /** Suffix of an object in a state of emergency */
+    private static final String EMERGENCY = " (EMERGENCY)";
+
+    /** Label of every aircraft type, indexed by ordinal */
+    private static final String[] TYPE_LABELS = labels(AircraftType.values());
+
+    /** Label of every task type, indexed by ordinal */
+    private static final String[] TASK_LABELS = labels(TaskType.values());
+
+    /** Simple class name of every kind of terminal rendered so far */
+    private final Map<Class<?>, String> terminalLabels;
+
+    /** Digits of the number being written, filled from the end */
+    private final char[] digits;
+
+    /** Appendable being written to; null while writing to a ByteBuffer */
+    private Appendable out;
+
+    /** ByteBuffer being written to; null while writing to an Appendable */
+    private ByteBuffer bytes;
+
+    /** Creates a new renderer */
+    public StatusBoardRenderer() {
+        this.terminalLabels = new IdentityHashMap<>();
+        this.digits = new char[20];
+    }
+
+    /**
+     * Writes the status of the given aircraft, as returned by its toString method.
+     * @param target where the status is written
+     * @param aircraft aircraft to be rendered
+     * @throws IOException if the target cannot be written to
+     */
+    public void appendAircraft(Appendable target, Aircraft aircraft) throws IOException {
+        out = target;
+        writeAircraft(aircraft);
+    }
+
+    /**
+     * Writes the status of the given gate, as returned by its toString method.
+     * @param target where the status is written
+     * @param gate gate to be rendered
+     * @throws IOException if the target cannot be written to
+     */
+    public void appendGate(Appendable target, Gate gate) throws IOException {
+        out = target;
+        writeGate(gate);
+    }
+
+    /**
+     * Writes the status of the given terminal, as returned by its toString method.
+     * @param target where the status is written
+     * @param terminal terminal to be rendered
+     * @throws IOException if the target cannot be written to
+     */
+    public void appendTerminal(Appendable target, Terminal terminal) throws IOException {
+        out = target;
+        writeTerminal(terminal);
+    }
+
+    /**
+     * Writes the status of every terminal, each followed by its gates, and then every aircraft
+     * controlled by the given tower, one per line.
+     * @param target where the board is written
+     * @param tower control tower to be rendered
+     * @throws IOException if the target cannot be written to
+     */
+    public void appendBoard(Appendable target, ControlTower tower) throws IOException {
+        out = target;
+        writeBoard(tower);
+    }
+
+    /**
+     * Writes the status of the given aircraft as UTF-8, as returned by its toString method.
+     * @param target buffer the status is written to
+     * @param aircraft aircraft to be rendered
+     * @throws java.nio.BufferOverflowException if the buffer runs out of space
+     */
+    public void putAircraft(ByteBuffer target, Aircraft aircraft) {
+        bytes = target;
+        try {
+            writeAircraft(aircraft);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            bytes = null;
+        }
+    }
+
+    /**
+     * Writes the status of the given gate as UTF-8, as returned by its toString method.
+     * @param target buffer the status is written to
+     * @param gate gate to be rendered
+     * @throws java.nio.BufferOverflowException if the buffer runs out of space
+     */
+    public void putGate(ByteBuffer target, Gate gate) {
+        bytes = target;
+        try {
+            writeGate(gate);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            bytes = null;
+        }
+    }
+
+    /**
+     * Writes the status of the given terminal as UTF-8, as returned by its toString method.
+     * @param target buffer the status is written to
+     * @param terminal terminal to be rendered
+     * @throws java.nio.BufferOverflowException if the buffer runs out of space
+     */
+    public void putTerminal(ByteBuffer target, Terminal terminal) {
+        bytes = target;
+        try {
+            writeTerminal(terminal);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            bytes = null;
+        }
+    }
+
+    /**
+     * Writes the status board of the given tower as UTF-8, in the same format as appendBoard.
+     * @param target buffer the board is written to
+     * @param tower control tower to be rendered
+     * @throws java.nio.BufferOverflowException if the buffer runs out of space
+     */
+    public void putBoard(ByteBuffer target, ControlTower tower) {
+        bytes = target;
+        try {
+            writeBoard(tower);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            bytes = null;
+        }
+    }
+
+    private void writeBoard(ControlTower tower) throws IOException {
+        for (int t = 0; t < tower.getNumTerminals(); t++) {
+            Terminal terminal = tower.getTerminal(t);
+            writeTerminal(terminal);
+            write('\n');
+            for (int g = 0; g < terminal.getNumGates(); g++) {
+                // written from the terminal's gate numbers and occupant ids, so gates of a
+                // terminal created from a layout are not created just to be shown empty
+                int occupant = terminal.getOccupantId(g);
+                writeGate(terminal.getGateNumber(g), occupant == CallsignTable.NONE
+                        ? null : CallsignTable.getCallsign(occupant));
+                write('\n');
+            }
+        }
+        for (int i = 0; i < tower.getNumAircraft(); i++) {
+            writeAircraft(tower.getAircraft(i));
+            write('\n');
+        }
+    }
+
+    private void writeAircraft(Aircraft aircraft) throws IOException {
+        write(TYPE_LABELS[aircraft.getAircraftType().ordinal()]);
+        write(' ');
+        write(aircraft.getCallsign());
+        write(' ');
+        write(AircraftCatalog.getName(aircraft.getModelId()));
+        write(' ');
+        Task task = aircraft.getTaskList().getCurrentTask();
+        write(TASK_LABELS[task.getType().ordinal()]);
+        if (task.getType() == TaskType.LOAD) {
+            write(" at ");
+            write(task.getLoadPercent());
+            write('%');
+        }
+        if (aircraft.hasEmergency()) {
+            write(EMERGENCY);
+        }
+    }
+
+    private void writeGate(Gate gate) throws IOException {
+        Aircraft parked = gate.getAircraftAtGate();
+        writeGate(gate.getGateNumber(), parked == null ? null : parked.getCallsign());
+    }
+
+    /** Writes the status of a gate with the given number and occupant's callsign, if any */
+    private void writeGate(int gateNumber, String callsign) throws IOException {
+        write("Gate ");
+        write(gateNumber);
+        write(" [");
+        write(callsign == null ? "empty" : callsign);
+        write(']');
+    }
+
+    private void writeTerminal(Terminal terminal) throws IOException {
+        String label = terminalLabels.get(terminal.getClass());
+        if (label == null) {
+            label = terminal.getClass().getSimpleName();
+            terminalLabels.put(terminal.getClass(), label);
+        }
+        write(label);
+        write(' ');
+        write(terminal.getTerminalNumber());
+        write(", ");
+        write(terminal.getNumGates());
+        write(" gates");
+        if (terminal.hasEmergency()) {
+            write(EMERGENCY);
+        }
+    }
+
+    /** Writes a number in decimal */
+    private void write(long value) throws IOException {
+        if (value < 0) {
+            write('-');
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (char) ('0' + Math.abs(value % 10));
+            value /= 10;
+        } while (value != 0);
+        for (int i = start; i < digits.length; i++) {
+            write(digits[i]);
+        }
+    }
+
+    /** Writes every character of a string */
+    private void write(String text) throws IOException {
+        if (bytes == null) {
+            out.append(text);
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes.put((byte) c);
+            } else {
+                int codePoint = text.codePointAt(i);
+                putUtf8(codePoint);
+                i += Character.charCount(codePoint) - 1;
+            }
+        }
+    }
+
+    /** Writes a single ASCII character */
+    private void write(char c) throws IOException {
+        if (bytes == null) {
+            out.append(c);
+        } else {
+            bytes.put((byte) c);
+        }
+    }
+
+    /** Writes a non-ASCII code point to the byte buffer as UTF-8 */
+    private void putUtf8(int codePoint) {
+        if (codePoint < 0x800) {
+            bytes.put((byte) (0xC0 | codePoint >> 6));
+        } else if (codePoint < 0x10000) {
+            bytes.put((byte) (0xE0 | codePoint >> 12));
+            bytes.put((byte) (0x80 | (codePoint >> 6 & 0x3F)));
+        } else {
+            bytes.put((byte) (0xF0 | codePoint >> 18));
+            bytes.put((byte) (0x80 | (codePoint >> 12 & 0x3F)));
+            bytes.put((byte) (0x80 | (codePoint >> 6 & 0x3F)));
+        }
+        bytes.put((byte) (0x80 | (codePoint & 0x3F)));
+    }
+
+    /** Get the label of every enum constant, indexed by ordinal */
+    private static String[] labels(Enum<?>[] values) {
+        String[] labels = new String[values.length];
+        for (Enum<?> value : values) {
+            labels[value.ordinal()] = value.toString();
+        }
+        return labels;
+    }
+}
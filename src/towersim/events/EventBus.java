@@ -0,0 +1,211 @@
+package towersim.events;
+
+import towersim.aircraft.Aircraft;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.TaskType;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes a tower's state changes to consumers running on their own threads, such as
+ * metrics, journaling or display, through a preallocated ring buffer.
+ * The bus has a single writer, the thread ticking the tower, which fills in the next event of
+ * the buffer in place and then publishes it by advancing a cursor, so publishing takes no lock
+ * and allocates nothing. Each consumer follows the cursor at its own pace with its own
+ * sequence; the writer only waits when the buffer is full of events the slowest consumer has
+ * not yet handled, so the buffer should be sized to absorb the longest expected consumer
+ * pause.
+ */
+public class EventBus {
+    /** Preallocated events, reused every time the buffer wraps around */
+    private final TowerEvent[] slots;
+
+    /** Mask giving the slot index of a sequence number */
+    private final int mask;
+
+    /** Sequence of the last event published; -1 if none has been published */
+    private final AtomicLong cursor;
+
+    /** Consumers following the bus, whose progress gates the writer */
+    private final List<EventConsumer> consumers;
+
+    /** Sequence the slowest consumer had reached when last checked by the writer */
+    private long cachedConsumerSequence;
+
+    /** Number of events the writer had to wait for a consumer to publish */
+    private long writerStalls;
+
+    /**
+     * Creates a new event bus with no consumers.
+     * @param capacity number of events in the ring buffer, a power of two
+     * @throws IllegalArgumentException if capacity is not a positive power of two
+     */
+    public EventBus(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException();
+        }
+        slots = new TowerEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new TowerEvent();
+        }
+        mask = capacity - 1;
+        cursor = new AtomicLong(-1);
+        consumers = new CopyOnWriteArrayList<>();
+        cachedConsumerSequence = -1;
+        writerStalls = 0;
+    }
+
+    /**
+     * Get the number of events in the ring buffer.
+     * @return capacity of the bus
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Get the sequence of the last event published.
+     * @return last published sequence; -1 if no event has been published
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Get the number of events the writer had to wait for a slow consumer before publishing.
+     * Read from the thread ticking the tower.
+     * @return number of writer stalls
+     */
+    public long getWriterStalls() {
+        return writerStalls;
+    }
+
+    /**
+     * Adds a consumer that passes every event published from now on to the given handler.
+     * The consumer does nothing until it is started or polled.
+     * @param handler handler to be given the events
+     * @param waitStrategy how the consumer's thread waits for new events
+     * @return new consumer following the bus
+     */
+    public EventConsumer addConsumer(EventHandler handler, WaitStrategy waitStrategy) {
+        EventConsumer consumer = new EventConsumer(this, handler, waitStrategy, cursor.get());
+        consumers.add(consumer);
+        return consumer;
+    }
+
+    /**
+     * Stops the given consumer from holding back the writer.
+     * @param consumer consumer to be removed
+     */
+    void removeConsumer(EventConsumer consumer) {
+        consumers.remove(consumer);
+    }
+
+    /**
+     * Get the event stored for the given sequence, valid until the buffer wraps around.
+     * @param sequence published sequence not yet handled by the calling consumer
+     * @return event at that sequence
+     */
+    TowerEvent get(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+
+    /**
+     * Publishes that an aircraft has parked at or left a gate.
+     * @param tick tick of the tower
+     * @param terminal terminal the gate belongs to
+     * @param gate gate whose occupant has changed
+     * @param aircraft aircraft that parked or left
+     * @param parked true if the aircraft parked; false if it left
+     */
+    public void publishGateChange(long tick, Terminal terminal, Gate gate, Aircraft aircraft,
+                                  boolean parked) {
+        long sequence = claim();
+        TowerEvent event = get(sequence);
+        event.reset(parked ? TowerEventType.AIRCRAFT_PARKED : TowerEventType.AIRCRAFT_LEFT_GATE,
+                tick);
+        event.setCallsignId(aircraft.getCallsignId());
+        event.setLocation(terminal.getTerminalNumber(), gate.getGateNumber());
+        cursor.lazySet(sequence);
+    }
+
+    /**
+     * Publishes that an aircraft has moved on to its next task.
+     * @param tick tick of the tower
+     * @param aircraft aircraft whose task has changed
+     * @param previousTask type of the task the aircraft was on
+     * @param currentTask type of the task the aircraft is now on
+     */
+    public void publishTaskChange(long tick, Aircraft aircraft, TaskType previousTask,
+                                  TaskType currentTask) {
+        long sequence = claim();
+        TowerEvent event = get(sequence);
+        event.reset(TowerEventType.TASK_CHANGED, tick);
+        event.setCallsignId(aircraft.getCallsignId());
+        event.setTasks(previousTask, currentTask);
+        cursor.lazySet(sequence);
+    }
+
+    /**
+     * Publishes that an emergency has been declared or cleared on an aircraft.
+     * @param tick tick of the tower
+     * @param aircraft aircraft whose state of emergency has changed
+     */
+    public void publishEmergency(long tick, Aircraft aircraft) {
+        long sequence = claim();
+        TowerEvent event = get(sequence);
+        event.reset(emergencyType(aircraft.hasEmergency()), tick);
+        event.setCallsignId(aircraft.getCallsignId());
+        cursor.lazySet(sequence);
+    }
+
+    /**
+     * Publishes that an emergency has been declared or cleared at a terminal.
+     * @param tick tick of the tower
+     * @param terminal terminal whose state of emergency has changed
+     */
+    public void publishEmergency(long tick, Terminal terminal) {
+        long sequence = claim();
+        TowerEvent event = get(sequence);
+        event.reset(emergencyType(terminal.hasEmergency()), tick);
+        event.setLocation(terminal.getTerminalNumber(), -1);
+        cursor.lazySet(sequence);
+    }
+
+    private static TowerEventType emergencyType(boolean declared) {
+        return declared ? TowerEventType.EMERGENCY_DECLARED : TowerEventType.EMERGENCY_CLEARED;
+    }
+
+    /**
+     * Claims the next sequence for the writer, first waiting until every consumer has handled
+     * the event previously stored in its slot.
+     */
+    private long claim() {
+        long sequence = cursor.get() + 1;
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint > cachedConsumerSequence) {
+            long slowest = slowestConsumer(sequence - 1);
+            if (wrapPoint > slowest) {
+                writerStalls++;
+                int attempt = 0;
+                while (wrapPoint > slowest) {
+                    WaitStrategy.YIELDING.idle(attempt++);
+                    slowest = slowestConsumer(sequence - 1);
+                }
+            }
+            cachedConsumerSequence = slowest;
+        }
+        return sequence;
+    }
+
+    /** Get the lowest sequence handled by any consumer, or the given sequence if lower */
+    private long slowestConsumer(long published) {
+        long slowest = published;
+        for (int i = 0; i < consumers.size(); i++) {
+            slowest = Math.min(slowest, consumers.get(i).getSequence());
+        }
+        return slowest;
+    }
+}
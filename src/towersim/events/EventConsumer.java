@@ -0,0 +1,122 @@
+package towersim.events;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Follows an event bus with its own sequence, passing every published event to a handler in
+ * order. A consumer can run on a dedicated thread, started and stopped with start and stop,
+ * or be polled from a thread of the caller's choosing, such as a user interface's, but not
+ * both at once.
+ */
+public class EventConsumer {
+    /** Bus the consumer follows */
+    private final EventBus bus;
+
+    /** Handler given every event */
+    private final EventHandler handler;
+
+    /** How the consumer's thread waits for new events */
+    private final WaitStrategy waitStrategy;
+
+    /** Sequence of the last event handled, read by the writer to avoid overwriting events */
+    private final AtomicLong sequence;
+
+    /** Thread running the consumer; null if the consumer is not running */
+    private Thread thread;
+
+    /** Whether the consumer's thread should keep running */
+    private volatile boolean running;
+
+    /**
+     * Creates a new consumer that handles the events after the given sequence.
+     * @param bus bus to be followed
+     * @param handler handler to be given every event
+     * @param waitStrategy how the consumer's thread waits for new events
+     * @param startAfter sequence of the last event not to be handled
+     */
+    EventConsumer(EventBus bus, EventHandler handler, WaitStrategy waitStrategy,
+                  long startAfter) {
+        this.bus = bus;
+        this.handler = handler;
+        this.waitStrategy = waitStrategy;
+        this.sequence = new AtomicLong(startAfter);
+    }
+
+    /**
+     * Get the sequence of the last event the consumer has handled.
+     * @return last handled sequence
+     */
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Get the number of published events the consumer has not yet handled.
+     * @return number of events the consumer is behind the bus
+     */
+    public long getLag() {
+        return bus.getCursor() - sequence.get();
+    }
+
+    /**
+     * Handles every event published but not yet handled, on the calling thread.
+     * @return number of events handled
+     */
+    public int poll() {
+        long last = sequence.get();
+        long available = bus.getCursor();
+        for (long next = last + 1; next <= available; next++) {
+            handler.onEvent(bus.get(next), next, next == available);
+        }
+        sequence.lazySet(available);
+        return (int) (available - last);
+    }
+
+    /**
+     * Starts handling events on a new daemon thread.
+     * @throws IllegalStateException if the consumer is already running
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException();
+        }
+        running = true;
+        thread = new Thread(this::run, "event-consumer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops handling events, waiting for the consumer's thread to finish, and stops the
+     * consumer from holding back the bus's writer. Events published but not yet handled are
+     * left unhandled.
+     * @throws InterruptedException if interrupted while waiting for the thread to stop
+     */
+    public void stop() throws InterruptedException {
+        Thread stopping;
+        synchronized (this) {
+            stopping = thread;
+            thread = null;
+        }
+        if (stopping != null) {
+            running = false;
+            LockSupport.unpark(stopping);
+            stopping.join();
+        }
+        bus.removeConsumer(this);
+    }
+
+    /** Handles events as they are published until stopped */
+    private void run() {
+        int attempt = 0;
+        while (running) {
+            if (poll() > 0) {
+                attempt = 0;
+            } else {
+                waitStrategy.idle(attempt);
+                attempt = Math.min(attempt + 1, Integer.MAX_VALUE - 1);
+            }
+        }
+    }
+}
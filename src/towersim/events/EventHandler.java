@@ -0,0 +1,17 @@
+package towersim.events;
+
+/**
+ * Denotes a class that processes the events published on an event bus, on the thread of the
+ * consumer it was added with.
+ */
+public interface EventHandler {
+    /**
+     * Method called for every event published on the bus, in order of publication.
+     * The event is reused once the handler returns, so must not be kept.
+     * @param event event published
+     * @param sequence position of the event in the sequence of all events published
+     * @param endOfBatch true if no further events are available yet, such as a good point to
+     *                   flush buffered output; false otherwise
+     */
+    void onEvent(TowerEvent event, long sequence, boolean endOfBatch);
+}
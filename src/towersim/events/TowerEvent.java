@@ -0,0 +1,159 @@
+package towersim.events;
+
+import towersim.aircraft.CallsignTable;
+import towersim.tasks.TaskType;
+
+/**
+ * A single state change in an event bus's ring buffer. Events are preallocated and reused:
+ * each slot of the buffer holds one event that is overwritten every time the buffer wraps
+ * around, so handlers must copy out anything they keep after returning.
+ * Only the fields that apply to the event's type are set; the rest are null or -1.
+ * Events hold the values that changed rather than the aircraft itself, whose state keeps
+ * changing on the tick thread, so handlers on other threads only ever read the event.
+ */
+public class TowerEvent {
+    /** Kind of state change */
+    private TowerEventType type;
+
+    /** Tick of the tower at which the change happened */
+    private long tick;
+
+    /** Callsign id of the aircraft that changed; CallsignTable.NONE for a terminal emergency */
+    private int callsignId;
+
+    /** Number of the terminal involved; -1 if no terminal is involved */
+    private int terminalNumber;
+
+    /** Number of the gate involved; -1 if no gate is involved */
+    private int gateNumber;
+
+    /** Type of the task the aircraft moved from; null unless the task changed */
+    private TaskType previousTask;
+
+    /** Type of the task the aircraft moved to; null unless the task changed */
+    private TaskType currentTask;
+
+    /** Creates an empty event to be filled in by the bus */
+    TowerEvent() {
+        reset(null, 0);
+    }
+
+    /**
+     * Clears the event and sets its type and tick, ready for the remaining fields to be set.
+     * @param type kind of state change
+     * @param tick tick at which the change happened
+     */
+    void reset(TowerEventType type, long tick) {
+        this.type = type;
+        this.tick = tick;
+        this.callsignId = CallsignTable.NONE;
+        this.terminalNumber = -1;
+        this.gateNumber = -1;
+        this.previousTask = null;
+        this.currentTask = null;
+    }
+
+    /** Sets the callsign id of the aircraft that changed */
+    void setCallsignId(int callsignId) {
+        this.callsignId = callsignId;
+    }
+
+    /** Sets the terminal and gate involved */
+    void setLocation(int terminalNumber, int gateNumber) {
+        this.terminalNumber = terminalNumber;
+        this.gateNumber = gateNumber;
+    }
+
+    /** Sets the types of the tasks the aircraft moved between */
+    void setTasks(TaskType previousTask, TaskType currentTask) {
+        this.previousTask = previousTask;
+        this.currentTask = currentTask;
+    }
+
+    /**
+     * Get the kind of state change.
+     * @return event type
+     */
+    public TowerEventType getType() {
+        return type;
+    }
+
+    /**
+     * Get the tick of the tower at which the change happened.
+     * @return tick of the change
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Get the id in the CallsignTable of the callsign of the aircraft that changed.
+     * @return callsign id; CallsignTable.NONE for an emergency at a terminal
+     */
+    public int getCallsignId() {
+        return callsignId;
+    }
+
+    /**
+     * Get the callsign of the aircraft that changed.
+     * @return callsign; null for an emergency at a terminal
+     */
+    public String getCallsign() {
+        return callsignId == CallsignTable.NONE ? null : CallsignTable.getCallsign(callsignId);
+    }
+
+    /**
+     * Get the number of the terminal involved.
+     * @return terminal number; -1 if no terminal is involved
+     */
+    public int getTerminalNumber() {
+        return terminalNumber;
+    }
+
+    /**
+     * Get the number of the gate involved.
+     * @return gate number; -1 if no gate is involved
+     */
+    public int getGateNumber() {
+        return gateNumber;
+    }
+
+    /**
+     * Get the type of the task the aircraft moved from.
+     * @return previous task type; null unless the event is a task change
+     */
+    public TaskType getPreviousTask() {
+        return previousTask;
+    }
+
+    /**
+     * Get the type of the task the aircraft moved to.
+     * @return current task type; null unless the event is a task change
+     */
+    public TaskType getCurrentTask() {
+        return currentTask;
+    }
+
+    /**
+     * Get the human-readable representation of the event.
+     * @return string representation of the event
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(tick).append(' ').append(type);
+        if (callsignId != CallsignTable.NONE) {
+            result.append(' ').append(CallsignTable.getCallsign(callsignId));
+        }
+        if (terminalNumber >= 0) {
+            result.append(" terminal ").append(terminalNumber);
+        }
+        if (gateNumber >= 0) {
+            result.append(" gate ").append(gateNumber);
+        }
+        if (currentTask != null) {
+            result.append(' ').append(previousTask).append("->").append(currentTask);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package towersim.events;
+
+/**
+ * Represents the kinds of state change published on an event bus.
+ */
+public enum TowerEventType {
+    /** An aircraft has parked at a gate */
+    AIRCRAFT_PARKED,
+
+    /** An aircraft has left the gate it was parked at */
+    AIRCRAFT_LEFT_GATE,
+
+    /** An aircraft has moved on to its next task */
+    TASK_CHANGED,
+
+    /** An emergency has been declared on an aircraft or terminal */
+    EMERGENCY_DECLARED,
+
+    /** An emergency has been cleared on an aircraft or terminal */
+    EMERGENCY_CLEARED
+}
@@ -0,0 +1,58 @@
+package towersim.events;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents how a thread waits for the event bus to make progress, trading latency against
+ * the processor time spent waiting.
+ */
+public enum WaitStrategy {
+    /** Spins on the processor, for the lowest latency on a dedicated core */
+    BUSY_SPIN {
+        @Override
+        public void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+
+    /** Spins briefly, then yields the processor to other threads between checks */
+    YIELDING {
+        @Override
+        public void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+
+    /** Spins and yields briefly, then sleeps between checks, for consumers that can lag */
+    SLEEPING {
+        @Override
+        public void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else if (attempt < SPIN_ATTEMPTS + YIELD_ATTEMPTS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(SLEEP_NANOS);
+            }
+        }
+    };
+
+    /** Number of times a waiting thread spins before yielding */
+    private static final int SPIN_ATTEMPTS = 100;
+
+    /** Number of times a sleeping thread yields before sleeping */
+    private static final int YIELD_ATTEMPTS = 100;
+
+    /** Time a sleeping thread sleeps between checks, in nanoseconds */
+    private static final long SLEEP_NANOS = 100_000;
+
+    /**
+     * Waits briefly before the caller checks for progress again.
+     * @param attempt number of times the caller has already waited without progress
+     */
+    public abstract void idle(int attempt);
+}
@@ -1,5 +1,6 @@
 package towersim.ground;
 
+import towersim.aircraft.AircraftType;
 import towersim.util.EmergencyState;
 
 /**
@@ -16,4 +17,32 @@ public class AirplaneTerminal extends Terminal {
     public AirplaneTerminal(int terminalNumber) {
         super(terminalNumber);
     }
+
+    /**
+     * Creates a new airplane terminal with a unique terminal number and room for the given
+     * number of gates
+     * @param terminalNumber unique number identifying the airplane terminal
+     * @param maxNumGates maximum number of gates allowed at the terminal
+     * @throws IllegalArgumentException if maxNumGates is less than one
+     */
+    public AirplaneTerminal(int terminalNumber, int maxNumGates) {
+        super(terminalNumber, maxNumGates);
+    }
+
+    /**
+     * Creates a new empty airplane terminal with the given layout
+     * @param layout layout of the terminal
+     */
+    AirplaneTerminal(TerminalLayout layout) {
+        super(layout);
+    }
+
+    /**
+     * Get the type of aircraft the terminal is designed to accommodate.
+     * @return AIRPLANE
+     */
+    @Override
+    public AircraftType getAircraftType() {
+        return AircraftType.AIRPLANE;
+    }
 }
@@ -1,6 +1,7 @@
 package towersim.ground;
 
 import towersim.aircraft.Aircraft;
+import towersim.aircraft.CallsignTable;
 import towersim.util.NoSpaceException;
 
 /**
@@ -16,14 +17,40 @@ public class Gate {
     /** Aircraft object parked at a specific gate */
     private Aircraft parkedAircraft;
 
+    /** Upcoming bookings of the gate */
+    private final GateTimeline timeline;
+
+    /** Terminal the gate has been added to; null if not yet added to a terminal */
+    private Terminal terminal;
+
+    /** Position of the gate within its terminal */
+    private int indexInTerminal;
+
+    /** Whether an aircraft has parked or left since the change flag was last cleared */
+    private boolean changed;
+
+    /** Facilities of the gate, as a GateCapability mask */
+    private final int capabilities;
+
     /**
-     * Creates a new unoccupied gate
+     * Creates a new unoccupied gate with every capability, accepting any aircraft
      * @param gateNumber a unique number identifying the gate
      */
     public Gate(int gateNumber) {
+        this(gateNumber, GateCapability.ALL);
+    }
+
+    /**
+     * Creates a new unoccupied gate with the given capabilities
+     * @param gateNumber a unique number identifying the gate
+     * @param capabilities facilities of the gate, as a GateCapability mask
+     */
+    public Gate(int gateNumber, int capabilities) {
         this.hasBeenOccupied = false;
         parkedAircraft = null;
         this.gateNumber = gateNumber;
+        this.capabilities = capabilities & GateCapability.ALL;
+        this.timeline = new GateTimeline();
     }
 
     /**
@@ -34,6 +61,24 @@ public class Gate {
         return this.gateNumber;
     }
 
+    /**
+     * Get the facilities of the gate.
+     * @return capability mask of the gate
+     */
+    public int getCapabilities() {
+        return capabilities;
+    }
+
+    /**
+     * Checks whether the gate has every capability the given aircraft requires. Parking does
+     * not check this, so that an aircraft can still be parked at any gate when directed to.
+     * @param aircraft aircraft to be parked
+     * @return true if the aircraft is compatible with the gate; false otherwise
+     */
+    public boolean accepts(Aircraft aircraft) {
+        return GateCapability.meets(capabilities, GateCapability.requiredBy(aircraft));
+    }
+
     /**
      * Park the aircraft object at the gate.
      * @param aircraft Aircraft to be parked at gate
@@ -47,13 +92,54 @@ public class Gate {
             //park the aircraft at this gate so that gate becomes occupied
             hasBeenOccupied = true;
             parkedAircraft = aircraft;
+            changed = true;
+            if (terminal != null) {
+                terminal.occupantChanged(indexInTerminal, aircraft.getCallsignId());
+                terminal.occupancyChanged(indexInTerminal, true);
+                terminal.notifyGateListeners(this, aircraft, true);
+            }
         }
     }
 
     /** Removes currently parked aircraft from the gate */
     public void aircraftLeaves() {
+        Aircraft leaving = parkedAircraft;
+        if (leaving != null) {
+            changed = true;
+        }
         parkedAircraft = null;
         hasBeenOccupied = false;
+        if (terminal != null) {
+            terminal.occupantChanged(indexInTerminal, CallsignTable.NONE);
+            terminal.occupancyChanged(indexInTerminal, false);
+            if (leaving != null) {
+                terminal.notifyGateListeners(this, leaving, false);
+            }
+        }
+    }
+
+    /**
+     * Get the position of the gate within the terminal it has been added to.
+     * @return index of the gate in its terminal; 0 if not yet added to a terminal
+     */
+    public int getIndexInTerminal() {
+        return indexInTerminal;
+    }
+
+    /** Checks whether the gate has been added to a terminal */
+    boolean isAttached() {
+        return terminal != null;
+    }
+
+    /**
+     * Records the terminal the gate has been added to, so that the terminal is told whenever
+     * the occupancy of the gate changes.
+     * @param terminal terminal the gate belongs to
+     * @param indexInTerminal position of the gate within the terminal
+     */
+    void attachTo(Terminal terminal, int indexInTerminal) {
+        this.terminal = terminal;
+        this.indexInTerminal = indexInTerminal;
     }
 
     /**
@@ -72,6 +158,28 @@ public class Gate {
         return parkedAircraft;
     }
 
+    /**
+     * Checks whether an aircraft has parked at or left the gate since the change flag was last
+     * cleared.
+     * @return true if the occupant of the gate has changed; false otherwise
+     */
+    public boolean hasChanged() {
+        return changed;
+    }
+
+    /** Clears the change flag, such as after the change has been published */
+    public void clearChanged() {
+        changed = false;
+    }
+
+    /**
+     * Get the timeline of upcoming bookings of the gate.
+     * @return reservation timeline of the gate
+     */
+    public GateTimeline getTimeline() {
+        return timeline;
+    }
+
     /**
      * Get the human-readable representation of the gate.
      * @return string representation of the gate object
@@ -0,0 +1,111 @@
+package towersim.ground;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCatalog;
+import towersim.aircraft.AircraftType;
+import towersim.aircraft.WakeCategory;
+
+/**
+ * Represents the facilities of a gate that determine which aircraft can be parked at it.
+ * A gate's capabilities and an aircraft's requirements are both encoded as bitmasks, with bit
+ * {@code ordinal()} set for each capability, so a gate accepts an aircraft when every bit of
+ * the aircraft's requirement mask is also set in the gate's capability mask.
+ * <p>
+ * Size capabilities are cumulative: a gate sized for large aircraft also has the small and
+ * medium capabilities, while an aircraft requires only the capability of its own size.
+ */
+public enum GateCapability {
+    /** Stand large enough for light aircraft */
+    SMALL,
+
+    /** Stand large enough for medium aircraft */
+    MEDIUM,
+
+    /** Stand large enough for heavy aircraft */
+    LARGE,
+
+    /** Freight handling equipment */
+    FREIGHT,
+
+    /** Jet bridge for boarding passengers */
+    JET_BRIDGE;
+
+    /** Mask with every capability set, the capabilities of a gate with no restrictions */
+    public static final int ALL = (1 << values().length) - 1;
+
+    /** Smallest passenger capacity of an airplane that requires a jet bridge */
+    public static final int JET_BRIDGE_MIN_PASSENGERS = 100;
+
+    /** Size capability of each wake category, indexed by ordinal */
+    private static final GateCapability[] SIZES = {SMALL, MEDIUM, LARGE};
+
+    /**
+     * Get the bitmask of this capability alone.
+     * @return mask with only this capability's bit set
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Get the capability mask of a gate sized for aircraft up to the given size.
+     * @param size largest size of aircraft, one of SMALL, MEDIUM or LARGE
+     * @param freight whether the gate has freight handling equipment
+     * @param jetBridge whether the gate has a jet bridge
+     * @return capability mask of the gate
+     * @throws IllegalArgumentException if size is not a size capability
+     */
+    public static int of(GateCapability size, boolean freight, boolean jetBridge) {
+        if (size.ordinal() > LARGE.ordinal()) {
+            throw new IllegalArgumentException();
+        }
+        // sizes come first, so a size's mask minus one holds every smaller size
+        int mask = size.mask() | (size.mask() - 1);
+        if (freight) {
+            mask |= FREIGHT.mask();
+        }
+        if (jetBridge) {
+            mask |= JET_BRIDGE.mask();
+        }
+        return mask;
+    }
+
+    /**
+     * Get the capabilities a gate needs for the given model of the AircraftCatalog to park at
+     * it. Every model needs a stand for its wake category, models carrying freight need
+     * freight handling, and airplanes carrying at least JET_BRIDGE_MIN_PASSENGERS passengers
+     * need a jet bridge.
+     * @param modelId catalog model id
+     * @return requirement mask of the model
+     */
+    public static int requiredBy(int modelId) {
+        int mask = SIZES[WakeCategory.ofModel(modelId).ordinal()].mask();
+        if (AircraftCatalog.getFreightCapacity(modelId) > 0) {
+            mask |= FREIGHT.mask();
+        }
+        if (AircraftCatalog.getType(modelId) == AircraftType.AIRPLANE
+                && AircraftCatalog.getPassengerCapacity(modelId) >= JET_BRIDGE_MIN_PASSENGERS) {
+            mask |= JET_BRIDGE.mask();
+        }
+        return mask;
+    }
+
+    /**
+     * Get the capabilities a gate needs for the given aircraft to park at it.
+     * @param aircraft aircraft to be parked
+     * @return requirement mask of the aircraft's model
+     */
+    public static int requiredBy(Aircraft aircraft) {
+        return requiredBy(aircraft.getModelId());
+    }
+
+    /**
+     * Checks whether a gate with the given capabilities meets the given requirements.
+     * @param capabilities capability mask of the gate
+     * @param requirements requirement mask of the aircraft
+     * @return true if every required capability is present; false otherwise
+     */
+    public static boolean meets(int capabilities, int requirements) {
+        return (capabilities & requirements) == requirements;
+    }
+}
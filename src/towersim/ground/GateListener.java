@@ -0,0 +1,17 @@
+package towersim.ground;
+
+import towersim.aircraft.Aircraft;
+
+/**
+ * Denotes a class that is told whenever an aircraft parks at or leaves a gate of a terminal.
+ */
+public interface GateListener {
+    /**
+     * Method called after an aircraft has parked at or left a gate of the terminal.
+     * @param terminal terminal the gate belongs to
+     * @param gate gate whose occupant has changed
+     * @param aircraft aircraft that parked or left
+     * @param parked true if the aircraft parked at the gate; false if it left
+     */
+    void gateChanged(Terminal terminal, Gate gate, Aircraft aircraft, boolean parked);
+}
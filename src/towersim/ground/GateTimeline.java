@@ -0,0 +1,122 @@
+package towersim.ground;
+
+import towersim.util.NoSpaceException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Represents the upcoming bookings of a single gate as a set of non-overlapping tick intervals.
+ * Intervals are kept ordered by start tick so lookups and insertions take logarithmic time.
+ */
+public class GateTimeline {
+    /** Reservations on the gate, keyed by their start tick */
+    private final TreeMap<Long, Reservation> reservations;
+
+    /** Creates a new timeline with no bookings */
+    public GateTimeline() {
+        reservations = new TreeMap<>();
+    }
+
+    /**
+     * Adds the given reservation to the timeline.
+     * @param reservation booking to be added
+     * @throws NoSpaceException if the reservation overlaps an existing booking
+     */
+    public void reserve(Reservation reservation) throws NoSpaceException {
+        if (!isFree(reservation.getStartTick(), reservation.getEndTick())) {
+            throw new NoSpaceException();
+        }
+        reservations.put(reservation.getStartTick(), reservation);
+    }
+
+    /**
+     * Removes the given reservation from the timeline, if present.
+     * @param reservation booking to be removed
+     * @return true if the booking was removed; false if it was not in the timeline
+     */
+    public boolean cancel(Reservation reservation) {
+        return reservations.remove(reservation.getStartTick(), reservation);
+    }
+
+    /**
+     * Checks whether no booking overlaps the given range of ticks.
+     * @param startTick first tick of the range (inclusive)
+     * @param endTick last tick of the range (exclusive)
+     * @return true if the whole range is free; false otherwise
+     */
+    public boolean isFree(long startTick, long endTick) {
+        Map.Entry<Long, Reservation> before = reservations.floorEntry(startTick);
+        if (before != null && before.getValue().getEndTick() > startTick) {
+            return false;
+        }
+        Map.Entry<Long, Reservation> after = reservations.ceilingEntry(startTick);
+        return after == null || after.getKey() >= endTick;
+    }
+
+    /**
+     * Get the reservation covering the given tick.
+     * @param tick tick to look up
+     * @return reservation holding the gate at that tick; null if the gate is free
+     */
+    public Reservation getReservationAt(long tick) {
+        Map.Entry<Long, Reservation> entry = reservations.floorEntry(tick);
+        if (entry == null || !entry.getValue().covers(tick)) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Finds the earliest tick at or after the given tick from which the gate is free for the
+     * given number of ticks.
+     * @param fromTick earliest acceptable start tick
+     * @param duration number of ticks the gate is needed for
+     * @return earliest start tick of a free range of the given length
+     */
+    public long nextFreeTick(long fromTick, long duration) {
+        long candidate = fromTick;
+        Reservation current = getReservationAt(candidate);
+        if (current != null) {
+            candidate = current.getEndTick();
+        }
+        for (Reservation next : reservations.tailMap(candidate, true).values()) {
+            if (next.getStartTick() >= candidate + duration) {
+                break;
+            }
+            candidate = next.getEndTick();
+        }
+        return candidate;
+    }
+
+    /**
+     * Get the tick at which the last booking on the gate finishes.
+     * @return end tick of the last booking; Long.MIN_VALUE if there are no bookings
+     */
+    public long getLatestEndTick() {
+        if (reservations.isEmpty()) {
+            return Long.MIN_VALUE;
+        }
+        return reservations.lastEntry().getValue().getEndTick();
+    }
+
+    /**
+     * Removes all bookings that finished at or before the given tick.
+     * @param tick current tick of the simulation
+     */
+    public void releaseBefore(long tick) {
+        while (!reservations.isEmpty()
+                && reservations.firstEntry().getValue().getEndTick() <= tick) {
+            reservations.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Get all bookings on the gate, ordered by start tick.
+     * @return list of reservations
+     */
+    public List<Reservation> getReservations() {
+        return new ArrayList<>(reservations.values());
+    }
+}
@@ -1,5 +1,7 @@
 package towersim.ground;
 
+import towersim.aircraft.AircraftType;
+
 /**
  * Represents an airport terminal that is designed to accommodate helicopters.
  */
@@ -14,4 +16,32 @@ public class HelicopterTerminal extends Terminal {
     public HelicopterTerminal(int terminalNumber) {
         super(terminalNumber);
     }
+
+    /**
+     * Creates a new helicopter terminal with a unique terminal number and room for the given
+     * number of gates
+     * @param terminalNumber unique number identifying the helicopter terminal
+     * @param maxNumGates maximum number of gates allowed at the terminal
+     * @throws IllegalArgumentException if maxNumGates is less than one
+     */
+    public HelicopterTerminal(int terminalNumber, int maxNumGates) {
+        super(terminalNumber, maxNumGates);
+    }
+
+    /**
+     * Creates a new empty helicopter terminal with the given layout
+     * @param layout layout of the terminal
+     */
+    HelicopterTerminal(TerminalLayout layout) {
+        super(layout);
+    }
+
+    /**
+     * Get the type of aircraft the terminal is designed to accommodate.
+     * @return HELICOPTER
+     */
+    @Override
+    public AircraftType getAircraftType() {
+        return AircraftType.HELICOPTER;
+    }
 }
@@ -0,0 +1,90 @@
+package towersim.ground;
+
+import towersim.aircraft.Aircraft;
+
+/**
+ * Represents a booking of a gate by an aircraft over a range of simulation ticks.
+ * The range starts at the start tick (inclusive) and finishes at the end tick (exclusive).
+ */
+public class Reservation {
+    /** Gate that is booked */
+    private final Gate gate;
+
+    /** Aircraft the gate is booked for */
+    private final Aircraft aircraft;
+
+    /** First tick the gate is held for the aircraft */
+    private final long startTick;
+
+    /** Tick at which the gate becomes free again */
+    private final long endTick;
+
+    /**
+     * Creates a new reservation
+     * @param gate gate that is booked
+     * @param aircraft aircraft the gate is booked for
+     * @param startTick first tick of the booking (inclusive)
+     * @param endTick last tick of the booking (exclusive)
+     * @throws IllegalArgumentException if the end tick is not after the start tick
+     */
+    public Reservation(Gate gate, Aircraft aircraft, long startTick, long endTick) {
+        if (endTick <= startTick) {
+            throw new IllegalArgumentException();
+        }
+        this.gate = gate;
+        this.aircraft = aircraft;
+        this.startTick = startTick;
+        this.endTick = endTick;
+    }
+
+    /**
+     * Get the gate that is booked.
+     * @return booked gate
+     */
+    public Gate getGate() {
+        return gate;
+    }
+
+    /**
+     * Get the aircraft the gate is booked for.
+     * @return aircraft holding the booking
+     */
+    public Aircraft getAircraft() {
+        return aircraft;
+    }
+
+    /**
+     * Get the first tick of the booking.
+     * @return start tick (inclusive)
+     */
+    public long getStartTick() {
+        return startTick;
+    }
+
+    /**
+     * Get the tick at which the booking finishes.
+     * @return end tick (exclusive)
+     */
+    public long getEndTick() {
+        return endTick;
+    }
+
+    /**
+     * Checks whether the booking covers the given tick.
+     * @param tick tick to check
+     * @return true if the gate is held at the given tick; false otherwise
+     */
+    public boolean covers(long tick) {
+        return tick >= startTick && tick < endTick;
+    }
+
+    /**
+     * Get the human-readable representation of the reservation.
+     * @return string representation of the reservation
+     */
+    @Override
+    public String toString() {
+        return "Gate " + gate.getGateNumber() + " [" + aircraft.getCallsign() + "] ticks "
+                + startTick + "-" + endTick;
+    }
+}
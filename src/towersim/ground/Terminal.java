@@ -1,38 +1,155 @@
 package towersim.ground;
 
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftType;
+import towersim.aircraft.CallsignTable;
+import towersim.jfr.EmergencyEvent;
+import towersim.util.EmergencyListener;
 import towersim.util.EmergencyState;
 import towersim.util.NoSpaceException;
 import towersim.util.NoSuitableGateException;
 import towersim.util.OccupancyLevel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Represents an airport terminal building containing several aircraft gates.
  */
 public abstract class Terminal implements EmergencyState, OccupancyLevel {
-    /** Maximum possible number of gates allowed at a single terminal */
+    /** Default maximum number of gates allowed at a single terminal */
     public static final int MAX_NUM_GATES = 6;
 
+    /** Number of gates whose occupancy is stored in one word of the occupancy bitset */
+    private static final int GATES_PER_WORD = 64;
+
     /** Unique terminal number that identifies the terminal */
     private int terminalNumber;
 
     /** Whether terminal is in state of emergency. True is in emergency state; false otherwise */
     private boolean isInEmergency;
 
-    /** A list containing all the gates in the terminal */
-    private List<Gate> gatesInTerminal;
+    /** Whether an emergency has been declared or cleared since the change flag was cleared */
+    private boolean changed;
+
+    /** Maximum number of gates allowed at this terminal */
+    private final int maxNumGates;
+
+    /**
+     * All the gates in the terminal, densely packed in the order they were added. For a
+     * terminal created from a layout, null until a gate is first used, and gates are created
+     * one by one as they are first used
+     */
+    private Gate[] gatesInTerminal;
+
+    /** Gate numbers of a terminal created from a layout, shared with the layout; else null */
+    private int[] layoutGateNumbers;
+
+    /** Gate capabilities of a terminal created from a layout, shared with the layout */
+    private int[] layoutGateCapabilities;
+
+    /** Number of gates in the terminal */
+    private int numGates;
+
+    /** Number of the terminal's gate objects that exist, the rest being layout gates unused */
+    private int numCreatedGates;
+
+    /** Occupancy bitset; bit i is set when the gate at index i is occupied */
+    private long[] occupiedGates;
+
+    /** Whether occupiedGates is the empty bitset shared with a layout, to be copied on write */
+    private boolean occupancyShared;
+
+    /**
+     * Capability bitsets, one per GateCapability indexed by ordinal; bit i of a bitset is set
+     * when the gate at index i has that capability
+     */
+    private long[][] capableGates;
+
+    /** Whether capableGates are the bitsets shared with a layout, to be copied on write */
+    private boolean capabilitiesShared;
+
+    /** Lowest word of the occupancy bitset that may contain an unoccupied gate */
+    private int firstFreeWordHint;
+
+    /**
+     * Callsign id of the aircraft parked at each gate, or CallsignTable.NONE if the gate is
+     * empty; null until an aircraft first parks at the terminal
+     */
+    private int[] occupantIds;
+
+    /** Number of occupied gates, kept equal to the number of bits set in occupiedGates */
+    private int numOccupiedGates;
+
+    /** Listeners told whenever the number of gates or occupied gates changes */
+    private final List<TerminalOccupancyListener> occupancyListeners;
 
-    /** A list containing all the gates in the terminal (copy/duplicate version) */
-    private List<Gate> copyOfGatesInTerminal;
+    /** Listeners told whenever an aircraft parks at or leaves a gate */
+    private final List<GateListener> gateListeners;
+
+    /** Listeners told whenever an emergency is declared or cleared */
+    private final List<EmergencyListener> emergencyListeners;
 
     /**
      * Constructs a terminal object (where by default is not in a state of emergency)
+     * with room for at most MAX_NUM_GATES gates
      * @param terminalNumber represents a unique terminal number
      */
     protected Terminal(int terminalNumber) {
+        this(terminalNumber, MAX_NUM_GATES);
+    }
+
+    /**
+     * Constructs a terminal object (where by default is not in a state of emergency)
+     * with room for the given number of gates
+     * @param terminalNumber represents a unique terminal number
+     * @param maxNumGates maximum number of gates allowed at the terminal
+     * @throws IllegalArgumentException if maxNumGates is less than one
+     */
+    protected Terminal(int terminalNumber, int maxNumGates) {
+        if (maxNumGates < 1) {
+            throw new IllegalArgumentException();
+        }
         this.terminalNumber = terminalNumber;
-        gatesInTerminal = new ArrayList<>();
+        this.maxNumGates = maxNumGates;
+        gatesInTerminal = new Gate[initialCapacity(0, maxNumGates)];
+        occupiedGates = new long[wordCount(gatesInTerminal.length)];
+        occupancyShared = false;
+        capableGates = new long[GateCapability.values().length][occupiedGates.length];
+        capabilitiesShared = false;
+        numGates = 0;
+        numCreatedGates = 0;
+        firstFreeWordHint = 0;
+        numOccupiedGates = 0;
+        occupancyListeners = new ArrayList<>();
+        gateListeners = new ArrayList<>();
+        emergencyListeners = new ArrayList<>();
+        isInEmergency = false;
+    }
+
+    /**
+     * Constructs a terminal with the number and gates of the given layout, none of them
+     * occupied, in constant time. The layout's gate numbers, capabilities and empty occupancy
+     * bitset are shared until a gate is first used or occupied, or a gate is added.
+     * @param layout layout of the terminal
+     */
+    Terminal(TerminalLayout layout) {
+        this.terminalNumber = layout.getTerminalNumber();
+        this.maxNumGates = layout.getMaxNumGates();
+        gatesInTerminal = null;
+        layoutGateNumbers = layout.gateNumbers();
+        layoutGateCapabilities = layout.gateCapabilities();
+        occupiedGates = layout.emptyOccupancy();
+        occupancyShared = true;
+        capableGates = layout.capableGates();
+        capabilitiesShared = true;
+        numGates = layoutGateNumbers.length;
+        numCreatedGates = 0;
+        firstFreeWordHint = 0;
+        numOccupiedGates = 0;
+        occupancyListeners = new ArrayList<>();
+        gateListeners = new ArrayList<>();
+        emergencyListeners = new ArrayList<>();
         isInEmergency = false;
     }
 
@@ -44,26 +161,170 @@ public abstract class Terminal implements EmergencyState, OccupancyLevel {
         return this.terminalNumber;
     }
 
+    /**
+     * Get the type of aircraft the terminal is designed to accommodate.
+     * @return type of aircraft compatible with the terminal
+     */
+    public abstract AircraftType getAircraftType();
+
     /**
      * Adds gate to the terminal
      * @param gate Gate object to be added to the terminal
      * @throws NoSpaceException if the number of gates in the terminal is already at maximum
+     * @throws IllegalArgumentException if the gate has already been added to this or another
+     * terminal
      */
     public void addGate(Gate gate) throws NoSpaceException {
-        if (gatesInTerminal.size() == MAX_NUM_GATES) {
+        if (gate.isAttached()) {
+            throw new IllegalArgumentException();
+        }
+        if (numGates == maxNumGates) {
             throw new NoSpaceException();
+        }
+        ensureGateArray();
+        if (numGates == gatesInTerminal.length) {
+            int newLength = (int) Math.min(maxNumGates, 2L * gatesInTerminal.length);
+            gatesInTerminal = Arrays.copyOf(gatesInTerminal, newLength);
+            occupiedGates = Arrays.copyOf(occupiedGates, wordCount(newLength));
+            occupancyShared = false;
+        }
+        if (capabilitiesShared || capableGates[0].length < occupiedGates.length) {
+            long[][] copy = new long[capableGates.length][];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = Arrays.copyOf(capableGates[i], occupiedGates.length);
+            }
+            capableGates = copy;
+            capabilitiesShared = false;
+        }
+        int index = numGates;
+        gatesInTerminal[index] = gate;
+        numGates++;
+        numCreatedGates++;
+        gate.attachTo(this, index);
+        setCapabilities(capableGates, index, gate.getCapabilities());
+        if (gate.isOccupied()) {
+            occupantChanged(index, gate.getAircraftAtGate().getCallsignId());
+            occupancyChanged(index, true);
         } else {
-            gatesInTerminal.add(gate);
+            notifyOccupancyListeners();
         }
     }
 
+    /**
+     * Adds a listener to be told whenever a gate of the terminal is added, occupied or
+     * vacated.
+     * @param listener listener to be added
+     */
+    public void addOccupancyListener(TerminalOccupancyListener listener) {
+        occupancyListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added by addOccupancyListener, if present.
+     * @param listener listener to be removed
+     */
+    public void removeOccupancyListener(TerminalOccupancyListener listener) {
+        occupancyListeners.remove(listener);
+    }
+
+    /**
+     * Adds a listener to be told whenever an aircraft parks at or leaves a gate of the
+     * terminal.
+     * @param listener listener to be added
+     */
+    public void addGateListener(GateListener listener) {
+        gateListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added by addGateListener, if present.
+     * @param listener listener to be removed
+     */
+    public void removeGateListener(GateListener listener) {
+        gateListeners.remove(listener);
+    }
+
+    /**
+     * Adds a listener to be told whenever an emergency is declared or cleared at the terminal.
+     * @param listener listener to be added
+     */
+    public void addEmergencyListener(EmergencyListener listener) {
+        emergencyListeners.add(listener);
+    }
+
     /**
      * Gets all the gates in the terminal object
      * @return all the gates in the terminal
      */
     public List<Gate> getGates() {
-        copyOfGatesInTerminal = new ArrayList<>(gatesInTerminal);
-        return copyOfGatesInTerminal;
+        List<Gate> gates = new ArrayList<>(numGates);
+        for (int i = 0; i < numGates; i++) {
+            gates.add(gateAt(i));
+        }
+        return gates;
+    }
+
+    /**
+     * Get the gate at the given position in the terminal, in the order gates were added.
+     * @param index position of the gate, from 0 to one less than the number of gates
+     * @return gate at that position
+     * @throws IndexOutOfBoundsException if there is no gate at that position
+     */
+    public Gate getGate(int index) {
+        if (index < 0 || index >= numGates) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return gateAt(index);
+    }
+
+    /**
+     * Get the number of the gate at the given index, without creating the gate if the terminal
+     * was created from a layout and the gate has not been used yet.
+     * @param index position of the gate, from 0 to one less than the number of gates
+     * @return gate number
+     * @throws IndexOutOfBoundsException if there is no gate at that position
+     */
+    public int getGateNumber(int index) {
+        if (index < 0 || index >= numGates) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (gatesInTerminal == null || gatesInTerminal[index] == null) {
+            return layoutGateNumbers[index];
+        }
+        return gatesInTerminal[index].getGateNumber();
+    }
+
+    /**
+     * Get the number of the terminal's gates that have been created, which for a terminal
+     * created from a layout is only those that have been used.
+     * @return number of created gates
+     */
+    public int getNumCreatedGates() {
+        return numCreatedGates;
+    }
+
+    /**
+     * Get the number of gates in the terminal.
+     * @return number of gates
+     */
+    public int getNumGates() {
+        return numGates;
+    }
+
+    /**
+     * Get the maximum number of gates allowed at the terminal.
+     * @return maximum number of gates
+     */
+    public int getMaxNumGates() {
+        return maxNumGates;
+    }
+
+    /**
+     * Get the number of occupied gates in the terminal.
+     * @return number of occupied gates
+     */
+    public int getNumOccupiedGates() {
+        return numOccupiedGates;
     }
 
     /** Find the first unoccupied gate in the terminal.
@@ -71,26 +332,238 @@ public abstract class Terminal implements EmergencyState, OccupancyLevel {
      * @throws NoSuitableGateException if all gates are occupied
      */
     public Gate findUnoccupiedGate() throws NoSuitableGateException {
-        for (int i = 0; i < gatesInTerminal.size(); i++) {
-            if (gatesInTerminal.get(i).isOccupied() == false) {
-                return gatesInTerminal.get(i);
+        return findUnoccupiedGate(0);
+    }
+
+    /**
+     * Find the first unoccupied gate in the terminal with every capability in the given mask.
+     * @param requirements capabilities the gate must have, as a GateCapability mask
+     * @return first unoccupied compatible gate in the terminal
+     * @throws NoSuitableGateException if every compatible gate is occupied
+     */
+    public Gate findUnoccupiedGate(int requirements) throws NoSuitableGateException {
+        int index = indexOfUnoccupiedGate(requirements);
+        if (index < 0) {
+            throw new NoSuitableGateException();
+        }
+        return gateAt(index);
+    }
+
+    /**
+     * Get the index of the first unoccupied gate in the terminal with every capability in the
+     * given mask. Each word of the occupancy bitset is intersected with the same word of the
+     * bitset of each required capability, so 64 gates are tested at a time.
+     * @param requirements capabilities the gate must have, as a GateCapability mask
+     * @return index of the first unoccupied compatible gate; -1 if there is no such gate
+     */
+    public int indexOfUnoccupiedGate(int requirements) {
+        int words = wordCount(numGates);
+        boolean earlierWordsFull = true;
+        for (int word = firstFreeWordHint; word < words; word++) {
+            long free = ~occupiedGates[word];
+            if (free == 0) {
+                if (earlierWordsFull) {
+                    // every gate up to this word is occupied, so later searches start after it
+                    firstFreeWordHint = word + 1;
+                }
+                continue;
+            }
+            earlierWordsFull = false;
+            for (int bits = requirements; bits != 0; bits &= bits - 1) {
+                free &= capableGates[Integer.numberOfTrailingZeros(bits)][word];
+            }
+            if (free != 0) {
+                int index = word * GATES_PER_WORD + Long.numberOfTrailingZeros(free);
+                return index < numGates ? index : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index of the gate the aircraft with the given callsign id is parked at, by
+     * scanning the terminal's array of occupant ids.
+     * @param callsignId id of the aircraft's callsign in the CallsignTable
+     * @return index of the first gate occupied by an aircraft with that callsign; -1 if there
+     * is none
+     */
+    public int indexOfOccupant(int callsignId) {
+        if (occupantIds == null || callsignId == CallsignTable.NONE) {
+            return -1;
+        }
+        for (int i = 0; i < numGates; i++) {
+            if (occupantIds[i] == callsignId) {
+                return i;
             }
         }
-        throw new NoSuitableGateException();
+        return -1;
+    }
+
+    /**
+     * Get the callsign id of the aircraft parked at the gate at the given index.
+     * @param index position of the gate in the terminal
+     * @return callsign id of the parked aircraft; CallsignTable.NONE if the gate is empty
+     * @throws IndexOutOfBoundsException if there is no gate at that position
+     */
+    public int getOccupantId(int index) {
+        if (index < 0 || index >= numGates) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return occupantIds == null ? CallsignTable.NONE : occupantIds[index];
+    }
+
+    /**
+     * Records the callsign id of the aircraft now parked at the gate at the given index.
+     * Called by the gate when an aircraft parks at or leaves it.
+     * @param index position of the gate in the terminal
+     * @param callsignId callsign id of the parked aircraft, or CallsignTable.NONE if empty
+     */
+    void occupantChanged(int index, int callsignId) {
+        if (occupantIds == null || occupantIds.length <= index) {
+            if (callsignId == CallsignTable.NONE && occupantIds == null) {
+                return;
+            }
+            int oldLength = occupantIds == null ? 0 : occupantIds.length;
+            int length = Math.max(index + 1, gatesInTerminal == null
+                    ? numGates : gatesInTerminal.length);
+            occupantIds = occupantIds == null ? new int[length]
+                    : Arrays.copyOf(occupantIds, length);
+            Arrays.fill(occupantIds, oldLength, length, CallsignTable.NONE);
+        }
+        occupantIds[index] = callsignId;
+    }
+
+    /**
+     * Records a change in occupancy of the gate at the given index of the terminal.
+     * Called by the gate when an aircraft parks at or leaves it.
+     * @param index position of the gate in the terminal
+     * @param occupied whether the gate is now occupied
+     */
+    void occupancyChanged(int index, boolean occupied) {
+        int word = index / GATES_PER_WORD;
+        long bit = 1L << (index % GATES_PER_WORD);
+        if (((occupiedGates[word] & bit) != 0) == occupied) {
+            return;
+        }
+        if (occupancyShared) {
+            occupiedGates = occupiedGates.clone();
+            occupancyShared = false;
+        }
+        if (occupied) {
+            occupiedGates[word] |= bit;
+            numOccupiedGates++;
+        } else {
+            occupiedGates[word] &= ~bit;
+            numOccupiedGates--;
+            firstFreeWordHint = Math.min(firstFreeWordHint, word);
+        }
+        notifyOccupancyListeners();
+    }
+
+    /** Tells every occupancy listener that the terminal's occupancy has changed */
+    private void notifyOccupancyListeners() {
+        for (int i = 0; i < occupancyListeners.size(); i++) {
+            occupancyListeners.get(i).occupancyChanged(this);
+        }
+    }
+
+    /**
+     * Tells every gate listener that an aircraft has parked at or left a gate of the terminal.
+     * Called by the gate after its occupancy has been recorded.
+     * @param gate gate whose occupant has changed
+     * @param aircraft aircraft that parked or left
+     * @param parked true if the aircraft parked; false if it left
+     */
+    void notifyGateListeners(Gate gate, Aircraft aircraft, boolean parked) {
+        for (int i = 0; i < gateListeners.size(); i++) {
+            gateListeners.get(i).gateChanged(this, gate, aircraft, parked);
+        }
+    }
+
+    /**
+     * Get the gate at the given index, creating it first if the terminal was created from a
+     * layout and the gate has not been used yet.
+     */
+    private Gate gateAt(int index) {
+        ensureGateArray();
+        Gate gate = gatesInTerminal[index];
+        if (gate == null) {
+            gate = new Gate(layoutGateNumbers[index], layoutGateCapabilities[index]);
+            gatesInTerminal[index] = gate;
+            numCreatedGates++;
+            gate.attachTo(this, index);
+        }
+        return gate;
+    }
+
+    /** Allocates the gate array of a terminal created from a layout, if not yet allocated */
+    private void ensureGateArray() {
+        if (gatesInTerminal == null) {
+            gatesInTerminal = new Gate[initialCapacity(numGates, maxNumGates)];
+        }
+    }
+
+    /**
+     * Get the number of gates room is first made for in a terminal.
+     * @param numGates number of gates the terminal starts with
+     * @param maxNumGates maximum number of gates allowed at the terminal
+     * @return initial length of the gate array
+     */
+    static int initialCapacity(int numGates, int maxNumGates) {
+        return Math.max(numGates, Math.min(maxNumGates, MAX_NUM_GATES));
+    }
+
+    /**
+     * Sets the bit of the gate at the given index in the bitset of each of its capabilities.
+     * @param capableGates capability bitsets, indexed by GateCapability ordinal
+     * @param index position of the gate in the terminal
+     * @param capabilities capability mask of the gate
+     */
+    static void setCapabilities(long[][] capableGates, int index, int capabilities) {
+        long bit = 1L << (index % GATES_PER_WORD);
+        for (int i = 0; i < capableGates.length; i++) {
+            if ((capabilities & (1 << i)) != 0) {
+                capableGates[i][index / GATES_PER_WORD] |= bit;
+            }
+        }
+    }
+
+    /** Get the number of bitset words needed to store the occupancy of the given gates */
+    static int wordCount(int gates) {
+        return (gates + GATES_PER_WORD - 1) / GATES_PER_WORD;
     }
 
     /**
      * Declares a state of emergency
      */
     public void declareEmergency() {
+        boolean declared = !isInEmergency;
         isInEmergency = true;
+        if (declared) {
+            changed = true;
+            EmergencyEvent.record(this, true);
+            notifyEmergencyListeners();
+        }
     }
 
     /**
      * Clears any active state of emergency
      */
     public void clearEmergency() {
+        boolean cleared = isInEmergency;
         isInEmergency = false;
+        if (cleared) {
+            changed = true;
+            EmergencyEvent.record(this, false);
+            notifyEmergencyListeners();
+        }
+    }
+
+    /** Tells every emergency listener that an emergency has been declared or cleared */
+    private void notifyEmergencyListeners() {
+        for (int i = 0; i < emergencyListeners.size(); i++) {
+            emergencyListeners.get(i).emergencyChanged(this);
+        }
     }
 
     /**
@@ -101,18 +574,29 @@ public abstract class Terminal implements EmergencyState, OccupancyLevel {
         return isInEmergency;
     }
 
+    /**
+     * Checks whether an emergency has been declared or cleared since the change flag was last
+     * cleared. Changes to the terminal's gates are tracked by the gates themselves.
+     * @return true if the emergency state has changed; false otherwise
+     */
+    public boolean hasChanged() {
+        return changed;
+    }
+
+    /** Clears the change flag, such as after the change has been published */
+    public void clearChanged() {
+        changed = false;
+    }
+
     /**
      * Calculates the percentage of occupied gates
      * @return percentage of occupied gates in the terminal, from 0 to 100
      */
     public int calculateOccupancyLevel() {
-        double numOccupiedGates = 0;
-        for (int i = 0; i < gatesInTerminal.size(); i++) {
-            if (gatesInTerminal.get(i).isOccupied() == true) {
-                numOccupiedGates += 1;
-            }
+        if (numGates == 0) {
+            return 0;
         }
-        double occupancyRatio = (double) (numOccupiedGates * 100) / gatesInTerminal.size();
+        double occupancyRatio = (double) (getNumOccupiedGates() * 100) / numGates;
         return (int) Math.round(occupancyRatio);
     }
 
@@ -124,9 +608,9 @@ public abstract class Terminal implements EmergencyState, OccupancyLevel {
     public String toString() {
         if (!isInEmergency) {
             return this.getClass().getSimpleName() + " " + terminalNumber + ", "
-                    + getGates().size() + " gates";
+                    + numGates + " gates";
         }
         return this.getClass().getSimpleName() + " " + terminalNumber + ", "
-                + getGates().size() + " gates (EMERGENCY)";
+                + numGates + " gates (EMERGENCY)";
     }
 }
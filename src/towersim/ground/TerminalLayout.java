@@ -0,0 +1,118 @@
+package towersim.ground;
+
+import towersim.aircraft.AircraftType;
+import java.util.List;
+
+/**
+ * Immutable description of a terminal's number, aircraft type and gates, from which any number
+ * of identical empty terminals can be created. Terminals created from the same layout share
+ * its gate numbers, gate capabilities and empty occupancy bitset, and only make their own
+ * copies, and their own gates, once they are first used.
+ */
+public final class TerminalLayout {
+    /** Type of aircraft the terminal accommodates */
+    private final AircraftType aircraftType;
+
+    /** Number of the terminal */
+    private final int terminalNumber;
+
+    /** Maximum number of gates allowed at the terminal */
+    private final int maxNumGates;
+
+    /** Number of every gate, in the order they were added; never modified */
+    private final int[] gateNumbers;
+
+    /** Capability mask of every gate, in the order they were added; never modified */
+    private final int[] gateCapabilities;
+
+    /** Occupancy bitset with no gate occupied; never modified */
+    private final long[] emptyOccupancy;
+
+    /** Capability bitsets of the gates, indexed by GateCapability ordinal; never modified */
+    private final long[][] capableGates;
+
+    /**
+     * Creates a layout copying the number, aircraft type and gates of the given
+     * terminal. Aircraft parked at the terminal and its emergency state are not copied.
+     * @param terminal terminal to be copied
+     */
+    public TerminalLayout(Terminal terminal) {
+        this.aircraftType = terminal.getAircraftType();
+        this.terminalNumber = terminal.getTerminalNumber();
+        this.maxNumGates = terminal.getMaxNumGates();
+        List<Gate> gates = terminal.getGates();
+        this.gateNumbers = new int[gates.size()];
+        this.gateCapabilities = new int[gates.size()];
+        this.emptyOccupancy = new long[Terminal.wordCount(
+                Terminal.initialCapacity(gateNumbers.length, maxNumGates))];
+        this.capableGates = new long[GateCapability.values().length][emptyOccupancy.length];
+        for (int i = 0; i < gateNumbers.length; i++) {
+            gateNumbers[i] = gates.get(i).getGateNumber();
+            gateCapabilities[i] = gates.get(i).getCapabilities();
+            Terminal.setCapabilities(capableGates, i, gateCapabilities[i]);
+        }
+    }
+
+    /**
+     * Creates a new empty terminal with this layout in constant time.
+     * @return new airplane or helicopter terminal, according to the layout's aircraft type
+     */
+    public Terminal newTerminal() {
+        if (aircraftType == AircraftType.HELICOPTER) {
+            return new HelicopterTerminal(this);
+        }
+        return new AirplaneTerminal(this);
+    }
+
+    /**
+     * Get the type of aircraft the terminal accommodates.
+     * @return aircraft type
+     */
+    public AircraftType getAircraftType() {
+        return aircraftType;
+    }
+
+    /**
+     * Get the number of the terminal.
+     * @return terminal number
+     */
+    public int getTerminalNumber() {
+        return terminalNumber;
+    }
+
+    /**
+     * Get the maximum number of gates allowed at the terminal.
+     * @return maximum number of gates
+     */
+    public int getMaxNumGates() {
+        return maxNumGates;
+    }
+
+    /**
+     * Get the number of gates in the terminal.
+     * @return number of gates
+     */
+    public int getNumGates() {
+        return gateNumbers.length;
+    }
+
+    /** Get the gate numbers shared with every terminal created from the layout */
+    int[] gateNumbers() {
+        return gateNumbers;
+    }
+
+    /** Get the gate capabilities shared with every terminal created from the layout */
+    int[] gateCapabilities() {
+        return gateCapabilities;
+    }
+
+    /** Get the capability bitsets shared with every terminal created from the layout */
+    long[][] capableGates() {
+        return capableGates;
+    }
+
+    /** Get the empty occupancy bitset shared with every terminal created from the layout */
+    long[] emptyOccupancy() {
+        return emptyOccupancy;
+    }
+}
@@ -0,0 +1,13 @@
+package towersim.ground;
+
+/**
+ * Denotes a class that is told whenever the number of gates or occupied gates of a terminal
+ * changes.
+ */
+public interface TerminalOccupancyListener {
+    /**
+     * Method called after a gate of the terminal has been added, occupied or vacated.
+     * @param terminal terminal whose occupancy has changed
+     */
+    void occupancyChanged(Terminal terminal);
+}
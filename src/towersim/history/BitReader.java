@@ -0,0 +1,64 @@
+package towersim.history;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads bits most significant bit first from the bytes remaining in a buffer.
+ */
+class BitReader {
+    /** Buffer the bits are read from */
+    private final ByteBuffer buffer;
+
+    /** Byte currently being read */
+    private int current;
+
+    /** Number of bits of the current byte not yet read */
+    private int available;
+
+    /**
+     * Creates a new reader of the bytes remaining in the given buffer.
+     * @param buffer buffer to be read
+     */
+    BitReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.available = 0;
+    }
+
+    /**
+     * Reads the given number of bits as an unsigned value.
+     * @param bits number of bits to read, from 1 to 64
+     * @return bits read
+     * @throws java.nio.BufferUnderflowException if the buffer runs out of bits
+     */
+    long read(int bits) {
+        long result = 0;
+        while (bits > 0) {
+            if (available == 0) {
+                current = buffer.get() & 0xFF;
+                available = 8;
+            }
+            int take = Math.min(bits, available);
+            result = (result << take) | ((current >>> (available - take)) & ((1 << take) - 1));
+            available -= take;
+            bits -= take;
+        }
+        return result;
+    }
+
+    /**
+     * Reads the given number of bits as a two's complement signed value.
+     * @param bits number of bits to read, from 1 to 64
+     * @return value read
+     */
+    long readSigned(int bits) {
+        return (read(bits) << (64 - bits)) >> (64 - bits);
+    }
+
+    /**
+     * Reads a single bit.
+     * @return true if the bit is one; false if it is zero
+     */
+    boolean readBit() {
+        return read(1) != 0;
+    }
+}
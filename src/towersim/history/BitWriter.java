@@ -0,0 +1,73 @@
+package towersim.history;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable buffer of bits written most significant bit first, reused between chunks.
+ */
+class BitWriter {
+    /** Bits written so far, packed into words most significant bit first */
+    private long[] words;
+
+    /** Number of bits written */
+    private long bitCount;
+
+    /** Creates a new empty bit writer */
+    BitWriter() {
+        words = new long[4];
+        bitCount = 0;
+    }
+
+    /**
+     * Appends the low bits of the given value.
+     * @param value value whose low bits are written
+     * @param bits number of bits to write, from 1 to 64
+     */
+    void write(long value, int bits) {
+        if (bits < 64) {
+            value &= (1L << bits) - 1;
+        }
+        int index = (int) (bitCount >>> 6);
+        if (index + 1 >= words.length) {
+            words = Arrays.copyOf(words, 2 * words.length);
+        }
+        int free = 64 - (int) (bitCount & 63);
+        if (bits <= free) {
+            words[index] |= value << (free - bits);
+        } else {
+            words[index] |= value >>> (bits - free);
+            words[index + 1] |= value << (64 - (bits - free));
+        }
+        bitCount += bits;
+    }
+
+    /**
+     * Get the number of bytes needed to hold the bits written, padded with zeros.
+     * @return length in bytes
+     */
+    int byteLength() {
+        return (int) ((bitCount + 7) >>> 3);
+    }
+
+    /**
+     * Copies the bits written to the given buffer, padded with zeros to a whole byte.
+     * @param buffer buffer with at least byteLength bytes remaining
+     */
+    void copyTo(ByteBuffer buffer) {
+        int bytes = byteLength();
+        int fullWords = bytes >>> 3;
+        for (int i = 0; i < fullWords; i++) {
+            buffer.putLong(words[i]);
+        }
+        for (int i = fullWords * 8; i < bytes; i++) {
+            buffer.put((byte) (words[fullWords] >>> (56 - 8 * (i - fullWords * 8))));
+        }
+    }
+
+    /** Removes all bits written, keeping the buffer for reuse */
+    void clear() {
+        Arrays.fill(words, 0, (int) (bitCount >>> 6) + 1, 0);
+        bitCount = 0;
+    }
+}
@@ -0,0 +1,42 @@
+package towersim.history;
+
+/**
+ * Represents the series recorded for every aircraft and terminal in a history file.
+ */
+public enum HistoryColumn {
+    /** Fuel on board an aircraft, in litres */
+    FUEL(true),
+
+    /** Passengers or kilograms of freight on board an aircraft */
+    LOAD(true),
+
+    /** Ordinal of the TaskType of an aircraft's current task */
+    TASK(false),
+
+    /** Number of occupied gates of a terminal */
+    OCCUPANCY(false);
+
+    /** Whether values are compressed as doubles, rather than as integers */
+    private final boolean floatingPoint;
+
+    HistoryColumn(boolean floatingPoint) {
+        this.floatingPoint = floatingPoint;
+    }
+
+    /**
+     * Checks whether the column's values are compressed as doubles by XOR with the previous
+     * value, rather than as integers by the difference between consecutive deltas.
+     * @return true if values are doubles; false if they are integers
+     */
+    public boolean isFloatingPoint() {
+        return floatingPoint;
+    }
+
+    /**
+     * Checks whether the column is recorded for terminals rather than aircraft.
+     * @return true for terminal columns; false for aircraft columns
+     */
+    public boolean isTerminalColumn() {
+        return this == OCCUPANCY;
+    }
+}
@@ -0,0 +1,31 @@
+package towersim.history;
+
+/**
+ * Layout of a history file.
+ * <p>
+ * A file starts with the 4-byte MAGIC number, followed by any number of chunks, each holding
+ * a run of consecutive ticks. A chunk is laid out as:
+ * <ul>
+ *     <li>a header: the length of the rest of the chunk, the length of the directory and the
+ *     number of directory entries, each as a 4-byte int</li>
+ *     <li>the directory, with one entry per series: the column ordinal as a byte; the
+ *     callsign, as a 2-byte length and UTF-8 bytes, for aircraft columns, or the terminal
+ *     number as a 4-byte int for terminal columns; the tick of the first value as an 8-byte
+ *     long; and the number of values, the offset of the block from the end of the directory
+ *     and the length of the block, each as a 4-byte int</li>
+ *     <li>the blocks of compressed values, as written by SeriesEncoder, grouped by column so
+ *     that each column is stored contiguously</li>
+ * </ul>
+ * All numbers are big-endian. A reader can skip whole chunks using the header, and read a
+ * single series using the directory, without decoding any other block.
+ */
+final class HistoryFormat {
+    /** Number identifying a history file */
+    static final int MAGIC = 0x54534831;
+
+    /** Size of a chunk header, in bytes */
+    static final int CHUNK_HEADER_BYTES = 12;
+
+    private HistoryFormat() {
+    }
+}
@@ -0,0 +1,220 @@
+package towersim.history;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the series of a history file written by HistoryRecorder. Opening a file reads only
+ * the chunk directories; reading a series then reads and decodes only that series' blocks.
+ */
+public class HistoryReader implements Closeable {
+    /** Channel the file is read from */
+    private final FileChannel channel;
+
+    /** Directory entries of every aircraft series, keyed by callsign, in file order */
+    private final Map<String, List<Entry>> aircraftEntries;
+
+    /** Directory entries of every terminal series, keyed by terminal number, in file order */
+    private final Map<Integer, List<Entry>> terminalEntries;
+
+    /**
+     * Opens the given history file and reads its chunk directories.
+     * @param file history file to be read
+     * @throws IOException if the file cannot be read or is not a history file
+     */
+    public HistoryReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        aircraftEntries = new LinkedHashMap<>();
+        terminalEntries = new LinkedHashMap<>();
+        try {
+            readDirectories();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the callsigns of every aircraft recorded, in the order they were first recorded.
+     * @return callsigns of recorded aircraft
+     */
+    public Set<String> getCallsigns() {
+        return aircraftEntries.keySet();
+    }
+
+    /**
+     * Get the numbers of every terminal recorded, in the order they were first recorded.
+     * @return numbers of recorded terminals
+     */
+    public Set<Integer> getTerminalNumbers() {
+        return terminalEntries.keySet();
+    }
+
+    /**
+     * Reads one series of the given aircraft.
+     * @param callsign callsign of the aircraft
+     * @param column aircraft column to be read
+     * @return series of that aircraft; null if the aircraft was not recorded
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the column is not an aircraft column
+     */
+    public HistorySeries readAircraft(String callsign, HistoryColumn column)
+            throws IOException {
+        if (column.isTerminalColumn()) {
+            throw new IllegalArgumentException();
+        }
+        return read(aircraftEntries.get(callsign), column);
+    }
+
+    /**
+     * Reads every series of the given aircraft.
+     * @param callsign callsign of the aircraft
+     * @return series of that aircraft keyed by column; empty if the aircraft was not recorded
+     * @throws IOException if the file cannot be read
+     */
+    public Map<HistoryColumn, HistorySeries> readAircraft(String callsign) throws IOException {
+        Map<HistoryColumn, HistorySeries> result = new EnumMap<>(HistoryColumn.class);
+        List<Entry> entries = aircraftEntries.get(callsign);
+        for (HistoryColumn column : HistoryColumn.values()) {
+            HistorySeries series = column.isTerminalColumn() ? null : read(entries, column);
+            if (series != null) {
+                result.put(column, series);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the occupancy series of the given terminal.
+     * @param terminalNumber number of the terminal
+     * @return number of occupied gates of that terminal; null if it was not recorded
+     * @throws IOException if the file cannot be read
+     */
+    public HistorySeries readTerminal(int terminalNumber) throws IOException {
+        return read(terminalEntries.get(terminalNumber), HistoryColumn.OCCUPANCY);
+    }
+
+    /**
+     * Closes the file.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Decodes the blocks of the given column among the given entries into one series */
+    private HistorySeries read(List<Entry> entries, HistoryColumn column) throws IOException {
+        if (entries == null) {
+            return null;
+        }
+        List<Entry> blocks = new ArrayList<>();
+        int total = 0;
+        for (Entry entry : entries) {
+            if (entry.column == column) {
+                blocks.add(entry);
+                total += entry.count;
+            }
+        }
+        if (blocks.isEmpty()) {
+            return null;
+        }
+        double[] values = new double[total];
+        int offset = 0;
+        for (Entry block : blocks) {
+            ByteBuffer bytes = readFully(block.position, block.length);
+            SeriesEncoder.decode(column, new BitReader(bytes), block.count, values, offset);
+            offset += block.count;
+        }
+        return new HistorySeries(column, blocks.get(0).firstTick, values);
+    }
+
+    /** Reads the directory of every chunk in the file */
+    private void readDirectories() throws IOException {
+        long size = channel.size();
+        if (size < 4 || readFully(0, 4).getInt() != HistoryFormat.MAGIC) {
+            throw new IOException("not a history file");
+        }
+        long position = 4;
+        while (position < size) {
+            ByteBuffer header = readFully(position, HistoryFormat.CHUNK_HEADER_BYTES);
+            int chunkLength = header.getInt();
+            int directoryLength = header.getInt();
+            int numEntries = header.getInt();
+            long directoryStart = position + HistoryFormat.CHUNK_HEADER_BYTES;
+            ByteBuffer directory = readFully(directoryStart, directoryLength);
+            long blocksStart = directoryStart + directoryLength;
+            for (int i = 0; i < numEntries; i++) {
+                readEntry(directory, blocksStart);
+            }
+            position += 4 + (long) chunkLength;
+        }
+    }
+
+    /** Reads one directory entry and files it under its aircraft or terminal */
+    private void readEntry(ByteBuffer directory, long blocksStart) throws IOException {
+        int ordinal = directory.get();
+        if (ordinal < 0 || ordinal >= HistoryColumn.values().length) {
+            throw new IOException("unknown column " + ordinal);
+        }
+        Entry entry = new Entry();
+        entry.column = HistoryColumn.values()[ordinal];
+        List<Entry> owner;
+        if (entry.column.isTerminalColumn()) {
+            owner = terminalEntries.computeIfAbsent(directory.getInt(),
+                    number -> new ArrayList<>());
+        } else {
+            byte[] callsign = new byte[directory.getShort() & 0xFFFF];
+            directory.get(callsign);
+            owner = aircraftEntries.computeIfAbsent(
+                    new String(callsign, StandardCharsets.UTF_8), key -> new ArrayList<>());
+        }
+        entry.firstTick = directory.getLong();
+        entry.count = directory.getInt();
+        entry.position = blocksStart + directory.getInt();
+        entry.length = directory.getInt();
+        owner.add(entry);
+    }
+
+    /** Reads the given number of bytes from the given position of the file */
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /** Location of one block of a series */
+    private static class Entry {
+        /** Column of the series */
+        private HistoryColumn column;
+
+        /** Tick of the first value in the block */
+        private long firstTick;
+
+        /** Number of values in the block */
+        private int count;
+
+        /** Position of the block in the file */
+        private long position;
+
+        /** Length of the block in bytes */
+        private int length;
+    }
+}
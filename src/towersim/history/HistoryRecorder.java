@@ -0,0 +1,274 @@
+package towersim.history;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.control.ControlTower;
+import towersim.ground.Terminal;
+import towersim.util.Tickable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the fuel, load and task of every aircraft and the number of occupied gates of every
+ * terminal of a control tower at the end of every tick, for analysis after the run.
+ * Values are compressed into per-series blocks as they are recorded, and written as one chunk
+ * every so many ticks in the format described by HistoryFormat, to be read by HistoryReader.
+ * If writing fails, the recorder stops and the failure is kept for getError(), rather than
+ * interrupting the tower's tick.
+ */
+public class HistoryRecorder implements Tickable {
+    /** Default number of ticks recorded in each chunk */
+    public static final int DEFAULT_TICKS_PER_CHUNK = 256;
+
+    /** Largest size of a directory entry, excluding the callsign, in bytes */
+    private static final int DIRECTORY_ENTRY_BYTES = 1 + 4 + 8 + 4 + 4 + 4;
+
+    /** Control tower whose history is recorded */
+    private final ControlTower tower;
+
+    /** Channel chunks are written to */
+    private final WritableByteChannel sink;
+
+    /** Number of ticks recorded in each chunk */
+    private final int ticksPerChunk;
+
+    /** Encoders of every aircraft's fuel, load and task, in that order */
+    private final Map<Aircraft, SeriesEncoder[]> aircraftSeries;
+
+    /** Encoders of every terminal's occupancy */
+    private final Map<Terminal, SeriesEncoder> terminalSeries;
+
+    /** Aircraft recorded, in the order they were first seen */
+    private final List<Aircraft> aircraftOrder;
+
+    /** Terminals recorded, in the order they were first seen */
+    private final List<Terminal> terminalOrder;
+
+    /** Buffer chunks are assembled in, reused between chunks */
+    private ByteBuffer buffer;
+
+    /** Number of ticks recorded in the current chunk */
+    private int ticksInChunk;
+
+    /** Total number of bytes written so far */
+    private long bytesWritten;
+
+    /** Failure that stopped the recorder; null if the recorder is still running */
+    private IOException error;
+
+    /**
+     * Creates a new recorder writing to the given channel and registers it to record at the
+     * end of every tick.
+     * @param tower control tower whose history is recorded
+     * @param sink channel chunks are written to
+     * @param ticksPerChunk number of ticks recorded in each chunk
+     * @throws IllegalArgumentException if ticksPerChunk is less than one
+     */
+    public HistoryRecorder(ControlTower tower, WritableByteChannel sink, int ticksPerChunk) {
+        if (ticksPerChunk < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.tower = tower;
+        this.sink = sink;
+        this.ticksPerChunk = ticksPerChunk;
+        this.aircraftSeries = new IdentityHashMap<>();
+        this.terminalSeries = new IdentityHashMap<>();
+        this.aircraftOrder = new ArrayList<>();
+        this.terminalOrder = new ArrayList<>();
+        this.buffer = ByteBuffer.allocate(4096);
+        this.ticksInChunk = 0;
+        this.bytesWritten = 0;
+        this.error = null;
+        tower.addEndOfTickTask(this);
+    }
+
+    /**
+     * Creates a new recorder writing to the given file, replacing any existing contents.
+     * @param tower control tower whose history is recorded
+     * @param file file chunks are written to
+     * @param ticksPerChunk number of ticks recorded in each chunk
+     * @return new history recorder
+     * @throws IOException if the file cannot be opened
+     */
+    public static HistoryRecorder toFile(ControlTower tower, Path file, int ticksPerChunk)
+            throws IOException {
+        return new HistoryRecorder(tower, FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), ticksPerChunk);
+    }
+
+    /**
+     * Get the total number of bytes written so far.
+     * @return number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Get the failure that stopped the recorder, or a marker of it having been closed if it
+     * stopped without one.
+     * @return failure while writing; null if the recorder is still running
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * Records the current state of the tower's aircraft and terminals, writing a chunk once
+     * enough ticks have been recorded. Must be called on the thread ticking the tower.
+     */
+    @Override
+    public void tick() {
+        if (error != null) {
+            return;
+        }
+        long tick = tower.getTicksElapsed();
+        for (Aircraft aircraft : tower.getAircraft()) {
+            SeriesEncoder[] series = aircraftSeries.get(aircraft);
+            if (series == null) {
+                String callsign = aircraft.getCallsign();
+                series = new SeriesEncoder[] {new SeriesEncoder(HistoryColumn.FUEL, callsign),
+                        new SeriesEncoder(HistoryColumn.LOAD, callsign),
+                        new SeriesEncoder(HistoryColumn.TASK, callsign)};
+                aircraftSeries.put(aircraft, series);
+                aircraftOrder.add(aircraft);
+            }
+            series[0].add(tick, aircraft.getFuelAmount());
+            series[1].add(tick, loadOf(aircraft));
+            series[2].add(tick, aircraft.getTaskList().getCurrentTask().getType().ordinal());
+        }
+        for (Terminal terminal : tower.getTerminals()) {
+            SeriesEncoder series = terminalSeries.get(terminal);
+            if (series == null) {
+                series = new SeriesEncoder(HistoryColumn.OCCUPANCY,
+                        terminal.getTerminalNumber());
+                terminalSeries.put(terminal, series);
+                terminalOrder.add(terminal);
+            }
+            series.add(tick, terminal.getNumOccupiedGates());
+        }
+        ticksInChunk++;
+        if (ticksInChunk == ticksPerChunk) {
+            try {
+                writeChunk();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * Writes any ticks recorded since the last chunk and closes the channel. No more ticks
+     * are recorded afterwards.
+     * @throws IOException if the last chunk cannot be written or the channel cannot be closed
+     */
+    public void close() throws IOException {
+        try {
+            if (error == null && ticksInChunk > 0) {
+                writeChunk();
+            }
+        } catch (IOException e) {
+            // keep the real cause rather than the closed marker
+            error = e;
+            throw e;
+        } finally {
+            if (error == null) {
+                error = new IOException("recorder closed");
+            }
+            sink.close();
+        }
+    }
+
+    /** Writes every series recorded since the last chunk as a new chunk */
+    private void writeChunk() throws IOException {
+        List<SeriesEncoder> blocks = new ArrayList<>();
+        for (HistoryColumn column : HistoryColumn.values()) {
+            if (column.isTerminalColumn()) {
+                for (Terminal terminal : terminalOrder) {
+                    addBlock(blocks, terminalSeries.get(terminal));
+                }
+            } else {
+                for (Aircraft aircraft : aircraftOrder) {
+                    addBlock(blocks, aircraftSeries.get(aircraft)[column.ordinal()]);
+                }
+            }
+        }
+        buffer.clear();
+        if (bytesWritten == 0) {
+            buffer.putInt(HistoryFormat.MAGIC);
+        }
+        int chunkStart = buffer.position();
+        buffer.position(chunkStart + HistoryFormat.CHUNK_HEADER_BYTES);
+        int blockOffset = 0;
+        for (SeriesEncoder block : blocks) {
+            byte[] callsign = block.getCallsign() == null ? null
+                    : block.getCallsign().getBytes(StandardCharsets.UTF_8);
+            ensureRemaining(DIRECTORY_ENTRY_BYTES + (callsign == null ? 0 : callsign.length));
+            buffer.put((byte) block.getColumn().ordinal());
+            if (callsign == null) {
+                buffer.putInt(block.getTerminalNumber());
+            } else {
+                buffer.putShort((short) callsign.length);
+                buffer.put(callsign);
+            }
+            int length = block.getBits().byteLength();
+            buffer.putLong(block.getFirstTick());
+            buffer.putInt(block.getCount());
+            buffer.putInt(blockOffset);
+            buffer.putInt(length);
+            blockOffset += length;
+        }
+        int directoryLength = buffer.position() - chunkStart - HistoryFormat.CHUNK_HEADER_BYTES;
+        ensureRemaining(blockOffset);
+        for (SeriesEncoder block : blocks) {
+            block.getBits().copyTo(buffer);
+            block.clear();
+        }
+        buffer.putInt(chunkStart, buffer.position() - chunkStart - 4);
+        buffer.putInt(chunkStart + 4, directoryLength);
+        buffer.putInt(chunkStart + 8, blocks.size());
+        buffer.flip();
+        ticksInChunk = 0;
+        while (buffer.hasRemaining()) {
+            bytesWritten += sink.write(buffer);
+        }
+    }
+
+    /** Adds the block of the given series to a chunk, unless nothing has been recorded */
+    private static void addBlock(List<SeriesEncoder> blocks, SeriesEncoder series) {
+        if (series.getCount() > 0) {
+            blocks.add(series);
+        }
+    }
+
+    /** Grows the chunk buffer, if needed, so that the given number of bytes fit */
+    private void ensureRemaining(int bytes) {
+        if (buffer.remaining() < bytes) {
+            int capacity = Math.max(2 * buffer.capacity(), buffer.position() + bytes);
+            ByteBuffer larger = ByteBuffer.allocate(capacity);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    /** Get the passengers or freight on board the given aircraft */
+    private static double loadOf(Aircraft aircraft) {
+        if (aircraft instanceof PassengerAircraft) {
+            return ((PassengerAircraft) aircraft).getNumPassengers();
+        } else if (aircraft instanceof FreightAircraft) {
+            return ((FreightAircraft) aircraft).getFreightAmount();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,89 @@
+package towersim.history;
+
+import towersim.tasks.TaskType;
+
+/**
+ * Values of one recorded series over consecutive ticks, read from a history file.
+ */
+public class HistorySeries {
+    /** Column of the series */
+    private final HistoryColumn column;
+
+    /** Tick of the first value */
+    private final long firstTick;
+
+    /** Value at every tick from the first */
+    private final double[] values;
+
+    /**
+     * Creates a new series.
+     * @param column column of the series
+     * @param firstTick tick of the first value
+     * @param values value at every tick from the first
+     */
+    HistorySeries(HistoryColumn column, long firstTick, double[] values) {
+        this.column = column;
+        this.firstTick = firstTick;
+        this.values = values;
+    }
+
+    /**
+     * Get the column of the series.
+     * @return column recorded
+     */
+    public HistoryColumn getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the tick of the first value.
+     * @return first tick recorded
+     */
+    public long getFirstTick() {
+        return firstTick;
+    }
+
+    /**
+     * Get the number of values in the series.
+     * @return number of ticks recorded
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Get the value recorded at the given tick.
+     * @param tick tick of the value
+     * @return value at that tick
+     * @throws IndexOutOfBoundsException if nothing was recorded at that tick
+     */
+    public double getValueAt(long tick) {
+        long index = tick - firstTick;
+        if (index < 0 || index >= values.length) {
+            throw new IndexOutOfBoundsException("tick " + tick);
+        }
+        return values[(int) index];
+    }
+
+    /**
+     * Get the type of the task recorded at the given tick in a TASK series.
+     * @param tick tick of the value
+     * @return task type at that tick
+     * @throws IndexOutOfBoundsException if nothing was recorded at that tick
+     * @throws IllegalStateException if the series is not a TASK series
+     */
+    public TaskType getTaskTypeAt(long tick) {
+        if (column != HistoryColumn.TASK) {
+            throw new IllegalStateException();
+        }
+        return TaskType.values()[(int) getValueAt(tick)];
+    }
+
+    /**
+     * Get a copy of the values in the series.
+     * @return value at every tick from the first
+     */
+    public double[] toArray() {
+        return values.clone();
+    }
+}
@@ -0,0 +1,251 @@
+package towersim.history;
+
+/**
+ * Compresses the values of one series for one chunk, in the style of the Gorilla time-series
+ * format. Each chunk's block starts afresh, so blocks can be decoded independently.
+ * <p>
+ * Doubles are written as the first value's 64 bits, then for each value the XOR with the
+ * value before: a 0 bit if they are equal; 10 and the meaningful bits if they fit in the
+ * window of leading and trailing zeros of the last written XOR; or 11, 5 bits of leading
+ * zeros, 6 bits of meaningful length minus one and the meaningful bits otherwise.
+ * Integers are written as the first value's 64 bits, then for each value the difference
+ * between its delta and the delta before: 0 if equal, or a prefix of 10, 110, 1110 or 1111
+ * followed by the difference in 7, 9, 12 or 64 bits.
+ */
+class SeriesEncoder {
+    /** Column whose values are encoded */
+    private final HistoryColumn column;
+
+    /** Callsign of the aircraft recorded; null for a terminal column */
+    private final String callsign;
+
+    /** Number of the terminal recorded; -1 for an aircraft column */
+    private final int terminalNumber;
+
+    /** Compressed values */
+    private final BitWriter bits;
+
+    /** Tick of the first value in the current block */
+    private long firstTick;
+
+    /** Number of values in the current block */
+    private int count;
+
+    /** Raw bits of the previous double, or the previous integer */
+    private long previous;
+
+    /** Difference between the previous two integers */
+    private long previousDelta;
+
+    /** Leading zeros of the XOR window; -1 until a window has been written */
+    private int windowLeading;
+
+    /** Trailing zeros of the XOR window */
+    private int windowTrailing;
+
+    /**
+     * Creates a new encoder of an aircraft's series with an empty block.
+     * @param column aircraft column whose values are encoded
+     * @param callsign callsign of the aircraft
+     */
+    SeriesEncoder(HistoryColumn column, String callsign) {
+        this(column, callsign, -1);
+    }
+
+    /**
+     * Creates a new encoder of a terminal's series with an empty block.
+     * @param column terminal column whose values are encoded
+     * @param terminalNumber number of the terminal
+     */
+    SeriesEncoder(HistoryColumn column, int terminalNumber) {
+        this(column, null, terminalNumber);
+    }
+
+    private SeriesEncoder(HistoryColumn column, String callsign, int terminalNumber) {
+        this.column = column;
+        this.callsign = callsign;
+        this.terminalNumber = terminalNumber;
+        this.bits = new BitWriter();
+        clear();
+    }
+
+    /**
+     * Get the column whose values are encoded.
+     * @return column of the series
+     */
+    HistoryColumn getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the callsign of the aircraft recorded.
+     * @return callsign; null for a terminal column
+     */
+    String getCallsign() {
+        return callsign;
+    }
+
+    /**
+     * Get the number of the terminal recorded.
+     * @return terminal number; -1 for an aircraft column
+     */
+    int getTerminalNumber() {
+        return terminalNumber;
+    }
+
+    /**
+     * Get the tick of the first value in the current block.
+     * @return first tick; meaningless if the block is empty
+     */
+    long getFirstTick() {
+        return firstTick;
+    }
+
+    /**
+     * Get the number of values in the current block.
+     * @return number of values
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Get the compressed values of the current block.
+     * @return bits written
+     */
+    BitWriter getBits() {
+        return bits;
+    }
+
+    /**
+     * Appends the value of the series at the given tick, which must follow the tick of the
+     * previous value.
+     * @param tick tick of the value
+     * @param value value to be appended
+     */
+    void add(long tick, double value) {
+        if (count == 0) {
+            firstTick = tick;
+        }
+        if (column.isFloatingPoint()) {
+            addDouble(Double.doubleToRawLongBits(value));
+        } else {
+            addInteger((long) value);
+        }
+        count++;
+    }
+
+    /** Starts a new empty block */
+    void clear() {
+        bits.clear();
+        count = 0;
+        previous = 0;
+        previousDelta = 0;
+        windowLeading = -1;
+        windowTrailing = 0;
+    }
+
+    private void addDouble(long value) {
+        if (count == 0) {
+            bits.write(value, 64);
+            previous = value;
+            return;
+        }
+        long xor = value ^ previous;
+        previous = value;
+        if (xor == 0) {
+            bits.write(0, 1);
+            return;
+        }
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (windowLeading >= 0 && leading >= windowLeading && trailing >= windowTrailing) {
+            bits.write(0b10, 2);
+            bits.write(xor >>> windowTrailing, 64 - windowLeading - windowTrailing);
+        } else {
+            int meaningful = 64 - leading - trailing;
+            bits.write(0b11, 2);
+            bits.write(leading, 5);
+            bits.write(meaningful - 1, 6);
+            bits.write(xor >>> trailing, meaningful);
+            windowLeading = leading;
+            windowTrailing = trailing;
+        }
+    }
+
+    private void addInteger(long value) {
+        if (count == 0) {
+            bits.write(value, 64);
+            previous = value;
+            return;
+        }
+        long delta = value - previous;
+        long deltaOfDelta = delta - previousDelta;
+        previous = value;
+        previousDelta = delta;
+        if (deltaOfDelta == 0) {
+            bits.write(0, 1);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta < 64) {
+            bits.write(0b10, 2);
+            bits.write(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta < 256) {
+            bits.write(0b110, 3);
+            bits.write(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta < 2048) {
+            bits.write(0b1110, 4);
+            bits.write(deltaOfDelta, 12);
+        } else {
+            bits.write(0b1111, 4);
+            bits.write(deltaOfDelta, 64);
+        }
+    }
+
+    /**
+     * Decodes a block written by an encoder of the given column.
+     * @param column column of the series
+     * @param reader reader positioned at the start of the block
+     * @param count number of values in the block
+     * @param values array the values are decoded into
+     * @param offset position in the array of the first value
+     */
+    static void decode(HistoryColumn column, BitReader reader, int count, double[] values,
+                       int offset) {
+        if (count == 0) {
+            return;
+        }
+        long previous = reader.read(64);
+        if (column.isFloatingPoint()) {
+            values[offset] = Double.longBitsToDouble(previous);
+            int leading = 0;
+            int trailing = 0;
+            for (int i = 1; i < count; i++) {
+                if (reader.readBit()) {
+                    if (reader.readBit()) {
+                        leading = (int) reader.read(5);
+                        trailing = 64 - leading - ((int) reader.read(6) + 1);
+                    }
+                    previous ^= reader.read(64 - leading - trailing) << trailing;
+                }
+                values[offset + i] = Double.longBitsToDouble(previous);
+            }
+        } else {
+            values[offset] = previous;
+            long delta = 0;
+            for (int i = 1; i < count; i++) {
+                if (reader.readBit()) {
+                    if (!reader.readBit()) {
+                        delta += reader.readSigned(7);
+                    } else if (!reader.readBit()) {
+                        delta += reader.readSigned(9);
+                    } else if (!reader.readBit()) {
+                        delta += reader.readSigned(12);
+                    } else {
+                        delta += reader.read(64);
+                    }
+                }
+                previous += delta;
+                values[offset + i] = previous;
+            }
+        }
+    }
+}
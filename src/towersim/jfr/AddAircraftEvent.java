@@ -0,0 +1,47 @@
+package towersim.jfr;
+
+import towersim.aircraft.Aircraft;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event covering the addition of an aircraft to a control tower.
+ */
+@Name("towersim.AddAircraft")
+@Label("Add Aircraft")
+@Category("Tower Simulation")
+@Description("An aircraft added to a control tower")
+@StackTrace(false)
+@Threshold("1 ms")
+public class AddAircraftEvent extends jdk.jfr.Event {
+    /** Callsign of the aircraft added */
+    @Label("Callsign")
+    public String callsign;
+
+    /** Type of the aircraft's current task when added */
+    @Label("Task")
+    public String task;
+
+    /** Whether the aircraft was added without a gate being needed or found */
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    /**
+     * Ends the event and commits it if it took longer than the threshold.
+     * @param aircraft aircraft added
+     * @param succeeded whether the aircraft was added without a gate being needed or found
+     */
+    public void commit(Aircraft aircraft, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.callsign = aircraft.getCallsign();
+            this.task = aircraft.getTaskList().getCurrentTask().getType().name();
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package towersim.jfr;
+
+import towersim.aircraft.Aircraft;
+import towersim.ground.Terminal;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event marking an emergency being declared or cleared on an aircraft or
+ * terminal.
+ */
+@Name("towersim.Emergency")
+@Label("Emergency")
+@Category("Tower Simulation")
+@Description("An emergency declared or cleared on an aircraft or terminal")
+public class EmergencyEvent extends jdk.jfr.Event {
+    /** Aircraft callsign, or terminal description, of the subject of the emergency */
+    @Label("Subject")
+    public String subject;
+
+    /** True if the emergency was declared; false if it was cleared */
+    @Label("Declared")
+    public boolean declared;
+
+    /**
+     * Records an emergency being declared or cleared on an aircraft, if the event is enabled.
+     * @param aircraft aircraft whose emergency state changed
+     * @param declared true if the emergency was declared; false if it was cleared
+     */
+    public static void record(Aircraft aircraft, boolean declared) {
+        EmergencyEvent event = new EmergencyEvent();
+        if (event.isEnabled()) {
+            event.subject = aircraft.getCallsign();
+            event.declared = declared;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records an emergency being declared or cleared on a terminal, if the event is enabled.
+     * @param terminal terminal whose emergency state changed
+     * @param declared true if the emergency was declared; false if it was cleared
+     */
+    public static void record(Terminal terminal, boolean declared) {
+        EmergencyEvent event = new EmergencyEvent();
+        if (event.isEnabled()) {
+            event.subject = terminal.getClass().getSimpleName() + " "
+                    + terminal.getTerminalNumber();
+            event.declared = declared;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package towersim.jfr;
+
+import towersim.aircraft.Aircraft;
+import towersim.ground.Gate;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event covering a search for an unoccupied gate. Failed searches are recorded
+ * whatever their duration; successful ones only above the threshold.
+ */
+@Name("towersim.GateAllocation")
+@Label("Gate Allocation")
+@Category("Tower Simulation")
+@Description("A search for an unoccupied gate for an aircraft")
+@StackTrace(false)
+@Threshold("1 ms")
+public class GateAllocationEvent extends jdk.jfr.Event {
+    /** Callsign of the aircraft needing a gate */
+    @Label("Callsign")
+    public String callsign;
+
+    /** Type of the aircraft needing a gate */
+    @Label("Aircraft Type")
+    public String aircraftType;
+
+    /** Number of the gate found; -1 if none was found */
+    @Label("Gate Number")
+    public int gateNumber;
+
+    /** Whether a gate was found */
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    /**
+     * Ends the event and commits it if the search failed or took longer than the threshold.
+     * @param aircraft aircraft needing a gate
+     * @param gate gate found; null if none was found
+     */
+    public void commit(Aircraft aircraft, Gate gate) {
+        end();
+        if (gate == null) {
+            GateAllocationFailedEvent failed = new GateAllocationFailedEvent();
+            if (failed.isEnabled()) {
+                failed.callsign = aircraft.getCallsign();
+                failed.aircraftType = aircraft.getAircraftType().name();
+                failed.commit();
+            }
+        }
+        if (shouldCommit()) {
+            callsign = aircraft.getCallsign();
+            aircraftType = aircraft.getAircraftType().name();
+            gateNumber = gate == null ? -1 : gate.getGateNumber();
+            succeeded = gate != null;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package towersim.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event marking a search for an unoccupied gate that found none.
+ */
+@Name("towersim.GateAllocationFailed")
+@Label("Gate Allocation Failed")
+@Category("Tower Simulation")
+@Description("No unoccupied gate could be found for an aircraft")
+@StackTrace(false)
+public class GateAllocationFailedEvent extends jdk.jfr.Event {
+    /** Callsign of the aircraft needing a gate */
+    @Label("Callsign")
+    public String callsign;
+
+    /** Type of the aircraft needing a gate */
+    @Label("Aircraft Type")
+    public String aircraftType;
+}
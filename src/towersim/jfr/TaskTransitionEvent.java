@@ -0,0 +1,50 @@
+package towersim.jfr;
+
+import towersim.aircraft.Aircraft;
+import towersim.tasks.TaskType;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event marking an aircraft moving to its next task. Disabled by default, as
+ * every aircraft moves several times per turnaround.
+ */
+@Name("towersim.TaskTransition")
+@Label("Task Transition")
+@Category("Tower Simulation")
+@Description("An aircraft moved from one task to the next")
+@StackTrace(false)
+@Enabled(false)
+public class TaskTransitionEvent extends jdk.jfr.Event {
+    /** Callsign of the aircraft */
+    @Label("Callsign")
+    public String callsign;
+
+    /** Type of the task the aircraft left */
+    @Label("From")
+    public String from;
+
+    /** Type of the task the aircraft moved to */
+    @Label("To")
+    public String to;
+
+    /**
+     * Records an aircraft moving to its next task, if the event is enabled.
+     * @param aircraft aircraft that moved
+     * @param from type of the task the aircraft left
+     * @param to type of the task the aircraft moved to
+     */
+    public static void record(Aircraft aircraft, TaskType from, TaskType to) {
+        TaskTransitionEvent event = new TaskTransitionEvent();
+        if (event.isEnabled()) {
+            event.callsign = aircraft.getCallsign();
+            event.from = from.name();
+            event.to = to.name();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package towersim.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event covering a single ControlTower tick.
+ */
+@Name("towersim.Tick")
+@Label("Tower Tick")
+@Category("Tower Simulation")
+@Description("A single tick of a control tower")
+@StackTrace(false)
+@Threshold("0 ms")
+public class TickEvent extends jdk.jfr.Event {
+    /** Number of ticks the tower had elapsed at the end of the tick */
+    @Label("Tick")
+    public long tick;
+
+    /** Number of aircraft controlled by the tower */
+    @Label("Aircraft")
+    public int aircraftCount;
+
+    /** Number of aircraft that were ticked, being away or loading */
+    @Label("Aircraft Ticked")
+    public int aircraftTicked;
+
+    /**
+     * Ends the event and commits it if it took longer than the threshold.
+     * @param tick number of ticks elapsed at the end of the tick
+     * @param aircraftCount number of aircraft controlled by the tower
+     * @param aircraftTicked number of aircraft that were ticked
+     */
+    public void commit(long tick, int aircraftCount, int aircraftTicked) {
+        end();
+        if (shouldCommit()) {
+            this.tick = tick;
+            this.aircraftCount = aircraftCount;
+            this.aircraftTicked = aircraftTicked;
+            commit();
+        }
+    }
+}
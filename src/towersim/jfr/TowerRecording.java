@@ -0,0 +1,42 @@
+package towersim.jfr;
+
+import jdk.jfr.Recording;
+import java.time.Duration;
+
+/**
+ * Creates flight recordings of the tower simulation's events, for analysis offline from the
+ * .jfr file they are dumped to. The same events can also be enabled without this class through
+ * the usual flight recorder settings, using the event names towersim.Tick,
+ * towersim.GateAllocation, towersim.GateAllocationFailed, towersim.AddAircraft,
+ * towersim.TaskTransition and towersim.Emergency.
+ */
+public final class TowerRecording {
+    private TowerRecording() {
+    }
+
+    /**
+     * Creates a recording, not yet started, of all tower simulation events. Timed events are
+     * only recorded when they take longer than their threshold, so thresholds can be raised to
+     * keep recording in production at negligible cost.
+     * @param tickThreshold shortest tick that is recorded
+     * @param operationThreshold shortest gate allocation or aircraft addition that is recorded
+     * @param recordTransitions whether every task transition is recorded
+     * @return new recording
+     */
+    public static Recording newRecording(Duration tickThreshold, Duration operationThreshold,
+                                         boolean recordTransitions) {
+        Recording recording = new Recording();
+        recording.setName("towersim");
+        recording.enable(TickEvent.class).withThreshold(tickThreshold);
+        recording.enable(GateAllocationEvent.class).withThreshold(operationThreshold);
+        recording.enable(AddAircraftEvent.class).withThreshold(operationThreshold);
+        recording.enable(GateAllocationFailedEvent.class);
+        recording.enable(EmergencyEvent.class);
+        if (recordTransitions) {
+            recording.enable(TaskTransitionEvent.class);
+        } else {
+            recording.disable(TaskTransitionEvent.class);
+        }
+        return recording;
+    }
+}
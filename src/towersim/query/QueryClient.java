@@ -0,0 +1,140 @@
+package towersim.query;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Sends queries to a QueryServer on the local machine over a single connection, waiting for
+ * the response to each before sending the next. A client is meant to be used by one thread at
+ * a time.
+ */
+public class QueryClient implements Closeable {
+    /** Connection to the server */
+    private final SocketChannel channel;
+
+    /** Buffer requests are encoded into, reused between requests */
+    private ByteBuffer request;
+
+    /** Buffer holding the length of the next response */
+    private final ByteBuffer length;
+
+    /** Id of the next request */
+    private int nextId;
+
+    /**
+     * Connects to a server listening on the given port of the loopback address.
+     * @param port port the server is listening on
+     * @throws IOException if the connection cannot be made
+     */
+    public QueryClient(int port) throws IOException {
+        channel = SocketChannel.open(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        channel.socket().setTcpNoDelay(true);
+        request = ByteBuffer.allocate(256);
+        length = ByteBuffer.allocate(QueryFormat.LENGTH_BYTES);
+        nextId = 0;
+    }
+
+    /**
+     * Asks for the callsigns of every aircraft.
+     * @return response laid out as described by QueryType.CALLSIGNS
+     * @throws IOException if the server cannot be reached
+     */
+    public QueryResponse getCallsigns() throws IOException {
+        return send(begin(QueryType.CALLSIGNS));
+    }
+
+    /**
+     * Asks for the state of the aircraft with the given callsign.
+     * @param callsign callsign of the aircraft
+     * @return response laid out as described by QueryType.AIRCRAFT
+     * @throws IOException if the server cannot be reached
+     */
+    public QueryResponse getAircraft(String callsign) throws IOException {
+        request = QueryFormat.putString(begin(QueryType.AIRCRAFT), callsign);
+        return send(request);
+    }
+
+    /**
+     * Asks for the gate occupancy of the terminal with the given number.
+     * @param terminalNumber number of the terminal
+     * @return response laid out as described by QueryType.TERMINAL
+     * @throws IOException if the server cannot be reached
+     */
+    public QueryResponse getTerminal(int terminalNumber) throws IOException {
+        return send(begin(QueryType.TERMINAL).putInt(terminalNumber));
+    }
+
+    /**
+     * Asks for the terminals and aircraft in a state of emergency.
+     * @return response laid out as described by QueryType.EMERGENCIES
+     * @throws IOException if the server cannot be reached
+     */
+    public QueryResponse getEmergencies() throws IOException {
+        return send(begin(QueryType.EMERGENCIES));
+    }
+
+    /**
+     * Asks for tower-wide totals.
+     * @return response laid out as described by QueryType.AGGREGATES
+     * @throws IOException if the server cannot be reached
+     */
+    public QueryResponse getAggregates() throws IOException {
+        return send(begin(QueryType.AGGREGATES));
+    }
+
+    /**
+     * Closes the connection to the server.
+     * @throws IOException if the connection cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Starts encoding a request of the given type, leaving room for its length */
+    private ByteBuffer begin(QueryType type) {
+        request.clear();
+        request.putInt(0);
+        request.putInt(nextId);
+        request.put((byte) type.ordinal());
+        return request;
+    }
+
+    /** Sends the encoded request and waits for its response */
+    private QueryResponse send(ByteBuffer encoded) throws IOException {
+        request = encoded;
+        int id = nextId++;
+        QueryType type = QueryFormat.TYPES[request.get(QueryFormat.LENGTH_BYTES + 4)];
+        request.putInt(0, request.position() - QueryFormat.LENGTH_BYTES);
+        request.flip();
+        while (request.hasRemaining()) {
+            channel.write(request);
+        }
+        length.clear();
+        readFully(length);
+        ByteBuffer response = ByteBuffer.allocate(length.getInt(0));
+        readFully(response);
+        response.flip();
+        if (response.getInt() != id) {
+            throw new IOException("Response does not match request " + id);
+        }
+        QueryStatus status = QueryFormat.STATUSES[response.get()];
+        long epoch = response.getLong();
+        return new QueryResponse(type, status, epoch, response.slice());
+    }
+
+    /** Reads until the buffer is full */
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package towersim.query;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Framing and primitive encodings of the query protocol.
+ * <p>
+ * Every message is a 4-byte big-endian length followed by that many bytes. A request holds a
+ * 4-byte request id chosen by the client, the QueryType ordinal as a byte and the argument of
+ * that type, if any. A response holds the id of the request it answers, the QueryStatus
+ * ordinal as a byte, the epoch of the TowerSnapshot the query was answered from as an 8-byte
+ * long and, if the status is OK, the payload of the query type. Clients may send several
+ * requests without waiting; responses are sent in the order the requests were received.
+ * <p>
+ * Integers and doubles are big-endian. Strings are a 2-byte unsigned length followed by that
+ * many bytes of UTF-8.
+ */
+final class QueryFormat {
+    /** Size of the length written before every message, in bytes */
+    static final int LENGTH_BYTES = 4;
+
+    /** Size of a request without its argument, in bytes */
+    static final int REQUEST_HEADER_BYTES = 5;
+
+    /** Size of a response without its payload, in bytes */
+    static final int RESPONSE_HEADER_BYTES = 13;
+
+    /** Largest request accepted, not counting its length; longer requests end the connection */
+    static final int MAX_REQUEST_BYTES = 1024;
+
+    /** Query types, indexed by ordinal */
+    static final QueryType[] TYPES = QueryType.values();
+
+    /** Statuses, indexed by ordinal */
+    static final QueryStatus[] STATUSES = QueryStatus.values();
+
+    private QueryFormat() {
+    }
+
+    /** Writes a length-prefixed UTF-8 string, growing the buffer if needed */
+    static ByteBuffer putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException();
+        }
+        ByteBuffer out = ensure(buffer, 2 + bytes.length);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+        return out;
+    }
+
+    /** Reads a length-prefixed UTF-8 string */
+    static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Get a buffer with at least the given space remaining, holding the same contents */
+    static ByteBuffer ensure(ByteBuffer buffer, int space) {
+        if (buffer.remaining() >= space) {
+            return buffer;
+        }
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + space);
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
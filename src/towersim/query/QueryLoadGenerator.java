@@ -0,0 +1,175 @@
+package towersim.query;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.control.ControlTower;
+import towersim.control.LifecycleEngine;
+import towersim.simulation.PacedTickLoop;
+import towersim.simulation.RandomScenario;
+import towersim.snapshot.SnapshotPublisher;
+import towersim.util.Histogram;
+import towersim.util.NoSuitableGateException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the latency and throughput of a QueryServer. Each connection runs on its own thread,
+ * sending a mix of queries one after another as fast as they are answered: mostly aircraft
+ * lookups by callsign, then terminal occupancy, emergencies and aggregates. Without a port, the
+ * generator starts its own server over a random airport ticked in real time, so the tick
+ * thread runs alongside the queries as it would in use.
+ * Usage: QueryLoadGenerator [connections] [seconds] [port]
+ */
+public class QueryLoadGenerator {
+    /** Time between ticks of the generator's own simulation, in nanoseconds */
+    private static final long TICK_NANOS = 10_000_000;
+
+    /** Time spent warming up before measuring, in milliseconds */
+    private static final long WARMUP_MILLIS = 2_000;
+
+    /**
+     * Runs the load and prints a summary of the query latency.
+     * @param args number of connections, seconds to run for and port of an existing server,
+     *             all optional
+     * @throws Exception if the server cannot be started or reached
+     */
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        PacedTickLoop loop = null;
+        QueryServer server = null;
+        int port;
+        if (args.length > 2) {
+            port = Integer.parseInt(args[2]);
+        } else {
+            ControlTower tower = buildTower();
+            SnapshotPublisher publisher = new SnapshotPublisher(tower);
+            loop = new PacedTickLoop(tower, TICK_NANOS);
+            server = new QueryServer(publisher, 0);
+            server.start();
+            loop.start();
+            port = server.getPort();
+        }
+        run(port, connections, WARMUP_MILLIS);
+        Histogram latency = new Histogram();
+        long queries = run(port, connections, seconds * 1000L, latency);
+        System.out.printf("%d connections: %d queries in %d s (%.0f/s), latency us p50 %.1f "
+                        + "p99 %.1f p99.9 %.1f max %.1f%n", connections, queries, seconds,
+                (double) queries / seconds, latency.getValueAtPercentile(50) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0, latency.getMax() / 1000.0);
+        if (loop != null) {
+            loop.stop();
+            server.close();
+            System.out.println("tick durations ns: " + loop.getTickDurations());
+        }
+    }
+
+    /** Builds a busy airport with a lifecycle engine moving its aircraft */
+    private static ControlTower buildTower() {
+        RandomScenario scenario = new RandomScenario(8, 2, 20, AircraftCharacteristics.values(),
+                300);
+        ControlTower tower = scenario.buildTower();
+        tower.setLifecycleEngine(new LifecycleEngine(tower, 20));
+        for (Aircraft aircraft : scenario.createFleet(new SplittableRandom(1))) {
+            try {
+                tower.addAircraft(aircraft);
+            } catch (NoSuitableGateException e) {
+                // the fleet is larger than the airport, so some aircraft cannot be parked
+            }
+        }
+        return tower;
+    }
+
+    /** Runs the load for the given time without recording it, such as to warm up */
+    private static void run(int port, int connections, long millis) throws Exception {
+        run(port, connections, millis, new Histogram());
+    }
+
+    /**
+     * Runs the load for the given time, recording the latency of every query.
+     * @return number of queries answered
+     */
+    private static long run(int port, int connections, long millis, Histogram latency)
+            throws Exception {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            Worker worker = new Worker(port, deadline, i);
+            workers.add(worker);
+            worker.start();
+        }
+        long queries = 0;
+        for (Worker worker : workers) {
+            worker.join();
+            if (worker.error != null) {
+                throw worker.error;
+            }
+            latency.merge(worker.latency);
+            queries += worker.latency.getCount();
+        }
+        return queries;
+    }
+
+    /** Thread sending queries over a connection of its own until the deadline */
+    private static class Worker extends Thread {
+        /** Port of the server */
+        private final int port;
+
+        /** Time at which to stop, as given by System.nanoTime() */
+        private final long deadline;
+
+        /** Source of the query mix */
+        private final SplittableRandom random;
+
+        /** Latency of every query, in nanoseconds */
+        private final Histogram latency;
+
+        /** Failure that stopped the worker; null if it ran to the deadline */
+        private IOException error;
+
+        private Worker(int port, long deadline, int seed) {
+            super("query-load-" + seed);
+            this.port = port;
+            this.deadline = deadline;
+            this.random = new SplittableRandom(seed);
+            this.latency = new Histogram();
+        }
+
+        @Override
+        public void run() {
+            try (QueryClient client = new QueryClient(port)) {
+                QueryResponse response = client.getCallsigns();
+                String[] callsigns = new String[response.getInt()];
+                for (int i = 0; i < callsigns.length; i++) {
+                    callsigns[i] = response.getString();
+                }
+                // terminal numbers are assumed to run from one to the number of terminals
+                response = client.getAggregates();
+                response.getInt();
+                for (int taskTypes = response.getByte(); taskTypes > 0; taskTypes--) {
+                    response.getInt();
+                }
+                int terminals = response.getInt();
+                while (System.nanoTime() < deadline) {
+                    int choice = random.nextInt(100);
+                    long start = System.nanoTime();
+                    if (choice < 70 && callsigns.length > 0) {
+                        client.getAircraft(callsigns[random.nextInt(callsigns.length)]);
+                    } else if (choice < 90 && terminals > 0) {
+                        client.getTerminal(1 + random.nextInt(terminals));
+                    } else if (choice < 95) {
+                        client.getEmergencies();
+                    } else {
+                        client.getAggregates();
+                    }
+                    latency.record(System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+    }
+}
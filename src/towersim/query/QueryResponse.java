@@ -0,0 +1,104 @@
+package towersim.query;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Response to a single query, as received by a QueryClient. The payload is read in order with
+ * the get methods, following the layout given for the query's QueryType.
+ */
+public class QueryResponse {
+    /** Type of the query answered */
+    private final QueryType type;
+
+    /** Outcome of the query */
+    private final QueryStatus status;
+
+    /** Epoch of the snapshot the query was answered from */
+    private final long epoch;
+
+    /** Payload of the response, positioned at the next value to read */
+    private final ByteBuffer payload;
+
+    /**
+     * Creates a new response.
+     * @param type type of the query answered
+     * @param status outcome of the query
+     * @param epoch epoch of the snapshot the query was answered from
+     * @param payload payload of the response, positioned at its start
+     */
+    QueryResponse(QueryType type, QueryStatus status, long epoch, ByteBuffer payload) {
+        this.type = type;
+        this.status = status;
+        this.epoch = epoch;
+        this.payload = payload;
+    }
+
+    /**
+     * Get the type of the query answered.
+     * @return query type
+     */
+    public QueryType getType() {
+        return type;
+    }
+
+    /**
+     * Get the outcome of the query.
+     * @return query status
+     */
+    public QueryStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Get the number of ticks the tower had elapsed in the snapshot the query was answered
+     * from.
+     * @return epoch of the snapshot
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Get the number of payload bytes not yet read.
+     * @return remaining payload size in bytes
+     */
+    public int getRemaining() {
+        return payload.remaining();
+    }
+
+    /**
+     * Reads the next byte of the payload as an unsigned value.
+     * @return value from 0 to 255
+     * @throws java.nio.BufferUnderflowException if the payload has been read to the end
+     */
+    public int getByte() {
+        return payload.get() & 0xFF;
+    }
+
+    /**
+     * Reads the next int of the payload.
+     * @return value read
+     * @throws java.nio.BufferUnderflowException if the payload has been read to the end
+     */
+    public int getInt() {
+        return payload.getInt();
+    }
+
+    /**
+     * Reads the next double of the payload.
+     * @return value read
+     * @throws java.nio.BufferUnderflowException if the payload has been read to the end
+     */
+    public double getDouble() {
+        return payload.getDouble();
+    }
+
+    /**
+     * Reads the next string of the payload.
+     * @return value read
+     * @throws java.nio.BufferUnderflowException if the payload has been read to the end
+     */
+    public String getString() {
+        return QueryFormat.getString(payload);
+    }
+}
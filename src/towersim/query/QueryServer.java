@@ -0,0 +1,476 @@
+package towersim.query;
+
+import towersim.aircraft.AircraftCatalog;
+import towersim.snapshot.AircraftSnapshot;
+import towersim.snapshot.GateSnapshot;
+import towersim.snapshot.SnapshotPublisher;
+import towersim.snapshot.TerminalSnapshot;
+import towersim.snapshot.TowerSnapshot;
+import towersim.tasks.Task;
+import towersim.tasks.TaskType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Answers queries about a control tower's aircraft, gates, emergencies and totals from local
+ * clients, in the protocol described by QueryFormat. Queries are answered from the latest
+ * TowerSnapshot of a SnapshotPublisher, so the server never touches the tower or blocks its
+ * tick thread.
+ * The server listens on the loopback address only and serves every connection from a single
+ * thread with a selector. All requests that arrive together on a connection are answered from
+ * the same snapshot, and a connection whose responses are not being read stops being read
+ * from until they are. A connection that sends a malformed frame is closed; if the server
+ * itself fails, it stops and the failure is kept for getError().
+ */
+public class QueryServer implements Closeable {
+    /** Initial size of each connection's read and write buffers, in bytes */
+    private static final int BUFFER_BYTES = 4096;
+
+    /** Bytes of unsent responses beyond which a connection is not read from */
+    private static final int MAX_PENDING_BYTES = 1 << 20;
+
+    /** Task types, indexed by ordinal */
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+
+    /** Publisher of the snapshots queries are answered from */
+    private final SnapshotPublisher publisher;
+
+    /** Selector of the listening channel and every connection */
+    private final Selector selector;
+
+    /** Channel accepting connections */
+    private final ServerSocketChannel listener;
+
+    /** Thread running the server; null if the server has not been started */
+    private Thread thread;
+
+    /** Whether the server should keep running */
+    private volatile boolean running;
+
+    /** Number of queries answered; only written by the server thread */
+    private volatile long queriesServed;
+
+    /** Failure that stopped the server; null if it has not failed */
+    private volatile IOException error;
+
+    /** Snapshot the cached aggregates were computed from; only accessed by the server thread */
+    private TowerSnapshot aggregatesSnapshot;
+
+    /** Encoded AGGREGATES payload of aggregatesSnapshot */
+    private byte[] aggregates;
+
+    /**
+     * Creates a new server listening on the given port of the loopback address. The server
+     * accepts connections once started.
+     * @param publisher publisher of the snapshots queries are answered from
+     * @param port port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public QueryServer(SnapshotPublisher publisher, int port) throws IOException {
+        this.publisher = publisher;
+        this.selector = Selector.open();
+        try {
+            this.listener = ServerSocketChannel.open();
+            listener.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            listener.configureBlocking(false);
+            listener.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts serving on a new daemon thread.
+     * @throws IllegalStateException if the server has already been started
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException();
+        }
+        running = true;
+        thread = new Thread(this::run, "query-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Get the port the server is listening on.
+     * @return local port
+     */
+    public int getPort() {
+        return listener.socket().getLocalPort();
+    }
+
+    /**
+     * Get the number of queries answered so far, including those answered with an error
+     * status.
+     * @return number of queries answered
+     */
+    public long getQueriesServed() {
+        return queriesServed;
+    }
+
+    /**
+     * Get the failure that stopped the server.
+     * @return failure; null if the server has not failed
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * Stops the server, waiting for it to finish answering the requests it has read, and
+     * closes every connection.
+     * @throws IOException if the listening channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        Thread stopping;
+        synchronized (this) {
+            stopping = thread;
+            running = false;
+        }
+        if (stopping != null) {
+            selector.wakeup();
+            try {
+                stopping.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        closeAll();
+    }
+
+    /** Serves connections until stopped */
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        serve(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    /** Accepts a waiting connection, if any */
+    private void accept() throws IOException {
+        SocketChannel channel = listener.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+    }
+
+    /** Reads from and writes to a ready connection, closing it if it fails */
+    private void serve(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.write();
+            }
+        } catch (IOException e) {
+            // a failed connection does not affect the others
+            connection.close();
+        }
+    }
+
+    /** Closes the listening channel, every connection and the selector */
+    private void closeAll() throws IOException {
+        synchronized (this) {
+            if (!selector.isOpen()) {
+                return;
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close();
+                }
+            }
+            try {
+                listener.close();
+            } finally {
+                selector.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the payload of the given query, read from the request, to the connection's
+     * output.
+     * @return status of the response
+     */
+    private QueryStatus answer(QueryType type, ByteBuffer request, TowerSnapshot snapshot,
+                               Connection out) {
+        switch (type) {
+            case CALLSIGNS:
+                out.putInt(snapshot.getAircraft().size());
+                for (AircraftSnapshot aircraft : snapshot.getAircraft()) {
+                    out.putString(aircraft.getCallsign());
+                }
+                return QueryStatus.OK;
+            case AIRCRAFT:
+                return answerAircraft(snapshot.getAircraft(QueryFormat.getString(request)), out);
+            case TERMINAL:
+                return answerTerminal(findTerminal(snapshot, request.getInt()), out);
+            case EMERGENCIES:
+                answerEmergencies(snapshot, out);
+                return QueryStatus.OK;
+            default:
+                out.putBytes(aggregatesOf(snapshot));
+                return QueryStatus.OK;
+        }
+    }
+
+    /** Writes the state of the given aircraft */
+    private static QueryStatus answerAircraft(AircraftSnapshot aircraft, Connection out) {
+        if (aircraft == null) {
+            return QueryStatus.NOT_FOUND;
+        }
+        Task task = aircraft.getCurrentTask();
+        out.putString(AircraftCatalog.getName(aircraft.getModelId()));
+        out.putByte(aircraft.getAircraftType().ordinal());
+        out.putByte(aircraft.isFreight() ? 1 : 0);
+        out.putDouble(aircraft.getFuelAmount());
+        out.putDouble(aircraft.getLoadAmount());
+        out.putByte(aircraft.getOccupancyLevel());
+        out.putByte(task.getType().ordinal());
+        out.putByte(task.getLoadPercent());
+        out.putByte(aircraft.hasEmergency() ? 1 : 0);
+        return QueryStatus.OK;
+    }
+
+    /** Writes the gate occupancy of the given terminal */
+    private static QueryStatus answerTerminal(TerminalSnapshot terminal, Connection out) {
+        if (terminal == null) {
+            return QueryStatus.NOT_FOUND;
+        }
+        out.putByte(terminal.getAircraftType().ordinal());
+        out.putByte(terminal.hasEmergency() ? 1 : 0);
+        out.putInt(terminal.getGates().size());
+        for (GateSnapshot gate : terminal.getGates()) {
+            out.putInt(gate.getGateNumber());
+            out.putString(gate.isOccupied() ? gate.getParkedCallsign() : "");
+        }
+        return QueryStatus.OK;
+    }
+
+    /** Writes the terminals and aircraft in a state of emergency */
+    private static void answerEmergencies(TowerSnapshot snapshot, Connection out) {
+        int count = 0;
+        for (TerminalSnapshot terminal : snapshot.getTerminals()) {
+            if (terminal.hasEmergency()) {
+                count++;
+            }
+        }
+        out.putInt(count);
+        for (TerminalSnapshot terminal : snapshot.getTerminals()) {
+            if (terminal.hasEmergency()) {
+                out.putInt(terminal.getTerminalNumber());
+            }
+        }
+        count = 0;
+        for (AircraftSnapshot aircraft : snapshot.getAircraft()) {
+            if (aircraft.hasEmergency()) {
+                count++;
+            }
+        }
+        out.putInt(count);
+        for (AircraftSnapshot aircraft : snapshot.getAircraft()) {
+            if (aircraft.hasEmergency()) {
+                out.putString(aircraft.getCallsign());
+            }
+        }
+    }
+
+    /** Get the terminal with the given number; null if there is none */
+    private static TerminalSnapshot findTerminal(TowerSnapshot snapshot, int terminalNumber) {
+        for (TerminalSnapshot terminal : snapshot.getTerminals()) {
+            if (terminal.getTerminalNumber() == terminalNumber) {
+                return terminal;
+            }
+        }
+        return null;
+    }
+
+    /** Get the AGGREGATES payload of the given snapshot, computed once per snapshot */
+    private byte[] aggregatesOf(TowerSnapshot snapshot) {
+        if (snapshot != aggregatesSnapshot) {
+            int[] byTask = new int[TASK_TYPES.length];
+            for (AircraftSnapshot aircraft : snapshot.getAircraft()) {
+                byTask[aircraft.getCurrentTask().getType().ordinal()]++;
+            }
+            int gates = 0;
+            int occupied = 0;
+            for (TerminalSnapshot terminal : snapshot.getTerminals()) {
+                gates += terminal.getGates().size();
+                occupied += terminal.getNumOccupiedGates();
+            }
+            ByteBuffer payload = ByteBuffer.allocate(4 + 1 + 4 * byTask.length + 12);
+            payload.putInt(snapshot.getAircraft().size());
+            payload.put((byte) byTask.length);
+            for (int count : byTask) {
+                payload.putInt(count);
+            }
+            payload.putInt(snapshot.getTerminals().size());
+            payload.putInt(gates);
+            payload.putInt(occupied);
+            aggregates = payload.array();
+            aggregatesSnapshot = snapshot;
+        }
+        return aggregates;
+    }
+
+    /** A client connection with its partly read requests and unsent responses */
+    private final class Connection {
+        /** Channel of the connection */
+        private final SocketChannel channel;
+
+        /** Key of the channel in the selector */
+        private final SelectionKey key;
+
+        /** Bytes read but not yet handled, ready for reading into */
+        private final ByteBuffer in;
+
+        /** Responses not yet sent, ready for writing into */
+        private ByteBuffer out;
+
+        private Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+            this.in = ByteBuffer.allocate(BUFFER_BYTES);
+            this.out = ByteBuffer.allocate(BUFFER_BYTES);
+        }
+
+        /** Reads and answers every complete request available, then sends what it can */
+        private void read() throws IOException {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            in.flip();
+            TowerSnapshot snapshot = publisher.getSnapshot();
+            while (in.remaining() >= QueryFormat.LENGTH_BYTES) {
+                int length = in.getInt(in.position());
+                if (length < QueryFormat.REQUEST_HEADER_BYTES
+                        || length > QueryFormat.MAX_REQUEST_BYTES) {
+                    throw new IOException("Malformed request of " + length + " bytes");
+                }
+                if (in.remaining() < QueryFormat.LENGTH_BYTES + length) {
+                    break;
+                }
+                int start = in.position() + QueryFormat.LENGTH_BYTES;
+                respond(in.slice(start, length), snapshot);
+                in.position(start + length);
+            }
+            // a partly read request is never longer than the buffer, so it can be completed
+            in.compact();
+            write();
+        }
+
+        /** Answers a single request from the given snapshot */
+        private void respond(ByteBuffer request, TowerSnapshot snapshot) {
+            int start = out.position();
+            out = QueryFormat.ensure(out,
+                    QueryFormat.LENGTH_BYTES + QueryFormat.RESPONSE_HEADER_BYTES);
+            out.putInt(0);
+            out.putInt(request.getInt());
+            out.put((byte) 0);
+            out.putLong(snapshot.getEpoch());
+            int type = request.get() & 0xFF;
+            QueryStatus status;
+            try {
+                status = type < QueryFormat.TYPES.length
+                        ? answer(QueryFormat.TYPES[type], request, snapshot, this)
+                        : QueryStatus.BAD_REQUEST;
+            } catch (BufferUnderflowException e) {
+                status = QueryStatus.BAD_REQUEST;
+            }
+            if (status != QueryStatus.OK) {
+                // discard any partly written payload
+                out.position(start + QueryFormat.LENGTH_BYTES
+                        + QueryFormat.RESPONSE_HEADER_BYTES);
+            }
+            out.putInt(start, out.position() - start - QueryFormat.LENGTH_BYTES);
+            out.put(start + QueryFormat.LENGTH_BYTES + 4, (byte) status.ordinal());
+            queriesServed++;
+        }
+
+        /**
+         * Sends as much of the unsent responses as the channel accepts, and only reads more
+         * requests while the responses left unsent are not too large.
+         */
+        private void write() throws IOException {
+            out.flip();
+            channel.write(out);
+            boolean pending = out.hasRemaining();
+            out.compact();
+            if (!key.isValid()) {
+                return;
+            }
+            int interest = out.position() > MAX_PENDING_BYTES ? 0 : SelectionKey.OP_READ;
+            key.interestOps(pending ? interest | SelectionKey.OP_WRITE : interest);
+        }
+
+        /** Closes the connection, ignoring any failure */
+        private void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // the connection is being dropped anyway
+            }
+        }
+
+        private void putByte(int value) {
+            out = QueryFormat.ensure(out, 1);
+            out.put((byte) value);
+        }
+
+        private void putInt(int value) {
+            out = QueryFormat.ensure(out, 4);
+            out.putInt(value);
+        }
+
+        private void putDouble(double value) {
+            out = QueryFormat.ensure(out, 8);
+            out.putDouble(value);
+        }
+
+        private void putBytes(byte[] bytes) {
+            out = QueryFormat.ensure(out, bytes.length);
+            out.put(bytes);
+        }
+
+        private void putString(String value) {
+            out = QueryFormat.putString(out, value);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package towersim.query;
+
+/**
+ * Represents the outcome of a query, sent as its ordinal at the start of every response.
+ */
+public enum QueryStatus {
+    /** Query was answered; the response carries a payload */
+    OK,
+
+    /** Aircraft or terminal asked about does not exist in the snapshot; no payload */
+    NOT_FOUND,
+
+    /** Query type or argument could not be read; no payload */
+    BAD_REQUEST
+}
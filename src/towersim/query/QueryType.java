@@ -0,0 +1,44 @@
+package towersim.query;
+
+/**
+ * Represents the kinds of query a QueryServer answers, each sent as its ordinal. The layout of
+ * the argument of each query and the payload of a successful response is given with each
+ * type; strings are written as described by QueryFormat.
+ */
+public enum QueryType {
+    /**
+     * Callsigns of every aircraft. No argument. Payload: number of aircraft as an int, then
+     * each callsign as a string.
+     */
+    CALLSIGNS,
+
+    /**
+     * State of a single aircraft. Argument: callsign as a string. Payload: model name as a
+     * string, aircraft type ordinal as a byte, freight flag as a byte, fuel amount and load
+     * amount as doubles, occupancy level, current task type ordinal and task load percent as
+     * bytes, and emergency flag as a byte. Status NOT_FOUND if no aircraft has the callsign.
+     */
+    AIRCRAFT,
+
+    /**
+     * Gate occupancy of a single terminal. Argument: terminal number as an int. Payload:
+     * aircraft type ordinal as a byte, emergency flag as a byte, number of gates as an int,
+     * then for each gate its number as an int and the callsign parked at it as a string,
+     * empty if the gate is unoccupied. Status NOT_FOUND if no terminal has the number.
+     */
+    TERMINAL,
+
+    /**
+     * Terminals and aircraft in a state of emergency. No argument. Payload: number of
+     * terminals as an int followed by each terminal number as an int, then number of aircraft
+     * as an int followed by each callsign as a string.
+     */
+    EMERGENCIES,
+
+    /**
+     * Tower-wide totals. No argument. Payload: number of aircraft as an int, number of task
+     * types as a byte followed by the number of aircraft on each task type as an int, in
+     * ordinal order, then the number of terminals, gates and occupied gates as ints.
+     */
+    AGGREGATES
+}
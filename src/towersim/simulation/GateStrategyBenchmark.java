@@ -0,0 +1,130 @@
+package towersim.simulation;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.control.ControlTower;
+import towersim.control.FirstFitStrategy;
+import towersim.control.GateAssignmentStrategy;
+import towersim.control.LeastOccupiedStrategy;
+import towersim.control.RoundRobinStrategy;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.util.Histogram;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Compares gate assignment strategies on the same stream of arrivals and departures at an
+ * airport of airplane terminals of varying sizes. For each strategy it reports the time taken
+ * per gate assignment and how evenly occupancy is spread over the terminals: the spread
+ * between the most and least occupied terminal, and the occupancy of the busiest terminal,
+ * sampled after every operation.
+ * Usage: GateStrategyBenchmark [terminals] [operations] [seed]
+ */
+public class GateStrategyBenchmark {
+    /** Proportion of all gates kept occupied on average */
+    private static final double TARGET_OCCUPANCY = 0.6;
+
+    /** Number of operations run before measuring, to let the JIT compiler warm up */
+    private static final int WARMUP_OPERATIONS = 200_000;
+
+    /**
+     * Runs the benchmark and prints a line per strategy.
+     * @param args number of terminals, number of operations and random seed, all optional
+     */
+    public static void main(String[] args) {
+        int terminals = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        List<Supplier<GateAssignmentStrategy>> strategies = List.of(FirstFitStrategy::new,
+                LeastOccupiedStrategy::new, RoundRobinStrategy::new);
+        for (Supplier<GateAssignmentStrategy> strategy : strategies) {
+            run(strategy, terminals, WARMUP_OPERATIONS, seed);
+        }
+        for (Supplier<GateAssignmentStrategy> strategy : strategies) {
+            System.out.println(run(strategy, terminals, operations, seed));
+        }
+    }
+
+    /**
+     * Runs the same stream of operations against a fresh airport using the given strategy.
+     * @return one-line summary of the results
+     */
+    private static String run(Supplier<GateAssignmentStrategy> strategyFactory, int terminals,
+                              int operations, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ControlTower tower = new ControlTower();
+        GateAssignmentStrategy strategy = strategyFactory.get();
+        tower.setGateAssignmentStrategy(strategy);
+        int totalGates = 0;
+        for (int t = 0; t < terminals; t++) {
+            int gates = 4 + random.nextInt(17);
+            Terminal terminal = new AirplaneTerminal(t + 1, gates);
+            for (int g = 0; g < gates; g++) {
+                try {
+                    terminal.addGate(new Gate(totalGates + g + 1));
+                } catch (NoSpaceException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            totalGates += gates;
+            tower.addTerminal(terminal);
+        }
+        Aircraft aircraft = new PassengerAircraft("BENCH", AircraftCharacteristics.AIRBUS_A320,
+                null, 0, 0);
+        List<Gate> parked = new ArrayList<>(totalGates);
+        Histogram assignNanos = new Histogram();
+        Histogram spread = new Histogram();
+        Histogram busiest = new Histogram();
+        long rejections = 0;
+        long assignTime = 0;
+        long assignments = 0;
+        for (int i = 0; i < operations; i++) {
+            // arrivals and departures are equally likely at the target occupancy
+            boolean arrive = random.nextDouble() * 2 * TARGET_OCCUPANCY * totalGates
+                    >= parked.size();
+            if (arrive || parked.isEmpty()) {
+                long start = System.nanoTime();
+                try {
+                    Gate gate = tower.findUnoccupiedGate(aircraft);
+                    gate.parkAircraft(aircraft);
+                    long elapsed = System.nanoTime() - start;
+                    assignNanos.record(elapsed);
+                    assignTime += elapsed;
+                    assignments++;
+                    parked.add(gate);
+                } catch (NoSuitableGateException | NoSpaceException e) {
+                    rejections++;
+                }
+            } else {
+                int index = random.nextInt(parked.size());
+                parked.get(index).aircraftLeaves();
+                parked.set(index, parked.get(parked.size() - 1));
+                parked.remove(parked.size() - 1);
+            }
+            if (i % 64 == 0) {
+                int lowest = 100;
+                int highest = 0;
+                for (Terminal terminal : tower.getTerminals()) {
+                    int level = terminal.calculateOccupancyLevel();
+                    lowest = Math.min(lowest, level);
+                    highest = Math.max(highest, level);
+                }
+                spread.record(highest - lowest);
+                busiest.record(highest);
+            }
+        }
+        return String.format("%-24s %6.1f ns/assign (p99 %d), %d rejections, "
+                        + "occupancy spread mean %.1f%% p99 %d%%, busiest terminal mean %.1f%%",
+                strategy.getClass().getSimpleName(),
+                assignments == 0 ? 0.0 : (double) assignTime / assignments,
+                assignNanos.getValueAtPercentile(99), rejections, spread.getMean(),
+                spread.getValueAtPercentile(99), busiest.getMean());
+    }
+}
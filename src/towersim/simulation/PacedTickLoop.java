@@ -0,0 +1,188 @@
+package towersim.simulation;
+
+import towersim.util.Histogram;
+import towersim.util.Tickable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ticks a simulation at a fixed wall-clock rate on a dedicated thread, such as a ControlTower
+ * shadowing live traffic. Ticks are scheduled at fixed intervals from the start of the loop,
+ * so a late tick does not push back the ticks after it.
+ * The loop records how long every tick took and how late it started (its jitter), and counts
+ * overruns, where a tick took longer than the tick period. Background tasks, such as reporting,
+ * run after every tick unless the tick started later than the shedding threshold, in which case
+ * they are skipped so the critical simulation can catch up.
+ */
+public class PacedTickLoop {
+    /** Time left before a tick is due below which the loop spins rather than parks */
+    private static final long SPIN_NANOS = 50_000;
+
+    /** Simulation ticked on every tick */
+    private final Tickable simulation;
+
+    /** Time between the starts of consecutive ticks, in nanoseconds */
+    private final long periodNanos;
+
+    /** Lateness in nanoseconds beyond which background tasks are skipped for a tick */
+    private volatile long shedThresholdNanos;
+
+    /** Non-critical tasks run after the simulation on every tick that is on time */
+    private final List<Tickable> backgroundTasks;
+
+    /** Time taken by every tick, in nanoseconds */
+    private final Histogram tickDurations;
+
+    /** Lateness of the start of every tick, in nanoseconds */
+    private final Histogram startJitter;
+
+    /** Number of ticks that took longer than the tick period */
+    private long overruns;
+
+    /** Number of ticks for which background tasks were skipped */
+    private long shedTicks;
+
+    /** Thread running the loop; null if the loop is not running */
+    private Thread thread;
+
+    /** Whether the loop should keep running */
+    private volatile boolean running;
+
+    /**
+     * Creates a new loop that is not yet running, which never sheds background tasks until a
+     * shedding threshold is set.
+     * @param simulation simulation to be ticked
+     * @param periodNanos time between the starts of consecutive ticks, in nanoseconds
+     * @throws IllegalArgumentException if periodNanos is not positive
+     */
+    public PacedTickLoop(Tickable simulation, long periodNanos) {
+        if (periodNanos <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.simulation = simulation;
+        this.periodNanos = periodNanos;
+        this.shedThresholdNanos = Long.MAX_VALUE;
+        this.backgroundTasks = new CopyOnWriteArrayList<>();
+        this.tickDurations = new Histogram();
+        this.startJitter = new Histogram();
+    }
+
+    /**
+     * Adds a non-critical task to be run after the simulation on every tick that is on time.
+     * @param task task to be added
+     */
+    public void addBackgroundTask(Tickable task) {
+        backgroundTasks.add(task);
+    }
+
+    /**
+     * Sets how late a tick may start before its background tasks are skipped.
+     * @param shedThresholdNanos lateness in nanoseconds, or Long.MAX_VALUE to never skip them
+     */
+    public void setShedThreshold(long shedThresholdNanos) {
+        this.shedThresholdNanos = shedThresholdNanos;
+    }
+
+    /**
+     * Starts ticking on a new daemon thread.
+     * @throws IllegalStateException if the loop is already running
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException();
+        }
+        running = true;
+        thread = new Thread(this::run, "tick-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops ticking, waiting for any tick in progress to finish.
+     * @throws InterruptedException if interrupted while waiting for the loop to stop
+     */
+    public void stop() throws InterruptedException {
+        Thread stopping;
+        synchronized (this) {
+            stopping = thread;
+            thread = null;
+        }
+        if (stopping != null) {
+            running = false;
+            LockSupport.unpark(stopping);
+            stopping.join();
+        }
+    }
+
+    /**
+     * Get the time taken by ticks so far.
+     * @return copy of the tick duration histogram, in nanoseconds
+     */
+    public synchronized Histogram getTickDurations() {
+        return tickDurations.copy();
+    }
+
+    /**
+     * Get how late ticks have started so far.
+     * @return copy of the start jitter histogram, in nanoseconds
+     */
+    public synchronized Histogram getStartJitter() {
+        return startJitter.copy();
+    }
+
+    /**
+     * Get the number of ticks that took longer than the tick period.
+     * @return number of overruns
+     */
+    public synchronized long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Get the number of ticks for which background tasks were skipped.
+     * @return number of shed ticks
+     */
+    public synchronized long getShedTicks() {
+        return shedTicks;
+    }
+
+    /** Ticks the simulation at the loop's rate until stopped */
+    private void run() {
+        long nextStart = System.nanoTime();
+        while (running) {
+            long wait = nextStart - System.nanoTime();
+            if (wait > SPIN_NANOS) {
+                LockSupport.parkNanos(wait - SPIN_NANOS);
+                continue;
+            }
+            while (nextStart - System.nanoTime() > 0) {
+                Thread.onSpinWait();
+            }
+            long start = System.nanoTime();
+            long lateness = start - nextStart;
+            simulation.tick();
+            boolean shed = lateness > shedThresholdNanos;
+            if (!shed) {
+                for (Tickable task : backgroundTasks) {
+                    task.tick();
+                }
+            }
+            long duration = System.nanoTime() - start;
+            record(lateness, duration, shed);
+            nextStart += periodNanos;
+        }
+    }
+
+    /** Records the timing of a completed tick */
+    private synchronized void record(long lateness, long duration, boolean shed) {
+        startJitter.record(lateness);
+        tickDurations.record(duration);
+        if (duration > periodNanos) {
+            overruns++;
+        }
+        if (shed) {
+            shedTicks++;
+        }
+    }
+}
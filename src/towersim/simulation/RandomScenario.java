@@ -0,0 +1,171 @@
+package towersim.simulation;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCatalog;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.control.AirportTemplate;
+import towersim.control.ControlTower;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.HelicopterTerminal;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Describes a family of randomised variations of the same airport: a fixed terminal layout and
+ * a fleet whose models, initial fuel, load percentages and task lists are drawn at random.
+ */
+public class RandomScenario {
+    /** Task types an aircraft cycles through, in order, before loading and taking off again */
+    private static final TaskType[] CYCLE = {TaskType.AWAY, TaskType.LAND, TaskType.WAIT,
+        TaskType.LOAD, TaskType.TAKEOFF};
+
+    /** Number of airplane terminals at the airport */
+    private final int numAirplaneTerminals;
+
+    /** Number of helicopter terminals at the airport */
+    private final int numHelicopterTerminals;
+
+    /** Number of gates in every terminal */
+    private final int gatesPerTerminal;
+
+    /**
+     * Catalog ids of the models aircraft are drawn from; a model listed several times is drawn
+     * more often
+     */
+    private final int[] fleetMix;
+
+    /** Number of aircraft in the fleet */
+    private final int numAircraft;
+
+    /** Terminal layout every tower is created from */
+    private final AirportTemplate template;
+
+    /**
+     * Creates a new scenario description
+     * @param numAirplaneTerminals number of airplane terminals at the airport
+     * @param numHelicopterTerminals number of helicopter terminals at the airport
+     * @param gatesPerTerminal number of gates in every terminal
+     * @param fleetMix models aircraft are drawn from, uniformly at random
+     * @param numAircraft number of aircraft in the fleet
+     * @throws IllegalArgumentException if any count is negative, gatesPerTerminal is less than
+     * one or fleetMix is empty
+     */
+    public RandomScenario(int numAirplaneTerminals, int numHelicopterTerminals,
+                          int gatesPerTerminal, AircraftCharacteristics[] fleetMix,
+                          int numAircraft) {
+        this(numAirplaneTerminals, numHelicopterTerminals, gatesPerTerminal,
+                modelIds(fleetMix), numAircraft);
+    }
+
+    /**
+     * Creates a new scenario description drawing aircraft from models in the AircraftCatalog
+     * @param numAirplaneTerminals number of airplane terminals at the airport
+     * @param numHelicopterTerminals number of helicopter terminals at the airport
+     * @param gatesPerTerminal number of gates in every terminal
+     * @param fleetMix catalog ids of the models aircraft are drawn from, uniformly at random
+     * @param numAircraft number of aircraft in the fleet
+     * @throws IllegalArgumentException if any count is negative, gatesPerTerminal is less than
+     * one or fleetMix is empty
+     */
+    public RandomScenario(int numAirplaneTerminals, int numHelicopterTerminals,
+                          int gatesPerTerminal, int[] fleetMix, int numAircraft) {
+        if (numAirplaneTerminals < 0 || numHelicopterTerminals < 0 || gatesPerTerminal < 1
+                || fleetMix.length == 0 || numAircraft < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.numAirplaneTerminals = numAirplaneTerminals;
+        this.numHelicopterTerminals = numHelicopterTerminals;
+        this.gatesPerTerminal = gatesPerTerminal;
+        this.fleetMix = fleetMix.clone();
+        this.numAircraft = numAircraft;
+        this.template = new AirportTemplate(buildTerminals());
+    }
+
+    /**
+     * Builds a new control tower with the scenario's terminal layout and no aircraft. Towers
+     * share the scenario's terminal layout, so are cheap to build.
+     * @return control tower controlling the airport's terminals
+     */
+    public ControlTower buildTower() {
+        return template.newTower();
+    }
+
+    /** Get the catalog ids of the given models */
+    private static int[] modelIds(AircraftCharacteristics[] models) {
+        int[] ids = new int[models.length];
+        for (int i = 0; i < models.length; i++) {
+            ids[i] = models[i].getModelId();
+        }
+        return ids;
+    }
+
+    /** Builds the scenario's terminals and their gates */
+    private List<Terminal> buildTerminals() {
+        List<Terminal> terminals = new ArrayList<>();
+        int terminalNumber = 1;
+        int gateNumber = 1;
+        for (int i = 0; i < numAirplaneTerminals + numHelicopterTerminals; i++) {
+            Terminal terminal = i < numAirplaneTerminals
+                    ? new AirplaneTerminal(terminalNumber++, gatesPerTerminal)
+                    : new HelicopterTerminal(terminalNumber++, gatesPerTerminal);
+            for (int j = 0; j < gatesPerTerminal; j++) {
+                try {
+                    terminal.addGate(new Gate(gateNumber++));
+                } catch (NoSpaceException e) {
+                    // terminal was created with room for exactly this many gates
+                    throw new IllegalStateException(e);
+                }
+            }
+            terminals.add(terminal);
+        }
+        return terminals;
+    }
+
+    /**
+     * Draws a random fleet for the scenario.
+     * @param random source of randomness for this variation
+     * @return list of aircraft, not yet added to any tower
+     */
+    public List<Aircraft> createFleet(SplittableRandom random) {
+        List<Aircraft> fleet = new ArrayList<>(numAircraft);
+        for (int i = 0; i < numAircraft; i++) {
+            int model = fleetMix[random.nextInt(fleetMix.length)];
+            TaskList tasks = createTaskList(random);
+            double fuel = Math.round(random.nextDouble() * AircraftCatalog.getFuelCapacity(model));
+            String callsign = "SIM" + i;
+            int passengerCapacity = AircraftCatalog.getPassengerCapacity(model);
+            if (passengerCapacity > 0) {
+                fleet.add(new PassengerAircraft(callsign, model, tasks, fuel,
+                        random.nextInt(passengerCapacity + 1)));
+            } else {
+                fleet.add(new FreightAircraft(callsign, model, tasks, fuel,
+                        random.nextInt(AircraftCatalog.getFreightCapacity(model) + 1)));
+            }
+        }
+        return fleet;
+    }
+
+    /**
+     * Creates a task list cycling through AWAY, LAND, WAIT, LOAD and TAKEOFF with a random
+     * load percentage, starting at a random point in the cycle.
+     */
+    private static TaskList createTaskList(SplittableRandom random) {
+        int loadPercent = random.nextInt(101);
+        int start = random.nextInt(CYCLE.length);
+        List<Task> tasks = new ArrayList<>(CYCLE.length);
+        for (int i = 0; i < CYCLE.length; i++) {
+            TaskType type = CYCLE[(start + i) % CYCLE.length];
+            tasks.add(type == TaskType.LOAD ? new Task(type, loadPercent) : new Task(type));
+        }
+        return new TaskList(tasks);
+    }
+}
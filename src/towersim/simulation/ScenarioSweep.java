@@ -0,0 +1,108 @@
+package towersim.simulation;
+
+import towersim.aircraft.Aircraft;
+import towersim.control.ControlTower;
+import towersim.control.LifecycleEngine;
+import towersim.ground.Terminal;
+import towersim.util.NoSuitableGateException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Runs many randomised variations of a scenario in parallel and aggregates their results.
+ * Every run builds its own independent control tower from a seed derived from the sweep's base
+ * seed and the run's index, so a sweep gives the same statistics however runs are scheduled
+ * across cores. Only aggregated statistics are kept once a run has finished.
+ */
+public class ScenarioSweep {
+    /** Increment between the seeds of consecutive runs (the golden ratio, as a 64-bit value) */
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Scenario whose variations are run */
+    private final RandomScenario scenario;
+
+    /** Number of ticks every run is simulated for */
+    private final int ticksPerRun;
+
+    /** Number of ticks aircraft spend away from the airport in every run */
+    private final int awayTicks;
+
+    /**
+     * Creates a new sweep
+     * @param scenario scenario whose variations are run
+     * @param ticksPerRun number of ticks every run is simulated for
+     * @param awayTicks number of ticks aircraft spend away from the airport
+     * @throws IllegalArgumentException if ticksPerRun is negative or awayTicks is less than one
+     */
+    public ScenarioSweep(RandomScenario scenario, int ticksPerRun, int awayTicks) {
+        if (ticksPerRun < 0 || awayTicks < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.scenario = scenario;
+        this.ticksPerRun = ticksPerRun;
+        this.awayTicks = awayTicks;
+    }
+
+    /**
+     * Runs the given number of variations in parallel across all available cores.
+     * @param baseSeed seed from which the seed of every run is derived
+     * @param runs number of variations to run
+     * @return statistics aggregated over all runs
+     */
+    public SweepStatistics run(long baseSeed, long runs) {
+        return LongStream.range(0, runs)
+                .parallel()
+                .mapToObj(run -> runOnce(baseSeed + run * SEED_GAMMA))
+                .collect(SweepStatistics::new, SweepStatistics::merge, SweepStatistics::merge);
+    }
+
+    /**
+     * Runs a single variation of the scenario.
+     * @param seed seed of the variation
+     * @return statistics of the single run
+     */
+    public SweepStatistics runOnce(long seed) {
+        SweepStatistics statistics = new SweepStatistics();
+        SplittableRandom random = new SplittableRandom(seed);
+        ControlTower tower = scenario.buildTower();
+        LifecycleEngine lifecycle = new LifecycleEngine(tower, awayTicks);
+        tower.setLifecycleEngine(lifecycle);
+        List<Aircraft> fleet = scenario.createFleet(random.split());
+        for (Aircraft aircraft : fleet) {
+            try {
+                tower.addAircraft(aircraft);
+            } catch (NoSuitableGateException e) {
+                statistics.recordGateRejection();
+            }
+        }
+        boolean[] outOfFuel = new boolean[fleet.size()];
+        for (int tick = 0; tick < ticksPerRun; tick++) {
+            tower.tick();
+            for (int i = 0; i < fleet.size(); i++) {
+                if (!outOfFuel[i] && fleet.get(i).getFuelAmount() == 0) {
+                    outOfFuel[i] = true;
+                    statistics.recordFuelExhaustion();
+                }
+            }
+            statistics.recordOccupancy(calculateOccupancyLevel(tower));
+        }
+        statistics.recordLandingHolds(lifecycle.getLandingHolds());
+        statistics.recordRun();
+        return statistics;
+    }
+
+    /** Get the percentage of occupied gates across all of the tower's terminals */
+    private static int calculateOccupancyLevel(ControlTower tower) {
+        long gates = 0;
+        long occupied = 0;
+        for (Terminal terminal : tower.getTerminals()) {
+            gates += terminal.getNumGates();
+            occupied += terminal.getNumOccupiedGates();
+        }
+        if (gates == 0) {
+            return 0;
+        }
+        return (int) Math.round((double) (occupied * 100) / gates);
+    }
+}
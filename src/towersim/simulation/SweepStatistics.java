@@ -0,0 +1,142 @@
+package towersim.simulation;
+
+/**
+ * Aggregated results of a number of simulation runs. Statistics from separate runs can be
+ * merged, and memory use does not grow with the number of runs or ticks recorded.
+ */
+public class SweepStatistics {
+    /** Number of runs aggregated */
+    private long runs;
+
+    /** Number of aircraft refused a gate when added to a tower, across all runs */
+    private long gateRejections;
+
+    /** Number of aircraft that ran out of fuel, across all runs */
+    private long fuelExhaustions;
+
+    /** Number of ticks aircraft spent holding for a gate before landing, across all runs */
+    private long landingHolds;
+
+    /** Number of recorded ticks with each airport-wide gate occupancy level, from 0 to 100 */
+    private final long[] occupancyCounts;
+
+    /** Number of occupancy samples recorded */
+    private long occupancySamples;
+
+    /** Creates a new empty set of statistics */
+    public SweepStatistics() {
+        occupancyCounts = new long[101];
+    }
+
+    /** Records the completion of a run */
+    void recordRun() {
+        runs++;
+    }
+
+    /** Records an aircraft being refused a gate */
+    void recordGateRejection() {
+        gateRejections++;
+    }
+
+    /** Records an aircraft running out of fuel */
+    void recordFuelExhaustion() {
+        fuelExhaustions++;
+    }
+
+    /**
+     * Records ticks aircraft spent holding for a gate before landing.
+     * @param holds number of holding ticks in a run
+     */
+    void recordLandingHolds(long holds) {
+        landingHolds += holds;
+    }
+
+    /**
+     * Records the airport-wide gate occupancy at the end of a tick.
+     * @param occupancyLevel percentage of occupied gates, from 0 to 100
+     */
+    void recordOccupancy(int occupancyLevel) {
+        occupancyCounts[occupancyLevel]++;
+        occupancySamples++;
+    }
+
+    /**
+     * Adds the given statistics to these statistics.
+     * @param other statistics to be merged in
+     */
+    public void merge(SweepStatistics other) {
+        runs += other.runs;
+        gateRejections += other.gateRejections;
+        fuelExhaustions += other.fuelExhaustions;
+        landingHolds += other.landingHolds;
+        for (int i = 0; i < occupancyCounts.length; i++) {
+            occupancyCounts[i] += other.occupancyCounts[i];
+        }
+        occupancySamples += other.occupancySamples;
+    }
+
+    /**
+     * Get the number of runs aggregated.
+     * @return number of runs
+     */
+    public long getRuns() {
+        return runs;
+    }
+
+    /**
+     * Get the number of aircraft refused a gate when added to a tower, across all runs.
+     * @return total gate rejections
+     */
+    public long getGateRejections() {
+        return gateRejections;
+    }
+
+    /**
+     * Get the number of aircraft that ran out of fuel, across all runs.
+     * @return total fuel exhaustions
+     */
+    public long getFuelExhaustions() {
+        return fuelExhaustions;
+    }
+
+    /**
+     * Get the number of ticks aircraft spent holding for a gate before landing, across all runs.
+     * @return total landing holds
+     */
+    public long getLandingHolds() {
+        return landingHolds;
+    }
+
+    /**
+     * Get the airport-wide gate occupancy level at the given percentile of all recorded ticks.
+     * @param percentile percentile to look up, from 0 to 100
+     * @return occupancy level at that percentile; 0 if nothing has been recorded
+     * @throws IllegalArgumentException if percentile is outside 0 to 100
+     */
+    public int getOccupancyPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException();
+        }
+        long rank = (long) Math.ceil(percentile / 100 * occupancySamples);
+        long seen = 0;
+        for (int level = 0; level < occupancyCounts.length; level++) {
+            seen += occupancyCounts[level];
+            if (seen >= rank && seen > 0) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get the human-readable representation of the statistics.
+     * @return string representation of the statistics
+     */
+    @Override
+    public String toString() {
+        return runs + " runs, " + gateRejections + " gate rejections, " + landingHolds
+                + " landing holds, " + fuelExhaustions + " fuel exhaustions, occupancy p50/p90/p99 "
+                + getOccupancyPercentile(50) + "/" + getOccupancyPercentile(90) + "/"
+                + getOccupancyPercentile(99) + "%";
+    }
+}
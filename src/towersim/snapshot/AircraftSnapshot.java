@@ -0,0 +1,167 @@
+package towersim.snapshot;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCatalog;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.AircraftType;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.tasks.Task;
+
+/**
+ * Immutable copy of the state of an aircraft at the end of a tick.
+ */
+public class AircraftSnapshot {
+    /** Callsign of the aircraft */
+    private final String callsign;
+
+    /** Catalog id of the aircraft's model */
+    private final int modelId;
+
+    /** Whether the aircraft carries freight rather than passengers */
+    private final boolean freight;
+
+    /** Fuel on board in litres */
+    private final double fuelAmount;
+
+    /** Passengers or kilograms of freight on board */
+    private final double loadAmount;
+
+    /** Occupancy level as a percentage */
+    private final int occupancyLevel;
+
+    /** Current task of the aircraft */
+    private final Task currentTask;
+
+    /** Whether the aircraft is in a state of emergency */
+    private final boolean emergency;
+
+    /**
+     * Creates a snapshot of the current state of the given aircraft.
+     * @param aircraft aircraft to be copied
+     */
+    public AircraftSnapshot(Aircraft aircraft) {
+        this.callsign = aircraft.getCallsign();
+        this.modelId = aircraft.getModelId();
+        this.freight = aircraft instanceof FreightAircraft;
+        this.fuelAmount = aircraft.getFuelAmount();
+        this.loadAmount = loadOf(aircraft);
+        this.occupancyLevel = aircraft.calculateOccupancyLevel();
+        this.currentTask = aircraft.getTaskList().getCurrentTask();
+        this.emergency = aircraft.hasEmergency();
+    }
+
+    /**
+     * Checks whether the given aircraft is still in the state recorded by this snapshot.
+     * @param aircraft aircraft this snapshot was taken of
+     * @return true if fuel, load, current task and emergency state are unchanged
+     */
+    public boolean matches(Aircraft aircraft) {
+        return fuelAmount == aircraft.getFuelAmount()
+                && loadAmount == loadOf(aircraft)
+                && currentTask == aircraft.getTaskList().getCurrentTask()
+                && emergency == aircraft.hasEmergency();
+    }
+
+    /**
+     * Get the callsign of the aircraft.
+     * @return callsign
+     */
+    public String getCallsign() {
+        return callsign;
+    }
+
+    /**
+     * Get the model of the aircraft.
+     * @return aircraft characteristics; null if the model was loaded into the catalog rather
+     * than predefined
+     */
+    public AircraftCharacteristics getCharacteristics() {
+        return AircraftCatalog.getPredefined(modelId);
+    }
+
+    /**
+     * Get the id of the aircraft's model in the AircraftCatalog.
+     * @return catalog model id
+     */
+    public int getModelId() {
+        return modelId;
+    }
+
+    /**
+     * Get the type of the aircraft's model.
+     * @return type of aircraft
+     */
+    public AircraftType getAircraftType() {
+        return AircraftCatalog.getType(modelId);
+    }
+
+    /**
+     * Checks whether the aircraft carries freight rather than passengers.
+     * @return true for a freight aircraft; false for a passenger aircraft
+     */
+    public boolean isFreight() {
+        return freight;
+    }
+
+    /**
+     * Get the fuel on board.
+     * @return fuel in litres
+     */
+    public double getFuelAmount() {
+        return fuelAmount;
+    }
+
+    /**
+     * Get the load on board.
+     * @return number of passengers, or kilograms of freight for a freight aircraft
+     */
+    public double getLoadAmount() {
+        return loadAmount;
+    }
+
+    /**
+     * Get the occupancy level of the aircraft.
+     * @return occupancy level as a percentage
+     */
+    public int getOccupancyLevel() {
+        return occupancyLevel;
+    }
+
+    /**
+     * Get the current task of the aircraft.
+     * @return current task
+     */
+    public Task getCurrentTask() {
+        return currentTask;
+    }
+
+    /**
+     * Checks whether the aircraft was in a state of emergency.
+     * @return true if in emergency; false otherwise
+     */
+    public boolean hasEmergency() {
+        return emergency;
+    }
+
+    /** Get the passengers or freight on board the given aircraft */
+    private static double loadOf(Aircraft aircraft) {
+        if (aircraft instanceof PassengerAircraft) {
+            return ((PassengerAircraft) aircraft).getNumPassengers();
+        } else if (aircraft instanceof FreightAircraft) {
+            return ((FreightAircraft) aircraft).getFreightAmount();
+        }
+        return 0;
+    }
+
+    /**
+     * Get the human-readable representation of the snapshot, in the same format as the
+     * aircraft's own string representation.
+     * @return string representation of the aircraft snapshot
+     */
+    @Override
+    public String toString() {
+        return getAircraftType() + " " + callsign + " " + AircraftCatalog.getName(modelId) + " "
+                + currentTask + (emergency ? " (EMERGENCY)" : "");
+    }
+}
@@ -0,0 +1,81 @@
+package towersim.snapshot;
+
+import towersim.ground.Gate;
+
+/**
+ * Immutable copy of the state of a gate at the end of a tick.
+ */
+public class GateSnapshot {
+    /** Number of the gate */
+    private final int gateNumber;
+
+    /** Callsign of the aircraft parked at the gate; null if the gate is empty */
+    private final String parkedCallsign;
+
+    /**
+     * Creates a snapshot of the current state of the given gate.
+     * @param gate gate to be copied
+     */
+    public GateSnapshot(Gate gate) {
+        this.gateNumber = gate.getGateNumber();
+        this.parkedCallsign = gate.isOccupied() ? gate.getAircraftAtGate().getCallsign() : null;
+    }
+
+    /**
+     * Creates a snapshot of a gate from its number and occupant, without needing the gate
+     * itself, which a terminal created from a layout may not have created yet.
+     * @param gateNumber number of the gate
+     * @param parkedCallsign callsign of the aircraft parked at the gate; null if it is empty
+     */
+    GateSnapshot(int gateNumber, String parkedCallsign) {
+        this.gateNumber = gateNumber;
+        this.parkedCallsign = parkedCallsign;
+    }
+
+    /**
+     * Checks whether the given gate is still in the state recorded by this snapshot.
+     * @param gate gate this snapshot was taken of
+     * @return true if the same aircraft (or none) is parked at the gate
+     */
+    public boolean matches(Gate gate) {
+        if (!gate.isOccupied()) {
+            return parkedCallsign == null;
+        }
+        return gate.getAircraftAtGate().getCallsign().equals(parkedCallsign);
+    }
+
+    /**
+     * Get the number of the gate.
+     * @return gate number
+     */
+    public int getGateNumber() {
+        return gateNumber;
+    }
+
+    /**
+     * Checks whether an aircraft was parked at the gate.
+     * @return true if occupied; false otherwise
+     */
+    public boolean isOccupied() {
+        return parkedCallsign != null;
+    }
+
+    /**
+     * Get the callsign of the aircraft parked at the gate.
+     * @return callsign of the parked aircraft; null if the gate was empty
+     */
+    public String getParkedCallsign() {
+        return parkedCallsign;
+    }
+
+    /**
+     * Get the human-readable representation of the snapshot, in the same format as the
+     * gate's own string representation.
+     * @return string representation of the gate snapshot
+     */
+    @Override
+    public String toString() {
+        return "Gate " + gateNumber + " [" + (parkedCallsign == null ? "empty" : parkedCallsign)
+                + "]";
+    }
+}
@@ -0,0 +1,156 @@
+package towersim.snapshot;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list stored in fixed-size chunks, so that a copy with a few elements replaced or
+ * added shares every unchanged chunk with the list it was made from. Consecutive snapshots
+ * of a large tower therefore only copy the chunks holding what changed during the tick.
+ * @param <E> type of the elements
+ */
+final class SnapshotList<E> extends AbstractList<E> implements RandomAccess {
+    /** Number of bits of an index giving the position within its chunk */
+    private static final int CHUNK_BITS = 6;
+
+    /** Number of elements in each chunk */
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /** List with no elements */
+    private static final SnapshotList<Object> EMPTY = new SnapshotList<>(new Object[0][], 0);
+
+    /** Chunks of elements; chunks may be shared with other lists and are never modified */
+    private final Object[][] chunks;
+
+    /** Number of elements in the list */
+    private final int size;
+
+    private SnapshotList(Object[][] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Get the list with no elements.
+     * @param <E> type of the elements
+     * @return empty list
+     */
+    @SuppressWarnings("unchecked")
+    static <E> SnapshotList<E> empty() {
+        return (SnapshotList<E>) EMPTY;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (E) chunks[index >> CHUNK_BITS][index & (CHUNK_SIZE - 1)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Starts a copy of this list to be changed. The list itself is not affected.
+     * @return editor of the copy
+     */
+    Editor<E> edit() {
+        return new Editor<>(this);
+    }
+
+    /**
+     * Copy of a list being changed, copying each chunk the first time it is written.
+     * @param <E> type of the elements
+     */
+    static final class Editor<E> {
+        /** List the copy was started from */
+        private final SnapshotList<E> original;
+
+        /** Chunks of the copy; null until the first change */
+        private Object[][] chunks;
+
+        /** Whether each chunk of the copy has been copied from the original */
+        private boolean[] owned;
+
+        /** Number of elements in the copy */
+        private int size;
+
+        private Editor(SnapshotList<E> original) {
+            this.original = original;
+            this.size = original.size;
+        }
+
+        /**
+         * Get the element of the copy at the given index.
+         * @param index position of the element
+         * @return element at that position
+         */
+        @SuppressWarnings("unchecked")
+        E get(int index) {
+            Object[][] current = chunks == null ? original.chunks : chunks;
+            return (E) current[index >> CHUNK_BITS][index & (CHUNK_SIZE - 1)];
+        }
+
+        /**
+         * Replaces the element of the copy at the given index.
+         * @param index position of the element, less than the size of the copy
+         * @param element new element
+         */
+        void set(int index, E element) {
+            chunkForWrite(index >> CHUNK_BITS)[index & (CHUNK_SIZE - 1)] = element;
+        }
+
+        /**
+         * Adds an element to the end of the copy.
+         * @param element element to be added
+         */
+        void add(E element) {
+            int chunk = size >> CHUNK_BITS;
+            writable();
+            if (chunk == chunks.length) {
+                chunks = Arrays.copyOf(chunks, Math.max(4, 2 * chunks.length));
+                owned = Arrays.copyOf(owned, chunks.length);
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new Object[CHUNK_SIZE];
+                owned[chunk] = true;
+            }
+            chunkForWrite(chunk)[size & (CHUNK_SIZE - 1)] = element;
+            size++;
+        }
+
+        /**
+         * Finishes the copy.
+         * @return the changed copy; the original list if nothing was changed
+         */
+        SnapshotList<E> build() {
+            if (chunks == null) {
+                return original;
+            }
+            return new SnapshotList<>(chunks, size);
+        }
+
+        /** Makes the array of chunks private to the copy, sharing the chunks themselves */
+        private void writable() {
+            if (chunks == null) {
+                chunks = original.chunks.clone();
+                owned = new boolean[chunks.length];
+            }
+        }
+
+        /** Get the given chunk of the copy, copying it first if it is still shared */
+        private Object[] chunkForWrite(int chunk) {
+            writable();
+            if (!owned[chunk]) {
+                chunks[chunk] = chunks[chunk].clone();
+                owned[chunk] = true;
+            }
+            return chunks[chunk];
+        }
+    }
+}
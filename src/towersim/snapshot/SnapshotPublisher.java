@@ -0,0 +1,231 @@
+package towersim.snapshot;
+
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.CallsignTable;
+import towersim.control.ControlTower;
+import towersim.ground.Terminal;
+import towersim.tasks.TaskType;
+import towersim.util.Tickable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Publishes an immutable TowerSnapshot of a control tower at the end of every tick, so other
+ * threads can read a consistent view of the tower while the next tick is running.
+ * Snapshots are built on the tick thread and handed to readers through a single volatile
+ * reference: readers never lock and never block the tick thread.
+ * <p>
+ * Like DeltaStream, the publisher only looks at what may have changed during the tick: the
+ * aircraft that are away or loading, aircraft whose task or emergency changed, and gates and
+ * terminals its listeners were told about. Each snapshot shares every aircraft, gate and
+ * terminal snapshot whose state did not change, and the lists holding them share every chunk
+ * with no change, so only what has changed is copied. Gate snapshots are built from the
+ * terminal's occupant ids, so gates of terminals created from a layout are not created.
+ */
+public class SnapshotPublisher implements Tickable {
+    /** Control tower being published */
+    private final ControlTower tower;
+
+    /** Latest published snapshot */
+    private volatile TowerSnapshot current;
+
+    /** Position of each aircraft seen so far in the tower's aircraft; tick thread only */
+    private final Map<Aircraft, Integer> positions;
+
+    /** Aircraft whose task or emergency changed since the last publish; tick thread only */
+    private final Set<Aircraft> changedAircraft;
+
+    /** Publishing state of each terminal seen so far, in the tower's order */
+    private final List<TerminalState> terminals;
+
+    /** Snapshots of the aircraft in the latest published snapshot */
+    private SnapshotList<AircraftSnapshot> aircraftList;
+
+    /** Snapshots of the terminals in the latest published snapshot */
+    private List<TerminalSnapshot> terminalList;
+
+    /** Number of aircraft, gate and terminal snapshots created so far */
+    private long copies;
+
+    /**
+     * Creates a new publisher for the given tower, registers it to run at the end of every
+     * tick, and publishes a snapshot of the tower's current state.
+     * @param tower control tower to be published
+     */
+    public SnapshotPublisher(ControlTower tower) {
+        this.tower = tower;
+        this.positions = new IdentityHashMap<>();
+        this.changedAircraft = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.terminals = new ArrayList<>();
+        this.aircraftList = SnapshotList.empty();
+        this.terminalList = List.of();
+        this.copies = 0;
+        publish();
+        tower.addEndOfTickTask(this);
+    }
+
+    /**
+     * Get the latest published snapshot. Safe to call from any thread.
+     * @return snapshot of the tower as of the end of the latest tick
+     */
+    public TowerSnapshot getSnapshot() {
+        return current;
+    }
+
+    /**
+     * Get the number of aircraft, gate and terminal snapshots created so far. Parts shared
+     * between consecutive snapshots are only counted once.
+     * @return number of copies made
+     */
+    public long getCopies() {
+        return copies;
+    }
+
+    /**
+     * Publishes a snapshot of the tower's state at the end of the tick.
+     * Must be called on the thread ticking the tower.
+     */
+    @Override
+    public void tick() {
+        publish();
+    }
+
+    /** Builds a snapshot of the tower's current state and makes it visible to readers */
+    private void publish() {
+        SnapshotList.Editor<AircraftSnapshot> aircraft = aircraftList.edit();
+        for (int i = positions.size(); i < tower.getNumAircraft(); i++) {
+            aircraft.add(defineAircraft(i, tower.getAircraft(i)));
+        }
+        refreshAll(aircraft, tower.getAircraft(TaskType.AWAY));
+        refreshAll(aircraft, tower.getAircraft(TaskType.LOAD));
+        refreshAll(aircraft, changedAircraft);
+        changedAircraft.clear();
+        aircraftList = aircraft.build();
+
+        boolean terminalsChanged = false;
+        for (int t = terminals.size(); t < tower.getNumTerminals(); t++) {
+            terminals.add(defineTerminal(tower.getTerminal(t)));
+            terminalsChanged = true;
+        }
+        for (TerminalState state : terminals) {
+            terminalsChanged |= state.refresh();
+        }
+        if (terminalsChanged) {
+            List<TerminalSnapshot> snapshots = new ArrayList<>(terminals.size());
+            for (TerminalState state : terminals) {
+                snapshots.add(state.snapshot);
+            }
+            terminalList = snapshots;
+        }
+        current = new TowerSnapshot(tower.getTicksElapsed(), aircraftList, terminalList);
+    }
+
+    /** Starts following an aircraft not seen before, returning its first snapshot */
+    private AircraftSnapshot defineAircraft(int position, Aircraft plane) {
+        positions.put(plane, position);
+        plane.getTaskList().addListener((previous, next) -> changedAircraft.add(plane));
+        plane.addEmergencyListener(subject -> changedAircraft.add(plane));
+        copies++;
+        return new AircraftSnapshot(plane);
+    }
+
+    /** Replaces the snapshot of each of the given aircraft whose state has changed */
+    private void refreshAll(SnapshotList.Editor<AircraftSnapshot> aircraft,
+                            Iterable<Aircraft> planes) {
+        for (Aircraft plane : planes) {
+            int position = positions.get(plane);
+            if (!aircraft.get(position).matches(plane)) {
+                aircraft.set(position, new AircraftSnapshot(plane));
+                copies++;
+            }
+        }
+    }
+
+    /** Starts following a terminal not seen before */
+    private TerminalState defineTerminal(Terminal terminal) {
+        TerminalState state = new TerminalState(terminal);
+        terminal.addGateListener((subject, gate, plane, parked) ->
+                state.changedGates.add(gate.getIndexInTerminal()));
+        terminal.addEmergencyListener(subject -> state.changed = true);
+        return state;
+    }
+
+    /** Publishing state of a single terminal; only accessed by the tick thread */
+    private class TerminalState {
+        /** Terminal being followed */
+        private final Terminal terminal;
+
+        /** Indexes of gates an aircraft parked at or left since the last publish */
+        private final List<Integer> changedGates;
+
+        /** Whether the terminal's emergency changed since the last publish */
+        private boolean changed;
+
+        /** Snapshots of the gates in the latest snapshot of the terminal */
+        private SnapshotList<GateSnapshot> gates;
+
+        /** Latest snapshot of the terminal; null until the first publish */
+        private TerminalSnapshot snapshot;
+
+        private TerminalState(Terminal terminal) {
+            this.terminal = terminal;
+            this.changedGates = new ArrayList<>();
+            this.changed = true;
+            this.gates = SnapshotList.empty();
+        }
+
+        /**
+         * Takes a new snapshot of the terminal if anything about it changed.
+         * @return true if the terminal has a new snapshot
+         */
+        private boolean refresh() {
+            int numGates = terminal.getNumGates();
+            if (!changed && changedGates.isEmpty() && numGates == gates.size()) {
+                return false;
+            }
+            SnapshotList.Editor<GateSnapshot> edit = gates.edit();
+            for (int index : changedGates) {
+                if (index < gates.size()) {
+                    GateSnapshot gate = gateSnapshot(index);
+                    if (!sameGate(edit.get(index), gate)) {
+                        edit.set(index, gate);
+                        copies++;
+                    }
+                }
+            }
+            changedGates.clear();
+            for (int index = gates.size(); index < numGates; index++) {
+                edit.add(gateSnapshot(index));
+                copies++;
+            }
+            SnapshotList<GateSnapshot> newGates = edit.build();
+            if (!changed && newGates == gates) {
+                return false;
+            }
+            changed = false;
+            gates = newGates;
+            snapshot = new TerminalSnapshot(terminal.getClass().getSimpleName(),
+                    terminal.getTerminalNumber(), terminal.getAircraftType(),
+                    terminal.hasEmergency(), gates, terminal.getNumOccupiedGates());
+            copies++;
+            return true;
+        }
+
+        /** Get a snapshot of the gate at the given index from its number and occupant */
+        private GateSnapshot gateSnapshot(int index) {
+            int occupant = terminal.getOccupantId(index);
+            return new GateSnapshot(terminal.getGateNumber(index),
+                    occupant == CallsignTable.NONE ? null : CallsignTable.getCallsign(occupant));
+        }
+    }
+
+    /** Checks whether two snapshots of the same gate record the same occupant */
+    private static boolean sameGate(GateSnapshot previous, GateSnapshot next) {
+        return previous.isOccupied() == next.isOccupied() && (!next.isOccupied()
+                || previous.getParkedCallsign().equals(next.getParkedCallsign()));
+    }
+}
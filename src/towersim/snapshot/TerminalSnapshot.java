@@ -0,0 +1,109 @@
+package towersim.snapshot;
+
+import towersim.aircraft.AircraftType;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable copy of the state of a terminal and its gates at the end of a tick.
+ */
+public class TerminalSnapshot {
+    /** Simple class name of the terminal, such as AirplaneTerminal */
+    private final String kind;
+
+    /** Number of the terminal */
+    private final int terminalNumber;
+
+    /** Type of aircraft the terminal accommodates */
+    private final AircraftType aircraftType;
+
+    /** Whether the terminal is in a state of emergency */
+    private final boolean emergency;
+
+    /** Snapshots of the terminal's gates, in the order they were added */
+    private final List<GateSnapshot> gates;
+
+    /** Number of occupied gates */
+    private final int numOccupiedGates;
+
+    /**
+     * Creates a new terminal snapshot
+     * @param kind simple class name of the terminal
+     * @param terminalNumber number of the terminal
+     * @param aircraftType type of aircraft the terminal accommodates
+     * @param emergency whether the terminal is in a state of emergency
+     * @param gates snapshots of the terminal's gates, which must not be modified afterwards
+     * @param numOccupiedGates number of the gates with an aircraft parked at them
+     */
+    TerminalSnapshot(String kind, int terminalNumber, AircraftType aircraftType,
+                     boolean emergency, List<GateSnapshot> gates, int numOccupiedGates) {
+        this.kind = kind;
+        this.terminalNumber = terminalNumber;
+        this.aircraftType = aircraftType;
+        this.emergency = emergency;
+        this.gates = Collections.unmodifiableList(gates);
+        this.numOccupiedGates = numOccupiedGates;
+    }
+
+    /**
+     * Get the number of the terminal.
+     * @return terminal number
+     */
+    public int getTerminalNumber() {
+        return terminalNumber;
+    }
+
+    /**
+     * Get the type of aircraft the terminal accommodates.
+     * @return aircraft type
+     */
+    public AircraftType getAircraftType() {
+        return aircraftType;
+    }
+
+    /**
+     * Checks whether the terminal was in a state of emergency.
+     * @return true if in emergency; false otherwise
+     */
+    public boolean hasEmergency() {
+        return emergency;
+    }
+
+    /**
+     * Get snapshots of the terminal's gates.
+     * @return read-only list of gate snapshots
+     */
+    public List<GateSnapshot> getGates() {
+        return gates;
+    }
+
+    /**
+     * Get the number of occupied gates.
+     * @return number of occupied gates
+     */
+    public int getNumOccupiedGates() {
+        return numOccupiedGates;
+    }
+
+    /**
+     * Get the percentage of occupied gates.
+     * @return occupancy level, from 0 to 100
+     */
+    public int calculateOccupancyLevel() {
+        if (gates.isEmpty()) {
+            return 0;
+        }
+        return (int) Math.round((double) (numOccupiedGates * 100) / gates.size());
+    }
+
+    /**
+     * Get the human-readable representation of the snapshot, in the same format as the
+     * terminal's own string representation.
+     * @return string representation of the terminal snapshot
+     */
+    @Override
+    public String toString() {
+        return kind + " " + terminalNumber + ", " + gates.size() + " gates"
+                + (emergency ? " (EMERGENCY)" : "");
+    }
+}
@@ -0,0 +1,95 @@
+package towersim.snapshot;
+
+import towersim.tasks.TaskType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, consistent view of a control tower's aircraft and terminals as they were at the
+ * end of a single tick. Snapshots may be read from any number of threads without locking.
+ */
+public class TowerSnapshot {
+    /** Number of ticks the tower had elapsed when the snapshot was taken */
+    private final long epoch;
+
+    /** Snapshots of the tower's aircraft, in the order they were added */
+    private final List<AircraftSnapshot> aircraft;
+
+    /** Snapshots of the tower's terminals, in the order they were added */
+    private final List<TerminalSnapshot> terminals;
+
+    /** Aircraft snapshots keyed by callsign; built on first lookup */
+    private volatile Map<String, AircraftSnapshot> byCallsign;
+
+    /**
+     * Creates a new tower snapshot.
+     * @param epoch number of ticks the tower had elapsed
+     * @param aircraft snapshots of the aircraft, which must not be modified afterwards
+     * @param terminals snapshots of the terminals, which must not be modified afterwards
+     */
+    TowerSnapshot(long epoch, List<AircraftSnapshot> aircraft,
+                  List<TerminalSnapshot> terminals) {
+        this.epoch = epoch;
+        this.aircraft = Collections.unmodifiableList(aircraft);
+        this.terminals = Collections.unmodifiableList(terminals);
+    }
+
+    /**
+     * Get the number of ticks the tower had elapsed when the snapshot was taken.
+     * @return epoch of the snapshot
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Get snapshots of all aircraft the tower was controlling.
+     * @return read-only list of aircraft snapshots
+     */
+    public List<AircraftSnapshot> getAircraft() {
+        return aircraft;
+    }
+
+    /**
+     * Get snapshots of all terminals at the airport.
+     * @return read-only list of terminal snapshots
+     */
+    public List<TerminalSnapshot> getTerminals() {
+        return terminals;
+    }
+
+    /**
+     * Get the snapshot of the aircraft with the given callsign.
+     * @param callsign callsign to look up
+     * @return aircraft snapshot; null if no aircraft has that callsign
+     */
+    public AircraftSnapshot getAircraft(String callsign) {
+        Map<String, AircraftSnapshot> index = byCallsign;
+        if (index == null) {
+            // racing readers may each build the index; they all build the same one
+            index = new HashMap<>();
+            for (AircraftSnapshot snapshot : aircraft) {
+                index.put(snapshot.getCallsign(), snapshot);
+            }
+            byCallsign = index;
+        }
+        return index.get(callsign);
+    }
+
+    /**
+     * Get the number of aircraft whose current task was of the given type.
+     * @param type task type
+     * @return number of aircraft on that task type
+     */
+    public int countAircraft(TaskType type) {
+        int count = 0;
+        for (AircraftSnapshot snapshot : aircraft) {
+            if (snapshot.getCurrentTask().getType() == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -1,5 +1,6 @@
 package towersim.tasks;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,6 +16,12 @@ public class TaskList {
     /** Next task in the list */
     private Task nextTask;
 
+    /** Listeners told whenever the current task changes */
+    private List<TaskListener> listeners;
+
+    /** Listeners told just before the current task changes; null until one is added */
+    private List<TaskListener> beforeMoveListeners;
+
     /**
      * Creates a new task list with given list of tasks
      * @param tasks list of tasks
@@ -23,6 +30,27 @@ public class TaskList {
         this.tasks = tasks;
         /* the first task should be the current task */
         this.currentTask = tasks.get(0);
+        this.listeners = new ArrayList<>();
+    }
+
+    /**
+     * Creates a copy of the given task list on the same current task. The tasks themselves
+     * are never modified, so the copy shares them with the original. Listeners are not copied.
+     * @param original task list to be copied
+     */
+    private TaskList(TaskList original) {
+        this.tasks = original.tasks;
+        this.currentTask = original.currentTask;
+        this.listeners = new ArrayList<>();
+    }
+
+    /**
+     * Creates a copy of the task list on the same current task, which moves independently of
+     * this task list.
+     * @return copy of the task list
+     */
+    public TaskList copy() {
+        return new TaskList(this);
     }
 
     /**
@@ -48,9 +76,58 @@ public class TaskList {
         return nextTask;
     }
 
+    /**
+     * Get the task the given number of steps ahead of the current task, wrapping around
+     * the circular list. Zero steps gives the current task.
+     * @param steps number of tasks to look ahead
+     * @return the task that many steps ahead
+     */
+    public Task getTaskAhead(int steps) {
+        int indexOfCurrentTask = tasks.indexOf(getCurrentTask());
+        return tasks.get((indexOfCurrentTask + steps) % tasks.size());
+    }
+
+    /**
+     * Get the number of tasks in the list.
+     * @return number of tasks
+     */
+    public int size() {
+        return tasks.size();
+    }
+
     /** Moves the current task forward by one in the circular task list */
     public void moveToNextTask() {
-        this.currentTask = this.getNextTask();
+        Task previousTask = this.currentTask;
+        Task next = this.getNextTask();
+        if (beforeMoveListeners != null) {
+            for (int i = 0; i < beforeMoveListeners.size(); i++) {
+                beforeMoveListeners.get(i).taskChanged(previousTask, next);
+            }
+        }
+        this.currentTask = next;
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).taskChanged(previousTask, currentTask);
+        }
+    }
+
+    /**
+     * Adds a listener to be told whenever the task list moves to its next task.
+     * @param listener listener to be added
+     */
+    public void addListener(TaskListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Adds a listener to be told just before the task list moves to its next task, while it
+     * is still on the task it is leaving. Listeners are not copied to copies of the list.
+     * @param listener listener to be added, told the task being left and the task to come
+     */
+    public void addBeforeMoveListener(TaskListener listener) {
+        if (beforeMoveListeners == null) {
+            beforeMoveListeners = new ArrayList<>(1);
+        }
+        beforeMoveListeners.add(listener);
     }
 
     /** Get the human-readable string representation of the task list
@@ -0,0 +1,13 @@
+package towersim.tasks;
+
+/**
+ * Denotes a class that is told whenever a task list moves on to its next task.
+ */
+public interface TaskListener {
+    /**
+     * Method called after a task list has moved from one task to the next.
+     * @param previousTask task the list was on before moving
+     * @param currentTask task the list is now on
+     */
+    void taskChanged(Task previousTask, Task currentTask);
+}
@@ -0,0 +1,12 @@
+package towersim.util;
+
+/**
+ * Denotes a class that is told whenever an emergency is declared or cleared.
+ */
+public interface EmergencyListener {
+    /**
+     * Method called after an emergency has been declared or cleared.
+     * @param subject aircraft or terminal whose state of emergency has changed
+     */
+    void emergencyChanged(EmergencyState subject);
+}
@@ -0,0 +1,177 @@
+package towersim.util;
+
+import java.util.Arrays;
+
+/**
+ * Records the distribution of non-negative values using a fixed number of buckets. Values below
+ * 64 are counted exactly; larger values are counted in buckets whose width grows with the value,
+ * so every recorded value is known to within about 3%. Memory use is constant however many
+ * values are recorded, and histograms can be merged.
+ */
+public class Histogram {
+    /** Number of small values that are each counted in a bucket of their own */
+    private static final int EXACT_VALUES = 64;
+
+    /** Number of buckets per power of two for values of at least EXACT_VALUES */
+    private static final int SUB_BUCKETS = 32;
+
+    /** log2 of SUB_BUCKETS */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /** Total number of buckets, enough for every non-negative long */
+    private static final int NUM_BUCKETS = EXACT_VALUES + (63 - 6) * SUB_BUCKETS;
+
+    /** Number of values recorded in each bucket */
+    private final long[] counts;
+
+    /** Number of values recorded */
+    private long totalCount;
+
+    /** Sum of all values recorded */
+    private double sum;
+
+    /** Smallest value recorded */
+    private long min;
+
+    /** Largest value recorded */
+    private long max;
+
+    /** Creates a new empty histogram */
+    public Histogram() {
+        counts = new long[NUM_BUCKETS];
+        reset();
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     * @param value value to be recorded
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts[bucketOf(clamped)]++;
+        totalCount++;
+        sum += clamped;
+        min = Math.min(min, clamped);
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * Adds all values recorded by the given histogram to this histogram.
+     * @param other histogram to be merged in
+     */
+    public void merge(Histogram other) {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Creates a copy of this histogram.
+     * @return new histogram with the same recorded values
+     */
+    public Histogram copy() {
+        Histogram copy = new Histogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    /** Removes all recorded values */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Get the number of values recorded.
+     * @return number of values
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Get the smallest value recorded.
+     * @return smallest value; 0 if nothing has been recorded
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Get the largest value recorded.
+     * @return largest value; 0 if nothing has been recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Get the mean of the values recorded.
+     * @return mean value; 0 if nothing has been recorded
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * Get the value at the given percentile of all values recorded. The result is the largest
+     * value that falls in the same bucket, capped at the largest value recorded.
+     * @param percentile percentile to look up, from 0 to 100
+     * @return value at that percentile; 0 if nothing has been recorded
+     * @throws IllegalArgumentException if percentile is outside 0 to 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException();
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, highestValueIn(i));
+            }
+        }
+        return max;
+    }
+
+    /** Get the bucket a non-negative value is counted in */
+    private static int bucketOf(long value) {
+        if (value < EXACT_VALUES) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return EXACT_VALUES + (exponent - 6) * SUB_BUCKETS
+                + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /** Get the largest value counted in the given bucket */
+    private static long highestValueIn(int bucket) {
+        if (bucket < EXACT_VALUES) {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT_VALUES) / SUB_BUCKETS + 6;
+        int subBucket = (bucket - EXACT_VALUES) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lowest = (long) subBucket << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Get the human-readable representation of the histogram.
+     * @return string representation of the histogram
+     */
+    @Override
+    public String toString() {
+        return "count " + totalCount + ", min " + getMin() + ", p50 " + getValueAtPercentile(50)
+                + ", p99 " + getValueAtPercentile(99) + ", max " + max;
+    }
+}
@@ -0,0 +1,53 @@
+package towersim.aircraft;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class AircraftCatalogTest {
+    // Tests that predefined models are entered with their ordinals as ids
+    @Test
+    public void predefinedTest() {
+        for (AircraftCharacteristics model : AircraftCharacteristics.values()) {
+            assertEquals(model.ordinal(), AircraftCatalog.idOf(model.name()));
+            assertEquals(model, AircraftCatalog.getPredefined(model.getModelId()));
+            assertEquals(model.type, AircraftCatalog.getType(model.getModelId()));
+            assertEquals(model.fuelCapacity,
+                    AircraftCatalog.getFuelCapacity(model.getModelId()), 0);
+        }
+    }
+
+    // Tests that models loaded from a file can be used like predefined ones
+    @Test
+    public void loadTest() throws IOException {
+        int added = AircraftCatalog.load(new StringReader("# name,type,empty,fuel,pax,freight\n"
+                + "AIRBUS_A320,AIRPLANE,42600,27200,150,0\n"
+                + "\n"
+                + "TEST_A321,AIRPLANE,48500,32940,190,0\n"));
+        assertEquals(1, added);
+        int id = AircraftCatalog.idOf("TEST_A321");
+        assertNull(AircraftCatalog.getPredefined(id));
+        PassengerAircraft aircraft = new PassengerAircraft("ABC123", id, null, 32940, 95);
+        assertEquals(AircraftType.AIRPLANE, aircraft.getAircraftType());
+        assertEquals(100, aircraft.getFuelPercentRemaining());
+        assertEquals(50, aircraft.calculateOccupancyLevel());
+        assertEquals(WakeCategory.MEDIUM, WakeCategory.ofModel(id));
+    }
+
+    // Tests that a malformed file adds no models
+    @Test
+    public void malformedTest() {
+        int size = AircraftCatalog.size();
+        try {
+            AircraftCatalog.load(new StringReader("TEST_GOOD,HELICOPTER,1000,200,4,0\n"
+                    + "TEST_BAD,GLIDER,100,1,1,0\n"));
+            fail("Should not load a model of an unknown type");
+        } catch (IOException e) {
+            assertEquals(size, AircraftCatalog.size());
+            assertEquals(-1, AircraftCatalog.idOf("TEST_GOOD"));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package towersim.aircraft;
+
+import org.junit.Test;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CallsignTableTest {
+    // Tests that a callsign keeps the same id and aircraft share its string
+    @Test
+    public void internTest() {
+        int id = CallsignTable.intern("TBL001");
+        assertEquals(id, CallsignTable.intern("TBL001"));
+        assertEquals(id, CallsignTable.idOf(new String("TBL001")));
+        assertEquals(CallsignTable.NONE, CallsignTable.idOf("TBL-UNSEEN"));
+        PassengerAircraft first = new PassengerAircraft("TBL001",
+                AircraftCharacteristics.FOKKER_100, null, 0, 0);
+        PassengerAircraft second = new PassengerAircraft(new String("TBL001"),
+                AircraftCharacteristics.FOKKER_100, null, 0, 0);
+        assertEquals(id, first.getCallsignId());
+        assertSame(first.getCallsign(), second.getCallsign());
+    }
+
+    // Tests that terminals keep the callsign id of every parked aircraft
+    @Test
+    public void occupantIdsTest() throws NoSpaceException {
+        Terminal terminal = new AirplaneTerminal(1);
+        for (int i = 0; i < 3; i++) {
+            terminal.addGate(new Gate(i + 1));
+        }
+        PassengerAircraft aircraft = new PassengerAircraft("TBL002",
+                AircraftCharacteristics.AIRBUS_A320, null, 0, 0);
+        assertEquals(-1, terminal.indexOfOccupant(aircraft.getCallsignId()));
+        terminal.getGate(2).parkAircraft(aircraft);
+        assertEquals(2, terminal.indexOfOccupant(aircraft.getCallsignId()));
+        assertEquals(CallsignTable.NONE, terminal.getOccupantId(0));
+        terminal.getGate(2).aircraftLeaves();
+        assertEquals(-1, terminal.indexOfOccupant(aircraft.getCallsignId()));
+    }
+
+    // Tests a callsign is released once every aircraft holding it, including copies, has been
+    // garbage collected, and is interned again if it is used again
+    @Test
+    public void releaseTest() throws InterruptedException {
+        PassengerAircraft original = new PassengerAircraft("TBL003",
+                AircraftCharacteristics.AIRBUS_A320, null, 0, 0);
+        int id = original.getCallsignId();
+        Aircraft copy = original.copy(new TaskList(List.of(new Task(TaskType.AWAY))));
+        WeakReference<Aircraft> originalRef = new WeakReference<>(original);
+        original = null;
+        awaitCollected(originalRef);
+        assertEquals(id, CallsignTable.idOf("TBL003"));
+        assertEquals("TBL003", copy.getCallsign());
+
+        WeakReference<Aircraft> copyRef = new WeakReference<>(copy);
+        copy = null;
+        awaitCollected(copyRef);
+        for (int i = 0; i < 100 && CallsignTable.idOf("TBL003") != CallsignTable.NONE; i++) {
+            Thread.sleep(10); // cleaner runs on its own thread
+        }
+        assertEquals(CallsignTable.NONE, CallsignTable.idOf("TBL003"));
+        assertNull(CallsignTable.getCallsign(id));
+        PassengerAircraft again = new PassengerAircraft("TBL003",
+                AircraftCharacteristics.AIRBUS_A320, null, 0, 0);
+        assertEquals(again.getCallsignId(), CallsignTable.idOf("TBL003"));
+        assertEquals("TBL003", again.getCallsign());
+    }
+
+    // Tests that ids of released callsigns are handed out again, so the table stays bounded
+    @Test
+    public void reuseTest() throws InterruptedException {
+        int before = CallsignTable.size();
+        for (int batch = 0; batch < 20; batch++) {
+            WeakReference<Aircraft> last = null;
+            for (int i = 0; i < 500; i++) {
+                last = new WeakReference<>(new PassengerAircraft("TBR" + batch + "-" + i,
+                        AircraftCharacteristics.AIRBUS_A320, null, 0, 0));
+            }
+            awaitCollected(last);
+            String callsign = "TBR" + batch + "-499";
+            for (int i = 0; i < 100 && CallsignTable.idOf(callsign) != CallsignTable.NONE; i++) {
+                Thread.sleep(10); // cleaner runs on its own thread
+            }
+        }
+        assertTrue(CallsignTable.size() - before < 5000);
+    }
+
+    // Tests that an aircraft rejected for its fuel does not intern its callsign
+    @Test
+    public void invalidFuelTest() {
+        try {
+            new PassengerAircraft("TBL005", AircraftCharacteristics.AIRBUS_A320, null, -1, 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // rejected before the callsign was interned
+        }
+        assertEquals(CallsignTable.NONE, CallsignTable.idOf("TBL005"));
+    }
+
+    // Tests callsigns interned directly are kept
+    @Test
+    public void internKeptTest() throws InterruptedException {
+        int id = CallsignTable.intern("TBL004");
+        WeakReference<Aircraft> ref = new WeakReference<>(new PassengerAircraft("TBL004",
+                AircraftCharacteristics.AIRBUS_A320, null, 0, 0));
+        awaitCollected(ref);
+        Thread.sleep(50);
+        assertEquals(id, CallsignTable.idOf("TBL004"));
+        assertEquals("TBL004", CallsignTable.getCallsign(id));
+    }
+
+    private static void awaitCollected(WeakReference<?> ref) throws InterruptedException {
+        for (int i = 0; i < 100 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+    }
+}
@@ -0,0 +1,48 @@
+package towersim.aircraft;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PassengerAircraftTest {
+    private PassengerAircraft aircraft;
+
+    @Before
+    public void setup() {
+        // create task list [LOAD, TAKEOFF, AWAY, LAND]
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.LOAD, 100));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        aircraft = new PassengerAircraft("ABC123", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(tasks), 0, 0);
+    }
+
+    // Tests that cached derived values follow fuel and passengers being loaded
+    @Test
+    public void derivedValuesTest() {
+        AircraftCharacteristics a320 = AircraftCharacteristics.AIRBUS_A320;
+        assertEquals(0, aircraft.getFuelPercentRemaining());
+        assertEquals(0, aircraft.calculateOccupancyLevel());
+        assertEquals(a320.emptyWeight, aircraft.getTotalWeight(), 1e-9);
+        while (aircraft.calculateOccupancyLevel() < 100) {
+            aircraft.tick();
+        }
+        assertEquals(100, aircraft.getFuelPercentRemaining());
+        assertEquals(a320.emptyWeight + a320.fuelCapacity * Aircraft.LITRE_OF_FUEL_WEIGHT
+                + a320.passengerCapacity * PassengerAircraft.AVG_PASSENGER_WEIGHT,
+                aircraft.getTotalWeight(), 1e-9);
+        aircraft.getTaskList().moveToNextTask();
+        aircraft.getTaskList().moveToNextTask();
+        aircraft.tick();
+        assertEquals(90, aircraft.getFuelPercentRemaining());
+    }
+}
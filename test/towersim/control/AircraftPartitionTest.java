@@ -0,0 +1,88 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AircraftPartitionTest {
+    private ControlTower tower;
+    private PassengerAircraft first;
+    private PassengerAircraft second;
+
+    @Before
+    public void setup() {
+        tower = new ControlTower();
+        first = new PassengerAircraft("PRT001", AircraftCharacteristics.AIRBUS_A320,
+                taskList(), 1000, 0);
+        second = new PassengerAircraft("PRT002", AircraftCharacteristics.FOKKER_100,
+                taskList(), 1000, 0);
+    }
+
+    // create task list [AWAY, LAND, WAIT, TAKEOFF]
+    private static TaskList taskList() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.WAIT));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        return new TaskList(tasks);
+    }
+
+    // Tests aircraft move between groups as they change task, keeping the order they joined
+    @Test
+    public void taskTransitionTest() throws NoSuitableGateException {
+        tower.addAircraft(first);
+        tower.addAircraft(second);
+        assertEquals(2, tower.getAircraft(TaskType.AWAY).size());
+        Iterator<Aircraft> away = tower.getAircraft(TaskType.AWAY).iterator();
+        assertEquals(first, away.next());
+        assertEquals(second, away.next());
+
+        first.getTaskList().moveToNextTask(); // LAND
+        assertFalse(tower.getAircraft(TaskType.AWAY).contains(first));
+        assertTrue(tower.getAircraft(TaskType.LAND).contains(first));
+        second.getTaskList().moveToNextTask(); // LAND
+        Iterator<Aircraft> landing = tower.getAircraft(TaskType.LAND).iterator();
+        assertEquals(first, landing.next());
+        assertEquals(second, landing.next());
+
+        for (int i = 0; i < 3; i++) {
+            first.getTaskList().moveToNextTask(); // WAIT, TAKEOFF, AWAY
+        }
+        assertEquals(1, tower.getAircraft(TaskType.AWAY).size());
+        assertTrue(tower.getAircraft(TaskType.AWAY).contains(first));
+        assertEquals(0, tower.getAircraft(TaskType.WAIT).size());
+        assertEquals(0, tower.getAircraft(TaskType.TAKEOFF).size());
+    }
+
+    // Tests moves of aircraft not in the partition, or between groups of the same type, are
+    // ignored
+    @Test
+    public void ignoredMoveTest() {
+        AircraftPartition partition = new AircraftPartition();
+        partition.add(first);
+        partition.move(first, TaskType.AWAY, TaskType.AWAY);
+        partition.move(second, TaskType.AWAY, TaskType.LAND);
+        assertEquals(1, partition.count(TaskType.AWAY));
+        assertEquals(0, partition.count(TaskType.LAND));
+    }
+
+    // Tests the groups are read-only views
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnlyTest() {
+        AircraftPartition partition = new AircraftPartition();
+        partition.getAircraft(TaskType.AWAY).add(first);
+    }
+}
@@ -0,0 +1,215 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.GateCapability;
+import towersim.ground.Terminal;
+import towersim.ground.TerminalLayout;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CommandProcessorTest {
+    private ControlTower tower;
+    private Terminal terminal;
+    private Gate gate1;
+    private Gate gate2;
+    private PassengerAircraft passenger1;
+    private PassengerAircraft passenger2;
+    private CommandProcessor processor;
+
+    @Before
+    public void setup() throws NoSpaceException, NoSuitableGateException {
+        tower = new ControlTower();
+        terminal = new AirplaneTerminal(3);
+        gate1 = new Gate(11);
+        gate2 = new Gate(12, GateCapability.of(GateCapability.LARGE, false, true));
+        terminal.addGate(gate1);
+        terminal.addGate(gate2);
+        tower.addTerminal(terminal);
+        processor = new CommandProcessor(tower);
+
+        passenger1 = new PassengerAircraft("CMD001", AircraftCharacteristics.AIRBUS_A320,
+                awayTaskList(), 1000, 0);
+        passenger2 = new PassengerAircraft("CMD002", AircraftCharacteristics.AIRBUS_A320,
+                awayTaskList(), 1000, 0);
+        tower.addAircraft(passenger1);
+        tower.addAircraft(passenger2);
+    }
+
+    // create task list [AWAY, LAND, LOAD, TAKEOFF] so aircraft are not parked when added
+    private static TaskList awayTaskList() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.LOAD, 10));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        return new TaskList(tasks);
+    }
+
+    // Tests a gate released in a batch can be parked at in the same batch, whatever the order
+    @Test
+    public void releaseBeforeParkTest() throws NoSpaceException {
+        gate1.parkAircraft(passenger1);
+        CommandResult[] results = processor.apply(List.of(
+                ControllerCommand.parkAtGate("CMD002", 3, 11),
+                ControllerCommand.releaseGate("CMD001")));
+        assertEquals(CommandResult.APPLIED, results[0]);
+        assertEquals(CommandResult.APPLIED, results[1]);
+        assertEquals(passenger2, gate1.getAircraftAtGate());
+        assertNull(tower.findGateOfAircraft(passenger1));
+        assertEquals(gate1, tower.findGateOfAircraft(passenger2));
+        assertEquals(2, processor.getCommandsApplied());
+    }
+
+    // Tests commands that cannot be applied are reported without affecting the others
+    @Test
+    public void rejectedCommandsTest() throws NoSuitableGateException {
+        FreightAircraft freighter = new FreightAircraft("CMD003",
+                AircraftCharacteristics.BOEING_747_8F, awayTaskList(), 1000, 0);
+        tower.addAircraft(freighter);
+        CommandResult[] results = processor.apply(List.of(
+                ControllerCommand.parkAtGate("CMD001", 3, 11),
+                ControllerCommand.parkAtGate("CMD002", 3, 11),
+                ControllerCommand.parkAtGate("CMD001", 3, 12),
+                ControllerCommand.parkAtGate("CMD002", 4, 11),
+                ControllerCommand.parkAtGate("CMD002", 3, 99),
+                ControllerCommand.parkAtGate("CMD003", 3, 12),
+                ControllerCommand.releaseGate("CMD002"),
+                ControllerCommand.releaseGate("XXX999"),
+                ControllerCommand.terminalEmergency(9, true)));
+        assertEquals(CommandResult.APPLIED, results[0]);
+        assertEquals(CommandResult.GATE_OCCUPIED, results[1]);
+        assertEquals(CommandResult.ALREADY_PARKED, results[2]);
+        assertEquals(CommandResult.UNKNOWN_TERMINAL, results[3]);
+        assertEquals(CommandResult.UNKNOWN_GATE, results[4]);
+        assertEquals(CommandResult.INCOMPATIBLE_GATE, results[5]);
+        assertEquals(CommandResult.NOT_PARKED, results[6]);
+        assertEquals(CommandResult.UNKNOWN_AIRCRAFT, results[7]);
+        assertEquals(CommandResult.UNKNOWN_TERMINAL, results[8]);
+        assertEquals(passenger1, gate1.getAircraftAtGate());
+        assertFalse(gate2.isOccupied());
+    }
+
+    // Tests a submitted batch is applied at the end of the next tick
+    @Test
+    public void submitTest() {
+        CommandBatch batch = processor.submit(List.of(
+                ControllerCommand.emergency("CMD001", true),
+                ControllerCommand.terminalEmergency(3, true),
+                ControllerCommand.moveToNextTask("CMD002")));
+        assertFalse(batch.isApplied());
+        assertFalse(passenger1.hasEmergency());
+        tower.tick();
+        assertTrue(batch.isApplied());
+        assertEquals(3, batch.count(CommandResult.APPLIED));
+        assertTrue(passenger1.hasEmergency());
+        assertTrue(terminal.hasEmergency());
+    }
+
+    // Tests controllers cannot park an aircraft where it would take another aircraft's booking,
+    // while the booked aircraft itself can park there
+    @Test
+    public void bookedGateTest() throws NoSuitableGateException {
+        GatePlanner planner = new GatePlanner(tower);
+        tower.setGatePlanner(planner);
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.LOAD, 10));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        PassengerAircraft landing = new PassengerAircraft("CMD004",
+                AircraftCharacteristics.AIRBUS_A320, new TaskList(tasks), 1000, 0);
+        tower.addAircraft(landing);
+        assertEquals(gate1, planner.getBooking(landing).getGate());
+
+        CommandResult[] results = processor.apply(List.of(
+                ControllerCommand.parkAtGate("CMD001", 3, 11),
+                ControllerCommand.parkAtGate("CMD002", 3, 12)));
+        assertEquals(CommandResult.GATE_BOOKED, results[0]);
+        assertEquals(CommandResult.APPLIED, results[1]);
+        assertFalse(gate1.isOccupied());
+        results = processor.apply(List.of(ControllerCommand.parkAtGate("CMD004", 3, 11)));
+        assertEquals(CommandResult.APPLIED, results[0]);
+        assertEquals(landing, gate1.getAircraftAtGate());
+    }
+
+    // Tests parking many unparked aircraft in one batch, each checked for already being parked
+    // without scanning the tower's gates
+    @Test(timeout = 10000)
+    public void parkManyTest() throws NoSpaceException, NoSuitableGateException {
+        int numTerminals = 200;
+        int gatesPerTerminal = 100;
+        ControlTower large = new ControlTower();
+        for (int t = 0; t < numTerminals; t++) {
+            Terminal added = new AirplaneTerminal(100 + t, gatesPerTerminal);
+            for (int g = 0; g < gatesPerTerminal; g++) {
+                added.addGate(new Gate(g));
+            }
+            large.addTerminal(added);
+        }
+        CommandProcessor largeProcessor = new CommandProcessor(large);
+        List<ControllerCommand> commands = new ArrayList<>();
+        for (int i = 0; i < numTerminals * gatesPerTerminal; i++) {
+            String callsign = "SCL" + i;
+            large.addAircraft(new PassengerAircraft(callsign,
+                    AircraftCharacteristics.AIRBUS_A320, awayTaskList(), 1000, 0));
+            commands.add(ControllerCommand.parkAtGate(callsign, 100 + i % numTerminals,
+                    i / numTerminals));
+        }
+        CommandResult[] results = largeProcessor.apply(commands);
+        for (CommandResult result : results) {
+            assertEquals(CommandResult.APPLIED, result);
+        }
+        for (int i = 0; i < numTerminals * gatesPerTerminal; i += 997) {
+            Gate gate = large.findGateOfAircraft(large.findAircraft("SCL" + i));
+            assertEquals(i / numTerminals, gate.getGateNumber());
+        }
+        results = largeProcessor.apply(commands);
+        for (CommandResult result : results) {
+            assertEquals(CommandResult.ALREADY_PARKED, result);
+        }
+    }
+
+    // Tests parking at a terminal created from a layout only creates the target gate
+    @Test
+    public void layoutGatesTest() throws NoSpaceException {
+        Terminal template = new AirplaneTerminal(5);
+        template.addGate(new Gate(11));
+        template.addGate(new Gate(12));
+        template.addGate(new Gate(13));
+        Terminal copy = new TerminalLayout(template).newTerminal();
+        tower.addTerminal(copy);
+        CommandResult[] results = processor.apply(List.of(
+                ControllerCommand.parkAtGate("CMD001", 5, 12)));
+        assertEquals(CommandResult.APPLIED, results[0]);
+        assertEquals(passenger1, copy.getGate(1).getAircraftAtGate());
+        assertEquals(1, copy.getNumCreatedGates());
+    }
+
+    // Tests a task moved on by a controller is timed afresh by the lifecycle engine
+    @Test
+    public void moveRestartsCountdownTest() {
+        LifecycleEngine engine = new LifecycleEngine(tower, 5);
+        tower.setLifecycleEngine(engine);
+        tower.tick();
+        tower.tick();
+        assertEquals(3, engine.getRemainingTicks(passenger1)); // AWAY for 5 ticks
+        processor.apply(List.of(ControllerCommand.moveToNextTask("CMD001")));
+        assertEquals(TaskType.LAND, passenger1.getTaskList().getCurrentTask().getType());
+        assertEquals(engine.getDuration(passenger1, passenger1.getTaskList().getCurrentTask()),
+                engine.getRemainingTicks(passenger1));
+    }
+}
@@ -0,0 +1,85 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.util.NoSpaceException;
+
+import static org.junit.Assert.*;
+
+public class ControlTowerTest {
+    private ControlTower tower;
+    private Terminal terminal1;
+    private Terminal terminal2;
+
+    @Before
+    public void setup() throws NoSpaceException {
+        tower = new ControlTower();
+        terminal1 = new AirplaneTerminal(1);
+        terminal2 = new AirplaneTerminal(2);
+        for (int i = 0; i < 3; i++) {
+            terminal1.addGate(new Gate(10 + i));
+            terminal2.addGate(new Gate(20 + i));
+        }
+        tower.addTerminal(terminal1);
+        tower.addTerminal(terminal2);
+    }
+
+    private static PassengerAircraft aircraft(String callsign) {
+        return new PassengerAircraft(callsign, AircraftCharacteristics.AIRBUS_A320, null, 0, 0);
+    }
+
+    // Tests the gate of a parked aircraft is found, and none for an aircraft never parked or
+    // parked at a gate outside the tower
+    @Test
+    public void findGateTest() throws NoSpaceException {
+        PassengerAircraft parked = aircraft("TWR001");
+        PassengerAircraft unparked = aircraft("TWR002");
+        PassengerAircraft elsewhere = aircraft("TWR003");
+        terminal2.getGate(1).parkAircraft(parked);
+        new Gate(99).parkAircraft(elsewhere);
+        assertEquals(terminal2.getGate(1), tower.findGateOfAircraft(parked));
+        assertNull(tower.findGateOfAircraft(unparked));
+        assertNull(tower.findGateOfAircraft(elsewhere));
+        terminal2.getGate(1).aircraftLeaves();
+        assertNull(tower.findGateOfAircraft(parked));
+    }
+
+    // Tests aircraft sharing a callsign are each found at their own gate, including after one
+    // of them leaves the terminal the tower last saw the callsign parking at
+    @Test
+    public void sharedCallsignTest() throws NoSpaceException {
+        PassengerAircraft first = aircraft("TWR004");
+        PassengerAircraft second = aircraft("TWR004");
+        PassengerAircraft third = aircraft("TWR004");
+        terminal1.getGate(0).parkAircraft(first);
+        terminal2.getGate(2).parkAircraft(second);
+        assertEquals(terminal1.getGate(0), tower.findGateOfAircraft(first));
+        assertEquals(terminal2.getGate(2), tower.findGateOfAircraft(second));
+        assertNull(tower.findGateOfAircraft(third));
+
+        terminal2.getGate(2).aircraftLeaves();
+        assertEquals(terminal1.getGate(0), tower.findGateOfAircraft(first));
+        assertNull(tower.findGateOfAircraft(second));
+        terminal1.getGate(0).aircraftLeaves();
+        assertNull(tower.findGateOfAircraft(first));
+    }
+
+    // Tests aircraft parked before their terminal was added to the tower are found
+    @Test
+    public void parkedBeforeAddTest() throws NoSpaceException {
+        Terminal terminal3 = new AirplaneTerminal(3);
+        terminal3.addGate(new Gate(30));
+        terminal3.addGate(new Gate(31));
+        PassengerAircraft aircraft = aircraft("TWR005");
+        terminal3.getGate(1).parkAircraft(aircraft);
+        tower.addTerminal(terminal3);
+        assertEquals(terminal3.getGate(1), tower.findGateOfAircraft(aircraft));
+        terminal3.getGate(1).aircraftLeaves();
+        assertNull(tower.findGateOfAircraft(aircraft));
+    }
+}
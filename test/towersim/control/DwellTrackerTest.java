@@ -0,0 +1,85 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DwellTrackerTest {
+    private ControlTower tower;
+    private Gate gate;
+    private DwellTracker tracker;
+    private PassengerAircraft aircraft;
+
+    @Before
+    public void setup() throws NoSpaceException {
+        tower = new ControlTower();
+        Terminal terminal = new AirplaneTerminal(4);
+        gate = new Gate(1);
+        terminal.addGate(gate);
+        tower.addTerminal(terminal);
+        tower.setLifecycleEngine(new LifecycleEngine(tower, 3));
+        tracker = new DwellTracker();
+        tower.setDwellTracker(tracker);
+
+        // create task list [LAND, LOAD, TAKEOFF, AWAY]
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.LOAD, 10));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        aircraft = new PassengerAircraft("DWL001", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(tasks), 1000, 0);
+    }
+
+    // Tests the ticks recorded for each task and for the aircraft's time at the gate
+    @Test
+    public void fullCycleTest() throws NoSuitableGateException {
+        tower.addAircraft(aircraft);
+        assertEquals(0, tracker.getTaskEnteredTick(aircraft));
+        tower.tick(); // lands and parks
+        assertEquals(1, tracker.getParkedTick(aircraft));
+        assertEquals(gate, tracker.getGate(aircraft));
+        tower.tick(); // loading finished, gate released
+        tower.tick(); // takes off
+        assertEquals(3, tracker.getTaskEnteredTick(aircraft));
+        assertEquals(-1, tracker.getParkedTick(aircraft));
+        assertEquals(1, tracker.getTaskDwell(TaskType.LAND).getCount());
+        assertEquals(1, tracker.getTaskDwell(TaskType.LOAD).getMax());
+        int model = AircraftCharacteristics.AIRBUS_A320.getModelId();
+        assertEquals(1, tracker.getTaskDwell(model, TaskType.TAKEOFF).getCount());
+        assertEquals(0, tracker.getTaskDwell(model, TaskType.AWAY).getCount());
+        assertEquals(1, tracker.getTurnaroundByTerminal(4).getCount());
+        assertEquals(1, tracker.getTurnaroundByModel(model).getMax());
+        assertEquals(0, tracker.getTurnaroundByTerminal(5).getCount());
+    }
+
+    // Tests that merging adds every recorded dwell time
+    @Test
+    public void mergeTest() throws NoSuitableGateException {
+        tower.addAircraft(aircraft);
+        for (int i = 0; i < 3; i++) {
+            tower.tick();
+        }
+        DwellTracker total = new DwellTracker();
+        total.merge(tracker);
+        total.merge(tracker);
+        assertEquals(2, total.getTurnaround().getCount());
+        assertEquals(2, total.getTurnaroundByTerminal(4).getCount());
+        assertEquals(2, total.getTaskDwell(AircraftCharacteristics.AIRBUS_A320.getModelId(),
+                TaskType.LAND).getCount());
+    }
+}
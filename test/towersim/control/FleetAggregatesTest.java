@@ -0,0 +1,132 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FleetAggregatesTest {
+    private ControlTower tower;
+    private FleetAggregates aggregates;
+    private PassengerAircraft passenger;
+    private FreightAircraft freighter;
+
+    @Before
+    public void setup() throws NoSpaceException {
+        tower = new ControlTower();
+        Terminal terminal = new AirplaneTerminal(1);
+        terminal.addGate(new Gate(1));
+        terminal.addGate(new Gate(2));
+        tower.addTerminal(terminal);
+        aggregates = tower.getAggregates();
+        passenger = new PassengerAircraft("AGG001", AircraftCharacteristics.AIRBUS_A320,
+                taskList(), 5000, 0);
+        freighter = new FreightAircraft("AGG002", AircraftCharacteristics.BOEING_747_8F,
+                taskList(), 20000, 1000);
+    }
+
+    // create task list [LOAD, TAKEOFF, AWAY, LAND]
+    private static TaskList taskList() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.LOAD, 60));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        return new TaskList(tasks);
+    }
+
+    // Tests totals of newly added aircraft are counted under their current task type
+    @Test
+    public void addTest() throws NoSuitableGateException {
+        tower.addAircraft(passenger);
+        tower.addAircraft(freighter);
+        assertEquals(2, aggregates.getAircraftCount(TaskType.LOAD));
+        assertEquals(passenger.getTotalWeight() + freighter.getTotalWeight(),
+                aggregates.getTotalWeight(TaskType.LOAD), 1e-6);
+        assertEquals(25000, aggregates.getTotalFuel(), 1e-6);
+        assertEquals(1000, aggregates.getTotalFreight(TaskType.LOAD), 1e-6);
+        aggregates.verify(tower.getAircraft());
+    }
+
+    // Tests totals follow loading, task changes and emergencies as the tower ticks
+    @Test
+    public void incrementalTest() throws NoSuitableGateException {
+        tower.addAircraft(passenger);
+        tower.addAircraft(freighter);
+        tower.tick(); // both load passengers or freight and refuel
+        assertTrue(aggregates.getTotalPassengers(TaskType.LOAD) > 0);
+        aggregates.verify(tower.getAircraft());
+
+        passenger.getTaskList().moveToNextTask(); // TAKEOFF
+        assertEquals(1, aggregates.getAircraftCount(TaskType.TAKEOFF));
+        assertEquals(passenger.getNumPassengers(),
+                aggregates.getTotalPassengers(TaskType.TAKEOFF));
+        aggregates.verify(tower.getAircraft());
+
+        passenger.getTaskList().moveToNextTask(); // AWAY
+        passenger.declareEmergency();
+        tower.tick(); // burns fuel while away
+        aggregates.verify(tower.getAircraft());
+        assertEquals(passenger.getFuelAmount(), aggregates.getTotalFuel(TaskType.AWAY), 1e-6);
+        passenger.clearEmergency();
+        aggregates.verify(tower.getAircraft());
+        assertEquals(passenger.getTotalWeight() + freighter.getTotalWeight(),
+                aggregates.getTotalWeight(), 1e-6);
+    }
+
+    // Tests verification detects totals left stale by a change the aggregates were not told of
+    @Test(expected = IllegalStateException.class)
+    public void staleTotalsTest() {
+        FleetAggregates standalone = new FleetAggregates();
+        standalone.add(passenger);
+        passenger.tick(); // loads without the aggregates being updated
+        List<Aircraft> all = new ArrayList<>();
+        all.add(passenger);
+        standalone.verify(all);
+    }
+
+    // Tests totals stay exact through many updates of large and fractional amounts, so they
+    // are exactly zero once every aircraft has moved on and verification never drifts
+    @Test
+    public void noDriftTest() {
+        FleetAggregates standalone = new FleetAggregates();
+        List<Aircraft> all = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            FreightAircraft aircraft = new FreightAircraft("AGG1" + i,
+                    AircraftCharacteristics.BOEING_747_8F, taskList(), 226117 - i * 0.37, 0);
+            standalone.add(aircraft);
+            all.add(aircraft);
+        }
+        for (int round = 0; round < 2000; round++) {
+            for (Aircraft aircraft : all) {
+                aircraft.tick(); // loads freight and refuels in fractional steps
+                standalone.update(aircraft);
+            }
+        }
+        standalone.verify(all);
+        for (Aircraft aircraft : all) {
+            aircraft.getTaskList().moveToNextTask(); // TAKEOFF
+            standalone.update(aircraft);
+        }
+        standalone.verify(all);
+        assertEquals(0, standalone.getAircraftCount(TaskType.LOAD));
+        assertEquals(0.0, standalone.getTotalWeight(TaskType.LOAD), 0);
+        assertEquals(0.0, standalone.getTotalFuel(TaskType.LOAD), 0);
+        assertEquals(0.0, standalone.getTotalFreight(TaskType.LOAD), 0);
+    }
+}
@@ -0,0 +1,126 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FuelIndexTest {
+    /** Fuel burnt by an A320 on every tick away */
+    private static final double BURN = 2720;
+
+    private ControlTower tower;
+    private List<String> alerts;
+
+    @Before
+    public void setup() {
+        tower = new ControlTower();
+        alerts = new ArrayList<>();
+        tower.getFuelIndex().addListener((aircraft, ticksRemaining) -> alerts.add(
+                tower.getTicksElapsed() + ":" + aircraft.getCallsign() + ":" + ticksRemaining));
+    }
+
+    // create task list [AWAY, LAND, LOAD, TAKEOFF]
+    private static TaskList taskList() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.LOAD, 0));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        return new TaskList(tasks);
+    }
+
+    private Aircraft addAway(String callsign, double fuel) throws NoSuitableGateException {
+        Aircraft aircraft = new PassengerAircraft(callsign, AircraftCharacteristics.AIRBUS_A320,
+                taskList(), fuel, 0);
+        tower.addAircraft(aircraft);
+        return aircraft;
+    }
+
+    // Tests listeners are alerted once, on the tick the aircraft drops below the threshold
+    @Test
+    public void alertOnceTest() throws NoSuitableGateException {
+        Aircraft aircraft = addAway("FUE001", 10 * BURN);
+        assertEquals(10, tower.getFuelIndex().getTicksRemaining(aircraft, 0));
+        for (int i = 0; i < 7; i++) {
+            tower.tick();
+        }
+        assertEquals(List.of(), alerts);
+        tower.tick();
+        assertEquals(List.of("8:FUE001:2"), alerts);
+        for (int i = 0; i < 5; i++) {
+            tower.tick();
+        }
+        assertEquals(0, aircraft.getFuelAmount(), 0);
+        assertEquals(List.of("8:FUE001:2"), alerts);
+    }
+
+    // Tests aircraft already below the threshold are alerted by the next check, or straight
+    // away once alerts have been checked
+    @Test
+    public void lowOnAddTest() throws NoSuitableGateException {
+        addAway("FUE001", 2 * BURN);
+        assertEquals(List.of(), alerts);
+        tower.tick();
+        assertEquals(List.of("1:FUE001:1"), alerts);
+        addAway("FUE002", BURN);
+        assertEquals(List.of("1:FUE001:1", "1:FUE002:1"), alerts);
+        tower.tick();
+        tower.tick();
+        assertEquals(2, alerts.size());
+    }
+
+    // Tests landing removes aircraft from the index, and refuelled aircraft are indexed again
+    // from their new fuel when they next go away
+    @Test
+    public void landAndRefuelTest() throws NoSuitableGateException {
+        Aircraft aircraft = addAway("FUE001", 5 * BURN);
+        tower.tick();
+        aircraft.getTaskList().moveToNextTask(); // LAND
+        assertEquals(0, tower.getFuelIndex().size());
+        assertEquals(-1, tower.getFuelIndex().getTicksRemaining(aircraft, 1));
+        assertEquals(List.of(), tower.getAircraftLowOnFuel(100));
+
+        aircraft.getTaskList().moveToNextTask(); // LOAD
+        tower.tick();
+        tower.tick();
+        assertEquals(0, tower.getFuelIndex().size());
+        aircraft.getTaskList().moveToNextTask(); // TAKEOFF
+        aircraft.getTaskList().moveToNextTask(); // AWAY
+        assertEquals(10, tower.getFuelIndex().getTicksRemaining(aircraft, 3));
+        for (int i = 0; i < 10; i++) {
+            tower.tick();
+        }
+        assertEquals(List.of("11:FUE001:2"), alerts);
+    }
+
+    // Tests aircraft are ordered by when they run out, then by the order they went away
+    @Test
+    public void orderingTest() throws NoSuitableGateException {
+        Aircraft full = addAway("FUE001", 10 * BURN);
+        Aircraft low = addAway("FUE002", 4 * BURN);
+        Aircraft half = addAway("FUE003", 5 * BURN);
+        Aircraft alsoLow = addAway("FUE004", 4 * BURN);
+        assertEquals(List.of(low, alsoLow, half, full), tower.getAircraftLowOnFuel(11));
+        assertEquals(List.of(low, alsoLow), tower.getAircraftLowOnFuel(5));
+        assertEquals(List.of(), tower.getAircraftLowOnFuel(4));
+
+        tower.tick();
+        tower.tick();
+        assertEquals(List.of("2:FUE002:2", "2:FUE004:2"), alerts);
+        low.getTaskList().moveToNextTask(); // LAND
+        assertEquals(List.of(alsoLow, half), tower.getAircraftLowOnFuel(4));
+        tower.tick();
+        assertEquals(List.of("2:FUE002:2", "2:FUE004:2", "3:FUE003:2"), alerts);
+    }
+}
@@ -0,0 +1,194 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.AircraftType;
+import towersim.aircraft.PassengerAircraft;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.GateCapability;
+import towersim.ground.HelicopterTerminal;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GateAssignmentStrategyTest {
+    private Terminal first;
+    private Terminal second;
+    private Terminal third;
+    private Terminal helicopters;
+    private int parked;
+
+    @Before
+    public void setup() throws NoSpaceException {
+        first = new AirplaneTerminal(1);
+        first.addGate(new Gate(11, GateCapability.of(GateCapability.SMALL, false, false)));
+        first.addGate(new Gate(12));
+        second = new AirplaneTerminal(2);
+        second.addGate(new Gate(21));
+        second.addGate(new Gate(22));
+        third = new AirplaneTerminal(3);
+        for (int i = 1; i <= 4; i++) {
+            third.addGate(new Gate(30 + i));
+        }
+        helicopters = new HelicopterTerminal(4);
+        helicopters.addGate(new Gate(41));
+        parked = 0;
+    }
+
+    // create task list [WAIT, TAKEOFF, AWAY, LAND]
+    private static TaskList taskList() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.WAIT));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        return new TaskList(tasks);
+    }
+
+    private static GateAssignmentStrategy withTerminals(GateAssignmentStrategy strategy,
+                                                        Terminal... terminals) {
+        for (Terminal terminal : terminals) {
+            strategy.addTerminal(terminal);
+        }
+        return strategy;
+    }
+
+    /** Parks a new airplane at the gate the strategy chooses and returns its gate number */
+    private int park(GateAssignmentStrategy strategy) throws NoSuitableGateException,
+            NoSpaceException {
+        PassengerAircraft aircraft = new PassengerAircraft("GAS" + parked++,
+                AircraftCharacteristics.AIRBUS_A320, taskList(), 1000, 0);
+        Gate gate = strategy.findGate(aircraft);
+        gate.parkAircraft(aircraft);
+        return gate.getGateNumber();
+    }
+
+    // Tests first fit fills each terminal in order, skipping gates without the capabilities
+    // required
+    @Test
+    public void firstFitTest() throws NoSuitableGateException, NoSpaceException {
+        GateAssignmentStrategy strategy = withTerminals(new FirstFitStrategy(), helicopters,
+                first, second, third);
+        assertEquals(12, park(strategy));
+        assertEquals(21, park(strategy));
+        assertEquals(22, park(strategy));
+        assertEquals(31, park(strategy));
+        first.getGate(1).aircraftLeaves();
+        assertEquals(12, park(strategy));
+    }
+
+    // Tests round robin moves on to the next terminal with room, wrapping around
+    @Test
+    public void roundRobinTest() throws NoSuitableGateException, NoSpaceException {
+        GateAssignmentStrategy strategy = withTerminals(new RoundRobinStrategy(), first,
+                second, third);
+        assertEquals(12, park(strategy));
+        assertEquals(21, park(strategy));
+        assertEquals(31, park(strategy));
+        // the first terminal only has a small gate left
+        assertEquals(22, park(strategy));
+        assertEquals(32, park(strategy));
+        assertEquals(33, park(strategy));
+        first.getGate(1).aircraftLeaves();
+        assertEquals(12, park(strategy));
+        assertEquals(34, park(strategy));
+    }
+
+    // Tests least occupied picks the terminal with the smallest proportion of occupied gates,
+    // the earliest added on a tie
+    @Test
+    public void leastOccupiedTest() throws NoSuitableGateException, NoSpaceException {
+        GateAssignmentStrategy strategy = withTerminals(new LeastOccupiedStrategy(), first,
+                second, third);
+        assertEquals(12, park(strategy));
+        assertEquals(21, park(strategy));
+        assertEquals(31, park(strategy));
+        assertEquals(32, park(strategy));
+        // the first terminal is least occupied on a tie, but only has a small gate left
+        assertEquals(22, park(strategy));
+        second.getGate(0).aircraftLeaves();
+        assertEquals(21, park(strategy));
+        assertEquals(33, park(strategy));
+        assertEquals(34, park(strategy));
+    }
+
+    // Tests every strategy refuses aircraft no compatible terminal has room for
+    @Test
+    public void noSuitableGateTest() throws NoSpaceException {
+        for (GateAssignmentStrategy strategy : List.of(new FirstFitStrategy(),
+                new RoundRobinStrategy(), new LeastOccupiedStrategy())) {
+            withTerminals(strategy, first, helicopters);
+            try {
+                park(strategy);
+                park(strategy);
+                fail();
+            } catch (NoSuitableGateException expected) {
+                // the first terminal's only other gate is too small
+            }
+            first.getGate(1).aircraftLeaves();
+            strategy.detach();
+        }
+    }
+
+    // Tests the index of terminals with room is updated as gates are occupied and vacated
+    @Test
+    public void freeTerminalIndexTest() throws NoSpaceException, NoSuitableGateException {
+        FreeTerminalIndex index = new FreeTerminalIndex();
+        index.add(first);
+        index.add(helicopters);
+        index.add(second);
+        assertEquals(0, index.nextWithFreeGate(AircraftType.AIRPLANE, 0));
+        assertEquals(1, index.nextWithFreeGate(AircraftType.AIRPLANE, 1));
+        assertEquals(second, index.get(AircraftType.AIRPLANE, 1));
+        assertEquals(0, index.nextWithFreeGate(AircraftType.HELICOPTER, 0));
+
+        first.getGate(0).parkAircraft(new PassengerAircraft("GAS100",
+                AircraftCharacteristics.ROBINSON_R44, taskList(), 100, 0));
+        assertEquals(0, index.nextWithFreeGate(AircraftType.AIRPLANE, 0));
+        first.getGate(1).parkAircraft(new PassengerAircraft("GAS101",
+                AircraftCharacteristics.AIRBUS_A320, taskList(), 100, 0));
+        assertEquals(1, index.nextWithFreeGate(AircraftType.AIRPLANE, 0));
+        first.getGate(0).aircraftLeaves();
+        assertEquals(0, index.nextWithFreeGate(AircraftType.AIRPLANE, 0));
+
+        index.clear();
+        assertEquals(-1, index.nextWithFreeGate(AircraftType.AIRPLANE, 0));
+        first.getGate(1).aircraftLeaves();
+        assertEquals(-1, index.nextWithFreeGate(AircraftType.AIRPLANE, 0));
+    }
+
+    // Tests a replaced strategy is detached from the tower's terminals
+    @Test
+    public void replaceStrategyTest() throws NoSpaceException, NoSuitableGateException {
+        ControlTower tower = new ControlTower();
+        tower.addTerminal(first);
+        tower.addTerminal(second);
+        LeastOccupiedStrategy leastOccupied = new LeastOccupiedStrategy();
+        tower.setGateAssignmentStrategy(leastOccupied);
+        tower.setGateAssignmentStrategy(new RoundRobinStrategy());
+        // parking must not reach the listener of the replaced strategy
+        PassengerAircraft aircraft = new PassengerAircraft("GAS199",
+                AircraftCharacteristics.AIRBUS_A320, taskList(), 1000, 0);
+        Gate gate = tower.findUnoccupiedGate(aircraft);
+        gate.parkAircraft(aircraft);
+        assertEquals(12, gate.getGateNumber());
+        gate.aircraftLeaves();
+        try {
+            leastOccupied.findGate(new PassengerAircraft("GAS200",
+                    AircraftCharacteristics.AIRBUS_A320, taskList(), 1000, 0));
+            fail();
+        } catch (NoSuitableGateException expected) {
+            // detached strategies consider no terminals
+        }
+    }
+}
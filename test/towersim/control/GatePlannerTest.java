@@ -0,0 +1,201 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.GateCapability;
+import towersim.ground.Reservation;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GatePlannerTest {
+    private ControlTower tower;
+    private Gate gate1;
+    private Gate gate2;
+    private GatePlanner planner;
+
+    @Before
+    public void setup() throws NoSpaceException {
+        tower = new ControlTower();
+        Terminal terminal = new AirplaneTerminal(1);
+        gate1 = new Gate(1);
+        gate2 = new Gate(2);
+        terminal.addGate(gate1);
+        terminal.addGate(gate2);
+        tower.addTerminal(terminal);
+        planner = new GatePlanner(tower);
+        tower.setGatePlanner(planner);
+    }
+
+    private static PassengerAircraft aircraft(String callsign, TaskType... types) {
+        List<Task> tasks = new ArrayList<>();
+        for (TaskType type : types) {
+            tasks.add(type == TaskType.LOAD ? new Task(type, 10) : new Task(type));
+        }
+        return new PassengerAircraft(callsign, AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(tasks), 1000, 0);
+    }
+
+    private static Aircraft regional(String callsign) {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.LOAD, 50));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        return new PassengerAircraft(callsign, AircraftCharacteristics.FOKKER_100,
+                new TaskList(tasks), 1000, 0);
+    }
+
+    // Tests the turnaround counts each ground task once when every task is on the ground
+    @Test
+    public void groundOnlyTurnaroundTest() {
+        PassengerAircraft aircraft = aircraft("PLN001", TaskType.WAIT, TaskType.LOAD);
+        assertEquals(GatePlanner.WAIT_TICKS + aircraft.getLoadingTime(10),
+                GatePlanner.predictTurnaround(aircraft));
+    }
+
+    // Tests the turnaround of a landing aircraft starts from the task after landing
+    @Test
+    public void landingTurnaroundTest() {
+        PassengerAircraft aircraft = aircraft("PLN002", TaskType.LAND, TaskType.WAIT,
+                TaskType.LOAD, TaskType.TAKEOFF, TaskType.AWAY);
+        assertEquals(GatePlanner.WAIT_TICKS + aircraft.getLoadingTime(10),
+                GatePlanner.predictTurnaround(aircraft));
+    }
+
+    // Tests bookings are extended while aircraft overstay and released when they leave, so a
+    // gate still occupied is never handed out
+    @Test
+    public void overstayAndLeaveTest() throws NoSuitableGateException {
+        PassengerAircraft staying = aircraft("PLN003", TaskType.WAIT, TaskType.TAKEOFF,
+                TaskType.AWAY, TaskType.LAND);
+        PassengerAircraft leaving = aircraft("PLN004", TaskType.WAIT, TaskType.TAKEOFF,
+                TaskType.AWAY, TaskType.LAND);
+        tower.addAircraft(staying);
+        tower.addAircraft(leaving);
+        assertEquals(gate1, planner.getBooking(staying).getGate());
+        assertEquals(gate2, planner.getBooking(leaving).getGate());
+        tower.tick();
+        tower.tick(); // both overstay their predicted turnaround of one tick
+        assertTrue(planner.getBooking(staying).covers(tower.getTicksElapsed()));
+        gate2.aircraftLeaves();
+        assertNull(planner.getBooking(leaving));
+
+        PassengerAircraft arriving = aircraft("PLN005", TaskType.WAIT, TaskType.TAKEOFF,
+                TaskType.AWAY, TaskType.LAND);
+        tower.addAircraft(arriving);
+        assertEquals(arriving, gate2.getAircraftAtGate());
+        assertEquals(staying, gate1.getAircraftAtGate());
+    }
+
+    // Tests an aircraft is booked a gate again each time it starts landing
+    @Test
+    public void relandingTest() throws NoSuitableGateException {
+        PassengerAircraft aircraft = aircraft("PLN006", TaskType.WAIT, TaskType.TAKEOFF,
+                TaskType.AWAY, TaskType.LAND);
+        tower.addAircraft(aircraft);
+        tower.tick();
+        gate1.aircraftLeaves();
+        aircraft.getTaskList().moveToNextTask(); // TAKEOFF
+        aircraft.getTaskList().moveToNextTask(); // AWAY
+        tower.tick();
+        assertNull(planner.getBooking(aircraft));
+        aircraft.getTaskList().moveToNextTask(); // LAND
+        Reservation booking = planner.getBooking(aircraft);
+        assertNotNull(booking);
+        assertEquals(tower.getTicksElapsed() + 1, booking.getStartTick());
+    }
+
+    // Tests an aircraft parked somewhere other than its booked gate holds that gate instead
+    @Test
+    public void unplannedParkingTest() throws NoSuitableGateException, NoSpaceException {
+        PassengerAircraft landing = aircraft("PLN007", TaskType.LAND, TaskType.LOAD,
+                TaskType.TAKEOFF, TaskType.AWAY);
+        tower.addAircraft(landing);
+        assertEquals(gate1, planner.getBooking(landing).getGate());
+        gate2.parkAircraft(landing);
+        assertEquals(gate2, planner.getBooking(landing).getGate());
+        assertTrue(gate1.getTimeline().getReservations().isEmpty());
+    }
+
+    // Tests each aircraft is booked the earliest free gate meeting its own requirements, and
+    // that a gate booked for one kind of aircraft is moved later for every other kind
+    @Test
+    public void requirementsTest() throws NoSuitableGateException, NoSpaceException {
+        ControlTower mixed = new ControlTower();
+        Terminal terminal = new AirplaneTerminal(2);
+        Gate regional = new Gate(3, GateCapability.of(GateCapability.MEDIUM, false, false));
+        Gate bridged = new Gate(4, GateCapability.of(GateCapability.LARGE, false, true));
+        terminal.addGate(regional);
+        terminal.addGate(bridged);
+        mixed.addTerminal(terminal);
+        GatePlanner mixedPlanner = new GatePlanner(mixed);
+
+        Aircraft jet1 = aircraft("PLN008", TaskType.LAND, TaskType.LOAD, TaskType.TAKEOFF);
+        Aircraft jet2 = aircraft("PLN009", TaskType.LAND, TaskType.LOAD, TaskType.TAKEOFF);
+        Aircraft regional1 = regional("PLN010");
+        Aircraft regional2 = regional("PLN011");
+        Aircraft regional3 = regional("PLN012");
+
+        Reservation first = mixedPlanner.book(jet1, 0);
+        assertEquals(bridged, first.getGate());
+        // the regional gate is free now, and the bridged gate only once the jet has left
+        assertEquals(regional, mixedPlanner.book(regional1, 0).getGate());
+        Reservation second = mixedPlanner.book(jet2, 0);
+        assertEquals(bridged, second.getGate());
+        assertEquals(first.getEndTick(), second.getStartTick());
+
+        Reservation third = mixedPlanner.book(regional2, 0);
+        assertEquals(regional, third.getGate());
+        assertEquals(mixedPlanner.getBooking(regional1).getEndTick(), third.getStartTick());
+        mixedPlanner.cancel(jet2);
+        mixedPlanner.cancel(jet1);
+        // the bridged gate has nothing booked now, so is also the earliest for regional aircraft
+        Reservation fourth = mixedPlanner.book(regional3, 0);
+        assertEquals(bridged, fourth.getGate());
+        assertEquals(0, fourth.getStartTick());
+    }
+
+    // Tests a replaced planner stops following the gates and gives up its bookings
+    @Test
+    public void replacedPlannerTest() throws NoSuitableGateException, NoSpaceException {
+        Aircraft inbound = regional("PLN030");
+        tower.addAircraft(inbound);
+        assertNotNull(planner.getBooking(inbound));
+        tower.setGatePlanner(null);
+        assertNull(planner.getBooking(inbound));
+        assertTrue(gate1.getTimeline().getReservations().isEmpty());
+        assertTrue(gate2.getTimeline().getReservations().isEmpty());
+        gate1.parkAircraft(aircraft("PLN031", TaskType.WAIT, TaskType.TAKEOFF));
+        assertTrue(gate1.getTimeline().getReservations().isEmpty());
+    }
+
+    // Tests cancelled bookings are skipped when they would have expired, while the aircraft
+    // still landing is booked again
+    @Test
+    public void cancelledExpiryTest() throws NoSuitableGateException {
+        Aircraft first = regional("PLN032");
+        Aircraft second = regional("PLN033");
+        Reservation cancelled = planner.book(first, 0);
+        planner.cancel(first);
+        Reservation kept = planner.book(second, 0);
+        assertEquals(cancelled.getGate(), kept.getGate());
+        for (long tick = 0; tick < cancelled.getEndTick(); tick++) {
+            tower.tick();
+        }
+        assertNull(planner.getBooking(first));
+        assertNotNull(planner.getBooking(second));
+    }
+}
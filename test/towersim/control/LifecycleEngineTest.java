@@ -0,0 +1,135 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LifecycleEngineTest {
+    private ControlTower tower;
+    private Gate gate;
+    private LifecycleEngine engine;
+    private PassengerAircraft arriving;
+    private PassengerAircraft departing;
+
+    @Before
+    public void setup() throws NoSpaceException {
+        tower = new ControlTower();
+        tower.setAggregateVerification(true);
+        Terminal terminal = new AirplaneTerminal(1);
+        gate = new Gate(1);
+        terminal.addGate(gate);
+        tower.addTerminal(terminal);
+        engine = new LifecycleEngine(tower, 3);
+        tower.setLifecycleEngine(engine);
+
+        // create task list [LAND, LOAD, TAKEOFF, AWAY]
+        List<Task> arrivingTasks = new ArrayList<>();
+        arrivingTasks.add(new Task(TaskType.LAND));
+        arrivingTasks.add(new Task(TaskType.LOAD, 10));
+        arrivingTasks.add(new Task(TaskType.TAKEOFF));
+        arrivingTasks.add(new Task(TaskType.AWAY));
+        arriving = new PassengerAircraft("ARR001", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(arrivingTasks), 1000, 0);
+
+        // create task list [WAIT, TAKEOFF, AWAY, LAND]
+        List<Task> departingTasks = new ArrayList<>();
+        departingTasks.add(new Task(TaskType.WAIT));
+        departingTasks.add(new Task(TaskType.TAKEOFF));
+        departingTasks.add(new Task(TaskType.AWAY));
+        departingTasks.add(new Task(TaskType.LAND));
+        departing = new PassengerAircraft("DEP001", AircraftCharacteristics.FOKKER_100,
+                new TaskList(departingTasks), 1000, 0);
+    }
+
+    // Tests that a landing aircraft is parked, loaded, released and sent away
+    @Test
+    public void fullCycleTest() throws NoSuitableGateException {
+        tower.addAircraft(arriving);
+        tower.tick(); // lands and parks
+        assertEquals(TaskType.LOAD, arriving.getTaskList().getCurrentTask().getType());
+        assertEquals(arriving, gate.getAircraftAtGate());
+        assertEquals(1, engine.getRemainingTicks(arriving));
+        tower.tick(); // loading finished
+        assertEquals(TaskType.TAKEOFF, arriving.getTaskList().getCurrentTask().getType());
+        assertFalse("Gate should be released on leaving the ground", gate.isOccupied());
+        tower.tick(); // takes off
+        assertEquals(TaskType.AWAY, arriving.getTaskList().getCurrentTask().getType());
+        assertEquals(3, engine.getRemainingTicks(arriving));
+        assertEquals(1, tower.getAircraft(TaskType.AWAY).size());
+    }
+
+    // Tests that a gate released on a tick can be assigned to an aircraft landing on that tick
+    @Test
+    public void releaseBeforeAssignTest() throws NoSuitableGateException {
+        tower.addAircraft(departing);
+        tower.addAircraft(arriving);
+        assertEquals(departing, gate.getAircraftAtGate());
+        tower.tick();
+        assertEquals(arriving, gate.getAircraftAtGate());
+        assertEquals(TaskType.TAKEOFF, departing.getTaskList().getCurrentTask().getType());
+        assertEquals(0, engine.getLandingHolds());
+    }
+
+    // Tests that a landing aircraft keeps holding while no gate is free
+    @Test
+    public void landingHoldTest() throws NoSuitableGateException, NoSpaceException {
+        gate.parkAircraft(departing);
+        tower.addAircraft(arriving);
+        tower.tick();
+        tower.tick();
+        assertEquals(TaskType.LAND, arriving.getTaskList().getCurrentTask().getType());
+        assertEquals(2, engine.getLandingHolds());
+        gate.aircraftLeaves();
+        tower.tick();
+        assertEquals(TaskType.LOAD, arriving.getTaskList().getCurrentTask().getType());
+    }
+
+    // Tests an aircraft whose task is changed by hand to one due on the same tick it was
+    // already due is moved only once on that tick
+    @Test
+    public void sameTickRescheduleTest() throws NoSuitableGateException {
+        tower.addAircraft(departing); // parked, due to finish waiting on tick 1
+        gate.aircraftLeaves();
+        departing.getTaskList().moveToNextTask(); // takes off on tick 1 instead
+        tower.tick();
+        assertEquals(TaskType.AWAY, departing.getTaskList().getCurrentTask().getType());
+    }
+
+    // Tests a landing aircraft does not take a free gate booked for another aircraft
+    @Test
+    public void bookedGateTest() throws NoSuitableGateException {
+        GatePlanner planner = new GatePlanner(tower);
+        tower.setGatePlanner(planner);
+        tower.addAircraft(arriving); // booked the only gate from tick 1
+        engine.setRemainingTicks(arriving, 3); // but is held until tick 3
+
+        // create task list [LAND, WAIT, TAKEOFF, AWAY]
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.WAIT));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        PassengerAircraft early = new PassengerAircraft("ARR002",
+                AircraftCharacteristics.FOKKER_100, new TaskList(tasks), 1000, 0);
+        tower.addAircraft(early); // booked the gate after the first aircraft
+        tower.tick();
+        assertFalse(gate.isOccupied());
+        assertEquals(TaskType.LAND, early.getTaskList().getCurrentTask().getType());
+        assertEquals(1, engine.getLandingHolds());
+        assertEquals(gate, planner.getBooking(arriving).getGate());
+    }
+}
@@ -0,0 +1,170 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.aircraft.WakeCategory;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SlotCalendarTest {
+    private SlotCalendar calendar;
+    private Runway runway;
+    private Aircraft light;
+    private Aircraft medium;
+    private Aircraft heavy;
+
+    @Before
+    public void setup() {
+        calendar = new SlotCalendar(SeparationMinima.DEFAULT);
+        runway = new Runway("09L", true, true);
+        calendar.addRunway(runway);
+        light = new PassengerAircraft("SLT001", AircraftCharacteristics.ROBINSON_R44,
+                taskList(), 100, 0);
+        medium = new PassengerAircraft("SLT002", AircraftCharacteristics.AIRBUS_A320,
+                taskList(), 1000, 0);
+        heavy = new FreightAircraft("SLT003", AircraftCharacteristics.BOEING_747_8F,
+                taskList(), 1000, 0);
+    }
+
+    // create task list [AWAY, LAND, WAIT, TAKEOFF]
+    private static TaskList taskList() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.WAIT));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        return new TaskList(tasks);
+    }
+
+    // Tests a follower is kept the separation for its and its leader's wake categories behind
+    @Test
+    public void separationTest() throws NoSpaceException {
+        assertEquals(WakeCategory.LIGHT, WakeCategory.ofModel(light.getModelId()));
+        assertEquals(WakeCategory.MEDIUM, WakeCategory.ofModel(medium.getModelId()));
+        assertEquals(WakeCategory.HEAVY, WakeCategory.ofModel(heavy.getModelId()));
+        Aircraft[] aircraft = {light, medium, heavy};
+        for (Aircraft leader : aircraft) {
+            for (Aircraft follower : aircraft) {
+                SlotCalendar pair = new SlotCalendar(SeparationMinima.DEFAULT);
+                pair.addRunway(new Runway("27", true, false));
+                assertEquals(0, pair.allocate(leader, TaskType.LAND, 0).getTime());
+                int expected = SeparationMinima.DEFAULT.between(
+                        WakeCategory.ofModel(leader.getModelId()),
+                        WakeCategory.ofModel(follower.getModelId()));
+                assertEquals(expected, pair.allocate(follower, TaskType.LAND, 0).getTime());
+            }
+        }
+        assertEquals(144, SeparationMinima.DEFAULT.between(WakeCategory.HEAVY,
+                WakeCategory.LIGHT));
+        assertEquals(72, SeparationMinima.DEFAULT.between(WakeCategory.LIGHT,
+                WakeCategory.HEAVY));
+    }
+
+    // Tests slots are fitted into gaps between earlier slots only where both separations hold
+    @Test
+    public void gapTest() throws NoSpaceException {
+        assertEquals(0, calendar.allocate(medium, TaskType.LAND, 0).getTime());
+        assertEquals(500, calendar.allocate(medium, TaskType.LAND, 500).getTime());
+        assertEquals(72, calendar.allocate(medium, TaskType.LAND, 0).getTime());
+        assertEquals(144, calendar.allocate(medium, TaskType.LAND, 0).getTime());
+        // a heavy needs 120s before the medium at 500
+        assertEquals(300, calendar.allocate(heavy, TaskType.LAND, 300).getTime());
+        // a light needs 144s behind the heavy, too close to the slot at 500, and then 120s
+        // behind that medium
+        assertEquals(620, calendar.allocate(light, TaskType.LAND, 300).getTime());
+        assertEquals(6, calendar.countMovements(0, 1000));
+        assertEquals(3, calendar.countMovements(100, 501));
+    }
+
+    // Tests cancelled slots free their time, merging the gaps either side of them
+    @Test
+    public void cancelTest() throws NoSpaceException {
+        calendar.allocate(medium, TaskType.LAND, 0);
+        RunwaySlot second = calendar.allocate(medium, TaskType.LAND, 0);
+        RunwaySlot third = calendar.allocate(medium, TaskType.LAND, 0);
+        RunwaySlot last = calendar.allocate(medium, TaskType.LAND, 0);
+        assertEquals(216, last.getTime());
+        calendar.cancel(second);
+        calendar.cancel(third);
+        assertEquals(72, calendar.allocate(heavy, TaskType.LAND, 0).getTime());
+        // a medium needs 120s behind the heavy, which runs too close to the slot at 216
+        assertEquals(288, calendar.allocate(medium, TaskType.LAND, 0).getTime());
+        calendar.cancel(last);
+        calendar.cancel(last);
+        assertEquals(3, runway.getSlots().size());
+        assertEquals(288, runway.getSlots().get(2).getTime());
+        calendar.releaseBefore(100);
+        assertEquals(1, runway.getSlots().size());
+    }
+
+    // Tests movements only go to runways that allow them, earliest first
+    @Test
+    public void runwaysTest() throws NoSpaceException {
+        SlotCalendar split = new SlotCalendar(SeparationMinima.DEFAULT);
+        Runway arrivals = new Runway("09L", true, false);
+        Runway departures = new Runway("09R", false, true);
+        split.addRunway(arrivals);
+        split.addRunway(departures);
+        assertEquals(arrivals, split.allocate(medium, TaskType.LAND, 0).getRunway());
+        assertEquals(departures, split.allocate(medium, TaskType.TAKEOFF, 0).getRunway());
+        assertEquals(72, split.allocate(medium, TaskType.LAND, 0).getTime());
+        assertEquals(72, split.allocate(medium, TaskType.TAKEOFF, 0).getTime());
+
+        Runway both = new Runway("27", true, true);
+        split.addRunway(both);
+        assertEquals(both, split.allocate(medium, TaskType.LAND, 0).getRunway());
+        assertEquals(both, split.allocate(medium, TaskType.LAND, 0).getRunway());
+        // ties go to the runway added first
+        RunwaySlot tied = split.allocate(medium, TaskType.LAND, 0);
+        assertEquals(arrivals, tied.getRunway());
+        assertEquals(144, tied.getTime());
+    }
+
+    // Tests movements no runway allows are refused
+    @Test(expected = NoSpaceException.class)
+    public void noRunwayTest() throws NoSpaceException {
+        SlotCalendar departuresOnly = new SlotCalendar(SeparationMinima.DEFAULT);
+        departuresOnly.addRunway(new Runway("09R", false, true));
+        departuresOnly.allocate(medium, TaskType.LAND, 0);
+    }
+
+    // Tests the tower allocates slots as aircraft start landing and taking off, and cancels
+    // them once they move on
+    @Test
+    public void towerTest() throws NoSuitableGateException {
+        ControlTower tower = new ControlTower();
+        tower.addAircraft(medium);
+        tower.addAircraft(heavy);
+        heavy.getTaskList().moveToNextTask(); // LAND
+        tower.setSlotCalendar(calendar, 60);
+        assertEquals(0, tower.getRunwaySlot(heavy).getTime());
+        assertNull(tower.getRunwaySlot(medium));
+
+        tower.tick();
+        tower.tick();
+        medium.getTaskList().moveToNextTask(); // LAND
+        assertEquals(120, tower.getRunwaySlot(medium).getTime());
+        heavy.getTaskList().moveToNextTask(); // WAIT
+        assertNull(tower.getRunwaySlot(heavy));
+        assertEquals(1, runway.getSlots().size());
+
+        medium.getTaskList().moveToNextTask(); // WAIT
+        medium.getTaskList().moveToNextTask(); // TAKEOFF
+        assertEquals(TaskType.TAKEOFF, tower.getRunwaySlot(medium).getOperation());
+        tower.setSlotCalendar(null, 60);
+        assertNull(tower.getRunwaySlot(medium));
+        assertEquals(0, runway.getSlots().size());
+    }
+}
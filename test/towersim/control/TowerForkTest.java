@@ -0,0 +1,157 @@
+package towersim.control;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TowerForkTest {
+    private ControlTower live;
+    private Gate gate;
+    private PassengerAircraft arriving;
+
+    @Before
+    public void setup() throws NoSpaceException, NoSuitableGateException {
+        live = new ControlTower();
+        Terminal terminal = new AirplaneTerminal(1);
+        gate = new Gate(1);
+        terminal.addGate(gate);
+        live.addTerminal(terminal);
+        live.setLifecycleEngine(new LifecycleEngine(live, 3));
+
+        // create task list [LAND, LOAD, TAKEOFF, AWAY]
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.LOAD, 10));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        arriving = new PassengerAircraft("ARR001", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(tasks), 1000, 0);
+        live.addAircraft(arriving);
+    }
+
+    // Tests that running a fork does not disturb the live tower
+    @Test
+    public void independentTest() {
+        TowerFork fork = new TowerFork(live);
+        fork.run(1);
+        Aircraft copy = fork.getAircraft("ARR001");
+        assertNotSame(arriving, copy);
+        assertEquals(TaskType.LOAD, copy.getTaskList().getCurrentTask().getType());
+        assertEquals(copy, fork.getTerminal(1).getGate(0).getAircraftAtGate());
+        assertEquals(TaskType.LAND, arriving.getTaskList().getCurrentTask().getType());
+        assertFalse(gate.isOccupied());
+        assertEquals(0, live.getTicksElapsed());
+    }
+
+    // Tests that a fork continues exactly where the live tower was
+    @Test
+    public void sameProgressTest() {
+        live.tick();
+        TowerFork fork = new TowerFork(live);
+        live.tick();
+        fork.run(1);
+        Aircraft copy = fork.getAircraft("ARR001");
+        assertEquals(arriving.getTaskList().getCurrentTask().getType(),
+                copy.getTaskList().getCurrentTask().getType());
+        assertEquals(live.getLifecycleEngine().getRemainingTicks(arriving),
+                fork.getTower().getLifecycleEngine().getRemainingTicks(copy));
+    }
+
+    // Tests that aircraft hold rather than land at a closed terminal
+    @Test
+    public void closeTerminalTest() {
+        TowerFork fork = new TowerFork(live);
+        fork.closeTerminal(1);
+        fork.run(2);
+        Aircraft copy = fork.getAircraft("ARR001");
+        assertEquals(TaskType.LAND, copy.getTaskList().getCurrentTask().getType());
+        assertEquals(2, fork.getTower().getLifecycleEngine().getLandingHolds());
+    }
+
+    // Tests that a fork keeps the state the live tower had when it was created, even though
+    // it is only built when first used
+    @Test
+    public void snapshotTest() throws NoSpaceException {
+        TowerFork fork = new TowerFork(live);
+        long remaining = live.getLifecycleEngine().getRemainingTicks(arriving);
+        arriving.declareEmergency();
+        gate.parkAircraft(arriving);
+        live.tick();
+        live.tick();
+        Aircraft copy = fork.getAircraft("ARR001");
+        assertEquals(0, fork.getTower().getTicksElapsed());
+        assertEquals(TaskType.LAND, copy.getTaskList().getCurrentTask().getType());
+        assertEquals(0, ((PassengerAircraft) copy).getNumPassengers());
+        assertFalse(copy.hasEmergency());
+        assertFalse(fork.getTerminal(1).getGate(0).isOccupied());
+        assertEquals(remaining, fork.getTower().getLifecycleEngine().getRemainingTicks(copy));
+
+        TowerFork nested = fork.fork();
+        fork.run(3);
+        assertEquals(0, nested.getTower().getTicksElapsed());
+        assertNotSame(copy, nested.getAircraft("ARR001"));
+    }
+
+    // Tests that forks created on different ticks each keep the state the live tower had
+    // when they were created, however many times the live tower changes the shared aircraft
+    @Test
+    public void sharedUntilBuiltTest() {
+        TowerFork first = new TowerFork(live);
+        live.tick();
+        TowerFork second = new TowerFork(live);
+        live.tick();
+        live.tick();
+        arriving.declareEmergency();
+        assertEquals(TaskType.LAND,
+                first.getAircraft("ARR001").getTaskList().getCurrentTask().getType());
+        assertEquals(TaskType.LOAD,
+                second.getAircraft("ARR001").getTaskList().getCurrentTask().getType());
+        assertEquals(0, ((PassengerAircraft) second.getAircraft("ARR001")).getNumPassengers());
+        assertFalse(second.getAircraft("ARR001").hasEmergency());
+        assertNotSame(arriving, second.getAircraft("ARR001"));
+
+        TowerFork unchanged = new TowerFork(live);
+        Aircraft copy = unchanged.getAircraft("ARR001");
+        assertNotSame(arriving, copy);
+        assertTrue(copy.hasEmergency());
+        copy.clearEmergency();
+        assertTrue(arriving.hasEmergency());
+    }
+
+    // Tests that a fork of a tower with a gate planner gets a planner of its own, while the
+    // slot calendar is not carried into the fork
+    @Test
+    public void carriedStateTest() {
+        GatePlanner planner = new GatePlanner(live);
+        live.setGatePlanner(planner);
+        SlotCalendar calendar = new SlotCalendar(SeparationMinima.DEFAULT);
+        calendar.addRunway(new Runway("09L", true, true));
+        live.setSlotCalendar(calendar, 60);
+        assertNotNull(live.getRunwaySlot(arriving));
+
+        TowerFork fork = new TowerFork(live);
+        ControlTower forked = fork.getTower();
+        assertNotNull(forked.getGatePlanner());
+        assertNotSame(planner, forked.getGatePlanner());
+        assertNull(forked.getRunwaySlot(fork.getAircraft("ARR001")));
+        fork.run(1);
+        assertEquals(fork.getAircraft("ARR001"),
+                fork.getTerminal(1).getGate(0).getAircraftAtGate());
+        assertFalse(gate.isOccupied());
+    }
+}
@@ -0,0 +1,288 @@
+package towersim.delta;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCatalog;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.control.ControlTower;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DeltaStreamTest {
+    private ControlTower tower;
+    private Terminal terminal;
+    private Gate gate1;
+    private Gate gate2;
+    private PassengerAircraft passenger;
+    private FreightAircraft freighter;
+    private ByteArrayOutputStream written;
+    private DeltaStream stream;
+    private Replica replica;
+
+    @Before
+    public void setup() throws NoSpaceException, NoSuitableGateException {
+        tower = new ControlTower();
+        terminal = new AirplaneTerminal(1);
+        gate1 = new Gate(1);
+        gate2 = new Gate(2);
+        terminal.addGate(gate1);
+        terminal.addGate(gate2);
+        tower.addTerminal(terminal);
+
+        // create task list [LOAD, TAKEOFF, AWAY, LAND]
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.LOAD, 40));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        passenger = new PassengerAircraft("DLT001", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(tasks), 1000.5, 0);
+        // create task list [AWAY, LAND, LOAD, TAKEOFF]
+        tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.LOAD, 100));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        freighter = new FreightAircraft("DLT002", AircraftCharacteristics.BOEING_747_8F,
+                new TaskList(tasks), 200000, 0);
+        tower.addAircraft(passenger);
+        tower.addAircraft(freighter);
+
+        written = new ByteArrayOutputStream();
+        stream = new DeltaStream(tower, Channels.newChannel(written));
+        replica = new Replica();
+    }
+
+    /** State of the tower rebuilt from the records of a delta stream */
+    private static class Replica implements DeltaHandler {
+        private long tick = -1;
+        private final List<String> callsigns = new ArrayList<>();
+        private final Map<Integer, String> models = new HashMap<>();
+        private final Map<Integer, Double> fuel = new HashMap<>();
+        private final Map<Integer, Double> load = new HashMap<>();
+        private final Map<Integer, String> task = new HashMap<>();
+        private final Map<Integer, Boolean> emergency = new HashMap<>();
+        private final Map<String, Integer> gates = new HashMap<>();
+        private final Map<Integer, Boolean> terminalEmergency = new HashMap<>();
+        private int records;
+
+        @Override
+        public void tickStarted(long tick) {
+            this.tick = tick;
+        }
+
+        @Override
+        public void aircraftDefined(int id, String callsign, String model, boolean freight) {
+            assertEquals(callsigns.size(), id);
+            callsigns.add(callsign);
+            models.put(id, model + (freight ? " freight" : ""));
+            records++;
+        }
+
+        @Override
+        public void fuelChanged(int id, double fuelAmount) {
+            fuel.put(id, fuelAmount);
+            records++;
+        }
+
+        @Override
+        public void loadChanged(int id, double loadAmount) {
+            load.put(id, loadAmount);
+            records++;
+        }
+
+        @Override
+        public void taskChanged(int id, TaskType type, int loadPercent) {
+            task.put(id, type + "@" + loadPercent);
+            records++;
+        }
+
+        @Override
+        public void aircraftEmergencyChanged(int id, boolean emergency) {
+            this.emergency.put(id, emergency);
+            records++;
+        }
+
+        @Override
+        public void gateChanged(int terminalIndex, int gateIndex, int id) {
+            gates.put(terminalIndex + "/" + gateIndex, id);
+            records++;
+        }
+
+        @Override
+        public void terminalEmergencyChanged(int terminalIndex, boolean emergency) {
+            terminalEmergency.put(terminalIndex, emergency);
+            records++;
+        }
+    }
+
+    /** Decodes every frame written so far into the replica, returning the number of frames */
+    private int decode() throws IOException {
+        DeltaDecoder decoder = new DeltaDecoder(replica);
+        ReadableByteChannel source = Channels.newChannel(
+                new ByteArrayInputStream(written.toByteArray()));
+        written.reset();
+        int frames = 0;
+        while (decoder.readFrame(source)) {
+            frames++;
+        }
+        return frames;
+    }
+
+    /** Checks the replica matches the tower */
+    private void assertReplicated() {
+        assertEquals(tower.getTicksElapsed(), replica.tick);
+        assertEquals(tower.getNumAircraft(), replica.callsigns.size());
+        for (int id = 0; id < tower.getNumAircraft(); id++) {
+            Aircraft aircraft = tower.getAircraft(id);
+            assertEquals(aircraft.getCallsign(), replica.callsigns.get(id));
+            assertEquals(AircraftCatalog.getName(aircraft.getModelId())
+                            + (aircraft instanceof FreightAircraft ? " freight" : ""),
+                    replica.models.get(id));
+            assertEquals(aircraft.getFuelAmount(), replica.fuel.get(id), 0);
+            double load = aircraft instanceof PassengerAircraft
+                    ? ((PassengerAircraft) aircraft).getNumPassengers()
+                    : ((FreightAircraft) aircraft).getFreightAmount();
+            assertEquals(load, replica.load.get(id), 0);
+            Task task = aircraft.getTaskList().getCurrentTask();
+            assertEquals(task.getType() + "@" + task.getLoadPercent(), replica.task.get(id));
+            assertEquals(aircraft.hasEmergency(), replica.emergency.get(id));
+        }
+        for (int t = 0; t < tower.getNumTerminals(); t++) {
+            Terminal controlled = tower.getTerminal(t);
+            assertEquals(controlled.hasEmergency(), replica.terminalEmergency.get(t));
+            for (int g = 0; g < controlled.getNumGates(); g++) {
+                Aircraft parked = controlled.getGate(g).getAircraftAtGate();
+                int expected = -1;
+                for (int id = 0; parked != null && id < tower.getNumAircraft(); id++) {
+                    if (tower.getAircraft(id) == parked) {
+                        expected = id;
+                    }
+                }
+                assertEquals(Integer.valueOf(expected), replica.gates.get(t + "/" + g));
+            }
+        }
+    }
+
+    // Tests the tower is rebuilt from the stream after fuel, load, task, emergency and gate
+    // changes over several ticks
+    @Test
+    public void roundTripTest() throws IOException, NoSpaceException, NoSuitableGateException {
+        tower.tick();
+        assertEquals(1, decode());
+        assertReplicated();
+        assertEquals(0, replica.gates.get("0/0").intValue());
+        assertEquals(-1, replica.gates.get("0/1").intValue());
+
+        // passenger loads and freighter burns fuel on every tick
+        tower.tick();
+        passenger.declareEmergency();
+        terminal.declareEmergency();
+        tower.tick();
+        assertEquals(2, decode());
+        assertReplicated();
+
+        freighter.getTaskList().moveToNextTask(); // LAND
+        freighter.getTaskList().moveToNextTask(); // LOAD
+        gate2.parkAircraft(freighter);
+        passenger.clearEmergency();
+        gate1.aircraftLeaves();
+        passenger.getTaskList().moveToNextTask(); // TAKEOFF
+        tower.tick();
+        tower.tick();
+        terminal.clearEmergency();
+        tower.tick();
+        assertEquals(3, decode());
+        assertReplicated();
+
+        // nothing changes for a waiting or taking-off aircraft, so nothing is written
+        gate2.aircraftLeaves();
+        freighter.getTaskList().moveToNextTask(); // TAKEOFF
+        tower.tick();
+        decode();
+        replica.records = 0;
+        tower.tick();
+        assertEquals(1, decode());
+        assertEquals(0, replica.records);
+        assertReplicated();
+        assertNull(stream.getError());
+    }
+
+    // Tests aircraft and terminals added after the first frame are written in full
+    @Test
+    public void lateAdditionsTest() throws IOException, NoSpaceException,
+            NoSuitableGateException {
+        tower.tick();
+        Terminal late = new AirplaneTerminal(2);
+        Gate lateGate = new Gate(9);
+        late.addGate(lateGate);
+        tower.addTerminal(late);
+        // create task list [WAIT, TAKEOFF, AWAY, LAND]
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.WAIT));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        PassengerAircraft waiting = new PassengerAircraft("DLT\u00c9\u00df3",
+                AircraftCharacteristics.FOKKER_100, new TaskList(tasks), 0, 50);
+        tower.addAircraft(waiting);
+        tower.tick();
+        decode();
+        assertReplicated();
+        assertEquals("DLT\u00c9\u00df3", replica.callsigns.get(2));
+        assertEquals(2, replica.gates.get("0/1").intValue());
+        assertEquals(-1, replica.gates.get("1/0").intValue());
+        assertFalse(replica.terminalEmergency.get(1));
+    }
+
+    // Tests varints and fuel or load amounts are read back as written
+    @Test
+    public void formatTest() {
+        long[] varints = {0, 1, 127, 128, 300, 1L << 35, Long.MAX_VALUE, -1};
+        double[] numbers = {0, 1, -1, 63, -64, 64, 1000.5, -0.25, 1L << 53, -(1L << 53),
+                1e300, Double.MIN_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        for (long value : varints) {
+            buffer = DeltaFormat.putVarLong(buffer, value);
+        }
+        for (double value : numbers) {
+            buffer = DeltaFormat.putNumber(buffer, value);
+        }
+        buffer = DeltaFormat.putString(buffer, "\u00c5r\u00f8");
+        buffer.flip();
+        for (long value : varints) {
+            assertEquals(value, DeltaFormat.getVarLong(buffer));
+        }
+        for (double value : numbers) {
+            assertEquals(value, DeltaFormat.getNumber(buffer), 0);
+        }
+        assertEquals("\u00c5r\u00f8", DeltaFormat.getString(buffer));
+        assertFalse(buffer.hasRemaining());
+
+        // whole numbers take a byte each while small, and -1 zigzags to 1 not 2^64 - 1
+        buffer = DeltaFormat.putNumber(ByteBuffer.allocate(16), -1);
+        assertEquals(1, buffer.position());
+    }
+}
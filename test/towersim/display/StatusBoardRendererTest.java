@@ -0,0 +1,168 @@
+package towersim.display;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.control.ControlTower;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.HelicopterTerminal;
+import towersim.ground.Terminal;
+import towersim.ground.TerminalLayout;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StatusBoardRendererTest {
+    private ControlTower tower;
+    private Terminal airplaneTerminal;
+    private Terminal helicopterTerminal;
+    private PassengerAircraft loading;
+    private FreightAircraft freighter;
+    private PassengerAircraft helicopter;
+    private StatusBoardRenderer renderer;
+
+    @Before
+    public void setup() throws NoSpaceException, NoSuitableGateException {
+        tower = new ControlTower();
+        airplaneTerminal = new AirplaneTerminal(1);
+        airplaneTerminal.addGate(new Gate(1));
+        airplaneTerminal.addGate(new Gate(2));
+        helicopterTerminal = new HelicopterTerminal(23);
+        helicopterTerminal.addGate(new Gate(5));
+        tower.addTerminal(airplaneTerminal);
+        tower.addTerminal(helicopterTerminal);
+
+        // create task list [LOAD, TAKEOFF, AWAY, LAND]
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.LOAD, 65));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        loading = new PassengerAircraft("REN001", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(tasks), 1000, 0);
+        // non-ASCII callsign, including a character outside the Basic Multilingual Plane
+        freighter = new FreightAircraft("\u00c5R\u00d8\u4e2d\ud83d\ude80",
+                AircraftCharacteristics.BOEING_747_8F, awayTaskList(), 1000, 0);
+        helicopter = new PassengerAircraft("REN003", AircraftCharacteristics.ROBINSON_R44,
+                awayTaskList(), 100, 0);
+        tower.addAircraft(loading);
+        tower.addAircraft(freighter);
+        tower.addAircraft(helicopter);
+        airplaneTerminal.getGate(1).parkAircraft(freighter);
+        loading.declareEmergency();
+        helicopterTerminal.declareEmergency();
+        renderer = new StatusBoardRenderer();
+    }
+
+    // create task list [AWAY, LAND, WAIT, TAKEOFF]
+    private static TaskList awayTaskList() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.WAIT));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        return new TaskList(tasks);
+    }
+
+    /** Get the UTF-8 bytes written to a buffer as a string */
+    private static String decode(ByteBuffer buffer) {
+        buffer.flip();
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    // Tests aircraft are rendered exactly as their toString, with load percent and emergency
+    @Test
+    public void aircraftTest() throws IOException {
+        assertEquals("AIRPLANE REN001 AIRBUS_A320 LOAD at 65% (EMERGENCY)", loading.toString());
+        for (Aircraft aircraft : List.of(loading, freighter, helicopter)) {
+            StringBuilder text = new StringBuilder();
+            renderer.appendAircraft(text, aircraft);
+            assertEquals(aircraft.toString(), text.toString());
+            ByteBuffer buffer = ByteBuffer.allocate(128);
+            renderer.putAircraft(buffer, aircraft);
+            assertEquals(aircraft.toString(), decode(buffer));
+        }
+    }
+
+    // Tests empty and occupied gates are rendered exactly as their toString
+    @Test
+    public void gateTest() throws IOException {
+        for (Gate gate : List.of(airplaneTerminal.getGate(0), airplaneTerminal.getGate(1))) {
+            StringBuilder text = new StringBuilder();
+            renderer.appendGate(text, gate);
+            assertEquals(gate.toString(), text.toString());
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            renderer.putGate(buffer, gate);
+            assertEquals(gate.toString(), decode(buffer));
+        }
+    }
+
+    // Tests terminals are rendered exactly as their toString, with and without emergency
+    @Test
+    public void terminalTest() throws IOException {
+        for (Terminal terminal : List.of(airplaneTerminal, helicopterTerminal)) {
+            StringBuilder text = new StringBuilder();
+            renderer.appendTerminal(text, terminal);
+            assertEquals(terminal.toString(), text.toString());
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            renderer.putTerminal(buffer, terminal);
+            assertEquals(terminal.toString(), decode(buffer));
+        }
+        assertTrue(helicopterTerminal.toString().endsWith("(EMERGENCY)"));
+    }
+
+    // Tests the board lists every terminal followed by its gates, then every aircraft
+    @Test
+    public void boardTest() throws IOException {
+        StringBuilder expected = new StringBuilder();
+        for (Terminal terminal : List.of(airplaneTerminal, helicopterTerminal)) {
+            expected.append(terminal).append('\n');
+            for (Gate gate : terminal.getGates()) {
+                expected.append(gate).append('\n');
+            }
+        }
+        for (Aircraft aircraft : List.of(loading, freighter, helicopter)) {
+            expected.append(aircraft).append('\n');
+        }
+        StringBuilder text = new StringBuilder();
+        renderer.appendBoard(text, tower);
+        assertEquals(expected.toString(), text.toString());
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        renderer.putBoard(buffer, tower);
+        assertEquals(expected.toString(), decode(buffer));
+    }
+
+    // Tests the board shows the gates of a terminal created from a layout without creating
+    // the gates that have not been used
+    @Test
+    public void layoutGatesTest() throws IOException, NoSpaceException {
+        Terminal template = new AirplaneTerminal(7);
+        for (int i = 0; i < 4; i++) {
+            template.addGate(new Gate(70 + i));
+        }
+        ControlTower layoutTower = new ControlTower();
+        Terminal terminal = new TerminalLayout(template).newTerminal();
+        layoutTower.addTerminal(terminal);
+        terminal.getGate(2).parkAircraft(new PassengerAircraft("LAY001",
+                AircraftCharacteristics.AIRBUS_A320, null, 0, 0));
+        StringBuilder text = new StringBuilder();
+        renderer.appendBoard(text, layoutTower);
+        assertEquals("AirplaneTerminal 7, 4 gates\nGate 70 [empty]\nGate 71 [empty]\n"
+                + "Gate 72 [LAY001]\nGate 73 [empty]\n", text.toString());
+        assertEquals(1, terminal.getNumCreatedGates());
+    }
+}
@@ -0,0 +1,125 @@
+package towersim.events;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.control.ControlTower;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EventBusTest {
+    private ControlTower tower;
+    private Terminal terminal;
+    private PassengerAircraft aircraft;
+
+    @Before
+    public void setup() throws NoSpaceException {
+        tower = new ControlTower();
+        terminal = new AirplaneTerminal(1);
+        terminal.addGate(new Gate(7));
+        tower.addTerminal(terminal);
+
+        // create task list [LOAD, TAKEOFF, AWAY, LAND]
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.LOAD, 10));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        aircraft = new PassengerAircraft("ABC123", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(tasks), 1000, 0);
+    }
+
+    // Tests that tower state changes are published in order
+    @Test
+    public void towerEventsTest() throws NoSuitableGateException {
+        EventBus bus = new EventBus(16);
+        tower.setEventBus(bus);
+        List<String> seen = new ArrayList<>();
+        EventConsumer consumer = bus.addConsumer(
+                (event, sequence, endOfBatch) -> seen.add(event.toString()),
+                WaitStrategy.BUSY_SPIN);
+        tower.addAircraft(aircraft);
+        aircraft.declareEmergency();
+        aircraft.declareEmergency();
+        tower.getTerminals().get(0).getGates().get(0).aircraftLeaves();
+        aircraft.getTaskList().moveToNextTask();
+        terminal.declareEmergency();
+        assertEquals(5, consumer.poll());
+        assertEquals("0 AIRCRAFT_PARKED ABC123 terminal 1 gate 7", seen.get(0));
+        assertEquals("0 EMERGENCY_DECLARED ABC123", seen.get(1));
+        assertEquals("0 AIRCRAFT_LEFT_GATE ABC123 terminal 1 gate 7", seen.get(2));
+        assertEquals("0 TASK_CHANGED ABC123 LOAD->TAKEOFF", seen.get(3));
+        assertEquals("0 EMERGENCY_DECLARED terminal 1", seen.get(4));
+        assertEquals(0, consumer.getLag());
+    }
+
+    // Tests that a consumer on its own thread sees every event when the buffer wraps around
+    @Test
+    public void wrapAroundTest() throws InterruptedException {
+        EventBus bus = new EventBus(8);
+        long[] handled = new long[2];
+        EventConsumer consumer = bus.addConsumer((event, sequence, endOfBatch) -> {
+            if (sequence == handled[0] && event.getTick() == sequence) {
+                handled[0]++;
+            }
+        }, WaitStrategy.YIELDING);
+        consumer.start();
+        for (int i = 0; i < 10000; i++) {
+            bus.publishTaskChange(i, aircraft, TaskType.LOAD, TaskType.TAKEOFF);
+        }
+        while (consumer.getLag() > 0) {
+            Thread.yield();
+        }
+        consumer.stop();
+        assertEquals(10000, handled[0]);
+        assertEquals(9999, bus.getCursor());
+    }
+
+    // Tests that the writer never waits when there are no consumers
+    @Test
+    public void noConsumersTest() {
+        EventBus bus = new EventBus(4);
+        for (int i = 0; i < 100; i++) {
+            bus.publishEmergency(i, terminal);
+        }
+        assertEquals(99, bus.getCursor());
+        assertEquals(0, bus.getWriterStalls());
+    }
+
+    // Tests that events hold the changed values rather than the aircraft, so later changes to
+    // the aircraft are not seen by consumers polling afterwards
+    @Test
+    public void copiedValuesTest() {
+        EventBus bus = new EventBus(4);
+        List<String> seen = new ArrayList<>();
+        EventConsumer consumer = bus.addConsumer((event, sequence, endOfBatch) ->
+                seen.add(event.getCallsign() + " " + event.getCallsignId() + " "
+                        + event.getType() + " " + event.getCurrentTask()), WaitStrategy.BUSY_SPIN);
+        bus.publishEmergency(3, aircraft);
+        aircraft.declareEmergency();
+        bus.publishEmergency(4, aircraft);
+        aircraft.clearEmergency();
+        bus.publishTaskChange(5, aircraft, TaskType.LOAD, TaskType.TAKEOFF);
+        aircraft.getTaskList().moveToNextTask();
+        aircraft.getTaskList().moveToNextTask();
+        bus.publishEmergency(6, terminal);
+        assertEquals(4, consumer.poll());
+        int id = aircraft.getCallsignId();
+        assertEquals("ABC123 " + id + " EMERGENCY_CLEARED null", seen.get(0));
+        assertEquals("ABC123 " + id + " EMERGENCY_DECLARED null", seen.get(1));
+        assertEquals("ABC123 " + id + " TASK_CHANGED TAKEOFF", seen.get(2));
+        assertEquals("null -1 EMERGENCY_CLEARED null", seen.get(3));
+    }
+}
@@ -0,0 +1,91 @@
+package towersim.ground;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GateTimelineTest {
+    private Gate gate;
+    private GateTimeline timeline;
+    private PassengerAircraft aircraftOne;
+    private PassengerAircraft aircraftTwo;
+
+    @Before
+    public void setup() {
+        gate = new Gate(1);
+        timeline = gate.getTimeline();
+        List<Task> listOfTasks = new ArrayList<>();
+        listOfTasks.add(new Task(TaskType.LAND));
+        listOfTasks.add(new Task(TaskType.LOAD, 50));
+        listOfTasks.add(new Task(TaskType.TAKEOFF));
+        aircraftOne = new PassengerAircraft("ABC123", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(listOfTasks), 1234, 67);
+        aircraftTwo = new PassengerAircraft("DEF456", AircraftCharacteristics.FOKKER_100,
+                new TaskList(listOfTasks), 3423, 54);
+    }
+
+    // Tests that a new timeline has no bookings
+    @Test
+    public void emptyTimelineTest() {
+        assertTrue("New timeline should be free", timeline.isFree(0, 100));
+        assertNull("No reservation should cover any tick", timeline.getReservationAt(5));
+        assertEquals(Long.MIN_VALUE, timeline.getLatestEndTick());
+    }
+
+    // Tests reserve() and getReservationAt() with a single booking
+    @Test
+    public void reserveTestOne() throws NoSpaceException {
+        Reservation reservation = new Reservation(gate, aircraftOne, 2, 5);
+        timeline.reserve(reservation);
+        assertNull(timeline.getReservationAt(1));
+        assertEquals(reservation, timeline.getReservationAt(2));
+        assertEquals(reservation, timeline.getReservationAt(4));
+        assertNull("End tick should be exclusive", timeline.getReservationAt(5));
+        assertEquals(5, timeline.getLatestEndTick());
+    }
+
+    // Tests reserve() where the new booking overlaps an existing one
+    @Test
+    public void reserveTestTwo() throws NoSpaceException {
+        timeline.reserve(new Reservation(gate, aircraftOne, 2, 5));
+        try {
+            timeline.reserve(new Reservation(gate, aircraftTwo, 4, 6));
+            fail("Overlapping booking should not be accepted");
+        } catch (NoSpaceException e) {
+            assertEquals(1, timeline.getReservations().size());
+        }
+    }
+
+    // Tests nextFreeTick() skips bookings and finds gaps long enough
+    @Test
+    public void nextFreeTickTest() throws NoSpaceException {
+        timeline.reserve(new Reservation(gate, aircraftOne, 2, 5));
+        timeline.reserve(new Reservation(gate, aircraftTwo, 6, 9));
+        assertEquals(0, timeline.nextFreeTick(0, 2));
+        assertEquals("Gap of one tick should be used", 5, timeline.nextFreeTick(3, 1));
+        assertEquals("Gap too short should be skipped", 9, timeline.nextFreeTick(3, 2));
+    }
+
+    // Tests cancel() and releaseBefore()
+    @Test
+    public void cancelAndReleaseTest() throws NoSpaceException {
+        Reservation first = new Reservation(gate, aircraftOne, 2, 5);
+        Reservation second = new Reservation(gate, aircraftTwo, 6, 9);
+        timeline.reserve(first);
+        timeline.reserve(second);
+        assertTrue(timeline.cancel(second));
+        assertFalse("Cancelling twice should have no effect", timeline.cancel(second));
+        timeline.releaseBefore(5);
+        assertTrue(timeline.getReservations().isEmpty());
+    }
+}
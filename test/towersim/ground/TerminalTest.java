@@ -0,0 +1,161 @@
+package towersim.ground;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import static org.junit.Assert.*;
+
+public class TerminalTest {
+    private Terminal smallTerminal;
+    private Terminal largeTerminal;
+    private PassengerAircraft aircraft;
+
+    @Before
+    public void setup() throws NoSpaceException {
+        smallTerminal = new AirplaneTerminal(1);
+        largeTerminal = new AirplaneTerminal(2, 200);
+        for (int i = 0; i < 150; i++) {
+            largeTerminal.addGate(new Gate(i + 1));
+        }
+        aircraft = new PassengerAircraft("ABC123", AircraftCharacteristics.AIRBUS_A320, null,
+                1234, 67);
+    }
+
+    // Tests addGate() where the default terminal is already at MAX_NUM_GATES
+    @Test
+    public void addGateTestOne() throws NoSpaceException {
+        for (int i = 0; i < Terminal.MAX_NUM_GATES; i++) {
+            smallTerminal.addGate(new Gate(i + 1));
+        }
+        try {
+            smallTerminal.addGate(new Gate(7));
+            fail("Should not be able to add more than MAX_NUM_GATES gates");
+        } catch (NoSpaceException e) {
+            assertEquals(Terminal.MAX_NUM_GATES, smallTerminal.getNumGates());
+        }
+    }
+
+    // Tests addGate() where the terminal has a configured capacity
+    @Test
+    public void addGateTestTwo() {
+        assertEquals(150, largeTerminal.getNumGates());
+        assertEquals(150, largeTerminal.getGates().size());
+        assertEquals(200, largeTerminal.getMaxNumGates());
+        assertEquals(150, largeTerminal.getGates().get(149).getGateNumber());
+    }
+
+    // Tests addGate() rejects a gate already added to this or another terminal, leaving both
+    // terminals unchanged
+    @Test
+    public void addAttachedGateTest() throws NoSpaceException {
+        Gate gate = largeTerminal.getGate(3);
+        gate.parkAircraft(aircraft);
+        try {
+            largeTerminal.addGate(gate);
+            fail("Should not be able to add a gate twice");
+        } catch (IllegalArgumentException e) {
+            assertEquals(150, largeTerminal.getNumGates());
+        }
+        try {
+            smallTerminal.addGate(gate);
+            fail("Should not be able to add another terminal's gate");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, smallTerminal.getNumGates());
+            assertEquals(0, smallTerminal.getNumOccupiedGates());
+        }
+        assertEquals(3, gate.getIndexInTerminal());
+        assertEquals(1, largeTerminal.getNumOccupiedGates());
+    }
+
+    // Tests findUnoccupiedGate() across several words of the occupancy bitset
+    @Test
+    public void findUnoccupiedGateTest() throws NoSpaceException, NoSuitableGateException {
+        for (int i = 0; i < 130; i++) {
+            largeTerminal.findUnoccupiedGate().parkAircraft(aircraft);
+        }
+        assertEquals(131, largeTerminal.findUnoccupiedGate().getGateNumber());
+        largeTerminal.getGates().get(9).aircraftLeaves();
+        assertEquals("Gate freed earlier in the terminal should be found first", 10,
+                largeTerminal.findUnoccupiedGate().getGateNumber());
+    }
+
+    // Tests findUnoccupiedGate() where all gates are occupied
+    @Test(expected = NoSuitableGateException.class)
+    public void findUnoccupiedGateFullTest() throws NoSpaceException, NoSuitableGateException {
+        for (Gate gate : largeTerminal.getGates()) {
+            gate.parkAircraft(aircraft);
+        }
+        largeTerminal.findUnoccupiedGate();
+    }
+
+    // Tests getNumOccupiedGates() and calculateOccupancyLevel()
+    @Test
+    public void occupancyTest() throws NoSpaceException {
+        assertEquals(0, smallTerminal.calculateOccupancyLevel());
+        for (int i = 0; i < 75; i++) {
+            largeTerminal.getGates().get(i * 2).parkAircraft(aircraft);
+        }
+        assertEquals(75, largeTerminal.getNumOccupiedGates());
+        assertEquals(50, largeTerminal.calculateOccupancyLevel());
+    }
+
+    // Tests that terminals created from the same layout do not share occupancy
+    @Test
+    public void layoutCopyOnWriteTest() throws NoSpaceException, NoSuitableGateException {
+        TerminalLayout layout = new TerminalLayout(largeTerminal);
+        Terminal first = layout.newTerminal();
+        Terminal second = layout.newTerminal();
+        assertEquals(150, first.getNumGates());
+        assertEquals(150, first.getGate(149).getGateNumber());
+        first.findUnoccupiedGate().parkAircraft(aircraft);
+        assertEquals(1, first.getNumOccupiedGates());
+        assertEquals(0, second.getNumOccupiedGates());
+        assertEquals(1, second.findUnoccupiedGate().getGateNumber());
+        assertEquals(2, first.findUnoccupiedGate().getGateNumber());
+        second.addGate(new Gate(151));
+        assertEquals(151, second.getNumGates());
+        assertEquals(150, first.getNumGates());
+    }
+
+    // Tests that only gates with every required capability are found, across bitset words
+    @Test
+    public void findCompatibleGateTest() throws NoSpaceException, NoSuitableGateException {
+        Terminal terminal = new AirplaneTerminal(3, 100);
+        int small = GateCapability.of(GateCapability.MEDIUM, false, false);
+        int cargo = GateCapability.of(GateCapability.LARGE, true, false);
+        for (int i = 0; i < 99; i++) {
+            terminal.addGate(new Gate(i + 1, small));
+        }
+        terminal.addGate(new Gate(100, cargo));
+        FreightAircraft freighter = new FreightAircraft("CRG001",
+                AircraftCharacteristics.BOEING_747_8F, null, 1000, 0);
+        assertFalse(terminal.getGate(0).accepts(freighter));
+        assertEquals(100, terminal.findUnoccupiedGate(GateCapability.requiredBy(freighter))
+                .getGateNumber());
+        assertEquals(-1, terminal.indexOfUnoccupiedGate(GateCapability.requiredBy(aircraft)));
+        terminal.getGate(99).parkAircraft(freighter);
+        assertEquals(-1, terminal.indexOfUnoccupiedGate(GateCapability.requiredBy(freighter)));
+        assertEquals(1, terminal.findUnoccupiedGate().getGateNumber());
+    }
+
+    // Tests that terminals created from a layout keep the capabilities of its gates
+    @Test
+    public void layoutCapabilitiesTest() throws NoSpaceException, NoSuitableGateException {
+        int bridge = GateCapability.of(GateCapability.MEDIUM, false, true);
+        smallTerminal.addGate(new Gate(1, GateCapability.of(GateCapability.SMALL, false, false)));
+        smallTerminal.addGate(new Gate(2, bridge));
+        Terminal copy = new TerminalLayout(smallTerminal).newTerminal();
+        assertEquals(bridge, copy.getGate(1).getCapabilities());
+        assertEquals(2, copy.findUnoccupiedGate(GateCapability.requiredBy(aircraft))
+                .getGateNumber());
+        copy.addGate(new Gate(3));
+        copy.getGate(1).parkAircraft(aircraft);
+        assertEquals(3, copy.findUnoccupiedGate(GateCapability.requiredBy(aircraft))
+                .getGateNumber());
+    }
+}
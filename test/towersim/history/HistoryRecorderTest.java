@@ -0,0 +1,179 @@
+package towersim.history;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.FreightAircraft;
+import towersim.aircraft.PassengerAircraft;
+import towersim.control.ControlTower;
+import towersim.control.LifecycleEngine;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class HistoryRecorderTest {
+    private ControlTower tower;
+    private Terminal terminal;
+    private PassengerAircraft passenger;
+    private Path file;
+
+    @Before
+    public void setup() throws NoSpaceException, NoSuitableGateException, IOException {
+        tower = new ControlTower();
+        terminal = new AirplaneTerminal(4);
+        terminal.addGate(new Gate(1));
+        terminal.addGate(new Gate(2));
+        tower.addTerminal(terminal);
+        tower.setLifecycleEngine(new LifecycleEngine(tower, 3));
+        passenger = new PassengerAircraft("HIS001", AircraftCharacteristics.AIRBUS_A320,
+                taskList(), 5000, 0);
+        tower.addAircraft(passenger);
+        file = Files.createTempFile("history", ".bin");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    // create task list [AWAY, LAND, LOAD, TAKEOFF]
+    private static TaskList taskList() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        tasks.add(new Task(TaskType.LOAD, 50));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        return new TaskList(tasks);
+    }
+
+    // Tests series recorded over several chunks are read back with the value of every tick
+    @Test
+    public void roundTripTest() throws IOException, NoSuitableGateException {
+        HistoryRecorder recorder = HistoryRecorder.toFile(tower, file, 4);
+        List<Double> fuel = new ArrayList<>();
+        List<Double> load = new ArrayList<>();
+        List<TaskType> tasks = new ArrayList<>();
+        List<Double> occupied = new ArrayList<>();
+        FreightAircraft late = null;
+        List<Double> lateFuel = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            if (i == 5) {
+                late = new FreightAircraft("HIS002", AircraftCharacteristics.BOEING_747_8F,
+                        taskList(), 100000, 0);
+                tower.addAircraft(late);
+            }
+            tower.tick();
+            fuel.add(passenger.getFuelAmount());
+            load.add((double) passenger.getNumPassengers());
+            tasks.add(passenger.getTaskList().getCurrentTask().getType());
+            occupied.add((double) terminal.getNumOccupiedGates());
+            if (late != null) {
+                lateFuel.add(late.getFuelAmount());
+            }
+        }
+        // two full chunks have been written and the last three ticks are written on close
+        assertNull(recorder.getError());
+        long beforeClose = recorder.getBytesWritten();
+        assertTrue(beforeClose > 0);
+        recorder.close();
+        assertTrue(recorder.getBytesWritten() > beforeClose);
+        // the run must have loaded and moved through several tasks to be worth checking
+        assertTrue(tasks.contains(TaskType.LOAD));
+        assertTrue(load.get(load.size() - 1) > 0);
+
+        try (HistoryReader reader = new HistoryReader(file)) {
+            assertEquals(Set.of("HIS001", "HIS002"), reader.getCallsigns());
+            assertEquals(Set.of(4), reader.getTerminalNumbers());
+
+            HistorySeries fuelSeries = reader.readAircraft("HIS001", HistoryColumn.FUEL);
+            assertEquals(HistoryColumn.FUEL, fuelSeries.getColumn());
+            assertEquals(1, fuelSeries.getFirstTick());
+            assertEquals(11, fuelSeries.size());
+            for (int i = 0; i < 11; i++) {
+                assertEquals(fuel.get(i), fuelSeries.getValueAt(i + 1), 0);
+            }
+
+            Map<HistoryColumn, HistorySeries> history = reader.readAircraft("HIS001");
+            assertEquals(Set.of(HistoryColumn.FUEL, HistoryColumn.LOAD, HistoryColumn.TASK),
+                    history.keySet());
+            for (int i = 0; i < 11; i++) {
+                assertEquals(load.get(i), history.get(HistoryColumn.LOAD).getValueAt(i + 1), 0);
+                assertEquals(tasks.get(i), history.get(HistoryColumn.TASK).getTaskTypeAt(i + 1));
+            }
+
+            HistorySeries lateSeries = reader.readAircraft("HIS002", HistoryColumn.FUEL);
+            assertEquals(6, lateSeries.getFirstTick());
+            assertEquals(6, lateSeries.size());
+            for (int i = 0; i < 6; i++) {
+                assertEquals(lateFuel.get(i), lateSeries.getValueAt(i + 6), 0);
+            }
+
+            HistorySeries occupancy = reader.readTerminal(4);
+            for (int i = 0; i < 11; i++) {
+                assertEquals(occupied.get(i), occupancy.getValueAt(i + 1), 0);
+            }
+            assertNull(reader.readAircraft("XXX999", HistoryColumn.FUEL));
+            assertTrue(reader.readAircraft("XXX999").isEmpty());
+            assertNull(reader.readTerminal(9));
+        }
+    }
+
+    // Tests occupancy is not an aircraft column
+    @Test(expected = IllegalArgumentException.class)
+    public void terminalColumnTest() throws IOException {
+        HistoryRecorder recorder = HistoryRecorder.toFile(tower, file, 4);
+        tower.tick();
+        recorder.close();
+        try (HistoryReader reader = new HistoryReader(file)) {
+            reader.readAircraft("HIS001", HistoryColumn.OCCUPANCY);
+        }
+    }
+
+    // Tests a failure writing the last chunk on close is kept as the recorder's error
+    @Test
+    public void closeFailureTest() {
+        WritableByteChannel failing = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+                // nothing to release
+            }
+        };
+        HistoryRecorder recorder = new HistoryRecorder(tower, failing, 4);
+        tower.tick();
+        try {
+            recorder.close();
+            fail();
+        } catch (IOException e) {
+            assertEquals("disk full", e.getMessage());
+        }
+        assertEquals("disk full", recorder.getError().getMessage());
+    }
+}
@@ -0,0 +1,62 @@
+package towersim.history;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SeriesEncoderTest {
+    /** Encodes the given values as one block and decodes them again */
+    private static double[] roundTrip(HistoryColumn column, double[] values) {
+        SeriesEncoder encoder = new SeriesEncoder(column, "ABC123");
+        for (int i = 0; i < values.length; i++) {
+            encoder.add(10 + i, values[i]);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(encoder.getBits().byteLength());
+        encoder.getBits().copyTo(buffer);
+        buffer.flip();
+        double[] decoded = new double[values.length];
+        SeriesEncoder.decode(column, new BitReader(buffer), values.length, decoded, 0);
+        assertEquals(10, encoder.getFirstTick());
+        return decoded;
+    }
+
+    // Tests that doubles survive compression exactly, including special values
+    @Test
+    public void doubleRoundTripTest() {
+        Random random = new Random(1);
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 7 == 0 ? values[Math.max(0, i - 1)] : random.nextGaussian() * 1e5;
+        }
+        values[3] = Double.NaN;
+        values[4] = -0.0;
+        values[5] = Double.MAX_VALUE;
+        values[6] = Double.MIN_VALUE;
+        values[7] = Double.NEGATIVE_INFINITY;
+        double[] decoded = roundTrip(HistoryColumn.FUEL, values);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(values[i]),
+                    Double.doubleToRawLongBits(decoded[i]));
+        }
+    }
+
+    // Tests that integers survive compression exactly at every delta-of-delta width
+    @Test
+    public void integerRoundTripTest() {
+        double[] values = {5, 5, 5, 6, 4, 70, -60, 300, -400, 3000, -3000, 1L << 40, 0, 0, 1};
+        assertArrayEquals(values, roundTrip(HistoryColumn.OCCUPANCY, values), 0);
+    }
+
+    // Tests that an unchanging series compresses to about a bit per value
+    @Test
+    public void constantSeriesTest() {
+        SeriesEncoder encoder = new SeriesEncoder(HistoryColumn.TASK, "ABC123");
+        for (int i = 0; i < 800; i++) {
+            encoder.add(i, 2);
+        }
+        assertEquals(8 + 100, encoder.getBits().byteLength());
+    }
+}
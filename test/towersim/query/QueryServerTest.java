@@ -0,0 +1,113 @@
+package towersim.query;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.AircraftType;
+import towersim.aircraft.PassengerAircraft;
+import towersim.control.ControlTower;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.snapshot.SnapshotPublisher;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class QueryServerTest {
+    private ControlTower tower;
+    private Terminal terminal;
+    private SnapshotPublisher publisher;
+    private QueryServer server;
+    private QueryClient client;
+
+    @Before
+    public void setup() throws NoSpaceException, NoSuitableGateException, IOException {
+        tower = new ControlTower();
+        terminal = new AirplaneTerminal(7);
+        terminal.addGate(new Gate(1));
+        terminal.addGate(new Gate(2));
+        tower.addTerminal(terminal);
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(TaskType.WAIT));
+        tasks.add(new Task(TaskType.TAKEOFF));
+        tasks.add(new Task(TaskType.AWAY));
+        tasks.add(new Task(TaskType.LAND));
+        tower.addAircraft(new PassengerAircraft("QRY001", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(tasks), 1000, 50));
+        publisher = new SnapshotPublisher(tower);
+        server = new QueryServer(publisher, 0);
+        server.start();
+        client = new QueryClient(server.getPort());
+    }
+
+    @After
+    public void teardown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    // Tests looking up an aircraft by callsign, and one that does not exist
+    @Test
+    public void aircraftTest() throws IOException {
+        QueryResponse response = client.getAircraft("QRY001");
+        assertEquals(QueryStatus.OK, response.getStatus());
+        assertEquals("AIRBUS_A320", response.getString());
+        assertEquals(AircraftType.AIRPLANE.ordinal(), response.getByte());
+        assertEquals(0, response.getByte());
+        assertEquals(1000, response.getDouble(), 0);
+        assertEquals(50, response.getDouble(), 0);
+        response.getByte();
+        assertEquals(TaskType.WAIT.ordinal(), response.getByte());
+        assertEquals(0, response.getByte());
+        assertEquals(0, response.getByte());
+        assertEquals(0, response.getRemaining());
+        assertEquals(QueryStatus.NOT_FOUND, client.getAircraft("NONE01").getStatus());
+    }
+
+    // Tests that terminal queries show gate occupancy as of the latest snapshot
+    @Test
+    public void terminalTest() throws IOException {
+        terminal.declareEmergency();
+        QueryResponse response = client.getTerminal(7);
+        assertEquals(0, response.getEpoch());
+        assertEquals(AircraftType.AIRPLANE.ordinal(), response.getByte());
+        assertEquals("Emergency is only seen once published", 0, response.getByte());
+        assertEquals(2, response.getInt());
+        assertEquals(1, response.getInt());
+        assertEquals("QRY001", response.getString());
+        assertEquals(2, response.getInt());
+        assertEquals("", response.getString());
+        tower.tick();
+        response = client.getEmergencies();
+        assertEquals(1, response.getEpoch());
+        assertEquals(1, response.getInt());
+        assertEquals(7, response.getInt());
+        assertEquals(0, response.getInt());
+        assertEquals(QueryStatus.NOT_FOUND, client.getTerminal(8).getStatus());
+    }
+
+    // Tests the tower-wide totals
+    @Test
+    public void aggregatesTest() throws IOException {
+        QueryResponse response = client.getAggregates();
+        assertEquals(1, response.getInt());
+        assertEquals(TaskType.values().length, response.getByte());
+        for (TaskType type : TaskType.values()) {
+            assertEquals(type == TaskType.WAIT ? 1 : 0, response.getInt());
+        }
+        assertEquals(1, response.getInt());
+        assertEquals(2, response.getInt());
+        assertEquals(1, response.getInt());
+        assertEquals(1, server.getQueriesServed());
+    }
+}
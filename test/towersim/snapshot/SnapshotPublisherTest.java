@@ -0,0 +1,118 @@
+package towersim.snapshot;
+
+import org.junit.Before;
+import org.junit.Test;
+import towersim.aircraft.Aircraft;
+import towersim.aircraft.AircraftCharacteristics;
+import towersim.aircraft.PassengerAircraft;
+import towersim.control.ControlTower;
+import towersim.ground.AirplaneTerminal;
+import towersim.ground.Gate;
+import towersim.ground.Terminal;
+import towersim.ground.TerminalLayout;
+import towersim.tasks.Task;
+import towersim.tasks.TaskList;
+import towersim.tasks.TaskType;
+import towersim.util.NoSpaceException;
+import towersim.util.NoSuitableGateException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SnapshotPublisherTest {
+    private ControlTower tower;
+    private Terminal terminal;
+    private Terminal layoutTerminal;
+    private Aircraft waiting;
+    private SnapshotPublisher publisher;
+
+    @Before
+    public void setup() throws NoSpaceException, NoSuitableGateException {
+        tower = new ControlTower();
+        terminal = new AirplaneTerminal(1);
+        terminal.addGate(new Gate(1));
+        terminal.addGate(new Gate(2));
+        tower.addTerminal(terminal);
+        Terminal template = new AirplaneTerminal(7);
+        for (int i = 0; i < 4; i++) {
+            template.addGate(new Gate(70 + i));
+        }
+        layoutTerminal = new TerminalLayout(template).newTerminal();
+        tower.addTerminal(layoutTerminal);
+        waiting = new PassengerAircraft("SNP001", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(tasks(TaskType.WAIT, TaskType.TAKEOFF, TaskType.AWAY,
+                        TaskType.LAND)), 1000, 50);
+        tower.addAircraft(waiting);
+        publisher = new SnapshotPublisher(tower);
+    }
+
+    private static List<Task> tasks(TaskType... types) {
+        List<Task> tasks = new ArrayList<>();
+        for (TaskType type : types) {
+            tasks.add(new Task(type));
+        }
+        return tasks;
+    }
+
+    // Tests that publishing does not create the unused gates of a terminal made from a layout
+    @Test
+    public void layoutGatesTest() throws NoSpaceException {
+        layoutTerminal.getGate(2).parkAircraft(new PassengerAircraft("SNP002",
+                AircraftCharacteristics.AIRBUS_A320, null, 0, 0));
+        tower.tick();
+        TerminalSnapshot snapshot = publisher.getSnapshot().getTerminals().get(1);
+        assertEquals(4, snapshot.getGates().size());
+        assertEquals(73, snapshot.getGates().get(3).getGateNumber());
+        assertEquals("SNP002", snapshot.getGates().get(2).getParkedCallsign());
+        assertFalse(snapshot.getGates().get(1).isOccupied());
+        assertEquals(1, snapshot.getNumOccupiedGates());
+        assertEquals(1, layoutTerminal.getNumCreatedGates());
+    }
+
+    // Tests that a tick in which nothing changed copies nothing
+    @Test
+    public void unchangedTest() {
+        TowerSnapshot before = publisher.getSnapshot();
+        long copies = publisher.getCopies();
+        tower.tick();
+        TowerSnapshot after = publisher.getSnapshot();
+        assertEquals(copies, publisher.getCopies());
+        assertSame(before.getAircraft().get(0), after.getAircraft().get(0));
+        assertSame(before.getTerminals().get(0), after.getTerminals().get(0));
+        assertSame(before.getTerminals().get(1), after.getTerminals().get(1));
+    }
+
+    // Tests that only the terminal and gate that changed are copied
+    @Test
+    public void changedGateTest() throws NoSpaceException {
+        TowerSnapshot before = publisher.getSnapshot();
+        terminal.getGate(1).parkAircraft(new PassengerAircraft("SNP003",
+                AircraftCharacteristics.AIRBUS_A320, null, 0, 0));
+        layoutTerminal.declareEmergency();
+        tower.tick();
+        TowerSnapshot after = publisher.getSnapshot();
+        TerminalSnapshot first = after.getTerminals().get(0);
+        assertSame(before.getTerminals().get(0).getGates().get(0), first.getGates().get(0));
+        assertEquals("SNP003", first.getGates().get(1).getParkedCallsign());
+        assertTrue(after.getTerminals().get(1).hasEmergency());
+        assertFalse(before.getTerminals().get(1).hasEmergency());
+        assertFalse(before.getTerminals().get(0).getGates().get(1).isOccupied());
+    }
+
+    // Tests that aircraft added later and aircraft moved to a new task are published
+    @Test
+    public void changedAircraftTest() throws NoSuitableGateException {
+        Aircraft later = new PassengerAircraft("SNP004", AircraftCharacteristics.AIRBUS_A320,
+                new TaskList(tasks(TaskType.WAIT, TaskType.TAKEOFF, TaskType.AWAY,
+                        TaskType.LAND)), 1000, 50);
+        tower.addAircraft(later);
+        waiting.getTaskList().moveToNextTask();
+        tower.tick();
+        TowerSnapshot snapshot = publisher.getSnapshot();
+        assertEquals(2, snapshot.getAircraft().size());
+        assertEquals("SNP004", snapshot.getAircraft().get(1).getCallsign());
+        assertEquals(TaskType.TAKEOFF, snapshot.getAircraft().get(0).getCurrentTask().getType());
+    }
+}